@@ -2,6 +2,7 @@ plugins {
     java
     id("org.springframework.boot") version "3.3.1"
     id("io.spring.dependency-management") version "1.1.5"
+    id("org.graalvm.buildtools.native") version "0.10.2"
 }
 
 group = "com.numa-ochi"
@@ -17,15 +18,20 @@ repositories {
 
 dependencies {
     implementation("org.springframework.boot:spring-boot-starter-validation") // Add validation starter
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
     implementation("org.springframework.boot:spring-boot-starter-data-redis")
     implementation("org.springframework.boot:spring-boot-starter-security")
+    implementation("org.springframework.boot:spring-boot-starter-oauth2-resource-server")
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-websocket")
     implementation("org.springframework.modulith:spring-modulith-starter-core")
     implementation("org.springframework.modulith:spring-modulith-starter-jpa")
     implementation("org.liquibase:liquibase-core")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-cbor")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-smile")
     implementation("com.meilisearch.sdk:meilisearch-java:0.12.0")
+    implementation("org.apache.pdfbox:pdfbox:3.0.2")
     runtimeOnly("org.postgresql:postgresql")
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testImplementation("org.springframework.security:spring-security-test")
@@ -41,3 +47,110 @@ dependencyManagement {
 tasks.withType<Test> {
     useJUnitPlatform()
 }
+
+// Fast startup
+// With the native plugin applied, bootJar contains the Spring AOT output; run it with -Dspring.aot.enabled=true.
+// cdsArchive trains a class data sharing archive on the extracted jar, nativeCompile builds a GraalVM native image,
+// and startupBenchmark reports the time to readiness of each variant that has been built. The training run and the
+// benchmark start the application, so they need the services from docker-compose.yml.
+
+graalvmNative {
+    metadataRepository {
+        enabled.set(true)
+    }
+    binaries {
+        named("main") {
+            imageName.set("numa-ochi")
+        }
+    }
+}
+
+val javaExecutable = File(System.getProperty("java.home"), "bin/java").path
+val cdsDirectory = layout.buildDirectory.dir("cds")
+
+val extractBootJar by tasks.registering(Exec::class) {
+    group = "build"
+    description = "Extracts the boot jar into the layout needed for class data sharing."
+    val bootJar = tasks.bootJar.flatMap { it.archiveFile }
+    inputs.file(bootJar)
+    outputs.dir(cdsDirectory)
+    doFirst {
+        delete(cdsDirectory)
+        commandLine(javaExecutable, "-Djarmode=tools", "-jar", bootJar.get().asFile.path,
+            "extract", "--destination", cdsDirectory.get().asFile.path)
+    }
+}
+
+val cdsArchive by tasks.registering(Exec::class) {
+    group = "build"
+    description = "Creates a class data sharing archive from a training run that exits once the context is refreshed."
+    dependsOn(extractBootJar)
+    val jarName = tasks.bootJar.flatMap { it.archiveFileName }
+    outputs.file(cdsDirectory.map { it.file("application.jsa") })
+    workingDir(cdsDirectory)
+    doFirst {
+        commandLine(javaExecutable, "-XX:ArchiveClassesAtExit=application.jsa", "-Dspring.context.exit=onRefresh",
+            "-Dspring.aot.enabled=true", "-jar", jarName.get())
+    }
+}
+
+tasks.register("startupBenchmark") {
+    group = "verification"
+    description = "Starts each built variant and reports its time to readiness (-Pbenchmark.runs, -Pbenchmark.port)."
+    dependsOn(extractBootJar)
+    doLast {
+        val runs = (findProperty("benchmark.runs") as String? ?: "3").toInt()
+        val port = findProperty("benchmark.port") as String? ?: "18080"
+        val bootJar = tasks.bootJar.get().archiveFile.get().asFile
+        val extractedJar = cdsDirectory.get().file(bootJar.name).asFile
+        val archive = cdsDirectory.get().file("application.jsa").asFile
+        val nativeImage = layout.buildDirectory.file("native/nativeCompile/numa-ochi").get().asFile
+
+        val variants = linkedMapOf(
+            "jar" to listOf(javaExecutable, "-jar", bootJar.path),
+            "aot" to listOf(javaExecutable, "-Dspring.aot.enabled=true", "-jar", extractedJar.path))
+        if (archive.exists()) {
+            variants["aot+cds"] = listOf(javaExecutable, "-XX:SharedArchiveFile=${archive.path}",
+                "-Dspring.aot.enabled=true", "-jar", extractedJar.path)
+        }
+        if (nativeImage.exists()) {
+            variants["native"] = listOf(nativeImage.path)
+        }
+
+        val client = java.net.http.HttpClient.newHttpClient()
+        val readiness = java.net.http.HttpRequest.newBuilder(
+            java.net.URI.create("http://localhost:$port/actuator/health/readiness")).build()
+        val timeout = java.time.Duration.ofMinutes(2).toNanos()
+        for ((name, command) in variants) {
+            val times = (1..runs).map {
+                val start = System.nanoTime()
+                val process = ProcessBuilder(command + listOf("--server.port=$port", "--warmup.enabled=false"))
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start()
+                try {
+                    while (true) {
+                        check(process.isAlive) { "$name exited with code ${process.exitValue()} before it was ready" }
+                        check(System.nanoTime() - start < timeout) { "$name was not ready within 2 minutes" }
+                        val status = try {
+                            client.send(readiness, java.net.http.HttpResponse.BodyHandlers.discarding()).statusCode()
+                        } catch (e: java.io.IOException) {
+                            -1
+                        }
+                        if (status == 200) {
+                            break
+                        }
+                        Thread.sleep(20)
+                    }
+                    (System.nanoTime() - start) / 1_000_000
+                } finally {
+                    process.destroy()
+                    process.waitFor()
+                }
+            }.sorted()
+            logger.lifecycle(String.format("%-8s ready in min %6d ms, median %6d ms, max %6d ms",
+                name, times.first(), times[times.size / 2], times.last()))
+        }
+    }
+}
+
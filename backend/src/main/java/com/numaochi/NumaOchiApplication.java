@@ -2,8 +2,10 @@ package com.numaochi;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class NumaOchiApplication {
 
     public static void main(String[] args) {
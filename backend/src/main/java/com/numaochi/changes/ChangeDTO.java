@@ -0,0 +1,19 @@
+package com.numaochi.changes;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/**
+ * One change in the feed: an upsert carrying the current state of an entity, or a tombstone for a deleted one.
+ *
+ * @param position  the position of the change in the feed.
+ * @param type      the type of the entity: {@code series}, {@code volume}, {@code chapter} or {@code collection}.
+ * @param id        the ID of the entity.
+ * @param deleted   {@code true} for a tombstone.
+ * @param changedAt when the change was made.
+ * @param data      the current state of the entity, absent for a tombstone.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ChangeDTO(long position, String type, Long id, boolean deleted, Instant changedAt, Object data) {
+}
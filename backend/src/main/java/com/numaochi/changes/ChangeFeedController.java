@@ -0,0 +1,54 @@
+package com.numaochi.changes;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+
+/**
+ * REST controller for the change feed used by clients that sync the library incrementally.
+ */
+@RestController
+@RequestMapping("/api/changes")
+public class ChangeFeedController {
+
+    private final ChangeFeedService changeFeedService;
+    private final ChangeFeedNotifier notifier;
+    private final ChangeFeedProperties properties;
+
+    public ChangeFeedController(ChangeFeedService changeFeedService, ChangeFeedNotifier notifier,
+            ChangeFeedProperties properties) {
+        this.changeFeedService = changeFeedService;
+        this.notifier = notifier;
+        this.properties = properties;
+    }
+
+    /**
+     * Retrieves the changes after a position. A client starts from position 0, which returns the whole library, and
+     * then passes the {@code next} position of each page to the following request. With {@code wait}, a request that
+     * finds no changes is held open until changes arrive or the wait elapses. Answers with 410 Gone when the
+     * position is too old, in which case the client must sync from position 0 again.
+     *
+     * @param since the position of the last change the client has seen.
+     * @param limit the maximum number of log entries to read, at most {@code changes.max-limit}.
+     * @param wait  the number of seconds to wait for changes, at most {@code changes.max-wait}.
+     * @return the page of changes.
+     */
+    @GetMapping
+    public DeferredResult<ChangePageDTO> getChanges(@RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "100") int limit, @RequestParam(defaultValue = "0") long wait) {
+        int pageSize = Math.max(1, Math.min(limit, properties.maxLimit()));
+        ChangePageDTO page = changeFeedService.getChanges(Math.max(since, 0), pageSize);
+        if (page.next() > since || wait <= 0) {
+            DeferredResult<ChangePageDTO> result = new DeferredResult<>();
+            result.setResult(page);
+            return result;
+        }
+        Duration timeout = Duration.ofSeconds(wait);
+        return notifier.await(page.next(), pageSize,
+                timeout.compareTo(properties.maxWait()) > 0 ? properties.maxWait() : timeout);
+    }
+}
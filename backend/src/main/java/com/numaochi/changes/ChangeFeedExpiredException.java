@@ -0,0 +1,20 @@
+package com.numaochi.changes;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a client asks for changes after a position older than the compacted tombstones, so that deletions may
+ * be missing and the client must sync from position 0 again.
+ */
+@ResponseStatus(HttpStatus.GONE)
+public class ChangeFeedExpiredException extends RuntimeException {
+
+    /**
+     * Constructs a new ChangeFeedExpiredException with the given message.
+     * @param message the detail message.
+     */
+    public ChangeFeedExpiredException(String message) {
+        super(message);
+    }
+}
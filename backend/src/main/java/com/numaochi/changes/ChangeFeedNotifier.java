@@ -0,0 +1,72 @@
+package com.numaochi.changes;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds long-poll requests for the change feed until changes after their position are sequenced or they time out.
+ */
+@Component
+public class ChangeFeedNotifier {
+
+    private final ChangeFeedService changeFeedService;
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+
+    public ChangeFeedNotifier(ChangeFeedService changeFeedService) {
+        this.changeFeedService = changeFeedService;
+    }
+
+    /**
+     * Waits for changes after a position.
+     *
+     * @param since   the position of the last change the client has seen.
+     * @param limit   the maximum number of log entries to read once changes arrive.
+     * @param timeout how long to wait; afterwards an empty page is returned.
+     * @return the pending page of changes.
+     */
+    public DeferredResult<ChangePageDTO> await(long since, int limit, Duration timeout) {
+        DeferredResult<ChangePageDTO> result = new DeferredResult<>(timeout.toMillis(),
+                new ChangePageDTO(List.of(), since, false));
+        Waiter waiter = new Waiter(since, limit, result);
+        result.onCompletion(() -> waiters.remove(waiter));
+        waiters.add(waiter);
+        return result;
+    }
+
+    /**
+     * Answers the waiting requests that are behind a position. Requests waiting from the same position with the same
+     * limit, such as clients that are all up to date, are answered from a single read of the feed.
+     *
+     * @param lastPosition the highest position in the feed.
+     */
+    public void notifyWaiters(long lastPosition) {
+        Map<Page, List<Waiter>> behind = new HashMap<>();
+        for (Waiter waiter : waiters) {
+            if (waiter.since() < lastPosition && waiters.remove(waiter)) {
+                behind.computeIfAbsent(new Page(waiter.since(), waiter.limit()), page -> new ArrayList<>()).add(waiter);
+            }
+        }
+        behind.forEach((page, group) -> {
+            try {
+                ChangePageDTO changes = changeFeedService.getChanges(page.since(), page.limit());
+                group.forEach(waiter -> waiter.result().setResult(changes));
+            } catch (RuntimeException e) {
+                group.forEach(waiter -> waiter.result().setErrorResult(e));
+            }
+        });
+    }
+
+    private record Page(long since, int limit) {
+    }
+
+    private record Waiter(long since, int limit, DeferredResult<ChangePageDTO> result) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.numaochi.changes;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the change feed.
+ *
+ * @param maxLimit           the maximum number of changes per page.
+ * @param maxWait            the longest a long-poll request may wait for changes.
+ * @param compactAfter       the age after which changes superseded by a later change of the same entity are removed.
+ * @param tombstoneRetention the age after which tombstones are removed; clients that last synced before must sync
+ *                           from scratch.
+ */
+@ConfigurationProperties(prefix = "changes")
+public record ChangeFeedProperties(
+        @DefaultValue("1000") int maxLimit,
+        @DefaultValue("60s") Duration maxWait,
+        @DefaultValue("1d") Duration compactAfter,
+        @DefaultValue("30d") Duration tombstoneRetention) {
+}
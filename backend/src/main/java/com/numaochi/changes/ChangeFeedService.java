@@ -0,0 +1,186 @@
+package com.numaochi.changes;
+
+import com.numaochi.chapter.ChapterDTO;
+import com.numaochi.chapter.ChapterService;
+import com.numaochi.collection.CollectionDTO;
+import com.numaochi.collection.CollectionService;
+import com.numaochi.series.SeriesDTO;
+import com.numaochi.series.SeriesService;
+import com.numaochi.volume.VolumeDTO;
+import com.numaochi.volume.VolumeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Service for reading the change feed, which lets clients keep a local copy of the library in sync by fetching only
+ * what changed since their last sync.
+ * <p>
+ * Database triggers record every write to series, volumes, chapters and collections in the change log.
+ * {@link #sequence()} gives the recorded entries their position in the feed, and {@link #compact()} removes entries
+ * that later changes made redundant.
+ */
+@Service
+@EnableConfigurationProperties(ChangeFeedProperties.class)
+public class ChangeFeedService {
+
+    static final String SERIES = "series";
+    static final String VOLUME = "volume";
+    static final String CHAPTER = "chapter";
+    static final String COLLECTION = "collection";
+
+    private final ChangeLogRepository changeLogRepository;
+    private final SeriesService seriesService;
+    private final VolumeService volumeService;
+    private final ChapterService chapterService;
+    private final CollectionService collectionService;
+    private final ChangeFeedProperties properties;
+    private final Clock clock;
+
+    @Autowired
+    public ChangeFeedService(ChangeLogRepository changeLogRepository, SeriesService seriesService,
+            VolumeService volumeService, ChapterService chapterService, CollectionService collectionService,
+            ChangeFeedProperties properties) {
+        this(changeLogRepository, seriesService, volumeService, chapterService, collectionService, properties,
+                Clock.systemUTC());
+    }
+
+    ChangeFeedService(ChangeLogRepository changeLogRepository, SeriesService seriesService,
+            VolumeService volumeService, ChapterService chapterService, CollectionService collectionService,
+            ChangeFeedProperties properties, Clock clock) {
+        this.changeLogRepository = changeLogRepository;
+        this.seriesService = seriesService;
+        this.volumeService = volumeService;
+        this.chapterService = chapterService;
+        this.collectionService = collectionService;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * Retrieves the changes after a position. Each changed entity appears once, with its current state or as a
+     * tombstone if it was deleted, at the position of its latest change within the page.
+     *
+     * @param since the position of the last change the client has seen, or 0 to sync from scratch.
+     * @param limit the maximum number of log entries to read.
+     * @return the page of changes.
+     * @throws ChangeFeedExpiredException if tombstones after the position have been compacted away.
+     */
+    @Transactional(readOnly = true)
+    public ChangePageDTO getChanges(long since, int limit) {
+        long horizon = changeLogRepository.findHorizon();
+        if (since > 0 && since < horizon) {
+            throw new ChangeFeedExpiredException("Changes before position " + horizon
+                    + " are no longer available, sync again from position 0");
+        }
+        List<ChangeLogEntry> entries = changeLogRepository.findByPositionGreaterThanOrderByPosition(since,
+                Limit.of(limit + 1));
+        boolean hasMore = entries.size() > limit;
+        if (hasMore) {
+            entries = entries.subList(0, limit);
+        }
+        if (entries.isEmpty()) {
+            return new ChangePageDTO(List.of(), since, false);
+        }
+
+        // Keep only the latest entry of each entity, in the order of those latest entries.
+        Map<EntityKey, ChangeLogEntry> latest = new LinkedHashMap<>();
+        for (ChangeLogEntry entry : entries) {
+            EntityKey key = new EntityKey(entry.getEntityType(), entry.getEntityId());
+            latest.remove(key);
+            latest.put(key, entry);
+        }
+
+        Map<String, List<Long>> idsByType = new HashMap<>();
+        for (ChangeLogEntry entry : latest.values()) {
+            if (!entry.isDeleted()) {
+                idsByType.computeIfAbsent(entry.getEntityType(), type -> new ArrayList<>()).add(entry.getEntityId());
+            }
+        }
+        Map<EntityKey, Object> payloads = new HashMap<>();
+        idsByType.forEach((type, ids) ->
+                load(type, ids).forEach((id, data) -> payloads.put(new EntityKey(type, id), data)));
+
+        List<ChangeDTO> changes = new ArrayList<>(latest.size());
+        latest.forEach((key, entry) -> {
+            Object data = payloads.get(key);
+            // An entity deleted after this page was read is skipped; its tombstone follows in a later page.
+            if (entry.isDeleted() || data != null) {
+                changes.add(new ChangeDTO(entry.getPosition(), key.type(), key.id(), entry.isDeleted(),
+                        entry.getChangedAt(), data));
+            }
+        });
+        return new ChangePageDTO(changes, entries.get(entries.size() - 1).getPosition(), hasMore);
+    }
+
+    /**
+     * Retrieves the highest position in the feed.
+     *
+     * @return the last position, or 0 if the feed is empty.
+     */
+    @Transactional(readOnly = true)
+    public long getLastPosition() {
+        return changeLogRepository.findLastPosition();
+    }
+
+    /**
+     * Assigns feed positions to the recorded changes of every transaction older than all running transactions.
+     * Only one instance sequences at a time; the others return immediately.
+     *
+     * @return the number of changes that received a position.
+     */
+    @Transactional
+    public int sequence() {
+        if (!changeLogRepository.tryLockSequencer()) {
+            return 0;
+        }
+        return changeLogRepository.assignPositions();
+    }
+
+    /**
+     * Removes changes older than {@code changes.compact-after} that a later change of the same entity supersedes, and
+     * tombstones older than {@code changes.tombstone-retention}.
+     *
+     * @return the number of removed changes.
+     */
+    @Transactional
+    public int compact() {
+        Instant now = clock.instant();
+        int removed = changeLogRepository.deleteSupersededBefore(now.minus(properties.compactAfter()));
+        Instant tombstoneCutoff = now.minus(properties.tombstoneRetention());
+        changeLogRepository.advanceHorizon(tombstoneCutoff);
+        return removed + changeLogRepository.deleteTombstonesBefore(tombstoneCutoff);
+    }
+
+    private Map<Long, Object> load(String type, List<Long> ids) {
+        return switch (type) {
+            case SERIES -> index(seriesService.getSeriesByIds(ids), SeriesDTO::getId);
+            case VOLUME -> index(volumeService.getVolumesByIds(ids), VolumeDTO::getId);
+            case CHAPTER -> index(chapterService.getChaptersByIds(ids), ChapterDTO::getId);
+            case COLLECTION -> index(collectionService.getCollectionsByIds(ids), CollectionDTO::getId);
+            default -> Map.of();
+        };
+    }
+
+    private static <T> Map<Long, Object> index(List<T> items, Function<T, Long> id) {
+        Map<Long, Object> index = new HashMap<>();
+        for (T item : items) {
+            index.put(id.apply(item), item);
+        }
+        return index;
+    }
+
+    private record EntityKey(String type, Long id) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.numaochi.changes;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically removes change log entries that later changes made redundant.
+ */
+@Component
+public class ChangeLogCompactor {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeLogCompactor.class);
+
+    private final ChangeFeedService changeFeedService;
+
+    public ChangeLogCompactor(ChangeFeedService changeFeedService) {
+        this.changeFeedService = changeFeedService;
+    }
+
+    /**
+     * Compacts the change log every {@code changes.compaction-interval}.
+     */
+    @Scheduled(fixedDelayString = "${changes.compaction-interval:PT1H}")
+    public void compact() {
+        int removed = changeFeedService.compact();
+        if (removed > 0) {
+            log.info("Compacted {} change log entries", removed);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.numaochi.changes;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository for the {@link ChangeLogEntry} entries of the change feed.
+ */
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+
+    /**
+     * Finds the sequenced entries after a position.
+     *
+     * @param position the position to read after.
+     * @param limit    the maximum number of entries.
+     * @return the entries, in feed order.
+     */
+    List<ChangeLogEntry> findByPositionGreaterThanOrderByPosition(Long position, Limit limit);
+
+    /**
+     * Finds the highest position assigned so far.
+     *
+     * @return the last position, or 0 if no entry has a position yet.
+     */
+    @Query("select coalesce(max(c.position), 0) from ChangeLogEntry c")
+    long findLastPosition();
+
+    /**
+     * Takes the sequencer lock for the current transaction, unless another transaction holds it.
+     *
+     * @return {@code true} if the lock was taken.
+     */
+    @Query(value = "select pg_try_advisory_xact_lock(hashtext('change_log_sequencer'))", nativeQuery = true)
+    boolean tryLockSequencer();
+
+    /**
+     * Assigns feed positions to the entries of every transaction older than all running transactions, in
+     * transaction order. Entries of transactions still running, or that started before one still running, wait, so
+     * that no entry is ever given a position below one a client may already have read.
+     *
+     * @return the number of entries that received a position.
+     */
+    @Modifying
+    @Query(value = """
+            update change_log c set position = pending.position
+            from (
+                select id, nextval('change_log_position_seq') as position
+                from (
+                    select id from change_log
+                    where position is null and transaction_id < pg_snapshot_xmin(pg_current_snapshot())
+                    order by transaction_id, id
+                ) ordered
+            ) pending
+            where c.id = pending.id""", nativeQuery = true)
+    int assignPositions();
+
+    /**
+     * Finds the position before which tombstones were compacted away.
+     *
+     * @return the horizon position.
+     */
+    @Query(value = "select position from change_log_horizon where id = 1", nativeQuery = true)
+    long findHorizon();
+
+    /**
+     * Deletes entries older than a cutoff that a later entry of the same entity supersedes.
+     *
+     * @param cutoff the time before which entries are compacted.
+     * @return the number of deleted entries.
+     */
+    @Modifying
+    @Query(value = """
+            delete from change_log c
+            where c.position is not null and c.changed_at < :cutoff
+            and exists (select 1 from change_log n
+                        where n.entity_type = c.entity_type and n.entity_id = c.entity_id and n.position > c.position)""",
+            nativeQuery = true)
+    int deleteSupersededBefore(@Param("cutoff") Instant cutoff);
+
+    /**
+     * Moves the horizon past the tombstones older than a cutoff.
+     *
+     * @param cutoff the time before which tombstones are removed.
+     * @return the number of updated rows.
+     */
+    @Modifying
+    @Query(value = """
+            update change_log_horizon set position = greatest(position, coalesce(
+                (select max(position) from change_log where deleted and position is not null and changed_at < :cutoff),
+                0))
+            where id = 1""", nativeQuery = true)
+    int advanceHorizon(@Param("cutoff") Instant cutoff);
+
+    /**
+     * Deletes the tombstones older than a cutoff.
+     *
+     * @param cutoff the time before which tombstones are removed.
+     * @return the number of deleted entries.
+     */
+    @Modifying
+    @Query(value = "delete from change_log where deleted and position is not null and changed_at < :cutoff",
+            nativeQuery = true)
+    int deleteTombstonesBefore(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,29 @@
+package com.numaochi.changes;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically gives recorded changes their position in the feed and answers the long-poll requests waiting for them.
+ */
+@Component
+public class ChangeLogSequencer {
+
+    private final ChangeFeedService changeFeedService;
+    private final ChangeFeedNotifier notifier;
+
+    public ChangeLogSequencer(ChangeFeedService changeFeedService, ChangeFeedNotifier notifier) {
+        this.changeFeedService = changeFeedService;
+        this.notifier = notifier;
+    }
+
+    /**
+     * Sequences the pending changes every {@code changes.sequence-interval}. Waiting requests are answered whenever
+     * the feed has advanced past them, including when another instance did the sequencing.
+     */
+    @Scheduled(fixedDelayString = "${changes.sequence-interval:PT1S}")
+    public void sequence() {
+        changeFeedService.sequence();
+        notifier.notifyWaiters(changeFeedService.getLastPosition());
+    }
+}
@@ -0,0 +1,13 @@
+package com.numaochi.changes;
+
+import java.util.List;
+
+/**
+ * A page of the change feed.
+ *
+ * @param changes the changes after the requested position, with only the latest change of each entity.
+ * @param next    the position to request the next page with.
+ * @param hasMore {@code true} if more changes can be read right away.
+ */
+public record ChangePageDTO(List<ChangeDTO> changes, long next, boolean hasMore) {
+}
@@ -6,11 +6,18 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.time.Instant;
 
 /**
  * Represents a chapter of a series.
  */
 @Entity
+@DynamicUpdate
 public class Chapter {
 
     @Id
@@ -20,6 +27,12 @@ public class Chapter {
     private String title;
     private String filePath;
     private String fileType; // PDF, EPUB, MOBI, etc.
+    private String contentHash;
+
+    @Version
+    private Long version;
+
+    private Instant updatedAt;
 
     @ManyToOne
     private Series series;
@@ -63,4 +76,34 @@ public class Chapter {
     public void setSeries(Series series) {
         this.series = series;
     }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now();
+    }
 }
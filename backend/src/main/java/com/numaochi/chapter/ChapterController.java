@@ -1,6 +1,10 @@
 package com.numaochi.chapter;
 
+import com.numaochi.common.BatchDTO;
+import com.numaochi.common.ConditionalRequests;
+import com.numaochi.common.MergePatch;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -19,25 +23,57 @@ public class ChapterController {
 
     /**
      * Retrieves all chapters.
+     * Answers with 304 Not Modified when the client's copy is still current.
      *
+     * @param request the current request, used to evaluate conditional headers.
      * @return a list of all chapters.
      */
     @GetMapping
-    public List<ChapterDTO> getAllChapters() {
+    public List<ChapterDTO> getAllChapters(WebRequest request) {
+        if (ConditionalRequests.isNotModified(request, chapterService.getChapterListVersion())) {
+            return null;
+        }
         return chapterService.getAllChapters();
     }
 
     /**
      * Retrieves a chapter by its ID.
+     * Answers with 304 Not Modified, without loading the chapter, when the client's copy is still current.
      *
-     * @param id the ID of the chapter to retrieve.
+     * @param id      the ID of the chapter to retrieve.
+     * @param request the current request, used to evaluate conditional headers.
      * @return the chapter with the specified ID.
      */
     @GetMapping("/{id}")
-    public ChapterDTO getChapterById(@PathVariable Long id) {
+    public ChapterDTO getChapterById(@PathVariable Long id, WebRequest request) {
+        if (ConditionalRequests.isNotModified(request, chapterService.getChapterVersion(id))) {
+            return null;
+        }
         return chapterService.getChapterById(id);
     }
 
+    /**
+     * Retrieves many chapters by their IDs in one request, for example {@code /batch?ids=3,1,2}.
+     *
+     * @param ids the IDs of the chapters, at most {@value BatchDTO#MAX_IDS}.
+     * @return the chapters found in request order, and the IDs that were not found.
+     */
+    @GetMapping("/batch")
+    public BatchDTO<ChapterDTO> getChapterBatch(@RequestParam List<Long> ids) {
+        return chapterService.getChapterBatch(ids);
+    }
+
+    /**
+     * Retrieves many chapters by the IDs in the request body, for ID lists too long for a query string.
+     *
+     * @param ids the IDs of the chapters, at most {@value BatchDTO#MAX_IDS}.
+     * @return the chapters found in request order, and the IDs that were not found.
+     */
+    @PostMapping("/batch")
+    public BatchDTO<ChapterDTO> getChapterBatchByPost(@RequestBody List<Long> ids) {
+        return chapterService.getChapterBatch(ids);
+    }
+
     /**
      * Creates a new chapter.
      *
@@ -51,16 +87,38 @@ public class ChapterController {
 
     /**
      * Updates an existing chapter.
+     * An {@code If-Match} header makes the update conditional on the chapter not having changed since it was read.
      *
      * @param id         the ID of the chapter to update.
      * @param chapterDTO the updated chapter data.
+     * @param ifMatch    the optional entity tag the client expects the chapter to have.
      * @return the updated chapter.
      */
     @PutMapping("/{id}")
-    public ChapterDTO updateChapter(@PathVariable Long id, @RequestBody ChapterDTO chapterDTO) {
+    public ChapterDTO updateChapter(@PathVariable Long id, @RequestBody ChapterDTO chapterDTO,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        Long expectedVersion = ConditionalRequests.expectedVersion(ifMatch);
+        if (expectedVersion != null) {
+            chapterDTO.setVersion(expectedVersion);
+        }
         return chapterService.updateChapter(id, chapterDTO);
     }
 
+    /**
+     * Partially updates an existing chapter with a JSON Merge Patch ({@code application/merge-patch+json}).
+     * Fields absent from the patch are left untouched.
+     *
+     * @param id      the ID of the chapter to patch.
+     * @param patch   the merge patch to apply.
+     * @param ifMatch the optional entity tag the client expects the chapter to have.
+     * @return the patched chapter.
+     */
+    @PatchMapping("/{id}")
+    public ChapterDTO patchChapter(@PathVariable Long id, @RequestBody MergePatch patch,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        return chapterService.patchChapter(id, patch, ConditionalRequests.expectedVersion(ifMatch));
+    }
+
     /**
      * Deletes a chapter by its ID.
      *
@@ -9,7 +9,9 @@ public class ChapterDTO {
     private String title;
     private String filePath;
     private String fileType;
+    private String contentHash;
     private Long seriesId;
+    private Long version;
 
     public Long getId() {
         return id;
@@ -43,6 +45,14 @@ public class ChapterDTO {
         this.fileType = fileType;
     }
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
     public Long getSeriesId() {
         return seriesId;
     }
@@ -50,4 +60,12 @@ public class ChapterDTO {
     public void setSeriesId(Long seriesId) {
         this.seriesId = seriesId;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,48 @@
+package com.numaochi.chapter;
+
+import com.numaochi.common.PageDTO;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for navigating from a series or a volume to its chapters.
+ */
+@RestController
+@RequestMapping("/api")
+public class ChapterNavigationController {
+
+    private final ChapterService chapterService;
+
+    public ChapterNavigationController(ChapterService chapterService) {
+        this.chapterService = chapterService;
+    }
+
+    /**
+     * Retrieves one page of the chapters belonging to a series.
+     *
+     * @param seriesId the ID of the series.
+     * @param page     the zero-based page number.
+     * @param size     the page size.
+     * @return a page of chapters of the series.
+     */
+    @GetMapping("/series/{seriesId}/chapters")
+    public PageDTO<ChapterDTO> getChaptersBySeries(@PathVariable Long seriesId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return chapterService.getChaptersBySeriesId(seriesId, page, size);
+    }
+
+    /**
+     * Retrieves one page of the chapters contained in a volume.
+     *
+     * @param volumeId the ID of the volume.
+     * @param page     the zero-based page number.
+     * @param size     the page size.
+     * @return a page of chapters of the volume.
+     */
+    @GetMapping("/volumes/{volumeId}/chapters")
+    public PageDTO<ChapterDTO> getChaptersByVolume(@PathVariable Long volumeId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return chapterService.getChaptersByVolumeId(volumeId, page, size);
+    }
+}
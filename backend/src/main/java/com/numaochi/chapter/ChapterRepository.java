@@ -1,9 +1,69 @@
 package com.numaochi.chapter;
 
+import com.numaochi.common.ResourceVersion;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository for managing {@link Chapter} entities.
  */
 public interface ChapterRepository extends JpaRepository<Chapter, Long> {
+
+    /**
+     * Finds the chapters belonging to a series.
+     *
+     * @param seriesId the ID of the series.
+     * @param pageable the page to retrieve.
+     * @return a page of chapters of the series.
+     */
+    @Transactional(readOnly = true)
+    Page<Chapter> findBySeriesId(Long seriesId, Pageable pageable);
+
+    /**
+     * Finds the chapters contained in a volume.
+     *
+     * @param volumeId the ID of the volume.
+     * @param pageable the page to retrieve.
+     * @return a page of chapters of the volume.
+     */
+    @Transactional(readOnly = true)
+    @Query(value = "select c from Chapter c where c.id in (select vc.id from Volume v join v.chapters vc where v.id = :volumeId)",
+            countQuery = "select count(c) from Chapter c where c.id in (select vc.id from Volume v join v.chapters vc where v.id = :volumeId)")
+    Page<Chapter> findByVolumeId(@Param("volumeId") Long volumeId, Pageable pageable);
+
+    /**
+     * Finds the version information of a chapter without loading the entity.
+     *
+     * @param id the ID of the chapter.
+     * @return an {@link Optional} containing the version if the chapter exists, or empty otherwise.
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.numaochi.common.ResourceVersion(c.version, c.updatedAt) from Chapter c where c.id = :id")
+    Optional<ResourceVersion> findResourceVersionById(@Param("id") Long id);
+
+    /**
+     * Computes an aggregate version over all chapters, which changes whenever one is created, updated or deleted.
+     *
+     * @return the aggregate version of the chapter list.
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.numaochi.common.ResourceVersion(count(c) + coalesce(sum(c.version), 0), max(c.updatedAt)) from Chapter c")
+    ResourceVersion findListResourceVersion();
+
+    /**
+     * Finds the chapters with the given IDs in one query, binding all IDs as a single array parameter.
+     *
+     * @param ids the IDs of the chapters.
+     * @return the chapters that exist, in no particular order.
+     */
+    @Transactional(readOnly = true)
+    @Query(value = "select * from chapter where id = any(:ids)", nativeQuery = true)
+    List<Chapter> findAllByIds(@Param("ids") Long[] ids);
 }
@@ -1,10 +1,17 @@
 package com.numaochi.chapter;
 
+import com.numaochi.common.BatchDTO;
+import com.numaochi.common.ConditionalRequests;
+import com.numaochi.common.MergePatch;
+import com.numaochi.common.PageDTO;
+import com.numaochi.common.ResourceVersion;
 import com.numaochi.series.Series;
 import com.numaochi.series.SeriesRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -26,6 +33,7 @@ public class ChapterService {
      *
      * @return a list of all chapters.
      */
+    @Transactional(readOnly = true)
     public List<ChapterDTO> getAllChapters() {
         return chapterRepository.findAll().stream().map(this::convertToDto).collect(Collectors.toList());
     }
@@ -36,10 +44,83 @@ public class ChapterService {
      * @param id the ID of the chapter to retrieve.
      * @return the chapter with the specified ID, or {@code null} if not found.
      */
+    @Transactional(readOnly = true)
     public ChapterDTO getChapterById(Long id) {
         return chapterRepository.findById(id).map(this::convertToDto).orElse(null);
     }
 
+    /**
+     * Retrieves several chapters by their IDs with one query.
+     *
+     * @param ids the IDs of the chapters.
+     * @return the chapters that exist, in no particular order.
+     */
+    @Transactional(readOnly = true)
+    public List<ChapterDTO> getChaptersByIds(List<Long> ids) {
+        return chapterRepository.findAllByIds(ids.toArray(Long[]::new)).stream().map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Retrieves many chapters by their IDs with one query, for clients that would otherwise fetch them one by one.
+     *
+     * @param ids the IDs of the chapters; duplicates are returned once.
+     * @return the chapters found in request order, and the IDs that were not found.
+     * @throws com.numaochi.common.BatchTooLargeException if more than {@link BatchDTO#MAX_IDS} IDs are requested.
+     */
+    @Transactional(readOnly = true)
+    public BatchDTO<ChapterDTO> getChapterBatch(List<Long> ids) {
+        List<Long> distinct = BatchDTO.distinctIds(ids);
+        return BatchDTO.of(distinct, getChaptersByIds(distinct), ChapterDTO::getId);
+    }
+
+    /**
+     * Retrieves one page of the chapters belonging to a series, ordered by ID.
+     *
+     * @param seriesId the ID of the series.
+     * @param page     the zero-based page number.
+     * @param size     the page size.
+     * @return a page of chapters of the series.
+     */
+    @Transactional(readOnly = true)
+    public PageDTO<ChapterDTO> getChaptersBySeriesId(Long seriesId, int page, int size) {
+        return PageDTO.of(chapterRepository.findBySeriesId(seriesId, PageDTO.request(page, size)), this::convertToDto);
+    }
+
+    /**
+     * Retrieves one page of the chapters contained in a volume, ordered by ID.
+     *
+     * @param volumeId the ID of the volume.
+     * @param page     the zero-based page number.
+     * @param size     the page size.
+     * @return a page of chapters of the volume.
+     */
+    @Transactional(readOnly = true)
+    public PageDTO<ChapterDTO> getChaptersByVolumeId(Long volumeId, int page, int size) {
+        return PageDTO.of(chapterRepository.findByVolumeId(volumeId, PageDTO.request(page, size)), this::convertToDto);
+    }
+
+    /**
+     * Retrieves the version information of a chapter without loading it.
+     *
+     * @param id the ID of the chapter.
+     * @return the version of the chapter, or {@code null} if not found.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getChapterVersion(Long id) {
+        return chapterRepository.findResourceVersionById(id).orElse(null);
+    }
+
+    /**
+     * Retrieves the aggregate version of the chapter list.
+     *
+     * @return the version of the chapter list.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getChapterListVersion() {
+        return chapterRepository.findListResourceVersion();
+    }
+
     /**
      * Creates a new chapter.
      *
@@ -56,14 +137,56 @@ public class ChapterService {
      *
      * @param id         the ID of the chapter to update.
      * @param chapterDTO the updated chapter data.
-     * @return the updated chapter.
+     * @return the updated chapter, or {@code null} if not found.
      */
+    @Transactional
     public ChapterDTO updateChapter(Long id, ChapterDTO chapterDTO) {
         Chapter chapter = convertToEntity(chapterDTO);
         chapter.setId(id);
+        if (chapter.getVersion() == null) {
+            Long version = chapterRepository.findResourceVersionById(id).map(ResourceVersion::version).orElse(null);
+            if (version == null) {
+                return null;
+            }
+            chapter.setVersion(version);
+        }
         return convertToDto(chapterRepository.save(chapter));
     }
 
+    /**
+     * Applies a JSON Merge Patch to an existing chapter.
+     * Only the changed columns are written, and the series is only referenced when the patch mentions it.
+     *
+     * @param id              the ID of the chapter to patch.
+     * @param patch           the merge patch to apply.
+     * @param expectedVersion the version the client expects the chapter to have, or {@code null}.
+     * @return the patched chapter, or {@code null} if not found.
+     */
+    @Transactional
+    public ChapterDTO patchChapter(Long id, MergePatch patch, Long expectedVersion) {
+        Chapter chapter = chapterRepository.findById(id).orElse(null);
+        if (chapter == null) {
+            return null;
+        }
+        ConditionalRequests.requireVersion(Chapter.class, id, chapter.getVersion(), expectedVersion);
+        boolean changed = patch.apply("title", String.class, chapter::getTitle, chapter::setTitle)
+                | patch.apply("filePath", String.class, chapter::getFilePath, chapter::setFilePath)
+                | patch.apply("fileType", String.class, chapter::getFileType, chapter::setFileType)
+                | patch.apply("contentHash", String.class, chapter::getContentHash, chapter::setContentHash);
+        if (patch.has("seriesId")) {
+            Long seriesId = patch.get("seriesId", Long.class);
+            Long currentSeriesId = chapter.getSeries() != null ? chapter.getSeries().getId() : null;
+            if (!Objects.equals(seriesId, currentSeriesId)) {
+                chapter.setSeries(seriesId != null ? seriesRepository.getReferenceById(seriesId) : null);
+                changed = true;
+            }
+        }
+        if (changed) {
+            chapterRepository.flush();
+        }
+        return convertToDto(chapter);
+    }
+
     /**
      * Deletes a chapter by its ID.
      *
@@ -82,9 +205,11 @@ public class ChapterService {
     private ChapterDTO convertToDto(Chapter chapter) {
         ChapterDTO chapterDTO = new ChapterDTO();
         chapterDTO.setId(chapter.getId());
+        chapterDTO.setVersion(chapter.getVersion());
         chapterDTO.setTitle(chapter.getTitle());
         chapterDTO.setFilePath(chapter.getFilePath());
         chapterDTO.setFileType(chapter.getFileType());
+        chapterDTO.setContentHash(chapter.getContentHash());
         if (chapter.getSeries() != null) {
             chapterDTO.setSeriesId(chapter.getSeries().getId());
         }
@@ -100,9 +225,11 @@ public class ChapterService {
     private Chapter convertToEntity(ChapterDTO chapterDTO) {
         Chapter chapter = new Chapter();
         chapter.setId(chapterDTO.getId());
+        chapter.setVersion(chapterDTO.getVersion());
         chapter.setTitle(chapterDTO.getTitle());
         chapter.setFilePath(chapterDTO.getFilePath());
         chapter.setFileType(chapterDTO.getFileType());
+        chapter.setContentHash(chapterDTO.getContentHash());
         if (chapterDTO.getSeriesId() != null) {
             Series series = seriesRepository.findById(chapterDTO.getSeriesId()).orElse(null);
             chapter.setSeries(series);
@@ -3,6 +3,7 @@ package com.numaochi.collection;
 import com.numaochi.series.Series;
 import jakarta.persistence.*;
 
+import java.time.Instant;
 import java.util.List;
 
 /**
@@ -17,6 +18,13 @@ public class Collection {
 
     private String name;
 
+    private String rule;
+
+    @Version
+    private Long version;
+
+    private Instant updatedAt;
+
     @ManyToMany
     private List<Series> series;
 
@@ -36,6 +44,14 @@ public class Collection {
         this.name = name;
     }
 
+    public String getRule() {
+        return rule;
+    }
+
+    public void setRule(String rule) {
+        this.rule = rule;
+    }
+
     public List<Series> getSeries() {
         return series;
     }
@@ -43,4 +59,26 @@ public class Collection {
     public void setSeries(List<Series> series) {
         this.series = series;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now();
+    }
 }
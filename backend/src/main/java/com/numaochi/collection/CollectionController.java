@@ -1,6 +1,8 @@
 package com.numaochi.collection;
 
+import com.numaochi.common.ConditionalRequests;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -19,22 +21,32 @@ public class CollectionController {
 
     /**
      * Retrieves all collections.
+     * Answers with 304 Not Modified when the client's copy is still current.
      *
+     * @param request the current request, used to evaluate conditional headers.
      * @return a list of all collections.
      */
     @GetMapping
-    public List<CollectionDTO> getAllCollections() {
+    public List<CollectionDTO> getAllCollections(WebRequest request) {
+        if (ConditionalRequests.isNotModified(request, collectionService.getCollectionListVersion())) {
+            return null;
+        }
         return collectionService.getAllCollections();
     }
 
     /**
      * Retrieves a collection by its ID.
+     * Answers with 304 Not Modified, without loading the collection, when the client's copy is still current.
      *
-     * @param id the ID of the collection to retrieve.
+     * @param id      the ID of the collection to retrieve.
+     * @param request the current request, used to evaluate conditional headers.
      * @return the collection with the specified ID.
      */
     @GetMapping("/{id}")
-    public CollectionDTO getCollectionById(@PathVariable Long id) {
+    public CollectionDTO getCollectionById(@PathVariable Long id, WebRequest request) {
+        if (ConditionalRequests.isNotModified(request, collectionService.getCollectionVersion(id))) {
+            return null;
+        }
         return collectionService.getCollectionById(id);
     }
 
@@ -51,13 +63,20 @@ public class CollectionController {
 
     /**
      * Updates an existing collection.
+     * An {@code If-Match} header makes the update conditional on the collection not having changed since it was read.
      *
      * @param id            the ID of the collection to update.
      * @param collectionDTO the updated collection data.
+     * @param ifMatch       the optional entity tag the client expects the collection to have.
      * @return the updated collection.
      */
     @PutMapping("/{id}")
-    public CollectionDTO updateCollection(@PathVariable Long id, @RequestBody CollectionDTO collectionDTO) {
+    public CollectionDTO updateCollection(@PathVariable Long id, @RequestBody CollectionDTO collectionDTO,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        Long expectedVersion = ConditionalRequests.expectedVersion(ifMatch);
+        if (expectedVersion != null) {
+            collectionDTO.setVersion(expectedVersion);
+        }
         return collectionService.updateCollection(id, collectionDTO);
     }
 
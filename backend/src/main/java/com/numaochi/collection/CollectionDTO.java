@@ -9,7 +9,9 @@ public class CollectionDTO {
 
     private Long id;
     private String name;
+    private String rule;
     private List<Long> seriesIds;
+    private Long version;
 
     public Long getId() {
         return id;
@@ -27,6 +29,14 @@ public class CollectionDTO {
         this.name = name;
     }
 
+    public String getRule() {
+        return rule;
+    }
+
+    public void setRule(String rule) {
+        this.rule = rule;
+    }
+
     public List<Long> getSeriesIds() {
         return seriesIds;
     }
@@ -34,4 +44,12 @@ public class CollectionDTO {
     public void setSeriesIds(List<Long> seriesIds) {
         this.seriesIds = seriesIds;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
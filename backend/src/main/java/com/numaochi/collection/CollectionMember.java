@@ -0,0 +1,80 @@
+package com.numaochi.collection;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A row of the {@code collection_series} join table, exposing the rank key that orders the series of a collection.
+ * Rows are added and removed through set-based statements in {@link CollectionRepository}; this mapping is only
+ * used to query and move members.
+ */
+@Entity
+@Table(name = "collection_series")
+@IdClass(CollectionMember.Key.class)
+public class CollectionMember {
+
+    @Id
+    @Column(name = "collection_id")
+    private Long collectionId;
+
+    @Id
+    @Column(name = "series_id")
+    private Long seriesId;
+
+    @Column(name = "rank_key", insertable = false, updatable = false)
+    private String rankKey;
+
+    public Long getCollectionId() {
+        return collectionId;
+    }
+
+    public void setCollectionId(Long collectionId) {
+        this.collectionId = collectionId;
+    }
+
+    public Long getSeriesId() {
+        return seriesId;
+    }
+
+    public void setSeriesId(Long seriesId) {
+        this.seriesId = seriesId;
+    }
+
+    public String getRankKey() {
+        return rankKey;
+    }
+
+    public void setRankKey(String rankKey) {
+        this.rankKey = rankKey;
+    }
+
+    /**
+     * The composite primary key of a collection member.
+     */
+    public static class Key implements Serializable {
+
+        private Long collectionId;
+        private Long seriesId;
+
+        public Key() {
+        }
+
+        public Key(Long collectionId, Long seriesId) {
+            this.collectionId = collectionId;
+            this.seriesId = seriesId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Objects.equals(collectionId, key.collectionId)
+                    && Objects.equals(seriesId, key.seriesId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(collectionId, seriesId);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.numaochi.collection;
+
+import com.numaochi.series.SeriesSummaryDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Repository for querying and reordering the series of a collection by rank key.
+ */
+public interface CollectionMemberRepository extends JpaRepository<CollectionMember, CollectionMember.Key> {
+
+    /**
+     * The key length above which a collection is rebalanced. Must match the predicate of the partial index
+     * {@code idx_collection_series_long_rank_key}.
+     */
+    int REBALANCE_KEY_LENGTH = 32;
+
+    /**
+     * Finds the series of a collection as summary projections, in rank order.
+     *
+     * @param collectionId the ID of the collection.
+     * @param pageable     the page to retrieve; must be unsorted.
+     * @return a page of the series in the collection.
+     */
+    @Transactional(readOnly = true)
+    @Query(value = "select new com.numaochi.series.SeriesSummaryDTO(s.id, s.title, s.author, s.coverImage)"
+            + " from CollectionMember m join Series s on s.id = m.seriesId"
+            + " where m.collectionId = :collectionId order by m.rankKey, m.seriesId",
+            countQuery = "select count(m) from CollectionMember m where m.collectionId = :collectionId")
+    Page<SeriesSummaryDTO> findSeriesSummaries(@Param("collectionId") Long collectionId, Pageable pageable);
+
+    /**
+     * Finds the IDs of the series in a collection, in rank order.
+     *
+     * @param collectionId the ID of the collection.
+     * @return the IDs of the series in the collection.
+     */
+    @Transactional(readOnly = true)
+    @Query(value = "select series_id from collection_series where collection_id = :collectionId order by rank_key, series_id",
+            nativeQuery = true)
+    List<Long> findSeriesIds(@Param("collectionId") Long collectionId);
+
+    /**
+     * Finds the IDs of the series in several collections with one query, binding all IDs as a single array parameter.
+     *
+     * @param collectionIds the IDs of the collections.
+     * @return rows of a collection ID and a series ID, in rank order within each collection.
+     */
+    @Transactional(readOnly = true)
+    @Query(value = "select collection_id, series_id from collection_series where collection_id = any(:collectionIds)"
+            + " order by collection_id, rank_key, series_id", nativeQuery = true)
+    List<Object[]> findSeriesIdsByCollectionIds(@Param("collectionIds") Long[] collectionIds);
+
+    /**
+     * Finds the rank key of a series in a collection.
+     *
+     * @param collectionId the ID of the collection.
+     * @param seriesId     the ID of the series.
+     * @return the rank key, or {@code null} if the series is not in the collection.
+     */
+    @Transactional(readOnly = true)
+    @Query("select m.rankKey from CollectionMember m where m.collectionId = :collectionId and m.seriesId = :seriesId")
+    String findRankKey(@Param("collectionId") Long collectionId, @Param("seriesId") Long seriesId);
+
+    /**
+     * Finds the lowest rank key in a collection, ignoring one series.
+     *
+     * @param collectionId the ID of the collection.
+     * @param seriesId     the ID of the series to ignore.
+     * @return the lowest rank key, or {@code null} if there is none.
+     */
+    @Transactional(readOnly = true)
+    @Query("select min(m.rankKey) from CollectionMember m where m.collectionId = :collectionId and m.seriesId <> :seriesId")
+    String findFirstRankKey(@Param("collectionId") Long collectionId, @Param("seriesId") Long seriesId);
+
+    /**
+     * Finds the lowest rank key above a given key in a collection, ignoring one series.
+     *
+     * @param collectionId the ID of the collection.
+     * @param rankKey      the key to start after.
+     * @param seriesId     the ID of the series to ignore.
+     * @return the next rank key, or {@code null} if there is none.
+     */
+    @Transactional(readOnly = true)
+    @Query("select min(m.rankKey) from CollectionMember m"
+            + " where m.collectionId = :collectionId and m.rankKey > :rankKey and m.seriesId <> :seriesId")
+    String findNextRankKey(@Param("collectionId") Long collectionId, @Param("rankKey") String rankKey,
+                           @Param("seriesId") Long seriesId);
+
+    /**
+     * Sets the rank key of a series in a collection.
+     *
+     * @param collectionId the ID of the collection.
+     * @param seriesId     the ID of the series.
+     * @param rankKey      the new rank key.
+     * @return the number of rows updated.
+     */
+    @Modifying
+    @Query(value = "update collection_series set rank_key = :rankKey where collection_id = :collectionId and series_id = :seriesId",
+            nativeQuery = true)
+    int updateRankKey(@Param("collectionId") Long collectionId, @Param("seriesId") Long seriesId,
+                      @Param("rankKey") String rankKey);
+
+    /**
+     * Moves a series to the end of a collection by giving it a new key from the append sequence, so that series
+     * added later still sort after it.
+     *
+     * @param collectionId the ID of the collection.
+     * @param seriesId     the ID of the series.
+     * @return the number of rows updated.
+     */
+    @Modifying
+    @Query(value = "update collection_series set rank_key = default where collection_id = :collectionId and series_id = :seriesId",
+            nativeQuery = true)
+    int moveToEnd(@Param("collectionId") Long collectionId, @Param("seriesId") Long seriesId);
+
+    /**
+     * Finds the collections with rank keys longer than {@link #REBALANCE_KEY_LENGTH}, using a partial index.
+     *
+     * @return the IDs of the collections to rebalance.
+     */
+    @Transactional(readOnly = true)
+    @Query(value = "select distinct collection_id from collection_series where length(rank_key) > 32", nativeQuery = true)
+    List<Long> findCollectionsToRebalance();
+
+    /**
+     * Rewrites the rank keys of a collection as short, evenly spaced keys, keeping the order of its series.
+     *
+     * @param collectionId the ID of the collection.
+     * @return the number of rows updated.
+     */
+    @Modifying
+    @Query(value = """
+            update collection_series cs
+            set rank_key = ordered.new_rank_key
+            from (
+                select series_id, next_collection_rank_key() as new_rank_key
+                from collection_series
+                where collection_id = :collectionId
+                order by rank_key, series_id
+            ) ordered
+            where cs.collection_id = :collectionId and cs.series_id = ordered.series_id""", nativeQuery = true)
+    int rebalance(@Param("collectionId") Long collectionId);
+}
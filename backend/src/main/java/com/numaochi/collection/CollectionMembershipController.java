@@ -0,0 +1,79 @@
+package com.numaochi.collection;
+
+import com.numaochi.common.PageDTO;
+import com.numaochi.series.SeriesSummaryDTO;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for listing and changing the series in a collection incrementally,
+ * without replacing the whole collection.
+ */
+@RestController
+@RequestMapping("/api/collections/{id}/series")
+public class CollectionMembershipController {
+
+    private final CollectionService collectionService;
+
+    public CollectionMembershipController(CollectionService collectionService) {
+        this.collectionService = collectionService;
+    }
+
+    /**
+     * Retrieves one page of the series in a collection, in collection order.
+     *
+     * @param id   the ID of the collection.
+     * @param page the zero-based page number.
+     * @param size the page size.
+     * @return a page of series summaries, or 404 if the collection does not exist.
+     */
+    @GetMapping
+    public ResponseEntity<PageDTO<SeriesSummaryDTO>> getCollectionSeries(@PathVariable Long id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ofNullable(collectionService.getCollectionSeries(id, page, size));
+    }
+
+    /**
+     * Adds a batch of series to a collection. Series that are already in the collection are ignored.
+     *
+     * @param id        the ID of the collection.
+     * @param seriesIds the IDs of the series to add.
+     * @return the number of series added, or 404 if the collection does not exist.
+     */
+    @PostMapping
+    public ResponseEntity<MembershipChangeDTO> addSeries(@PathVariable Long id, @RequestBody List<Long> seriesIds) {
+        return ResponseEntity.ofNullable(collectionService.addSeriesToCollection(id, seriesIds));
+    }
+
+    /**
+     * Removes a batch of series from a collection. Series that are not in the collection are ignored.
+     *
+     * @param id        the ID of the collection.
+     * @param seriesIds the IDs of the series to remove.
+     * @return the number of series removed, or 404 if the collection does not exist.
+     */
+    @DeleteMapping
+    public ResponseEntity<MembershipChangeDTO> removeSeries(@PathVariable Long id, @RequestBody List<Long> seriesIds) {
+        return ResponseEntity.ofNullable(collectionService.removeSeriesFromCollection(id, seriesIds));
+    }
+
+    /**
+     * Moves a series within a collection, for example after a drag and drop. Only the moved series is rewritten.
+     *
+     * @param id       the ID of the collection.
+     * @param seriesId the ID of the series to move.
+     * @param position the series to place it after, or none to move it to the start.
+     * @return 204 No Content, or 404 if either series is not in the collection.
+     */
+    @PutMapping("/{seriesId}/position")
+    public ResponseEntity<Void> moveSeries(@PathVariable Long id, @PathVariable Long seriesId,
+            @RequestBody CollectionPositionDTO position) {
+        if (!collectionService.moveSeriesInCollection(id, seriesId, position.afterSeriesId())) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
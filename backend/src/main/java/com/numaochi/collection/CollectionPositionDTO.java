@@ -0,0 +1,9 @@
+package com.numaochi.collection;
+
+/**
+ * Data Transfer Object for moving a series within a collection.
+ *
+ * @param afterSeriesId the ID of the series to place it after, or {@code null} to move it to the start.
+ */
+public record CollectionPositionDTO(Long afterSeriesId) {
+}
@@ -0,0 +1,38 @@
+package com.numaochi.collection;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Periodically rewrites the rank keys of collections whose keys grew long through repeated moves into the same gap.
+ * Finding such collections is an index-only lookup, so the job costs next to nothing while no keys are long.
+ */
+@Component
+public class CollectionRankRebalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(CollectionRankRebalancer.class);
+
+    private final CollectionMemberRepository collectionMemberRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public CollectionRankRebalancer(CollectionMemberRepository collectionMemberRepository,
+                                    TransactionTemplate transactionTemplate) {
+        this.collectionMemberRepository = collectionMemberRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Rebalances every collection with a rank key longer than {@link CollectionMemberRepository#REBALANCE_KEY_LENGTH},
+     * each in its own transaction.
+     */
+    @Scheduled(fixedDelayString = "${collections.rank-rebalance-interval:PT1M}")
+    public void rebalance() {
+        for (Long collectionId : collectionMemberRepository.findCollectionsToRebalance()) {
+            Integer rows = transactionTemplate.execute(status -> collectionMemberRepository.rebalance(collectionId));
+            log.info("Rebalanced rank keys of {} series in collection {}", rows, collectionId);
+        }
+    }
+}
@@ -1,9 +1,133 @@
 package com.numaochi.collection;
 
+import com.numaochi.common.ResourceVersion;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository for managing {@link Collection} entities.
  */
 public interface CollectionRepository extends JpaRepository<Collection, Long> {
+
+    /**
+     * Finds the version information of a collection without loading the entity.
+     *
+     * @param id the ID of the collection.
+     * @return an {@link Optional} containing the version if the collection exists, or empty otherwise.
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.numaochi.common.ResourceVersion(c.version, c.updatedAt) from Collection c where c.id = :id")
+    Optional<ResourceVersion> findResourceVersionById(@Param("id") Long id);
+
+    /**
+     * Computes an aggregate version over all collections, which changes whenever one is created, updated or deleted.
+     *
+     * @return the aggregate version of the collection list.
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.numaochi.common.ResourceVersion(count(c) + coalesce(sum(c.version), 0), max(c.updatedAt)) from Collection c")
+    ResourceVersion findListResourceVersion();
+
+    /**
+     * Adds series to the end of a collection in a single statement, in the given order.
+     * Series that are already members or do not exist are skipped.
+     *
+     * @param collectionId the ID of the collection.
+     * @param seriesIds    the IDs of the series to add.
+     * @return the number of series added.
+     */
+    @Modifying
+    @Query(value = """
+            insert into collection_series (collection_id, series_id)
+            select :collectionId, s.id
+            from unnest(:seriesIds) with ordinality as requested(id, position)
+            join series s on s.id = requested.id
+            order by requested.position
+            on conflict do nothing""", nativeQuery = true)
+    int addSeries(@Param("collectionId") Long collectionId, @Param("seriesIds") Long[] seriesIds);
+
+    /**
+     * Removes series from a collection in a single statement.
+     *
+     * @param collectionId the ID of the collection.
+     * @param seriesIds    the IDs of the series to remove.
+     * @return the number of series removed.
+     */
+    @Modifying
+    @Query(value = "delete from collection_series where collection_id = :collectionId and series_id = any(:seriesIds)",
+            nativeQuery = true)
+    int removeSeries(@Param("collectionId") Long collectionId, @Param("seriesIds") Long[] seriesIds);
+
+    /**
+     * Increments the version of a collection whose membership was changed without loading it.
+     *
+     * @param id        the ID of the collection.
+     * @param updatedAt the modification time.
+     * @return the number of collections updated.
+     */
+    @Modifying
+    @Query("update Collection c set c.version = c.version + 1, c.updatedAt = :updatedAt where c.id = :id")
+    int incrementVersion(@Param("id") Long id, @Param("updatedAt") Instant updatedAt);
+
+    /**
+     * Checks whether a collection is a smart collection.
+     *
+     * @param id the ID of the collection.
+     * @return {@code true} if the collection exists and has a rule.
+     */
+    @Transactional(readOnly = true)
+    boolean existsByIdAndRuleIsNotNull(Long id);
+
+    /**
+     * Finds the rules of all smart collections.
+     *
+     * @return the ID and rule of each smart collection.
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.numaochi.collection.SmartCollectionRule(c.id, c.rule) from Collection c where c.rule is not null")
+    List<SmartCollectionRule> findSmartCollectionRules();
+
+    /**
+     * Removes every series from a collection except the given ones, in a single statement.
+     *
+     * @param collectionId the ID of the collection.
+     * @param seriesIds    the IDs of the series to keep.
+     * @return the number of series removed.
+     */
+    @Modifying
+    @Query(value = "delete from collection_series where collection_id = :collectionId and series_id <> all(:seriesIds)",
+            nativeQuery = true)
+    int removeSeriesExcept(@Param("collectionId") Long collectionId, @Param("seriesIds") Long[] seriesIds);
+
+    /**
+     * Removes a series from every smart collection.
+     *
+     * @param seriesId the ID of the series.
+     * @return the number of smart collections it was removed from.
+     */
+    @Modifying
+    @Query(value = """
+            delete from collection_series cs
+            using collection c
+            where c.id = cs.collection_id and c.rule is not null and cs.series_id = :seriesId""", nativeQuery = true)
+    int removeSeriesFromSmartCollections(@Param("seriesId") Long seriesId);
+
+    /**
+     * Increments the version of every smart collection containing a series.
+     *
+     * @param seriesId  the ID of the series.
+     * @param updatedAt the modification time.
+     * @return the number of collections updated.
+     */
+    @Modifying
+    @Query("update Collection c set c.version = c.version + 1, c.updatedAt = :updatedAt where c.rule is not null"
+            + " and c.id in (select m.collectionId from CollectionMember m where m.seriesId = :seriesId)")
+    int incrementSmartCollectionVersions(@Param("seriesId") Long seriesId, @Param("updatedAt") Instant updatedAt);
 }
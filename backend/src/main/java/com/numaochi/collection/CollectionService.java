@@ -1,10 +1,22 @@
 package com.numaochi.collection;
 
+import com.numaochi.common.ConditionalRequests;
+import com.numaochi.common.PageDTO;
+import com.numaochi.common.ResourceVersion;
 import com.numaochi.series.Series;
 import com.numaochi.series.SeriesRepository;
+import com.numaochi.series.SeriesSummaryDTO;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -15,10 +27,16 @@ public class CollectionService {
 
     private final CollectionRepository collectionRepository;
     private final SeriesRepository seriesRepository;
+    private final CollectionMemberRepository collectionMemberRepository;
+    private final SmartCollectionService smartCollectionService;
 
-    public CollectionService(CollectionRepository collectionRepository, SeriesRepository seriesRepository) {
+    public CollectionService(CollectionRepository collectionRepository, SeriesRepository seriesRepository,
+                             CollectionMemberRepository collectionMemberRepository,
+                             SmartCollectionService smartCollectionService) {
         this.collectionRepository = collectionRepository;
         this.seriesRepository = seriesRepository;
+        this.collectionMemberRepository = collectionMemberRepository;
+        this.smartCollectionService = smartCollectionService;
     }
 
     /**
@@ -26,8 +44,9 @@ public class CollectionService {
      *
      * @return a list of all collections.
      */
+    @Transactional(readOnly = true)
     public List<CollectionDTO> getAllCollections() {
-        return collectionRepository.findAll().stream().map(this::convertToDto).collect(Collectors.toList());
+        return convertToDtos(collectionRepository.findAll());
     }
 
     /**
@@ -36,32 +55,104 @@ public class CollectionService {
      * @param id the ID of the collection to retrieve.
      * @return the collection with the specified ID, or {@code null} if not found.
      */
+    @Transactional(readOnly = true)
     public CollectionDTO getCollectionById(Long id) {
-        return collectionRepository.findById(id).map(this::convertToDto).orElse(null);
+        return collectionRepository.findById(id)
+                .map(collection -> convertToDto(collection, collectionMemberRepository.findSeriesIds(id)))
+                .orElse(null);
     }
 
     /**
-     * Creates a new collection.
+     * Retrieves several collections by their IDs with one query.
+     *
+     * @param ids the IDs of the collections.
+     * @return the collections that exist, in no particular order.
+     */
+    @Transactional(readOnly = true)
+    public List<CollectionDTO> getCollectionsByIds(List<Long> ids) {
+        return convertToDtos(collectionRepository.findAllById(ids));
+    }
+
+    /**
+     * Retrieves the version information of a collection without loading it.
+     *
+     * @param id the ID of the collection.
+     * @return the version of the collection, or {@code null} if not found.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getCollectionVersion(Long id) {
+        return collectionRepository.findResourceVersionById(id).orElse(null);
+    }
+
+    /**
+     * Retrieves the aggregate version of the collection list.
+     *
+     * @return the version of the collection list.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getCollectionListVersion() {
+        return collectionRepository.findListResourceVersion();
+    }
+
+    /**
+     * Creates a new collection. A collection with a rule is a smart collection, whose series are those matching
+     * the rule rather than the given series IDs.
      *
      * @param collectionDTO the collection to create.
      * @return the created collection.
      */
+    @Transactional
     public CollectionDTO createCollection(CollectionDTO collectionDTO) {
         Collection collection = convertToEntity(collectionDTO);
-        return convertToDto(collectionRepository.save(collection));
+        return materialize(collectionRepository.saveAndFlush(collection));
     }
 
     /**
-     * Updates an existing collection.
+     * Updates an existing collection. Changing the rule re-evaluates it against every series; the members of a smart
+     * collection whose rule is unchanged are left as they are.
      *
      * @param id            the ID of the collection to update.
      * @param collectionDTO the updated collection data.
-     * @return the updated collection.
+     * @return the updated collection, or {@code null} if not found.
      */
+    @Transactional
     public CollectionDTO updateCollection(Long id, CollectionDTO collectionDTO) {
+        if (collectionDTO.getRule() != null) {
+            Collection existing = collectionRepository.findById(id).orElse(null);
+            if (existing != null) {
+                return updateSmartCollection(existing, collectionDTO);
+            }
+        }
         Collection collection = convertToEntity(collectionDTO);
         collection.setId(id);
-        return convertToDto(collectionRepository.save(collection));
+        if (collection.getVersion() == null) {
+            Long version = collectionRepository.findResourceVersionById(id).map(ResourceVersion::version).orElse(null);
+            if (version == null) {
+                return null;
+            }
+            collection.setVersion(version);
+        }
+        return materialize(collectionRepository.saveAndFlush(collection));
+    }
+
+    /**
+     * Updates the loaded collection in place rather than merging a detached copy, which would replace its
+     * {@code collection_series} rows and so reset the positions of the members.
+     *
+     * @param collection    the loaded collection.
+     * @param collectionDTO the updated collection data, with a rule.
+     * @return the updated collection.
+     */
+    private CollectionDTO updateSmartCollection(Collection collection, CollectionDTO collectionDTO) {
+        ConditionalRequests.requireVersion(Collection.class, collection.getId(), collection.getVersion(),
+                collectionDTO.getVersion());
+        boolean ruleChanged = !collectionDTO.getRule().equals(collection.getRule());
+        collection.setName(collectionDTO.getName());
+        collection.setRule(collectionDTO.getRule());
+        collectionRepository.flush();
+        return ruleChanged
+                ? materialize(collection)
+                : convertToDto(collection, collectionMemberRepository.findSeriesIds(collection.getId()));
     }
 
     /**
@@ -74,23 +165,153 @@ public class CollectionService {
     }
 
     /**
-     * Converts a {@link Collection} entity to a {@link CollectionDTO}.
+     * Retrieves one page of the series in a collection, in collection order.
+     *
+     * @param id   the ID of the collection.
+     * @param page the zero-based page number.
+     * @param size the page size.
+     * @return a page of series summaries, or {@code null} if the collection does not exist.
+     */
+    @Transactional(readOnly = true)
+    public PageDTO<SeriesSummaryDTO> getCollectionSeries(Long id, int page, int size) {
+        if (!collectionRepository.existsById(id)) {
+            return null;
+        }
+        return PageDTO.of(collectionMemberRepository.findSeriesSummaries(id, PageDTO.request(page, size, Sort.unsorted())),
+                summary -> summary);
+    }
+
+    /**
+     * Moves a series within a collection by rewriting only its own rank key.
+     * Moving to the end takes a key from the append sequence, so that series added later still go after it.
+     *
+     * @param id            the ID of the collection.
+     * @param seriesId      the ID of the series to move.
+     * @param afterSeriesId the ID of the series to place it after, or {@code null} to move it to the start.
+     * @return {@code true} if moved, or {@code false} if either series is not in the collection.
+     */
+    @Transactional
+    public boolean moveSeriesInCollection(Long id, Long seriesId, Long afterSeriesId) {
+        if (collectionMemberRepository.findRankKey(id, seriesId) == null) {
+            return false;
+        }
+        if (seriesId.equals(afterSeriesId)) {
+            return true;
+        }
+        String before = null;
+        if (afterSeriesId != null) {
+            before = collectionMemberRepository.findRankKey(id, afterSeriesId);
+            if (before == null) {
+                return false;
+            }
+        }
+        String after = before == null
+                ? collectionMemberRepository.findFirstRankKey(id, seriesId)
+                : collectionMemberRepository.findNextRankKey(id, before, seriesId);
+        if (after == null) {
+            collectionMemberRepository.moveToEnd(id, seriesId);
+        } else {
+            collectionMemberRepository.updateRankKey(id, seriesId, RankKeys.between(before, after));
+        }
+        collectionRepository.incrementVersion(id, Instant.now());
+        return true;
+    }
+
+    /**
+     * Adds series to the end of a collection without loading the collection or its members.
+     *
+     * @param id        the ID of the collection.
+     * @param seriesIds the IDs of the series to add.
+     * @return the outcome, or {@code null} if the collection does not exist.
+     */
+    @Transactional
+    public MembershipChangeDTO addSeriesToCollection(Long id, List<Long> seriesIds) {
+        return changeMembership(id, seriesIds, true);
+    }
+
+    /**
+     * Removes series from a collection without loading the collection or its members.
+     *
+     * @param id        the ID of the collection.
+     * @param seriesIds the IDs of the series to remove.
+     * @return the outcome, or {@code null} if the collection does not exist.
+     */
+    @Transactional
+    public MembershipChangeDTO removeSeriesFromCollection(Long id, List<Long> seriesIds) {
+        return changeMembership(id, seriesIds, false);
+    }
+
+    private MembershipChangeDTO changeMembership(Long id, List<Long> seriesIds, boolean add) {
+        if (!collectionRepository.existsById(id)) {
+            return null;
+        }
+        if (collectionRepository.existsByIdAndRuleIsNotNull(id)) {
+            throw new SmartCollectionMembershipException(id);
+        }
+        Long[] ids = seriesIds.stream().filter(Objects::nonNull).distinct().toArray(Long[]::new);
+        if (ids.length == 0) {
+            return new MembershipChangeDTO(0, 0);
+        }
+        int changed = add ? collectionRepository.addSeries(id, ids) : collectionRepository.removeSeries(id, ids);
+        if (changed > 0) {
+            collectionRepository.incrementVersion(id, Instant.now());
+        }
+        return new MembershipChangeDTO(ids.length, changed);
+    }
+
+    /**
+     * Converts a saved collection to a DTO, first materialising its membership if it is a smart collection.
+     *
+     * @param collection the saved and flushed collection.
+     * @return the converted DTO.
+     */
+    private CollectionDTO materialize(Collection collection) {
+        List<Long> seriesIds = collection.getRule() != null
+                ? smartCollectionService.materialize(collection.getId(), collection.getRule())
+                : collectionMemberRepository.findSeriesIds(collection.getId());
+        return convertToDto(collection, seriesIds);
+    }
+
+    /**
+     * Converts several collections to DTOs, loading the series IDs of all of them with one query.
+     *
+     * @param collections the entities to convert.
+     * @return the converted DTOs, in the same order.
+     */
+    private List<CollectionDTO> convertToDtos(List<Collection> collections) {
+        Long[] ids = collections.stream().map(Collection::getId).toArray(Long[]::new);
+        Map<Long, List<Long>> seriesIds = new HashMap<>();
+        if (ids.length > 0) {
+            for (Object[] row : collectionMemberRepository.findSeriesIdsByCollectionIds(ids)) {
+                seriesIds.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Long) row[1]);
+            }
+        }
+        return collections.stream()
+                .map(collection -> convertToDto(collection, seriesIds.getOrDefault(collection.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Converts a {@link Collection} entity to a {@link CollectionDTO}. The series IDs are passed in rather than read
+     * from the entity, because the mapped list does not follow the rank order of {@code collection_series}.
      *
      * @param collection the entity to convert.
+     * @param seriesIds  the IDs of the series in the collection, in rank order.
      * @return the converted DTO.
      */
-    private CollectionDTO convertToDto(Collection collection) {
+    private CollectionDTO convertToDto(Collection collection, List<Long> seriesIds) {
         CollectionDTO collectionDTO = new CollectionDTO();
         collectionDTO.setId(collection.getId());
+        collectionDTO.setVersion(collection.getVersion());
         collectionDTO.setName(collection.getName());
-        if (collection.getSeries() != null) {
-            collectionDTO.setSeriesIds(collection.getSeries().stream().map(Series::getId).collect(Collectors.toList()));
-        }
+        collectionDTO.setRule(collection.getRule());
+        collectionDTO.setSeriesIds(seriesIds);
         return collectionDTO;
     }
 
     /**
-     * Converts a {@link CollectionDTO} to a {@link Collection} entity.
+     * Converts a {@link CollectionDTO} to a {@link Collection} entity. The series are put in the requested order, since
+     * that is the order in which their {@code collection_series} rows are inserted and so given rank keys.
      *
      * @param collectionDTO the DTO to convert.
      * @return the converted entity.
@@ -98,10 +319,17 @@ public class CollectionService {
     private Collection convertToEntity(CollectionDTO collectionDTO) {
         Collection collection = new Collection();
         collection.setId(collectionDTO.getId());
+        collection.setVersion(collectionDTO.getVersion());
         collection.setName(collectionDTO.getName());
-        if (collectionDTO.getSeriesIds() != null) {
-            List<Series> series = seriesRepository.findAllById(collectionDTO.getSeriesIds());
-            collection.setSeries(series);
+        collection.setRule(collectionDTO.getRule());
+        if (collectionDTO.getRule() == null && collectionDTO.getSeriesIds() != null) {
+            Map<Long, Series> seriesById = seriesRepository.findAllById(collectionDTO.getSeriesIds()).stream()
+                    .collect(Collectors.toMap(Series::getId, Function.identity()));
+            collection.setSeries(collectionDTO.getSeriesIds().stream()
+                    .distinct()
+                    .map(seriesById::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList()));
         }
         return collection;
     }
@@ -0,0 +1,19 @@
+package com.numaochi.collection;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when the rule of a smart collection cannot be parsed.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidRuleException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidRuleException with the given message.
+     * @param message the detail message.
+     */
+    public InvalidRuleException(String message) {
+        super(message);
+    }
+}
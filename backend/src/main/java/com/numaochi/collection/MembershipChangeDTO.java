@@ -0,0 +1,11 @@
+package com.numaochi.collection;
+
+/**
+ * Data Transfer Object describing the outcome of adding series to, or removing series from, a collection.
+ *
+ * @param requested the number of distinct series IDs in the request.
+ * @param changed   the number of series actually added or removed; existing members, non-members and unknown
+ *                  series are not counted.
+ */
+public record MembershipChangeDTO(int requested, int changed) {
+}
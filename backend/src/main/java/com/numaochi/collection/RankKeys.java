@@ -0,0 +1,52 @@
+package com.numaochi.collection;
+
+/**
+ * Fractional rank keys: strings over an ordered base-62 alphabet, compared byte-wise, such that a new key can always
+ * be generated between any two keys. Moving an item therefore only rewrites the item's own key.
+ * Keys never end in the lowest digit {@code '0'}, which would leave no room below them.
+ */
+final class RankKeys {
+
+    static final String DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+
+    private RankKeys() {
+    }
+
+    /**
+     * Generates a key strictly between two keys.
+     *
+     * @param before the lower key, or {@code null} for the start of the list.
+     * @param after  the upper key, or {@code null} for the end of the list.
+     * @return a key that sorts after {@code before} and before {@code after}.
+     * @throws IllegalArgumentException if {@code before} does not sort before {@code after}.
+     */
+    static String between(String before, String after) {
+        String lower = before == null ? "" : before;
+        if (after != null && lower.compareTo(after) >= 0) {
+            throw new IllegalArgumentException("Rank key " + before + " does not sort before " + after);
+        }
+        return midpoint(lower, after);
+    }
+
+    private static String midpoint(String lower, String upper) {
+        if (upper != null) {
+            int common = 0;
+            while ((common < lower.length() ? lower.charAt(common) : DIGITS.charAt(0)) == upper.charAt(common)) {
+                common++;
+            }
+            if (common > 0) {
+                return upper.substring(0, common)
+                        + midpoint(lower.substring(Math.min(common, lower.length())), upper.substring(common));
+            }
+        }
+        int lowerDigit = lower.isEmpty() ? 0 : DIGITS.indexOf(lower.charAt(0));
+        int upperDigit = upper != null ? DIGITS.indexOf(upper.charAt(0)) : DIGITS.length();
+        if (upperDigit - lowerDigit > 1) {
+            return String.valueOf(DIGITS.charAt((lowerDigit + upperDigit + 1) / 2));
+        }
+        if (upper != null && upper.length() > 1) {
+            return upper.substring(0, 1);
+        }
+        return DIGITS.charAt(lowerDigit) + midpoint(lower.isEmpty() ? "" : lower.substring(1), null);
+    }
+}
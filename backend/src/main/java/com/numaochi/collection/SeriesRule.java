@@ -0,0 +1,259 @@
+package com.numaochi.collection;
+
+import com.numaochi.series.Series;
+import com.numaochi.series.SeriesFieldsDTO;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A membership rule of a smart collection: a predicate over {@link Series} fields.
+ * <p>
+ * The rule language combines comparisons with {@code and}, {@code or}, {@code not} and parentheses, for example
+ * {@code publisher = "Viz" and publicationDate > 2020-12-31}. Comparable fields are {@code title}, {@code author},
+ * {@code description}, {@code publisher}, {@code isbn} and {@code publicationDate}. Operators are {@code =} and
+ * {@code !=} (case-insensitive for text), {@code ~} (contains), {@code ^=} (starts with), and {@code <}, {@code <=},
+ * {@code >}, {@code >=}. Values are quoted strings, {@code yyyy-MM-dd} dates, or {@code null}.
+ */
+public final class SeriesRule {
+
+    private static final Map<String, Function<SeriesFieldsDTO, Object>> FIELDS = Map.of(
+            "title", SeriesFieldsDTO::title,
+            "author", SeriesFieldsDTO::author,
+            "description", SeriesFieldsDTO::description,
+            "publisher", SeriesFieldsDTO::publisher,
+            "isbn", SeriesFieldsDTO::isbn,
+            "publicationdate", SeriesFieldsDTO::publicationDate);
+
+    private final String source;
+    private final Predicate<SeriesFieldsDTO> predicate;
+
+    private SeriesRule(String source, Predicate<SeriesFieldsDTO> predicate) {
+        this.source = source;
+        this.predicate = predicate;
+    }
+
+    /**
+     * Parses a rule.
+     *
+     * @param source the rule text.
+     * @return the parsed rule.
+     * @throws InvalidRuleException if the rule is not valid.
+     */
+    public static SeriesRule parse(String source) {
+        Parser parser = new Parser(tokenize(source));
+        Predicate<SeriesFieldsDTO> predicate = parser.parseOr();
+        if (!parser.atEnd()) {
+            throw new InvalidRuleException("Unexpected '" + parser.peek() + "' in rule: " + source);
+        }
+        return new SeriesRule(source, predicate);
+    }
+
+    /**
+     * Evaluates the rule against a series.
+     *
+     * @param series the series.
+     * @return {@code true} if the series belongs in the collection.
+     */
+    public boolean matches(Series series) {
+        return matches(SeriesFieldsDTO.of(series));
+    }
+
+    /**
+     * Evaluates the rule against the fields of a series loaded as a projection.
+     *
+     * @param series the fields of the series.
+     * @return {@code true} if the series belongs in the collection.
+     */
+    public boolean matches(SeriesFieldsDTO series) {
+        return predicate.test(series);
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    private static List<String> tokenize(String source) {
+        if (source == null || source.isBlank()) {
+            throw new InvalidRuleException("Rule must not be empty");
+        }
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '"' || c == '\'') {
+                int end = source.indexOf(c, i + 1);
+                if (end < 0) {
+                    throw new InvalidRuleException("Unterminated string in rule: " + source);
+                }
+                tokens.add(source.substring(i, end + 1));
+                i = end + 1;
+            } else if (c == '(' || c == ')' || c == '~') {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else if ("=!<>^".indexOf(c) >= 0) {
+                int end = i + 1 < source.length() && source.charAt(i + 1) == '=' ? i + 2 : i + 1;
+                tokens.add(source.substring(i, end));
+                i = end;
+            } else {
+                int start = i;
+                while (i < source.length() && !Character.isWhitespace(source.charAt(i))
+                        && "()~=!<>^\"'".indexOf(source.charAt(i)) < 0) {
+                    i++;
+                }
+                tokens.add(source.substring(start, i));
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Recursive-descent parser over the tokens of a rule.
+     */
+    private static final class Parser {
+
+        private final List<String> tokens;
+        private int position;
+
+        private Parser(List<String> tokens) {
+            this.tokens = tokens;
+        }
+
+        private boolean atEnd() {
+            return position >= tokens.size();
+        }
+
+        private String peek() {
+            return atEnd() ? null : tokens.get(position);
+        }
+
+        private String next() {
+            if (atEnd()) {
+                throw new InvalidRuleException("Unexpected end of rule");
+            }
+            return tokens.get(position++);
+        }
+
+        private boolean accept(String keyword) {
+            if (!atEnd() && peek().equalsIgnoreCase(keyword)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private Predicate<SeriesFieldsDTO> parseOr() {
+            Predicate<SeriesFieldsDTO> left = parseAnd();
+            while (accept("or")) {
+                left = left.or(parseAnd());
+            }
+            return left;
+        }
+
+        private Predicate<SeriesFieldsDTO> parseAnd() {
+            Predicate<SeriesFieldsDTO> left = parseUnary();
+            while (accept("and")) {
+                left = left.and(parseUnary());
+            }
+            return left;
+        }
+
+        private Predicate<SeriesFieldsDTO> parseUnary() {
+            if (accept("not")) {
+                return parseUnary().negate();
+            }
+            if (accept("(")) {
+                Predicate<SeriesFieldsDTO> inner = parseOr();
+                if (!accept(")")) {
+                    throw new InvalidRuleException("Missing ')' in rule");
+                }
+                return inner;
+            }
+            return parseComparison();
+        }
+
+        private Predicate<SeriesFieldsDTO> parseComparison() {
+            String field = next();
+            Function<SeriesFieldsDTO, Object> getter = FIELDS.get(field.toLowerCase(Locale.ROOT));
+            if (getter == null) {
+                throw new InvalidRuleException("Unknown field '" + field + "', expected one of " + FIELDS.keySet());
+            }
+            String operator = next();
+            Object value = parseValue(next(), getter == FIELDS.get("publicationdate"));
+            return comparison(getter, operator, value);
+        }
+
+        private static Object parseValue(String token, boolean date) {
+            if (token.equalsIgnoreCase("null")) {
+                return null;
+            }
+            if (date) {
+                try {
+                    return LocalDate.parse(unquote(token));
+                } catch (DateTimeParseException e) {
+                    throw new InvalidRuleException("Invalid date '" + token + "', expected yyyy-MM-dd");
+                }
+            }
+            if (token.length() < 2 || (token.charAt(0) != '"' && token.charAt(0) != '\'')) {
+                throw new InvalidRuleException("Expected a quoted string but found '" + token + "'");
+            }
+            return unquote(token);
+        }
+
+        private static String unquote(String token) {
+            char first = token.charAt(0);
+            return first == '"' || first == '\'' ? token.substring(1, token.length() - 1) : token;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static Predicate<SeriesFieldsDTO> comparison(Function<SeriesFieldsDTO, Object> getter, String operator, Object value) {
+            return switch (operator) {
+                case "=" -> series -> equal(getter.apply(series), value);
+                case "!=" -> series -> !equal(getter.apply(series), value);
+                case "~" -> series -> text(getter.apply(series)).contains(text(value));
+                case "^=" -> series -> text(getter.apply(series)).startsWith(text(value));
+                case "<", "<=", ">", ">=" -> {
+                    if (value == null) {
+                        throw new InvalidRuleException("Cannot compare with null using '" + operator + "'");
+                    }
+                    yield series -> {
+                        Object actual = getter.apply(series);
+                        if (actual == null) {
+                            return false;
+                        }
+                        int result = actual instanceof String s
+                                ? s.compareToIgnoreCase((String) value)
+                                : ((Comparable) actual).compareTo(value);
+                        return switch (operator) {
+                            case "<" -> result < 0;
+                            case "<=" -> result <= 0;
+                            case ">" -> result > 0;
+                            default -> result >= 0;
+                        };
+                    };
+                }
+                default -> throw new InvalidRuleException("Unknown operator '" + operator + "'");
+            };
+        }
+
+        private static boolean equal(Object actual, Object expected) {
+            if (actual == null || expected == null) {
+                return actual == expected;
+            }
+            return actual instanceof String s ? s.equalsIgnoreCase((String) expected) : actual.equals(expected);
+        }
+
+        private static String text(Object value) {
+            return value == null ? "" : value.toString().toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.numaochi.collection;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when series are added to or removed from a smart collection by hand; its membership follows its rule.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class SmartCollectionMembershipException extends RuntimeException {
+
+    /**
+     * Constructs a new SmartCollectionMembershipException for the given collection.
+     * @param collectionId the ID of the smart collection.
+     */
+    public SmartCollectionMembershipException(Long collectionId) {
+        super("Collection " + collectionId + " is a smart collection; change its rule instead");
+    }
+}
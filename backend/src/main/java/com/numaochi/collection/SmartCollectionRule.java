@@ -0,0 +1,10 @@
+package com.numaochi.collection;
+
+/**
+ * The rule of a smart collection, loaded without the collection itself.
+ *
+ * @param id   the ID of the collection.
+ * @param rule the membership rule.
+ */
+public record SmartCollectionRule(Long id, String rule) {
+}
@@ -0,0 +1,92 @@
+package com.numaochi.collection;
+
+import com.numaochi.series.Series;
+import com.numaochi.series.SeriesChangedEvent;
+import com.numaochi.series.SeriesDeletedEvent;
+import com.numaochi.series.SeriesFieldsDTO;
+import com.numaochi.series.SeriesRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Service maintaining the materialised membership of smart collections.
+ * <p>
+ * The members of a smart collection are stored in {@code collection_series} like those of a manual collection, so
+ * reading one costs the same. The rule is evaluated against the fields of every series, streamed without loading the
+ * entities, only when it is set; afterwards each created, updated or deleted series is checked against the rules alone
+ * and added or removed where its match changed.
+ */
+@Service
+public class SmartCollectionService {
+
+    private final CollectionRepository collectionRepository;
+    private final SeriesRepository seriesRepository;
+
+    public SmartCollectionService(CollectionRepository collectionRepository, SeriesRepository seriesRepository) {
+        this.collectionRepository = collectionRepository;
+        this.seriesRepository = seriesRepository;
+    }
+
+    /**
+     * Replaces the members of a smart collection with the series matching its rule.
+     *
+     * @param collectionId the ID of the collection.
+     * @param rule         the membership rule.
+     * @return the IDs of the matching series.
+     * @throws InvalidRuleException if the rule is not valid.
+     */
+    @Transactional
+    public List<Long> materialize(Long collectionId, String rule) {
+        SeriesRule seriesRule = SeriesRule.parse(rule);
+        Long[] ids;
+        try (Stream<SeriesFieldsDTO> series = seriesRepository.streamAllFields()) {
+            ids = series.filter(seriesRule::matches).map(SeriesFieldsDTO::id).toArray(Long[]::new);
+        }
+        int changed = collectionRepository.removeSeriesExcept(collectionId, ids);
+        if (ids.length > 0) {
+            changed += collectionRepository.addSeries(collectionId, ids);
+        }
+        if (changed > 0) {
+            collectionRepository.incrementVersion(collectionId, Instant.now());
+        }
+        return List.of(ids);
+    }
+
+    /**
+     * Adds a created or updated series to the smart collections it now matches, and removes it from those it no
+     * longer matches.
+     *
+     * @param event the change event.
+     */
+    @EventListener
+    @Transactional
+    public void onSeriesChanged(SeriesChangedEvent event) {
+        Series series = event.series();
+        Long[] ids = {series.getId()};
+        for (SmartCollectionRule smartCollection : collectionRepository.findSmartCollectionRules()) {
+            int changed = SeriesRule.parse(smartCollection.rule()).matches(series)
+                    ? collectionRepository.addSeries(smartCollection.id(), ids)
+                    : collectionRepository.removeSeries(smartCollection.id(), ids);
+            if (changed > 0) {
+                collectionRepository.incrementVersion(smartCollection.id(), Instant.now());
+            }
+        }
+    }
+
+    /**
+     * Removes a series that is about to be deleted from every smart collection.
+     *
+     * @param event the deletion event.
+     */
+    @EventListener
+    @Transactional
+    public void onSeriesDeleted(SeriesDeletedEvent event) {
+        collectionRepository.incrementSmartCollectionVersions(event.seriesId(), Instant.now());
+        collectionRepository.removeSeriesFromSmartCollections(event.seriesId());
+    }
+}
@@ -0,0 +1,68 @@
+package com.numaochi.common;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Data Transfer Object for the result of looking up many resources by ID at once.
+ *
+ * @param items   the resources found, in the order their IDs were requested.
+ * @param missing the requested IDs for which no resource exists, in request order.
+ */
+public record BatchDTO<T>(List<T> items, List<Long> missing) {
+
+    /**
+     * The largest number of IDs a client may request at once.
+     */
+    public static final int MAX_IDS = 500;
+
+    /**
+     * Removes duplicate and {@code null} IDs from a request, keeping the first occurrence of each.
+     *
+     * @param ids the requested IDs.
+     * @return the distinct IDs, in request order.
+     * @throws BatchTooLargeException if more than {@link #MAX_IDS} distinct IDs are requested.
+     */
+    public static List<Long> distinctIds(List<Long> ids) {
+        LinkedHashSet<Long> distinct = new LinkedHashSet<>();
+        for (Long id : ids) {
+            if (id != null) {
+                distinct.add(id);
+            }
+        }
+        if (distinct.size() > MAX_IDS) {
+            throw new BatchTooLargeException("At most " + MAX_IDS + " IDs can be requested at once");
+        }
+        return new ArrayList<>(distinct);
+    }
+
+    /**
+     * Arranges the resources found in the order of the requested IDs and collects the IDs that were not found.
+     *
+     * @param ids   the distinct requested IDs.
+     * @param found the resources found, in any order.
+     * @param id    extracts the ID of a resource.
+     * @return the batch result.
+     */
+    public static <T> BatchDTO<T> of(List<Long> ids, List<T> found, Function<T, Long> id) {
+        Map<Long, T> byId = new HashMap<>();
+        for (T item : found) {
+            byId.put(id.apply(item), item);
+        }
+        List<T> items = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long requested : ids) {
+            T item = byId.get(requested);
+            if (item != null) {
+                items.add(item);
+            } else {
+                missing.add(requested);
+            }
+        }
+        return new BatchDTO<>(items, missing);
+    }
+}
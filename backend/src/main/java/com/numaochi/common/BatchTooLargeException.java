@@ -0,0 +1,19 @@
+package com.numaochi.common;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a batch lookup requests more IDs than {@link BatchDTO#MAX_IDS}.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BatchTooLargeException extends RuntimeException {
+
+    /**
+     * Constructs a new BatchTooLargeException with the given message.
+     * @param message the detail message.
+     */
+    public BatchTooLargeException(String message) {
+        super(message);
+    }
+}
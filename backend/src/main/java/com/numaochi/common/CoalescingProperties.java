@@ -0,0 +1,15 @@
+package com.numaochi.common;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for coalescing concurrent identical reads.
+ *
+ * @param maxWait how long a caller waits for an identical call in flight before loading on its own.
+ */
+@ConfigurationProperties(prefix = "coalescing")
+public record CoalescingProperties(@DefaultValue("5s") Duration maxWait) {
+}
@@ -0,0 +1,25 @@
+package com.numaochi.common;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Maps optimistic-lock conflicts on catalog writes to {@code 412 Precondition Failed}.
+ */
+@RestControllerAdvice
+public class ConcurrencyExceptionHandler {
+
+    /**
+     * Handles a write that was made against a stale version of a resource.
+     * @param ex the exception thrown.
+     * @return an error message.
+     */
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public String handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        return "Error: The resource was modified by another request.";
+    }
+}
@@ -0,0 +1,78 @@
+package com.numaochi.common;
+
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Helpers for answering HTTP conditional requests ({@code If-None-Match}, {@code If-Modified-Since}, {@code If-Match}).
+ */
+public final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Checks the request preconditions against the given version and sets the {@code ETag} and
+     * {@code Last-Modified} response headers. If this returns {@code true} the response status has been
+     * set to 304 and the caller should return without producing a body.
+     *
+     * @param request the current request.
+     * @param version the current version of the resource, or {@code null} if it does not exist.
+     * @return {@code true} if the client's copy is still current.
+     */
+    public static boolean isNotModified(WebRequest request, ResourceVersion version) {
+        if (version == null) {
+            return false;
+        }
+        if (version.lastModified() == null) {
+            return request.checkNotModified(version.eTag());
+        }
+        return request.checkNotModified(version.eTag(), version.lastModifiedMillis());
+    }
+
+    /**
+     * Extracts the expected optimistic-lock version from an {@code If-Match} header value.
+     * {@code If-Match} uses strong comparison, so a weak tag, or one this server never issued, matches nothing.
+     *
+     * @param ifMatch the raw header value, may be {@code null}.
+     * @return the expected version, or {@code null} if the header is absent or a wildcard.
+     * @throws PreconditionFailedException if the header is a weak, malformed or unknown tag.
+     */
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.isEmpty() || tag.equals("*")) {
+            return null;
+        }
+        if (tag.length() < 2 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            throw new PreconditionFailedException("If-Match must be a single strong entity tag");
+        }
+        tag = tag.substring(1, tag.length() - 1);
+        int separator = tag.indexOf('-');
+        if (separator >= 0) {
+            tag = tag.substring(0, separator);
+        }
+        try {
+            return Long.valueOf(tag);
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match does not match the current entity tag");
+        }
+    }
+
+    /**
+     * Verifies that a loaded entity still has the version the client expects.
+     *
+     * @param entityClass     the entity type, used for error reporting.
+     * @param id              the entity ID, used for error reporting.
+     * @param currentVersion  the version of the loaded entity.
+     * @param expectedVersion the version the client expects, or {@code null} for an unconditional write.
+     * @throws ObjectOptimisticLockingFailureException if the versions differ.
+     */
+    public static void requireVersion(Class<?> entityClass, Object id, Long currentVersion, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            throw new ObjectOptimisticLockingFailureException(entityClass, id);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.numaochi.common;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The fields and expansions a client asked for with the {@code fields} and {@code expand} query parameters,
+ * for example {@code fields=title,coverImage&expand=chapterCount}.
+ * <p>
+ * Without {@code fields} every field is selected. The {@code id} field is always selected, so that expansions and
+ * clients can tell the items apart.
+ */
+public final class FieldSelection {
+
+    private final Set<String> fields;
+    private final Set<String> expansions;
+
+    private FieldSelection(Set<String> fields, Set<String> expansions) {
+        this.fields = fields;
+        this.expansions = expansions;
+    }
+
+    /**
+     * Tells whether a request asks for a sparse or expanded representation rather than the default one.
+     *
+     * @param fields the {@code fields} parameter, or {@code null}.
+     * @param expand the {@code expand} parameter, or {@code null}.
+     * @return {@code true} if either parameter is present.
+     */
+    public static boolean isRequested(String fields, String expand) {
+        return fields != null || expand != null;
+    }
+
+    /**
+     * Tells whether a request asks for expansions. Expanded data, such as related counts or the parent, is not
+     * covered by the version of the resource, so such responses must not be answered with 304 Not Modified.
+     *
+     * @param expand the {@code expand} parameter, or {@code null}.
+     * @return {@code true} if the parameter is present.
+     */
+    public static boolean isExpanded(String expand) {
+        return expand != null;
+    }
+
+    /**
+     * Parses the {@code fields} and {@code expand} parameters of a request.
+     *
+     * @param fields          the comma-separated field names, or {@code null} for all fields.
+     * @param expand          the comma-separated expansion names, or {@code null} for none.
+     * @param knownFields     the fields of the resource.
+     * @param knownExpansions the expansions the resource supports.
+     * @return the selection.
+     * @throws InvalidFieldSelectionException if a name is not known.
+     */
+    public static FieldSelection parse(String fields, String expand, Collection<String> knownFields,
+                                       Collection<String> knownExpansions) {
+        Set<String> selectedFields = null;
+        if (fields != null) {
+            selectedFields = split(fields, knownFields, "field");
+            selectedFields.add("id");
+        }
+        Set<String> selectedExpansions = expand != null ? split(expand, knownExpansions, "expansion") : Set.of();
+        return new FieldSelection(selectedFields, selectedExpansions);
+    }
+
+    /**
+     * Tells whether a field is selected.
+     *
+     * @param field the field name.
+     * @return {@code true} if the field is selected.
+     */
+    public boolean includes(String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    /**
+     * Tells whether an expansion is requested.
+     *
+     * @param expansion the expansion name.
+     * @return {@code true} if the expansion is requested.
+     */
+    public boolean expands(String expansion) {
+        return expansions.contains(expansion);
+    }
+
+    private static Set<String> split(String value, Collection<String> known, String kind) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : value.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!known.contains(trimmed)) {
+                throw new InvalidFieldSelectionException("Unknown " + kind + " '" + trimmed + "', expected one of " + known);
+            }
+            names.add(trimmed);
+        }
+        return names;
+    }
+}
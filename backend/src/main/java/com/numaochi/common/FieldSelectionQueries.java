@@ -0,0 +1,135 @@
+package com.numaochi.common;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads the selected fields of entities as maps, selecting only the matching columns.
+ * Associations are read through their foreign key columns and are never loaded.
+ */
+@Component
+public class FieldSelectionQueries {
+
+    private final EntityManager entityManager;
+
+    public FieldSelectionQueries(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Builds an ordered mapping of field names to entity attribute paths.
+     *
+     * @param definitions the field names, each optionally followed by {@code =} and an attribute path such as
+     *                    {@code series.id}; without a path the attribute has the field's name.
+     * @return the field columns, in definition order.
+     */
+    public static Map<String, String> columns(String... definitions) {
+        Map<String, String> columns = new LinkedHashMap<>();
+        for (String definition : definitions) {
+            int separator = definition.indexOf('=');
+            if (separator < 0) {
+                columns.put(definition, definition);
+            } else {
+                columns.put(definition.substring(0, separator), definition.substring(separator + 1));
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Finds the selected fields of one or all entities of a type, ordered by ID.
+     *
+     * @param entityType the entity type.
+     * @param columns    the field columns of the entity, see {@link #columns(String...)}.
+     * @param selection  the selected fields; selected fields without a column are left to the caller.
+     * @param id         the ID of the entity to find, or {@code null} for all entities.
+     * @param <E>        the entity type.
+     * @return one mutable map of field values per entity, in field order.
+     */
+    public <E> List<Map<String, Object>> find(Class<E> entityType, Map<String, String> columns,
+                                              FieldSelection selection, Long id) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<E> root = query.from(entityType);
+        List<Selection<?>> selections = new ArrayList<>();
+        for (Map.Entry<String, String> column : columns.entrySet()) {
+            if (selection.includes(column.getKey())) {
+                selections.add(path(root, column.getValue()).alias(column.getKey()));
+            }
+        }
+        query.multiselect(selections);
+        if (id != null) {
+            query.where(builder.equal(root.get("id"), id));
+        }
+        query.orderBy(builder.asc(root.get("id")));
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (Selection<?> selected : selections) {
+                row.put(selected.getAlias(), tuple.get(selected.getAlias()));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Collects the IDs of loaded rows, for loading their expansions in one query.
+     *
+     * @param rows the rows returned by {@link #find}.
+     * @return the IDs of the rows.
+     */
+    public static Long[] ids(List<Map<String, Object>> rows) {
+        return rows.stream().map(row -> (Long) row.get("id")).toArray(Long[]::new);
+    }
+
+    /**
+     * Adds an expansion to loaded rows.
+     *
+     * @param rows    the rows returned by {@link #find}.
+     * @param name    the name of the expansion.
+     * @param values  the expansion values by row ID.
+     * @param missing the value for rows without an entry in {@code values}.
+     */
+    public static void expand(List<Map<String, Object>> rows, String name, Map<Long, ?> values, Object missing) {
+        for (Map<String, Object> row : rows) {
+            Object value = values.get((Long) row.get("id"));
+            row.put(name, value != null ? value : missing);
+        }
+    }
+
+    /**
+     * Indexes the rows of a two-column query by their first column.
+     *
+     * @param pairs rows of an ID and a value, such as the result of a grouped count.
+     * @return the values by ID.
+     */
+    public static Map<Long, Object> byId(List<Object[]> pairs) {
+        Map<Long, Object> values = new HashMap<>();
+        for (Object[] pair : pairs) {
+            values.put((Long) pair[0], pair[1]);
+        }
+        return values;
+    }
+
+    private static Path<?> path(Root<?> root, String attributePath) {
+        Path<?> path = root;
+        for (String attribute : attributePath.split("\\.")) {
+            path = path.get(attribute);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,20 @@
+package com.numaochi.common;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a {@code fields} or {@code expand} parameter names a field or expansion the resource does not have,
+ * or a {@code view} parameter names an unknown representation.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidFieldSelectionException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidFieldSelectionException with the given message.
+     * @param message the detail message.
+     */
+    public InvalidFieldSelectionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.numaochi.common;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a patch document contains a value that cannot be applied to the target resource.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidPatchException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidPatchException with the given message.
+     * @param message the detail message.
+     */
+    public InvalidPatchException(String message) {
+        super(message);
+    }
+}
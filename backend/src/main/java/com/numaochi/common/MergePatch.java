@@ -0,0 +1,106 @@
+package com.numaochi.common;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A JSON Merge Patch document (RFC 7396) applied to flat catalog resources.
+ * Fields absent from the document are left untouched; fields set to {@code null} are cleared.
+ */
+public final class MergePatch {
+
+    private static final ObjectMapper MAPPER = JsonMapper.builder().addModule(new JavaTimeModule()).build();
+    private static final TypeReference<List<Long>> ID_LIST = new TypeReference<>() {
+    };
+
+    private final ObjectNode document;
+
+    /**
+     * Constructs a new MergePatch from the given JSON object.
+     * @param document the patch document.
+     */
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public MergePatch(ObjectNode document) {
+        this.document = document;
+    }
+
+    /**
+     * Returns whether the patch mentions the given field.
+     * @param field the field name.
+     * @return {@code true} if the field is present, even if it is {@code null}.
+     */
+    public boolean has(String field) {
+        return document.has(field);
+    }
+
+    /**
+     * Returns the value of the given field converted to the given type.
+     *
+     * @param field the field name.
+     * @param type  the target type.
+     * @return the converted value, or {@code null} if the field is absent or {@code null}.
+     * @throws InvalidPatchException if the value cannot be converted.
+     */
+    public <T> T get(String field, Class<T> type) {
+        JsonNode value = document.get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        try {
+            return MAPPER.treeToValue(value, type);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            throw new InvalidPatchException("Invalid value for field '" + field + "'");
+        }
+    }
+
+    /**
+     * Returns the value of the given field as a list of IDs.
+     *
+     * @param field the field name.
+     * @return the IDs, or {@code null} if the field is absent or {@code null}.
+     * @throws InvalidPatchException if the value is not an array of numbers.
+     */
+    public List<Long> getIds(String field) {
+        JsonNode value = document.get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        try {
+            return MAPPER.convertValue(value, ID_LIST);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPatchException("Invalid value for field '" + field + "'");
+        }
+    }
+
+    /**
+     * Applies the given field to a property if it is present in the patch and differs from the current value.
+     *
+     * @param field   the field name.
+     * @param type    the property type.
+     * @param current supplies the current property value.
+     * @param setter  sets the new property value.
+     * @return {@code true} if the property was changed.
+     */
+    public <T> boolean apply(String field, Class<T> type, Supplier<T> current, Consumer<T> setter) {
+        if (!has(field)) {
+            return false;
+        }
+        T value = get(field, type);
+        if (Objects.equals(current.get(), value)) {
+            return false;
+        }
+        setter.accept(value);
+        return true;
+    }
+}
@@ -0,0 +1,34 @@
+package com.numaochi.common;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Fills in fields that have no value yet, leaving values that were entered by hand untouched.
+ */
+public final class MissingFields {
+
+    private MissingFields() {
+    }
+
+    /**
+     * Sets a field if it is empty, that is {@code null} or a blank string.
+     *
+     * @param getter the getter of the field.
+     * @param setter the setter of the field.
+     * @param value  the value to fill in; {@code null} or blank values are ignored.
+     * @param <T>    the type of the field.
+     * @return {@code true} if the field was set.
+     */
+    public static <T> boolean fill(Supplier<T> getter, Consumer<T> setter, T value) {
+        if (isEmpty(value) || !isEmpty(getter.get())) {
+            return false;
+        }
+        setter.accept(value);
+        return true;
+    }
+
+    private static boolean isEmpty(Object value) {
+        return value == null || value instanceof String text && text.isBlank();
+    }
+}
@@ -0,0 +1,60 @@
+package com.numaochi.common;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Data Transfer Object for one page of a paginated list.
+ *
+ * @param content       the items on this page.
+ * @param page          the zero-based page number.
+ * @param size          the requested page size.
+ * @param totalElements the total number of items across all pages.
+ * @param totalPages    the total number of pages.
+ */
+public record PageDTO<T>(List<T> content, int page, int size, long totalElements, int totalPages) {
+
+    /**
+     * The largest page size a client may request.
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Creates a page request ordered by ID, clamping the page size to {@link #MAX_PAGE_SIZE}.
+     *
+     * @param page the zero-based page number.
+     * @param size the requested page size.
+     * @return the page request.
+     */
+    public static PageRequest request(int page, int size) {
+        return request(page, size, Sort.by("id"));
+    }
+
+    /**
+     * Creates a page request with the given order, clamping the page size to {@link #MAX_PAGE_SIZE}.
+     *
+     * @param page the zero-based page number.
+     * @param size the requested page size.
+     * @param sort the order, or {@link Sort#unsorted()} if the query orders its results itself.
+     * @return the page request.
+     */
+    public static PageRequest request(int page, int size, Sort sort) {
+        return PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE), sort);
+    }
+
+    /**
+     * Converts a page of entities to a page of DTOs.
+     *
+     * @param page      the page of entities.
+     * @param converter converts each entity to a DTO.
+     * @return the page of DTOs.
+     */
+    public static <E, T> PageDTO<T> of(Page<E> page, Function<E, T> converter) {
+        return new PageDTO<>(page.getContent().stream().map(converter).toList(),
+                page.getNumber(), page.getSize(), page.getTotalElements(), page.getTotalPages());
+    }
+}
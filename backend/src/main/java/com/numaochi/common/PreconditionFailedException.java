@@ -0,0 +1,19 @@
+package com.numaochi.common;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when an {@code If-Match} header cannot match the current representation, such as a weak or foreign tag.
+ */
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class PreconditionFailedException extends RuntimeException {
+
+    /**
+     * Constructs a new PreconditionFailedException with the given message.
+     * @param message the detail message.
+     */
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
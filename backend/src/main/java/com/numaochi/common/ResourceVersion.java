@@ -0,0 +1,29 @@
+package com.numaochi.common;
+
+import java.time.Instant;
+
+/**
+ * Lightweight version information for a catalog resource or resource list.
+ * Loaded through projection queries so conditional requests can be answered without hydrating entities.
+ *
+ * @param version      the optimistic-lock version (or an aggregate of versions for a list).
+ * @param lastModified the time of the last modification, or {@code null} if unknown.
+ */
+public record ResourceVersion(Long version, Instant lastModified) {
+
+    /**
+     * Returns the strong entity tag for this version, without surrounding quotes.
+     * @return the entity tag value.
+     */
+    public String eTag() {
+        return lastModified != null ? version + "-" + lastModified.toEpochMilli() : String.valueOf(version);
+    }
+
+    /**
+     * Returns the last modification time in epoch milliseconds.
+     * @return the last modification time, or {@code -1} if unknown.
+     */
+    public long lastModifiedMillis() {
+        return lastModified != null ? lastModified.toEpochMilli() : -1;
+    }
+}
@@ -0,0 +1,136 @@
+package com.numaochi.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical reads: while a call for a key is in flight, further calls for the same key wait for
+ * its result instead of calling the backend again.
+ * <p>
+ * The first caller for a key runs the load on its own thread and shares the outcome, value or exception, with the
+ * callers that arrived meanwhile. A caller waits at most the configured time and then loads on its own, so a slow
+ * call cannot hold up more callers than it would have without coalescing. Shared values are handed to every waiting
+ * caller and must not be modified. Callers for whom the bypass condition holds, such as users whose reads are pinned
+ * to the primary database, load on their own without joining or starting a shared call.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Duration maxWait;
+    private final BooleanSupplier bypass;
+    private final Counter loaded;
+    private final Counter coalesced;
+    private final Counter timedOut;
+    private final Counter bypassed;
+
+    /**
+     * Creates a single-flight group.
+     *
+     * @param name          the name of the group, used as the {@code name} tag of its metrics.
+     * @param maxWait       how long a caller waits for a shared call before loading on its own.
+     * @param meterRegistry the registry for the metrics.
+     */
+    public SingleFlight(String name, Duration maxWait, MeterRegistry meterRegistry) {
+        this(name, maxWait, () -> false, meterRegistry);
+    }
+
+    /**
+     * Creates a single-flight group whose callers may load on their own.
+     *
+     * @param name          the name of the group, used as the {@code name} tag of its metrics.
+     * @param maxWait       how long a caller waits for a shared call before loading on its own.
+     * @param bypass        checked on the calling thread; {@code true} if the caller must not share a call.
+     * @param meterRegistry the registry for the metrics.
+     */
+    public SingleFlight(String name, Duration maxWait, BooleanSupplier bypass, MeterRegistry meterRegistry) {
+        this.maxWait = maxWait;
+        this.bypass = bypass;
+        this.loaded = counter(name, "loaded", meterRegistry);
+        this.coalesced = counter(name, "coalesced", meterRegistry);
+        this.timedOut = counter(name, "timed_out", meterRegistry);
+        this.bypassed = counter(name, "bypassed", meterRegistry);
+        Gauge.builder("numaochi.single_flight.in_flight", inFlight, ConcurrentHashMap::size)
+                .description("Calls currently in flight that later callers can join")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the value for a key, joining a call for the same key that is already in flight.
+     *
+     * @param key    the key.
+     * @param loader loads the value when no call for the key is in flight.
+     * @return the value.
+     */
+    public V execute(K key, Supplier<V> loader) {
+        if (bypass.getAsBoolean()) {
+            bypassed.increment();
+            return loader.get();
+        }
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing == null) {
+            loaded.increment();
+            try {
+                V value = loader.get();
+                call.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                call.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, call);
+            }
+        }
+
+        coalesced.increment();
+        try {
+            return existing.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timedOut.increment();
+            return loader.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + key, e);
+        }
+    }
+
+    /**
+     * Stops later callers from joining the call in flight for a key, such as after the value was changed, so that
+     * they read the change. Callers already waiting still receive the result of that call.
+     *
+     * @param key the key.
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    private static Counter counter(String name, String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("numaochi.single_flight.calls")
+                .description("Calls to coalesced reads: loaded, joined a call in flight, gave up waiting, or bypassed")
+                .tag("name", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,43 @@
+package com.numaochi.common;
+
+import com.numaochi.datasource.ReadYourWritesTracker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates {@link SingleFlight} groups configured by {@link CoalescingProperties} and reporting to the meter registry.
+ * When reads are routed to replicas, a user who wrote recently reads from the primary and so never joins a call
+ * that may be reading a replica that has not caught up with their write.
+ */
+@Component
+@EnableConfigurationProperties(CoalescingProperties.class)
+public class SingleFlights {
+
+    private final MeterRegistry meterRegistry;
+    private final CoalescingProperties properties;
+    private final ObjectProvider<ReadYourWritesTracker> writesTracker;
+
+    public SingleFlights(MeterRegistry meterRegistry, CoalescingProperties properties,
+                         ObjectProvider<ReadYourWritesTracker> writesTracker) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+        this.writesTracker = writesTracker;
+    }
+
+    /**
+     * Creates a single-flight group.
+     *
+     * @param name the name of the group, such as {@code series.by-id}.
+     * @return the group.
+     */
+    public <K, V> SingleFlight<K, V> create(String name) {
+        return new SingleFlight<>(name, properties.maxWait(), this::isPinnedToPrimary, meterRegistry);
+    }
+
+    private boolean isPinnedToPrimary() {
+        ReadYourWritesTracker tracker = writesTracker.getIfAvailable();
+        return tracker != null && tracker.hasCurrentUserRecentWrite();
+    }
+}
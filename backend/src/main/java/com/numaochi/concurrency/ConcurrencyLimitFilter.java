@@ -0,0 +1,77 @@
+package com.numaochi.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Servlet filter that limits the number of concurrent API requests per {@link EndpointGroup} with an adaptive
+ * {@link ConcurrencyLimiter}. Requests over the limit are rejected with 503 Service Unavailable and a
+ * {@code Retry-After} header instead of queueing for threads and database connections, so that the requests that are
+ * admitted still complete in time. It runs before the security filter chain so that rejected requests cost as little
+ * as possible.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 10)
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final ConcurrencyLimitProperties properties;
+    private final Map<EndpointGroup, ConcurrencyLimiter> limiters = new EnumMap<>(EndpointGroup.class);
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        if (properties.groups() != null) {
+            properties.groups().forEach((group, config) -> limiters.put(group, new ConcurrencyLimiter(group, config,
+                    properties.tolerance(), properties.smoothing(), meterRegistry)));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !properties.enabled() || !path.startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ConcurrencyLimiter limiter = limiters.get(EndpointGroup.of(request));
+        if (limiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+        if (permit == null) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            long retryAfter = Math.max(1, properties.retryAfter().toSeconds());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            response.getWriter().write("Error: Server is overloaded, please retry later.");
+            return;
+        }
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = !request.isAsyncStarted();
+        } finally {
+            if (completed) {
+                permit.release();
+            } else {
+                permit.ignore();
+            }
+        }
+    }
+}
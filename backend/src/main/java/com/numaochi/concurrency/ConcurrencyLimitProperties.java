@@ -0,0 +1,36 @@
+package com.numaochi.concurrency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Configuration properties for adaptive concurrency limiting.
+ *
+ * @param enabled    whether API requests are concurrency limited.
+ * @param retryAfter the delay suggested to rejected clients in the {@code Retry-After} header.
+ * @param tolerance  how much slower than the long-term average latency requests may become before the limit shrinks,
+ *                   as a ratio.
+ * @param smoothing  how far each sample moves the limit towards its new estimate, between 0 and 1.
+ * @param groups     the limit of each endpoint group; groups without an entry are not limited.
+ */
+@ConfigurationProperties(prefix = "concurrency-limit")
+public record ConcurrencyLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1s") Duration retryAfter,
+        @DefaultValue("1.5") double tolerance,
+        @DefaultValue("0.2") double smoothing,
+        Map<EndpointGroup, Group> groups) {
+
+    /**
+     * The concurrency limit of an endpoint group.
+     *
+     * @param initialLimit the limit before any latency has been measured.
+     * @param minLimit     the lowest the limit may fall.
+     * @param maxLimit     the highest the limit may rise.
+     */
+    public record Group(int initialLimit, int minLimit, int maxLimit) {
+    }
+}
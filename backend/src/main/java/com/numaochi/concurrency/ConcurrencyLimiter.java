@@ -0,0 +1,165 @@
+package com.numaochi.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Adaptive limit on the number of concurrent requests of one endpoint group.
+ * <p>
+ * The limit follows the gradient between the long-term average latency and the recent latency. While recent requests
+ * are no slower than the long-term average times the tolerance, the limit grows by about its square root, which
+ * leaves room for a small queue. Once latency rises above that, because requests queue for threads or database
+ * connections, the limit shrinks in proportion, by at most half. Requests over the limit are rejected at once rather
+ * than queued. Samples taken while fewer than half of the permits are in use are ignored, as the latency of an idle
+ * group says nothing about how much load it can take.
+ */
+public class ConcurrencyLimiter {
+
+    private static final double SHORT_WINDOW = 10;
+    private static final double LONG_WINDOW = 600;
+    private static final int WARMUP_SAMPLES = 10;
+
+    private final ConcurrencyLimitProperties.Group config;
+    private final double tolerance;
+    private final double smoothing;
+    private final LongSupplier nanoTime;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter accepted;
+    private final Counter rejected;
+
+    private volatile int limit;
+    private double estimatedLimit;
+    private double shortRtt;
+    private double longRtt;
+    private int samples;
+
+    public ConcurrencyLimiter(EndpointGroup group, ConcurrencyLimitProperties.Group config, double tolerance,
+            double smoothing, MeterRegistry meterRegistry) {
+        this(group, config, tolerance, smoothing, meterRegistry, System::nanoTime);
+    }
+
+    ConcurrencyLimiter(EndpointGroup group, ConcurrencyLimitProperties.Group config, double tolerance,
+            double smoothing, MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        this.config = config;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.nanoTime = nanoTime;
+        this.estimatedLimit = clamp(config.initialLimit());
+        this.limit = (int) estimatedLimit;
+
+        String tag = group.name().toLowerCase();
+        Gauge.builder("numaochi.concurrency.limit", this, ConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("group", tag)
+                .register(meterRegistry);
+        Gauge.builder("numaochi.concurrency.in_flight", inFlight, AtomicInteger::get)
+                .description("Requests currently holding a concurrency permit")
+                .tag("group", tag)
+                .register(meterRegistry);
+        this.accepted = counter(tag, "accepted", meterRegistry);
+        this.rejected = counter(tag, "rejected", meterRegistry);
+    }
+
+    /**
+     * Takes a permit for a request, unless the limit is reached.
+     *
+     * @return the permit, or {@code null} if the request must be rejected.
+     */
+    public Permit tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                accepted.increment();
+                return new Permit(nanoTime.getAsLong(), current + 1);
+            }
+        }
+    }
+
+    /**
+     * Returns the current limit.
+     *
+     * @return the maximum number of concurrent requests admitted.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Updates the limit with the latency of a completed request.
+     *
+     * @param rttNanos the latency of the request.
+     * @param inFlight the number of requests in flight when it started, itself included.
+     */
+    synchronized void onSample(long rttNanos, int inFlight) {
+        double rtt = Math.max(rttNanos, 1);
+        if (samples < WARMUP_SAMPLES) {
+            samples++;
+            longRtt += (rtt - longRtt) / samples;
+            shortRtt = longRtt;
+            return;
+        }
+        shortRtt += (rtt - shortRtt) * 2 / (SHORT_WINDOW + 1);
+        longRtt += (rtt - longRtt) * 2 / (LONG_WINDOW + 1);
+        // After a sustained change the long-term average lags far behind; pull it along so that the limit recovers.
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        if (inFlight < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = clamp(estimatedLimit * (1 - smoothing) + newLimit * smoothing);
+        limit = (int) estimatedLimit;
+    }
+
+    private double clamp(double value) {
+        return Math.max(config.minLimit(), Math.min(config.maxLimit(), value));
+    }
+
+    private static Counter counter(String group, String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("numaochi.concurrency.requests")
+                .description("API requests admitted or rejected by the concurrency limit")
+                .tag("group", group)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A permit held by one request, to be released exactly once.
+     */
+    public final class Permit {
+
+        private final long startNanos;
+        private final int inFlightAtStart;
+
+        private Permit(long startNanos, int inFlightAtStart) {
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * Releases the permit and feeds the latency of the request into the limit.
+         */
+        public void release() {
+            onSample(nanoTime.getAsLong() - startNanos, inFlightAtStart);
+            inFlight.decrementAndGet();
+        }
+
+        /**
+         * Releases the permit without measuring the request, for requests whose latency does not reflect load, such
+         * as failed or asynchronous ones.
+         */
+        public void ignore() {
+            inFlight.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.numaochi.concurrency;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.Set;
+
+/**
+ * Groups of API endpoints whose concurrency is limited independently, so that overload in one group does not starve
+ * the others.
+ */
+public enum EndpointGroup {
+
+    /**
+     * Catalog reads, including batch lookups by ID, which are POSTed only when the IDs do not fit in a query string.
+     */
+    CATALOG,
+
+    /**
+     * Search and suggestion queries.
+     */
+    SEARCH,
+
+    /**
+     * Creates, updates and deletes.
+     */
+    WRITE,
+
+    /**
+     * File downloads and chunked uploads, which hold a request for as long as the transfer takes.
+     */
+    STREAMING;
+
+    private static final Set<String> BATCH_LOOKUPS = Set.of("/api/series/batch", "/api/volumes/batch",
+            "/api/chapters/batch");
+
+    /**
+     * Determines the endpoint group of a request.
+     *
+     * @param request the request.
+     * @return the endpoint group.
+     */
+    public static EndpointGroup of(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/api/blobs/") || path.startsWith("/api/uploads")) {
+            return STREAMING;
+        }
+        if (path.startsWith("/api/series/search") || path.startsWith("/api/series/suggest")) {
+            return SEARCH;
+        }
+        String method = request.getMethod();
+        if ("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)
+                || BATCH_LOOKUPS.contains(path)) {
+            return CATALOG;
+        }
+        return WRITE;
+    }
+}
@@ -0,0 +1,100 @@
+package com.numaochi.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which users wrote recently, so that their reads go to the primary until the replicas have caught up.
+ * Writes are recorded locally and in Redis, so the user also sees their writes when the next request
+ * is served by another node.
+ */
+public class ReadYourWritesTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadYourWritesTracker.class);
+
+    private static final String KEY_PREFIX = "datasource:written:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration window;
+    private final Clock clock;
+    private final Map<String, Long> recentWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(StringRedisTemplate redisTemplate, Duration window) {
+        this(redisTemplate, window, Clock.systemUTC());
+    }
+
+    ReadYourWritesTracker(StringRedisTemplate redisTemplate, Duration window, Clock clock) {
+        this.redisTemplate = redisTemplate;
+        this.window = window;
+        this.clock = clock;
+    }
+
+    /**
+     * Records that a user committed a write.
+     *
+     * @param username the username.
+     */
+    public void recordWrite(String username) {
+        long now = clock.millis();
+        recentWrites.put(username, now + window.toMillis());
+        recentWrites.values().removeIf(until -> until <= now);
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + username, "1", window);
+        } catch (DataAccessException e) {
+            log.warn("Could not record write of {} in Redis", username, e);
+        }
+    }
+
+    /**
+     * Checks whether a user wrote within the read-your-writes window.
+     *
+     * @param username the username.
+     * @return {@code true} if the reads of the user must go to the primary.
+     */
+    public boolean hasRecentWrite(String username) {
+        Long until = recentWrites.get(username);
+        if (until != null && until > clock.millis()) {
+            return true;
+        }
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + username));
+        } catch (DataAccessException e) {
+            log.warn("Could not check recent writes of {} in Redis", username, e);
+            return true;
+        }
+    }
+
+    /**
+     * Checks whether the authenticated user of the current request wrote within the read-your-writes window.
+     *
+     * @return {@code true} if the reads of the current user must go to the primary.
+     */
+    public boolean hasCurrentUserRecentWrite() {
+        String username = currentUsername();
+        return username != null && hasRecentWrite(username);
+    }
+
+    /**
+     * Returns the name of the authenticated user of the current request.
+     *
+     * @return the username, or {@code null} if the request is anonymous.
+     */
+    static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
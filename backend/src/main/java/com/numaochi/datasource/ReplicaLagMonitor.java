@@ -0,0 +1,130 @@
+package com.numaochi.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Periodically measures the replication lag of each replica and picks a replica that is within the allowed lag.
+ * A replica whose lag cannot be measured is treated as unavailable until the next successful check.
+ * The monitor owns the replica datasources and closes them on shutdown.
+ */
+public class ReplicaLagMonitor implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    /**
+     * Replication lag in seconds. A replica that has replayed everything it received is not lagging,
+     * even if the primary has been idle since the last replayed transaction.
+     */
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+            END""";
+
+    private final Map<String, DataSource> dataSources = new LinkedHashMap<>();
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService scheduler;
+
+    public ReplicaLagMonitor(List<DataSource> replicaDataSources, Duration maxLag, Duration checkInterval,
+                             MeterRegistry meterRegistry) {
+        this.maxLag = maxLag;
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            String key = ReplicaRoutingDataSource.replicaKey(i);
+            Replica replica = new Replica(key, new JdbcTemplate(replicaDataSources.get(i)));
+            dataSources.put(key, replicaDataSources.get(i));
+            replicas.add(replica);
+            Gauge.builder("numaochi.datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .description("Replication lag of a read replica in seconds, or -1 if unreachable")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.key)
+                    .register(meterRegistry);
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("replica-lag-"));
+        if (!replicas.isEmpty()) {
+            scheduler.scheduleWithFixedDelay(this::checkAll, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Returns the replica datasources by lookup key.
+     *
+     * @return the replica datasources.
+     */
+    public Map<String, DataSource> dataSources() {
+        return dataSources;
+    }
+
+    /**
+     * Picks the next usable replica in round-robin order.
+     *
+     * @return the lookup key of the replica, or {@code null} if no replica is within the allowed lag.
+     */
+    public String pickReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.usable) {
+                return replica.key;
+            }
+        }
+        return null;
+    }
+
+    void checkAll() {
+        for (Replica replica : replicas) {
+            try {
+                Double lag = replica.jdbcTemplate.queryForObject(LAG_QUERY, Double.class);
+                replica.lagSeconds = lag == null ? 0 : lag;
+                replica.usable = replica.lagSeconds * 1000 <= maxLag.toMillis();
+            } catch (RuntimeException e) {
+                if (replica.usable || replica.lagSeconds >= 0) {
+                    log.warn("Replica {} is unreachable, routing its reads elsewhere", replica.key, e);
+                }
+                replica.lagSeconds = -1;
+                replica.usable = false;
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        scheduler.shutdownNow();
+        for (DataSource dataSource : dataSources.values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static final class Replica {
+        private final String key;
+        private final JdbcTemplate jdbcTemplate;
+        private volatile double lagSeconds;
+        private volatile boolean usable;
+
+        private Replica(String key, JdbcTemplate jdbcTemplate) {
+            this.key = key;
+            this.jdbcTemplate = jdbcTemplate;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.numaochi.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured datasource with one that sends read-only transactions to streaming replicas.
+ * It is only active when at least one replica is configured; otherwise every transaction uses the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.routing", name = "replicas[0].url")
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+public class ReplicaRoutingConfig {
+
+    /**
+     * Creates the primary datasource from the {@code spring.datasource} properties, with the pool settings of
+     * {@code spring.datasource.hikari}.
+     *
+     * @param properties the primary datasource properties.
+     * @return the primary datasource.
+     */
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * Creates the monitor that measures replication lag. It owns the replica connection pools.
+     *
+     * @param dataSourceProperties the primary datasource properties, for default credentials.
+     * @param properties           the routing properties.
+     * @param meterRegistry        the registry of the replica lag gauges.
+     * @return the lag monitor.
+     */
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(DataSourceProperties dataSourceProperties,
+                                               ReplicaRoutingProperties properties, MeterRegistry meterRegistry) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.replicas().size(); i++) {
+            ReplicaRoutingProperties.Replica replica = properties.replicas().get(i);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(dataSourceProperties.determineDriverClassName())
+                    .url(replica.url())
+                    .username(replica.username() != null ? replica.username() : dataSourceProperties.determineUsername())
+                    .password(replica.password() != null ? replica.password() : dataSourceProperties.determinePassword())
+                    .build();
+            dataSource.setPoolName(ReplicaRoutingDataSource.replicaKey(i));
+            dataSource.setReadOnly(true);
+            replicas.add(dataSource);
+        }
+        return new ReplicaLagMonitor(replicas, properties.maxLag(), properties.checkInterval(), meterRegistry);
+    }
+
+    /**
+     * Creates the tracker of recent writes per user.
+     *
+     * @param redisTemplate the Redis template.
+     * @param properties    the routing properties.
+     * @return the tracker.
+     */
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(StringRedisTemplate redisTemplate,
+                                                       ReplicaRoutingProperties properties) {
+        return new ReadYourWritesTracker(redisTemplate, properties.readYourWritesWindow());
+    }
+
+    /**
+     * Creates the routing datasource used by JPA and Liquibase. Connections are fetched lazily so that the
+     * target is chosen once the read-only flag of the transaction is known.
+     *
+     * @param primaryDataSource     the primary datasource.
+     * @param replicaLagMonitor     the replica lag monitor.
+     * @param readYourWritesTracker the tracker of recent writes.
+     * @return the routing datasource.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaLagMonitor replicaLagMonitor,
+                                 ReadYourWritesTracker readYourWritesTracker) {
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(replicaLagMonitor, readYourWritesTracker);
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReplicaRoutingDataSource.PRIMARY, primaryDataSource);
+        replicaLagMonitor.dataSources().forEach(targets::put);
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -0,0 +1,74 @@
+package com.numaochi.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes read-only transactions to a replica and everything else to the primary.
+ * <p>
+ * Reads stay on the primary when no replica is within the allowed lag, and for a short while after the current
+ * user committed a write so that they read their own writes. The decision is made when the first statement of a
+ * transaction runs, so this datasource must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy LazyConnectionDataSourceProxy}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * Lookup key of the primary datasource.
+     */
+    public static final String PRIMARY = "primary";
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker writesTracker;
+
+    public ReplicaRoutingDataSource(ReplicaLagMonitor lagMonitor, ReadYourWritesTracker writesTracker) {
+        this.lagMonitor = lagMonitor;
+        this.writesTracker = writesTracker;
+    }
+
+    /**
+     * Returns the lookup key of a replica.
+     *
+     * @param index the index of the replica in the configuration.
+     * @return the lookup key.
+     */
+    public static String replicaKey(int index) {
+        return "replica-" + index;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String username = ReadYourWritesTracker.currentUsername();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (username != null && TransactionSynchronizationManager.isSynchronizationActive()
+                    && TransactionSynchronizationManager.getSynchronizations().stream()
+                    .noneMatch(RecordWrite.class::isInstance)) {
+                TransactionSynchronizationManager.registerSynchronization(new RecordWrite(username));
+            }
+            return PRIMARY;
+        }
+        if (username != null && writesTracker.hasRecentWrite(username)) {
+            return PRIMARY;
+        }
+        String replica = lagMonitor.pickReplica();
+        return replica != null ? replica : PRIMARY;
+    }
+
+    /**
+     * Records the write of a user once their transaction has committed.
+     */
+    private final class RecordWrite implements TransactionSynchronization {
+
+        private final String username;
+
+        private RecordWrite(String username) {
+            this.username = username;
+        }
+
+        @Override
+        public void afterCommit() {
+            writesTracker.recordWrite(username);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.numaochi.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuration properties for routing read-only transactions to streaming replicas.
+ *
+ * @param replicas            the replicas; when empty every transaction uses the primary datasource.
+ * @param maxLag              the replication lag above which a replica stops receiving reads.
+ * @param checkInterval       how often the replication lag of each replica is measured.
+ * @param readYourWritesWindow how long the reads of a user stay on the primary after they wrote.
+ */
+@ConfigurationProperties(prefix = "datasource.routing")
+public record ReplicaRoutingProperties(
+        List<Replica> replicas,
+        @DefaultValue("5s") Duration maxLag,
+        @DefaultValue("2s") Duration checkInterval,
+        @DefaultValue("10s") Duration readYourWritesWindow) {
+
+    /**
+     * Connection settings of a replica. The credentials default to those of the primary datasource.
+     *
+     * @param url      the JDBC URL.
+     * @param username the username, or {@code null}.
+     * @param password the password, or {@code null}.
+     */
+    public record Replica(String url, String username, String password) {
+    }
+}
@@ -0,0 +1,117 @@
+package com.numaochi.metadata;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Metadata read from a chapter file. Any field may be {@code null} when the file does not declare it.
+ *
+ * @param title           the title of the book or issue.
+ * @param seriesTitle     the title of the series the book belongs to.
+ * @param author          the author, or authors separated by commas.
+ * @param publisher       the publisher.
+ * @param isbn            the ISBN-10 or ISBN-13, without separators.
+ * @param publicationDate the date of publication.
+ * @param description     the description as plain text.
+ * @param pageCount       the number of pages, for formats with fixed pages.
+ */
+public record BookMetadata(String title, String seriesTitle, String author, String publisher, String isbn,
+                           LocalDate publicationDate, String description, Integer pageCount) {
+
+    /**
+     * Metadata without any fields.
+     */
+    public static final BookMetadata EMPTY = new BookMetadata(null, null, null, null, null, null, null, null);
+
+    private static final Pattern TAGS = Pattern.compile("<[^>]*>");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern ISBN = Pattern.compile("\\d{9}[\\dX]|\\d{13}");
+
+    /**
+     * Fills the fields missing from this metadata with those of other metadata.
+     *
+     * @param other the metadata to fall back on.
+     * @return the combined metadata.
+     */
+    public BookMetadata orElse(BookMetadata other) {
+        return new BookMetadata(
+                title != null ? title : other.title,
+                seriesTitle != null ? seriesTitle : other.seriesTitle,
+                author != null ? author : other.author,
+                publisher != null ? publisher : other.publisher,
+                isbn != null ? isbn : other.isbn,
+                publicationDate != null ? publicationDate : other.publicationDate,
+                description != null ? description : other.description,
+                pageCount != null ? pageCount : other.pageCount);
+    }
+
+    /**
+     * Normalises a text field: trims it, collapses whitespace and turns blank values into {@code null}.
+     *
+     * @param text the text, or {@code null}.
+     * @return the normalised text, or {@code null}.
+     */
+    static String text(String text) {
+        if (text == null) {
+            return null;
+        }
+        String normalized = WHITESPACE.matcher(text).replaceAll(" ").trim();
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    /**
+     * Converts a description that may contain HTML markup, as EPUB and ComicInfo descriptions often do, to plain text.
+     *
+     * @param html the description, or {@code null}.
+     * @return the description without tags, or {@code null}.
+     */
+    static String plainText(String html) {
+        return html == null ? null : text(TAGS.matcher(html).replaceAll(" ")
+                .replace("&nbsp;", " ").replace("&quot;", "\"").replace("&#39;", "'")
+                .replace("&lt;", "<").replace("&gt;", ">").replace("&amp;", "&"));
+    }
+
+    /**
+     * Extracts an ISBN from an identifier such as {@code urn:isbn:978-4-08-872509-3}.
+     *
+     * @param identifier the identifier, or {@code null}.
+     * @return the ISBN without separators, or {@code null} if the identifier is not an ISBN.
+     */
+    static String isbn(String identifier) {
+        if (identifier == null) {
+            return null;
+        }
+        String candidate = identifier.toUpperCase(Locale.ROOT).replaceFirst("^(URN:)?ISBN:?", "").replaceAll("[\\s-]", "");
+        return ISBN.matcher(candidate).matches() ? candidate : null;
+    }
+
+    /**
+     * Parses a date given as {@code yyyy}, {@code yyyy-MM}, {@code yyyy-MM-dd} or an ISO-8601 date-time.
+     * Partial dates fall on the first day of the year or month.
+     *
+     * @param date the date, or {@code null}.
+     * @return the date, or {@code null} if it cannot be parsed.
+     */
+    static LocalDate date(String date) {
+        String text = text(date);
+        if (text == null) {
+            return null;
+        }
+        try {
+            if (text.length() >= 10) {
+                return LocalDate.parse(text.substring(0, 10));
+            }
+            if (text.length() == 7) {
+                return LocalDate.parse(text + "-01");
+            }
+            if (text.length() == 4) {
+                return LocalDate.of(Integer.parseInt(text), 1, 1);
+            }
+        } catch (DateTimeParseException | NumberFormatException e) {
+            // Not a date in a supported form.
+        }
+        return null;
+    }
+}
@@ -0,0 +1,12 @@
+package com.numaochi.metadata;
+
+import java.nio.file.Path;
+
+/**
+ * A chapter file to read metadata from.
+ *
+ * @param path     the location of the file.
+ * @param fileType the file type of the chapter, such as {@code EPUB}.
+ */
+public record ChapterFile(Path path, String fileType) {
+}
@@ -0,0 +1,107 @@
+package com.numaochi.metadata;
+
+import org.springframework.stereotype.Component;
+import org.w3c.dom.Element;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Enumeration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Reads the ComicInfo.xml of a CBZ file, as written by ComicRack and most comic managers.
+ * Only ComicInfo.xml is read from the archive; when it does not declare a page count, the images are counted from the
+ * archive's central directory without reading them.
+ */
+@Component
+public class ComicInfoMetadataExtractor implements MetadataExtractor {
+
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "webp", "avif", "bmp");
+
+    private final MetadataExtractionProperties properties;
+
+    public ComicInfoMetadataExtractor(MetadataExtractionProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public boolean supports(String fileType) {
+        return "CBZ".equalsIgnoreCase(fileType);
+    }
+
+    @Override
+    public BookMetadata extract(Path file, ExtractionScope scope) throws IOException {
+        try (ZipFile zip = scope.register(new ZipFile(file.toFile()))) {
+            ZipEntry comicInfo = null;
+            int images = 0;
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                String name = entry.getName().substring(entry.getName().lastIndexOf('/') + 1);
+                if (name.equalsIgnoreCase("ComicInfo.xml")) {
+                    // Prefer the one at the root of the archive.
+                    if (comicInfo == null || entry.getName().indexOf('/') < 0) {
+                        comicInfo = entry;
+                    }
+                } else if (isImage(name)) {
+                    images++;
+                }
+            }
+            Integer imageCount = images > 0 ? images : null;
+            if (comicInfo == null) {
+                return new BookMetadata(null, null, null, null, null, null, null, imageCount);
+            }
+            Element root = XmlDocuments.parse(zip, comicInfo, properties.maxEntrySize().toBytes()).getDocumentElement();
+            Integer pageCount = number(root, "PageCount");
+            return new BookMetadata(
+                    text(root, "Title"),
+                    text(root, "Series"),
+                    text(root, "Writer"),
+                    text(root, "Publisher"),
+                    BookMetadata.isbn(text(root, "GTIN")),
+                    publicationDate(root),
+                    BookMetadata.plainText(text(root, "Summary")),
+                    pageCount != null && pageCount > 0 ? pageCount : imageCount);
+        }
+    }
+
+    private static boolean isImage(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot > 0 && !name.startsWith(".") && IMAGE_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private static String text(Element root, String name) {
+        return BookMetadata.text(XmlDocuments.text(root, "*", name));
+    }
+
+    private static Integer number(Element root, String name) {
+        String text = text(root, name);
+        try {
+            return text != null ? Integer.valueOf(text) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static LocalDate publicationDate(Element root) {
+        Integer year = number(root, "Year");
+        if (year == null || year <= 0) {
+            return null;
+        }
+        Integer month = number(root, "Month");
+        Integer day = number(root, "Day");
+        try {
+            return LocalDate.of(year, month != null ? month : 1, day != null ? day : 1);
+        } catch (DateTimeException e) {
+            return LocalDate.of(year, 1, 1);
+        }
+    }
+}
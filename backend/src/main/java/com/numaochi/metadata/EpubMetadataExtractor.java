@@ -0,0 +1,142 @@
+package com.numaochi.metadata;
+
+import org.springframework.stereotype.Component;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Reads the Dublin Core metadata of the package document (OPF) of an EPUB 2 or 3 file.
+ * Only the container document and the package document are read from the archive. Reflowable EPUBs have no fixed
+ * pages, so a page count is only reported when the package declares {@code schema:numberOfPages}.
+ */
+@Component
+public class EpubMetadataExtractor implements MetadataExtractor {
+
+    private static final String CONTAINER = "urn:oasis:names:tc:opendocument:xmlns:container";
+    private static final String OPF = "http://www.idpf.org/2007/opf";
+    private static final String DC = "http://purl.org/dc/elements/1.1/";
+
+    private final MetadataExtractionProperties properties;
+
+    public EpubMetadataExtractor(MetadataExtractionProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public boolean supports(String fileType) {
+        return "EPUB".equalsIgnoreCase(fileType);
+    }
+
+    @Override
+    public BookMetadata extract(Path file, ExtractionScope scope) throws IOException {
+        long maxSize = properties.maxEntrySize().toBytes();
+        try (ZipFile zip = scope.register(new ZipFile(file.toFile()))) {
+            Document container = XmlDocuments.parse(zip, entry(zip, "META-INF/container.xml"), maxSize);
+            Element rootFile = XmlDocuments.first(container, CONTAINER, "rootfile");
+            if (rootFile == null || rootFile.getAttribute("full-path").isEmpty()) {
+                throw new IOException("EPUB container does not name a package document");
+            }
+            Document packageDocument = XmlDocuments.parse(zip, entry(zip, rootFile.getAttribute("full-path")), maxSize);
+            Element metadata = XmlDocuments.first(packageDocument, OPF, "metadata");
+            if (metadata == null) {
+                return BookMetadata.EMPTY;
+            }
+            Map<String, String> meta = meta(metadata);
+            return new BookMetadata(
+                    BookMetadata.text(XmlDocuments.text(metadata, DC, "title")),
+                    seriesTitle(meta),
+                    authors(metadata, meta),
+                    BookMetadata.text(XmlDocuments.text(metadata, DC, "publisher")),
+                    isbn(metadata),
+                    publicationDate(metadata),
+                    BookMetadata.plainText(XmlDocuments.text(metadata, DC, "description")),
+                    pageCount(meta));
+        }
+    }
+
+    private static ZipEntry entry(ZipFile zip, String name) throws IOException {
+        ZipEntry entry = zip.getEntry(name);
+        if (entry == null) {
+            throw new IOException("EPUB has no " + name);
+        }
+        return entry;
+    }
+
+    /**
+     * Collects the {@code meta} elements of the package: EPUB 3 {@code property} values, with refinements keyed as
+     * {@code id/property}, and EPUB 2 {@code name}/{@code content} pairs.
+     */
+    private static Map<String, String> meta(Element metadata) {
+        Map<String, String> meta = new HashMap<>();
+        for (Element element : XmlDocuments.elements(metadata, OPF, "meta")) {
+            String property = element.getAttribute("property");
+            String refines = element.getAttribute("refines");
+            if (!property.isEmpty()) {
+                String key = refines.startsWith("#") ? refines.substring(1) + "/" + property : property;
+                meta.putIfAbsent(key, BookMetadata.text(element.getTextContent()));
+            } else if (!element.getAttribute("name").isEmpty()) {
+                meta.putIfAbsent(element.getAttribute("name"), BookMetadata.text(element.getAttribute("content")));
+            }
+        }
+        return meta;
+    }
+
+    private static String seriesTitle(Map<String, String> meta) {
+        String calibreSeries = meta.get("calibre:series");
+        return calibreSeries != null ? calibreSeries : meta.get("belongs-to-collection");
+    }
+
+    private static String authors(Element metadata, Map<String, String> meta) {
+        List<String> authors = new ArrayList<>();
+        for (Element creator : XmlDocuments.elements(metadata, DC, "creator")) {
+            String role = creator.getAttributeNS(OPF, "role");
+            if (role.isEmpty()) {
+                role = meta.getOrDefault(creator.getAttribute("id") + "/role", "");
+            }
+            String name = BookMetadata.text(creator.getTextContent());
+            if (name != null && (role.isEmpty() || role.equals("aut"))) {
+                authors.add(name);
+            }
+        }
+        return authors.isEmpty() ? null : String.join(", ", authors);
+    }
+
+    private static String isbn(Element metadata) {
+        for (Element identifier : XmlDocuments.elements(metadata, DC, "identifier")) {
+            String isbn = BookMetadata.isbn(BookMetadata.text(identifier.getTextContent()));
+            if (isbn != null) {
+                return isbn;
+            }
+        }
+        return null;
+    }
+
+    private static LocalDate publicationDate(Element metadata) {
+        for (Element date : XmlDocuments.elements(metadata, DC, "date")) {
+            String event = date.getAttributeNS(OPF, "event");
+            if (event.isEmpty() || event.equals("publication")) {
+                return BookMetadata.date(date.getTextContent());
+            }
+        }
+        return null;
+    }
+
+    private static Integer pageCount(Map<String, String> meta) {
+        String pages = meta.get("schema:numberOfPages");
+        try {
+            return pages != null ? Integer.valueOf(pages) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.numaochi.metadata;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The files held open by one running extraction.
+ * <p>
+ * Zip and PDF readers do not respond to interrupts, so an extraction that runs over its timeout is abandoned by
+ * closing what it has opened instead: its next read fails and the worker is released.
+ */
+public final class ExtractionScope {
+
+    private final List<Closeable> resources = new ArrayList<>();
+    private boolean abandoned;
+
+    /**
+     * Registers a resource to be closed if the extraction is abandoned.
+     * The extraction still closes the resource itself when it finishes.
+     *
+     * @param resource the opened resource.
+     * @param <T>      the type of the resource.
+     * @return the resource.
+     * @throws InterruptedIOException if the extraction has already been abandoned; the resource is closed.
+     */
+    public synchronized <T extends Closeable> T register(T resource) throws IOException {
+        if (abandoned) {
+            resource.close();
+            throw new InterruptedIOException("Extraction was abandoned");
+        }
+        resources.add(resource);
+        return resource;
+    }
+
+    /**
+     * Closes every registered resource, and any registered later.
+     */
+    synchronized void abandon() {
+        abandoned = true;
+        for (Closeable resource : resources) {
+            try {
+                resource.close();
+            } catch (IOException | RuntimeException e) {
+                // The extraction is failing anyway; it reports its own error.
+            }
+        }
+        resources.clear();
+    }
+}
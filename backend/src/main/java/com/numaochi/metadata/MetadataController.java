@@ -0,0 +1,31 @@
+package com.numaochi.metadata;
+
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for filling in metadata from chapter files.
+ */
+@RestController
+@RequestMapping("/api/metadata")
+public class MetadataController {
+
+    private final MetadataImportService importService;
+
+    public MetadataController(MetadataImportService importService) {
+        this.importService = importService;
+    }
+
+    /**
+     * Reads the EPUB, PDF and CBZ chapter files of series and fills in the empty fields of the series and their
+     * volumes: title, author, publisher, ISBN, publication date, description and page count.
+     *
+     * @param seriesIds the IDs of the series, or no body for the whole library.
+     * @return the outcome of the extraction.
+     */
+    @PostMapping("/extract")
+    public MetadataImportReportDTO extractMetadata(@RequestBody(required = false) List<Long> seriesIds) {
+        return importService.importMetadata(seriesIds);
+    }
+}
@@ -0,0 +1,23 @@
+package com.numaochi.metadata;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for extracting metadata from chapter files.
+ *
+ * @param threads      the number of files read in parallel; 0 means one per processor.
+ * @param timeout      how long one file may take before it is skipped.
+ * @param batchSize    the number of series whose files are read and merged together.
+ * @param maxEntrySize the maximum size of a metadata document inside a file.
+ */
+@ConfigurationProperties(prefix = "metadata.extraction")
+public record MetadataExtractionProperties(
+        @DefaultValue("0") int threads,
+        @DefaultValue("30s") Duration timeout,
+        @DefaultValue("100") int batchSize,
+        @DefaultValue("4MB") DataSize maxEntrySize) {
+}
@@ -0,0 +1,138 @@
+package com.numaochi.metadata;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads metadata from chapter files on a bounded pool of workers.
+ * <p>
+ * Each file gets its own timeout, counted from when a worker picks it up rather than from when it was queued. A file
+ * that runs over is skipped and abandoned: the files it holds open are closed, since zip and PDF reads ignore
+ * interrupts, so one damaged or very slow file cannot hold up a whole import or keep a worker busy.
+ */
+@Service
+@EnableConfigurationProperties(MetadataExtractionProperties.class)
+public class MetadataExtractionService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(MetadataExtractionService.class);
+
+    private final List<MetadataExtractor> extractors;
+    private final MetadataExtractionProperties properties;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService timeouts =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("metadata-timeout-"));
+
+    @Autowired
+    public MetadataExtractionService(List<MetadataExtractor> extractors, MetadataExtractionProperties properties) {
+        this(extractors, properties, Executors.newFixedThreadPool(
+                properties.threads() > 0 ? properties.threads() : Runtime.getRuntime().availableProcessors(),
+                new CustomizableThreadFactory("metadata-extraction-")));
+    }
+
+    MetadataExtractionService(List<MetadataExtractor> extractors, MetadataExtractionProperties properties,
+                              ExecutorService executor) {
+        this.extractors = extractors;
+        this.properties = properties;
+        this.executor = executor;
+    }
+
+    /**
+     * Checks whether metadata can be read from files of a type.
+     *
+     * @param fileType the file type of the chapter, such as {@code EPUB}.
+     * @return {@code true} if an extractor supports the type.
+     */
+    public boolean supports(String fileType) {
+        return extractorFor(fileType) != null;
+    }
+
+    /**
+     * Reads the metadata of several files in parallel.
+     *
+     * @param files the files to read.
+     * @return the metadata of each file, in the order of the files; {@code null} for a file of an unsupported type,
+     *         or one that could not be read within the timeout.
+     */
+    public List<BookMetadata> extractAll(List<ChapterFile> files) {
+        List<Future<BookMetadata>> futures = new ArrayList<>(files.size());
+        for (ChapterFile file : files) {
+            futures.add(submit(file));
+        }
+        List<BookMetadata> results = new ArrayList<>(files.size());
+        try {
+            for (int i = 0; i < files.size(); i++) {
+                results.add(await(futures.get(i), files.get(i)));
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while extracting metadata", e);
+        }
+        return results;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+        timeouts.shutdownNow();
+    }
+
+    private Future<BookMetadata> submit(ChapterFile file) {
+        MetadataExtractor extractor = extractorFor(file.fileType());
+        if (extractor == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        ExtractionScope scope = new ExtractionScope();
+        FutureTask<BookMetadata> task = new FutureTask<>(() -> extractor.extract(file.path(), scope));
+        executor.execute(() -> {
+            ScheduledFuture<?> timeout = timeouts.schedule(() -> {
+                task.cancel(true);
+                scope.abandon();
+            }, properties.timeout().toMillis(), TimeUnit.MILLISECONDS);
+            try {
+                task.run();
+            } finally {
+                timeout.cancel(false);
+            }
+        });
+        return task;
+    }
+
+    private static BookMetadata await(Future<BookMetadata> future, ChapterFile file) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (CancellationException e) {
+            log.warn("Reading metadata of {} timed out", file.path());
+        } catch (ExecutionException e) {
+            log.warn("Could not read metadata of {}: {}", file.path(), e.getCause().toString());
+        }
+        return null;
+    }
+
+    private MetadataExtractor extractorFor(String fileType) {
+        for (MetadataExtractor extractor : extractors) {
+            if (extractor.supports(fileType)) {
+                return extractor;
+            }
+        }
+        return null;
+    }
+}
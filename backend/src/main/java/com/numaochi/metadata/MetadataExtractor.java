@@ -0,0 +1,40 @@
+package com.numaochi.metadata;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Reads the metadata of one file format.
+ * Implementations read only the parts of a file that hold metadata, never the whole file.
+ */
+public interface MetadataExtractor {
+
+    /**
+     * Checks whether this extractor reads files of a type.
+     *
+     * @param fileType the file type of the chapter, such as {@code EPUB}, in any case.
+     * @return {@code true} if the type is supported.
+     */
+    boolean supports(String fileType);
+
+    /**
+     * Reads the metadata of a file.
+     *
+     * @param file the file.
+     * @return the metadata, with {@code null} for every field the file does not declare.
+     * @throws IOException if the file cannot be read or is malformed.
+     */
+    default BookMetadata extract(Path file) throws IOException {
+        return extract(file, new ExtractionScope());
+    }
+
+    /**
+     * Reads the metadata of a file, registering what it opens with a scope so that it can be abandoned.
+     *
+     * @param file  the file.
+     * @param scope the scope of the extraction.
+     * @return the metadata, with {@code null} for every field the file does not declare.
+     * @throws IOException if the file cannot be read or is malformed, or the extraction was abandoned.
+     */
+    BookMetadata extract(Path file, ExtractionScope scope) throws IOException;
+}
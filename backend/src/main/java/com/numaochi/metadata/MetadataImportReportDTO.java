@@ -0,0 +1,15 @@
+package com.numaochi.metadata;
+
+/**
+ * The outcome of extracting metadata for a set of series.
+ *
+ * @param series         the number of series processed.
+ * @param filesRead      the number of chapter files whose metadata was read.
+ * @param filesFailed    the number of chapter files that could not be read or timed out.
+ * @param filesSkipped   the number of chapter files of a type without metadata support.
+ * @param seriesUpdated  the number of series that had empty fields filled in.
+ * @param volumesUpdated the number of volumes that had empty fields filled in or a new page count.
+ */
+public record MetadataImportReportDTO(int series, int filesRead, int filesFailed, int filesSkipped,
+                                      int seriesUpdated, int volumesUpdated) {
+}
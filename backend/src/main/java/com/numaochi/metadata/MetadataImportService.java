@@ -0,0 +1,146 @@
+package com.numaochi.metadata;
+
+import com.numaochi.series.SeriesDTO;
+import com.numaochi.series.SeriesRepository;
+import com.numaochi.series.SeriesService;
+import com.numaochi.volume.VolumeDTO;
+import com.numaochi.volume.VolumeRepository;
+import com.numaochi.volume.VolumeService;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fills in series and volume metadata from the chapter files, so that an imported library needs no data entry.
+ * <p>
+ * Series are processed in batches: the chapter files of a batch are listed with one query, read in parallel by
+ * {@link MetadataExtractionService}, and the results are merged into the series and volumes with one transaction of
+ * batched updates each. Fields that already have a value are never overwritten.
+ */
+@Service
+public class MetadataImportService {
+
+    private final MetadataExtractionService extractionService;
+    private final MetadataExtractionProperties properties;
+    private final SeriesRepository seriesRepository;
+    private final SeriesService seriesService;
+    private final VolumeRepository volumeRepository;
+    private final VolumeService volumeService;
+
+    public MetadataImportService(MetadataExtractionService extractionService, MetadataExtractionProperties properties,
+                                 SeriesRepository seriesRepository, SeriesService seriesService,
+                                 VolumeRepository volumeRepository, VolumeService volumeService) {
+        this.extractionService = extractionService;
+        this.properties = properties;
+        this.seriesRepository = seriesRepository;
+        this.seriesService = seriesService;
+        this.volumeRepository = volumeRepository;
+        this.volumeService = volumeService;
+    }
+
+    /**
+     * Reads the metadata of the chapter files of several series and fills in the empty fields of the series and of
+     * their volumes. A series takes its title from the series named in its files, and its other fields from its first
+     * file that declares them; a volume takes its fields from its first chapter file that declares them, and its page
+     * count from the sum over its chapter files when each of them has one.
+     *
+     * @param seriesIds the IDs of the series, or {@code null} or empty for all series.
+     * @return the outcome of the import.
+     */
+    public MetadataImportReportDTO importMetadata(List<Long> seriesIds) {
+        List<Long> ids = seriesIds == null || seriesIds.isEmpty() ? seriesRepository.findAllIds() : seriesIds;
+        int batchSize = Math.max(1, properties.batchSize());
+        int filesRead = 0;
+        int filesFailed = 0;
+        int filesSkipped = 0;
+        int seriesUpdated = 0;
+        int volumesUpdated = 0;
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> batch = ids.subList(from, Math.min(ids.size(), from + batchSize));
+            List<Object[]> rows = new ArrayList<>();
+            for (Object[] row : volumeRepository.findChapterFilesBySeriesIds(batch.toArray(Long[]::new))) {
+                if (extractionService.supports((String) row[3])) {
+                    rows.add(row);
+                } else {
+                    filesSkipped++;
+                }
+            }
+            List<BookMetadata> metadata = extractionService.extractAll(rows.stream()
+                    .map(row -> new ChapterFile(Path.of((String) row[2]), (String) row[3]))
+                    .toList());
+
+            Map<Long, BookMetadata> seriesMetadata = new LinkedHashMap<>();
+            Map<Long, BookMetadata> volumeMetadata = new LinkedHashMap<>();
+            Map<Long, Integer> pageCounts = new HashMap<>();
+            Set<Long> incompletePageCounts = new HashSet<>();
+            for (int i = 0; i < rows.size(); i++) {
+                Long seriesId = ((Number) rows.get(i)[0]).longValue();
+                Long volumeId = rows.get(i)[1] != null ? ((Number) rows.get(i)[1]).longValue() : null;
+                BookMetadata file = metadata.get(i);
+                if (file == null) {
+                    filesFailed++;
+                    if (volumeId != null) {
+                        incompletePageCounts.add(volumeId);
+                    }
+                    continue;
+                }
+                filesRead++;
+                seriesMetadata.merge(seriesId, file, BookMetadata::orElse);
+                if (volumeId != null) {
+                    volumeMetadata.merge(volumeId, file, BookMetadata::orElse);
+                    if (file.pageCount() != null) {
+                        pageCounts.merge(volumeId, file.pageCount(), Integer::sum);
+                    } else {
+                        incompletePageCounts.add(volumeId);
+                    }
+                }
+            }
+            pageCounts.keySet().removeAll(incompletePageCounts);
+
+            if (!seriesMetadata.isEmpty()) {
+                seriesUpdated += seriesService.fillMissingMetadata(toSeries(seriesMetadata));
+            }
+            if (!volumeMetadata.isEmpty()) {
+                volumesUpdated += volumeService.fillMissingMetadata(toVolumes(volumeMetadata, pageCounts));
+            }
+        }
+        return new MetadataImportReportDTO(ids.size(), filesRead, filesFailed, filesSkipped, seriesUpdated, volumesUpdated);
+    }
+
+    private static Map<Long, SeriesDTO> toSeries(Map<Long, BookMetadata> metadata) {
+        Map<Long, SeriesDTO> series = new HashMap<>();
+        metadata.forEach((id, file) -> {
+            SeriesDTO seriesDTO = new SeriesDTO();
+            seriesDTO.setTitle(file.seriesTitle());
+            seriesDTO.setAuthor(file.author());
+            seriesDTO.setPublisher(file.publisher());
+            seriesDTO.setPublicationDate(file.publicationDate());
+            seriesDTO.setDescription(file.description());
+            series.put(id, seriesDTO);
+        });
+        return series;
+    }
+
+    private static Map<Long, VolumeDTO> toVolumes(Map<Long, BookMetadata> metadata, Map<Long, Integer> pageCounts) {
+        Map<Long, VolumeDTO> volumes = new HashMap<>();
+        metadata.forEach((id, file) -> {
+            VolumeDTO volumeDTO = new VolumeDTO();
+            volumeDTO.setTitle(file.title());
+            volumeDTO.setAuthor(file.author());
+            volumeDTO.setPublisher(file.publisher());
+            volumeDTO.setIsbn(file.isbn());
+            volumeDTO.setPublicationDate(file.publicationDate());
+            volumeDTO.setDescription(file.description());
+            volumeDTO.setPageCount(pageCounts.get(id));
+            volumes.put(id, volumeDTO);
+        });
+        return volumes;
+    }
+}
@@ -0,0 +1,121 @@
+package com.numaochi.metadata;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+import org.apache.pdfbox.pdmodel.common.PDMetadata;
+import org.springframework.stereotype.Component;
+import org.w3c.dom.Element;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * Reads the document information dictionary and the XMP metadata of a PDF file, and its page count.
+ * The document is opened through random access: only the cross-reference table, the trailer, the catalog, the page
+ * tree root and the metadata stream are parsed, never the page contents. XMP fills in what the document information
+ * dictionary lacks, such as the publisher.
+ */
+@Component
+public class PdfMetadataExtractor implements MetadataExtractor {
+
+    private static final String DC = "http://purl.org/dc/elements/1.1/";
+    private static final String XMP = "http://ns.adobe.com/xap/1.0/";
+    private static final String RDF = "http://www.w3.org/1999/02/22-rdf-syntax-ns#";
+
+    private final MetadataExtractionProperties properties;
+
+    public PdfMetadataExtractor(MetadataExtractionProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public boolean supports(String fileType) {
+        return "PDF".equalsIgnoreCase(fileType);
+    }
+
+    @Override
+    public BookMetadata extract(Path file, ExtractionScope scope) throws IOException {
+        try (PDDocument document = Loader.loadPDF(scope.register(new RandomAccessReadBufferedFile(file.toFile())))) {
+            PDDocumentInformation info = document.getDocumentInformation();
+            BookMetadata metadata = new BookMetadata(
+                    BookMetadata.text(info.getTitle()),
+                    null,
+                    BookMetadata.text(info.getAuthor()),
+                    null,
+                    null,
+                    date(info.getCreationDate()),
+                    BookMetadata.text(info.getSubject()),
+                    document.getNumberOfPages());
+            return metadata.orElse(xmp(document));
+        }
+    }
+
+    private BookMetadata xmp(PDDocument document) throws IOException {
+        PDMetadata metadata = document.getDocumentCatalog().getMetadata();
+        if (metadata == null) {
+            return BookMetadata.EMPTY;
+        }
+        Element root;
+        try (InputStream in = metadata.exportXMPMetadata()) {
+            root = XmlDocuments.parse(in, properties.maxEntrySize().toBytes()).getDocumentElement();
+        }
+        List<String> creators = values(root, DC, "creator");
+        List<String> titles = values(root, DC, "title");
+        List<String> publishers = values(root, DC, "publisher");
+        List<String> descriptions = values(root, DC, "description");
+        List<String> createDates = values(root, XMP, "CreateDate");
+        return new BookMetadata(
+                titles.isEmpty() ? null : titles.get(0),
+                null,
+                creators.isEmpty() ? null : String.join(", ", creators),
+                publishers.isEmpty() ? null : publishers.get(0),
+                BookMetadata.isbn(BookMetadata.text(XmlDocuments.text(root, "*", "isbn"))),
+                createDates.isEmpty() ? null : BookMetadata.date(createDates.get(0)),
+                descriptions.isEmpty() ? null : BookMetadata.plainText(descriptions.get(0)),
+                null);
+    }
+
+    /**
+     * Reads an XMP property, which is either an element holding an {@code rdf:Alt}, {@code rdf:Seq} or {@code rdf:Bag}
+     * of items, an element holding the value itself, or an attribute of an {@code rdf:Description}.
+     */
+    private static List<String> values(Element root, String namespace, String localName) {
+        List<String> values = new ArrayList<>();
+        Element property = XmlDocuments.first(root, namespace, localName);
+        if (property != null) {
+            List<Element> items = XmlDocuments.elements(property, RDF, "li");
+            if (items.isEmpty()) {
+                addText(values, property.getTextContent());
+            }
+            for (Element item : items) {
+                addText(values, item.getTextContent());
+            }
+            return values;
+        }
+        for (Element description : XmlDocuments.elements(root, RDF, "Description")) {
+            if (description.hasAttributeNS(namespace, localName)) {
+                addText(values, description.getAttributeNS(namespace, localName));
+                break;
+            }
+        }
+        return values;
+    }
+
+    private static void addText(List<String> values, String value) {
+        String text = BookMetadata.text(value);
+        if (text != null) {
+            values.add(text);
+        }
+    }
+
+    private static LocalDate date(Calendar calendar) {
+        return calendar == null ? null : calendar.toInstant().atZone(calendar.getTimeZone().toZoneId()).toLocalDate();
+    }
+}
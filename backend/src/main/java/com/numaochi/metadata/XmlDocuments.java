@@ -0,0 +1,130 @@
+package com.numaochi.metadata;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Reads the small XML documents that hold metadata inside e-book files: EPUB containers and package documents,
+ * ComicInfo.xml and XMP packets. External entities and DTDs are never loaded.
+ */
+final class XmlDocuments {
+
+    private XmlDocuments() {
+    }
+
+    /**
+     * Parses one entry of an archive, reading only that entry.
+     *
+     * @param zip     the archive.
+     * @param entry   the entry.
+     * @param maxSize the maximum uncompressed size of the entry in bytes.
+     * @return the parsed document.
+     * @throws IOException if the entry is too large or is not well-formed XML.
+     */
+    static Document parse(ZipFile zip, ZipEntry entry, long maxSize) throws IOException {
+        if (entry.getSize() > maxSize) {
+            throw new IOException(entry.getName() + " is larger than " + maxSize + " bytes");
+        }
+        try (InputStream in = zip.getInputStream(entry)) {
+            return parse(in, maxSize);
+        }
+    }
+
+    /**
+     * Parses a document of limited size.
+     *
+     * @param in      the document.
+     * @param maxSize the maximum size of the document in bytes.
+     * @return the parsed document.
+     * @throws IOException if the document is too large or is not well-formed XML.
+     */
+    static Document parse(InputStream in, long maxSize) throws IOException {
+        byte[] bytes = in.readNBytes((int) Math.min(maxSize + 1, Integer.MAX_VALUE - 8));
+        if (bytes.length > maxSize) {
+            throw new IOException("XML document is larger than " + maxSize + " bytes");
+        }
+        try {
+            DocumentBuilder builder = factory().newDocumentBuilder();
+            builder.setErrorHandler(new DefaultHandler());
+            return builder.parse(new ByteArrayInputStream(bytes));
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException(e);
+        } catch (SAXException e) {
+            throw new IOException("Malformed XML: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Finds the descendants of a node with a name.
+     *
+     * @param parent    the node to search.
+     * @param namespace the namespace URI of the elements, or {@code *} for any.
+     * @param localName the local name of the elements.
+     * @return the elements in document order.
+     */
+    static List<Element> elements(Node parent, String namespace, String localName) {
+        NodeList nodes = parent instanceof Document document
+                ? document.getElementsByTagNameNS(namespace, localName)
+                : ((Element) parent).getElementsByTagNameNS(namespace, localName);
+        List<Element> elements = new ArrayList<>(nodes.getLength());
+        for (int i = 0; i < nodes.getLength(); i++) {
+            elements.add((Element) nodes.item(i));
+        }
+        return elements;
+    }
+
+    /**
+     * Finds the first descendant of a node with a name.
+     *
+     * @param parent    the node to search.
+     * @param namespace the namespace URI of the element, or {@code *} for any.
+     * @param localName the local name of the element.
+     * @return the element, or {@code null} if there is none.
+     */
+    static Element first(Node parent, String namespace, String localName) {
+        List<Element> elements = elements(parent, namespace, localName);
+        return elements.isEmpty() ? null : elements.get(0);
+    }
+
+    /**
+     * Returns the text of the first descendant of a node with a name.
+     *
+     * @param parent    the node to search.
+     * @param namespace the namespace URI of the element, or {@code *} for any.
+     * @param localName the local name of the element.
+     * @return the text of the element, or {@code null} if there is no such element.
+     */
+    static String text(Node parent, String namespace, String localName) {
+        Element element = first(parent, namespace, localName);
+        return element == null ? null : element.getTextContent();
+    }
+
+    private static DocumentBuilderFactory factory() throws ParserConfigurationException {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        factory.setExpandEntityReferences(false);
+        factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+        factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+        factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+        return factory;
+    }
+}
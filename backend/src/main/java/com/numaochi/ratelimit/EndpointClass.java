@@ -0,0 +1,48 @@
+package com.numaochi.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.Set;
+
+/**
+ * Classes of API endpoints that are rate limited independently of each other.
+ */
+public enum EndpointClass {
+
+    /**
+     * Catalog reads, including batch lookups by ID, which are POSTed only when the IDs do not fit in a query string.
+     */
+    READ,
+
+    /**
+     * Search and suggestion queries, which are more expensive than plain reads.
+     */
+    SEARCH,
+
+    /**
+     * Creates, updates and deletes.
+     */
+    WRITE;
+
+    private static final Set<String> BATCH_LOOKUPS = Set.of("/api/series/batch", "/api/volumes/batch",
+            "/api/chapters/batch");
+
+    /**
+     * Determines the endpoint class of a request.
+     *
+     * @param request the request.
+     * @return the endpoint class.
+     */
+    public static EndpointClass of(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/api/series/search") || path.startsWith("/api/series/suggest")) {
+            return SEARCH;
+        }
+        String method = request.getMethod();
+        if ("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)
+                || BATCH_LOOKUPS.contains(path)) {
+            return READ;
+        }
+        return WRITE;
+    }
+}
@@ -0,0 +1,13 @@
+package com.numaochi.ratelimit;
+
+/**
+ * The outcome of a rate limit check, carrying the values of the {@code RateLimit-*} response headers.
+ *
+ * @param allowed           whether the request may proceed.
+ * @param limit             the bucket capacity.
+ * @param remaining         the approximate number of requests left in the bucket.
+ * @param resetSeconds      the number of seconds until the bucket is full again.
+ * @param retryAfterSeconds the number of seconds until the next request may be allowed, for rejected requests.
+ */
+public record RateLimitDecision(boolean allowed, int limit, long remaining, long resetSeconds, long retryAfterSeconds) {
+}
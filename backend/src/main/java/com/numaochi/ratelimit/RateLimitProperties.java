@@ -0,0 +1,32 @@
+package com.numaochi.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Configuration properties for API rate limiting.
+ *
+ * @param enabled       whether requests are rate limited.
+ * @param leaseSize     the maximum number of tokens a node reserves from the shared bucket at once.
+ * @param leaseDuration how long reserved tokens may be used locally before they are discarded.
+ * @param limits        the token bucket of each endpoint class.
+ */
+@ConfigurationProperties(prefix = "rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10") int leaseSize,
+        @DefaultValue("1s") Duration leaseDuration,
+        Map<EndpointClass, Limit> limits) {
+
+    /**
+     * A token bucket definition.
+     *
+     * @param capacity        the maximum burst size.
+     * @param refillPerSecond the sustained number of requests per second.
+     */
+    public record Limit(int capacity, double refillPerSecond) {
+    }
+}
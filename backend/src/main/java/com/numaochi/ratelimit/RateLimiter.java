@@ -0,0 +1,156 @@
+package com.numaochi.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Distributed token bucket rate limiter keyed by client and endpoint class.
+ * <p>
+ * To keep Redis off the hot path, each node reserves a small lease of tokens from the shared bucket and
+ * spends it locally; a rejection is also remembered locally until the bucket refills. When the shared bucket
+ * runs low the lease shrinks to a single token so that nodes cannot hoard the remaining capacity.
+ * If Redis is unavailable requests are allowed rather than failing the API.
+ */
+@Service
+public class RateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimiter.class);
+
+    private static final String KEY_PREFIX = "rate-limit:";
+
+    private final RedisTokenBucket tokenBucket;
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep = new AtomicLong();
+
+    @Autowired
+    public RateLimiter(RedisTokenBucket tokenBucket, RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(tokenBucket, properties, meterRegistry, Clock.systemUTC());
+    }
+
+    RateLimiter(RedisTokenBucket tokenBucket, RateLimitProperties properties, MeterRegistry meterRegistry, Clock clock) {
+        this.tokenBucket = tokenBucket;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    /**
+     * Takes one token for a request.
+     *
+     * @param client        the authenticated username or client address.
+     * @param endpointClass the endpoint class of the request.
+     * @return the decision, or {@code null} if the endpoint class is not limited.
+     */
+    public RateLimitDecision tryAcquire(String client, EndpointClass endpointClass) {
+        RateLimitProperties.Limit limit = properties.limits() == null ? null : properties.limits().get(endpointClass);
+        if (limit == null) {
+            return null;
+        }
+        String key = KEY_PREFIX + client + ":" + endpointClass.name().toLowerCase();
+        long now = clock.millis();
+        sweep(now);
+        Lease lease = leases.computeIfAbsent(key, k -> new Lease());
+
+        synchronized (lease) {
+            if (now < lease.rejectedUntil) {
+                count(endpointClass, "rejected", "local");
+                return lease.decision(false, limit, now);
+            }
+            if (lease.tokens > 0 && now < lease.expiresAt) {
+                lease.tokens--;
+                count(endpointClass, "allowed", "local");
+                return lease.decision(true, limit, now);
+            }
+
+            RedisTokenBucket.Acquisition acquisition;
+            try {
+                acquisition = tokenBucket.acquire(key, limit, leaseSize(lease, limit));
+            } catch (DataAccessException e) {
+                log.warn("Rate limiting unavailable, allowing request for {}", key, e);
+                count(endpointClass, "allowed", "fallback");
+                return null;
+            }
+
+            lease.remaining = acquisition.remaining();
+            lease.resetAt = now + acquisition.resetSeconds() * 1000;
+            if (acquisition.granted() == 0) {
+                lease.tokens = 0;
+                lease.rejectedUntil = now + Math.max(1, acquisition.retryAfterSeconds()) * 1000;
+                count(endpointClass, "rejected", "redis");
+                return lease.decision(false, limit, now);
+            }
+            lease.tokens = acquisition.granted() - 1;
+            lease.expiresAt = now + properties.leaseDuration().toMillis();
+            count(endpointClass, "allowed", "redis");
+            return lease.decision(true, limit, now);
+        }
+    }
+
+    /**
+     * Removes the leases whose tokens and rejection have both expired, at most once per lease duration, so that the
+     * map does not grow with every client ever seen. The shared bucket in Redis keeps the actual limit.
+     */
+    private void sweep(long now) {
+        long next = nextSweep.get();
+        if (now < next || !nextSweep.compareAndSet(next, now + properties.leaseDuration().toMillis())) {
+            return;
+        }
+        leases.values().removeIf(lease -> {
+            synchronized (lease) {
+                return now >= lease.expiresAt && now >= lease.rejectedUntil;
+            }
+        });
+    }
+
+    /**
+     * @return the number of leases held locally.
+     */
+    int leaseCount() {
+        return leases.size();
+    }
+
+    private int leaseSize(Lease lease, RateLimitProperties.Limit limit) {
+        int leaseSize = Math.min(properties.leaseSize(), limit.capacity());
+        if (lease.remaining >= 0 && lease.remaining < 2L * leaseSize) {
+            return 1;
+        }
+        return Math.max(1, leaseSize);
+    }
+
+    private void count(EndpointClass endpointClass, String outcome, String source) {
+        Counter.builder("numaochi.rate_limit.requests")
+                .description("Rate limited API requests")
+                .tag("class", endpointClass.name().toLowerCase())
+                .tag("outcome", outcome)
+                .tag("source", source)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static final class Lease {
+        private int tokens;
+        private long expiresAt;
+        private long rejectedUntil;
+        private long remaining = -1;
+        private long resetAt;
+
+        private RateLimitDecision decision(boolean allowed, RateLimitProperties.Limit limit, long now) {
+            long retryAfter = allowed ? 0 : Math.max(1, (rejectedUntil - now + 999) / 1000);
+            long reset = Math.max(0, (resetAt - now + 999) / 1000);
+            return new RateLimitDecision(allowed, limit.capacity(), Math.max(0, remaining + tokens), reset, retryAfter);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.numaochi.ratelimit;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Token buckets stored in Redis and updated atomically by a Lua script, so all replicas share the same limits.
+ */
+@Component
+public class RedisTokenBucket {
+
+    private static final RedisScript<List> TOKEN_BUCKET_SCRIPT =
+            new DefaultRedisScript<>(new ClassPathResource("scripts/token-bucket.lua"), List.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisTokenBucket(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Refills the bucket and takes up to the requested number of tokens from it.
+     * The bucket hash also keeps {@code granted} and {@code rejected} counters for the key.
+     *
+     * @param key       the bucket key.
+     * @param limit     the bucket definition.
+     * @param requested the number of tokens to take.
+     * @return the result of the acquisition.
+     */
+    public Acquisition acquire(String key, RateLimitProperties.Limit limit, int requested) {
+        List<?> result = redisTemplate.execute(TOKEN_BUCKET_SCRIPT, List.of(key),
+                String.valueOf(limit.capacity()), String.valueOf(limit.refillPerSecond()), String.valueOf(requested));
+        return new Acquisition(toInt(result.get(0)), toLong(result.get(1)), toLong(result.get(2)), toLong(result.get(3)));
+    }
+
+    private static int toInt(Object value) {
+        return ((Number) value).intValue();
+    }
+
+    private static long toLong(Object value) {
+        return ((Number) value).longValue();
+    }
+
+    /**
+     * The result of taking tokens from a bucket.
+     *
+     * @param granted           the number of tokens granted, possibly fewer than requested.
+     * @param remaining         the tokens left in the bucket.
+     * @param resetSeconds      the seconds until the bucket is full.
+     * @param retryAfterSeconds the seconds until the next token is available, if the bucket is empty.
+     */
+    public record Acquisition(int granted, long remaining, long resetSeconds, long retryAfterSeconds) {
+    }
+}
@@ -5,11 +5,13 @@ import com.meilisearch.sdk.Config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 /**
  * Configuration class for Meilisearch client.
  */
 @Configuration
+@ImportRuntimeHints(MeilisearchRuntimeHints.class)
 public class MeilisearchConfig {
 
     @Value("${meilisearch.host}")
@@ -0,0 +1,32 @@
+package com.numaochi.search;
+
+import com.meilisearch.sdk.model.SearchResult;
+import com.numaochi.series.Series;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * Reachability metadata for a native image: the Meilisearch SDK deserialises its responses reflectively, and
+ * {@link SearchService} converts {@link Series} to and from search documents with Jackson.
+ */
+class MeilisearchRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final String[] SDK_MODEL_TYPES = {
+            "com.meilisearch.sdk.model.TaskInfo",
+            "com.meilisearch.sdk.model.Task",
+            "com.meilisearch.sdk.model.TaskError",
+            "com.meilisearch.sdk.model.TaskDetails"
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.reflection().registerType(SearchResult.class, MemberCategory.values());
+        for (String type : SDK_MODEL_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type), MemberCategory.values());
+        }
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), Series.class);
+    }
+}
@@ -0,0 +1,110 @@
+package com.numaochi.search;
+
+import com.meilisearch.sdk.Client;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Circuit breaker around Meilisearch searches.
+ * <p>
+ * After a number of consecutive failures the circuit opens and searches go straight to the database fallback,
+ * without waiting for Meilisearch to time out. While open, Meilisearch is probed in the background and the circuit
+ * closes as soon as its health check passes.
+ */
+@Component
+@EnableConfigurationProperties(SearchCircuitBreakerProperties.class)
+public class SearchCircuitBreaker implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchCircuitBreaker.class);
+
+    private final Client meilisearchClient;
+    private final SearchCircuitBreakerProperties properties;
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("search-health-"));
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile boolean open;
+    private ScheduledFuture<?> healthCheck;
+
+    public SearchCircuitBreaker(Client meilisearchClient, SearchCircuitBreakerProperties properties) {
+        this.meilisearchClient = meilisearchClient;
+        this.properties = properties;
+    }
+
+    /**
+     * Checks whether searches should bypass Meilisearch.
+     *
+     * @return {@code true} if the circuit is open.
+     */
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Records a successful search.
+     */
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+    }
+
+    /**
+     * Records a failed search, opening the circuit once the failure threshold is reached.
+     *
+     * @param failure the cause of the failure.
+     */
+    public void recordFailure(Exception failure) {
+        int failures = consecutiveFailures.incrementAndGet();
+        if (open || failures < properties.failureThreshold()) {
+            return;
+        }
+        synchronized (this) {
+            if (healthCheck == null) {
+                log.warn("Meilisearch failed {} times in a row, switching to database search", failures, failure);
+                long interval = properties.healthCheckInterval().toMillis();
+                healthCheck = scheduler.scheduleWithFixedDelay(this::checkHealth, interval, interval,
+                        TimeUnit.MILLISECONDS);
+                open = true;
+            }
+        }
+    }
+
+    /**
+     * Probes Meilisearch and closes the circuit if it is healthy. The probe runs without holding the lock, so a slow
+     * health check never delays searches asking whether the circuit is open.
+     */
+    void checkHealth() {
+        boolean healthy;
+        try {
+            healthy = meilisearchClient.isHealthy();
+        } catch (RuntimeException e) {
+            healthy = false;
+        }
+        if (!healthy) {
+            return;
+        }
+        synchronized (this) {
+            if (healthCheck != null) {
+                log.info("Meilisearch is healthy again, switching back from database search");
+                healthCheck.cancel(false);
+                healthCheck = null;
+                consecutiveFailures.set(0);
+                open = false;
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
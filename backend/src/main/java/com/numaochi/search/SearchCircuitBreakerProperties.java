@@ -0,0 +1,18 @@
+package com.numaochi.search;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the circuit breaker around Meilisearch.
+ *
+ * @param failureThreshold    the number of consecutive failed searches after which the circuit opens.
+ * @param healthCheckInterval how often Meilisearch is probed while the circuit is open.
+ */
+@ConfigurationProperties(prefix = "search.circuit-breaker")
+public record SearchCircuitBreakerProperties(
+        @DefaultValue("3") int failureThreshold,
+        @DefaultValue("5s") Duration healthCheckInterval) {
+}
@@ -0,0 +1,26 @@
+package com.numaochi.search;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The hits of a search, and whether they came from the database fallback because Meilisearch was unavailable.
+ * Fallback results are matched by full-text and trigram similarity and may be ranked differently.
+ *
+ * @param hits     the matching items, best match first.
+ * @param degraded {@code true} if the results come from the fallback search.
+ * @param <T>      the type of the hits.
+ */
+public record SearchResults<T>(List<T> hits, boolean degraded) {
+
+    /**
+     * Converts the hits, keeping the degraded flag.
+     *
+     * @param converter the hit converter.
+     * @param <R>       the type of the converted hits.
+     * @return the converted results.
+     */
+    public <R> SearchResults<R> map(Function<? super T, ? extends R> converter) {
+        return new SearchResults<>(hits.stream().<R>map(converter).toList(), degraded);
+    }
+}
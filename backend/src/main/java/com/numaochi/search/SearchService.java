@@ -5,6 +5,9 @@ import com.meilisearch.sdk.Client;
 import com.meilisearch.sdk.Index;
 import com.meilisearch.sdk.model.SearchResult;
 import com.numaochi.series.Series;
+import com.numaochi.series.SeriesRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.Arrays;
@@ -12,16 +15,29 @@ import java.util.List;
 
 /**
  * Service for interacting with Meilisearch to index and search for Series.
+ * When Meilisearch is unavailable, searches fall back to PostgreSQL full-text and trigram matching.
  */
 @Service
 public class SearchService {
 
+    private static final Logger log = LoggerFactory.getLogger(SearchService.class);
+
+    /**
+     * The number of hits returned by the fallback search, matching the default Meilisearch limit.
+     */
+    static final int FALLBACK_LIMIT = 20;
+
     private final Client meilisearchClient;
     private final ObjectMapper objectMapper;
+    private final SeriesRepository seriesRepository;
+    private final SearchCircuitBreaker circuitBreaker;
 
-    public SearchService(Client meilisearchClient, ObjectMapper objectMapper) {
+    public SearchService(Client meilisearchClient, ObjectMapper objectMapper, SeriesRepository seriesRepository,
+                         SearchCircuitBreaker circuitBreaker) {
         this.meilisearchClient = meilisearchClient;
         this.objectMapper = objectMapper;
+        this.seriesRepository = seriesRepository;
+        this.circuitBreaker = circuitBreaker;
     }
 
     /**
@@ -56,19 +72,23 @@ public class SearchService {
 
     /**
      * Searches for Series in Meilisearch based on a query string.
+     * If the search fails, or the circuit breaker is open, the database fallback answers instead.
      *
      * @param query the search query.
-     * @return a list of Series objects matching the query.
+     * @return the Series objects matching the query, flagged as degraded if they come from the fallback.
      */
-    public List<Series> searchSeries(String query) {
-        try {
-            Index index = meilisearchClient.index("series");
-            SearchResult result = index.search(query);
-            return Arrays.asList(objectMapper.convertValue(result.getHits(), Series[].class));
-        } catch (Exception e) {
-            // TODO: Handle exception properly (e.g., log it, throw custom exception)
-            System.err.println("Error searching series: " + e.getMessage());
-            return List.of();
+    public SearchResults<Series> searchSeries(String query) {
+        if (!circuitBreaker.isOpen()) {
+            try {
+                Index index = meilisearchClient.index("series");
+                SearchResult result = index.search(query);
+                circuitBreaker.recordSuccess();
+                return new SearchResults<>(Arrays.asList(objectMapper.convertValue(result.getHits(), Series[].class)), false);
+            } catch (Exception e) {
+                log.warn("Error searching series in Meilisearch, using database search: {}", e.getMessage());
+                circuitBreaker.recordFailure(e);
+            }
         }
+        return new SearchResults<>(seriesRepository.searchFallback(query, FALLBACK_LIMIT), true);
     }
 }
@@ -0,0 +1,90 @@
+package com.numaochi.security;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link PasswordEncoder} that runs the expensive hashing and verification of a delegate encoder on a dedicated,
+ * bounded executor. A burst of logins or registrations therefore occupies at most the hashing threads instead of
+ * every request thread, and requests beyond the executor's queue fail fast with a {@link PasswordHashingRejectedException}.
+ * The encoder owns the executor and shuts it down when it is destroyed.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+    private final ExecutorService executor;
+    private final Duration timeout;
+    private final Duration retryAfter;
+
+    /**
+     * Constructs a new BoundedPasswordEncoder.
+     *
+     * @param delegate   the encoder performing the actual hashing.
+     * @param executor   the bounded executor to hash on; it must reject tasks when saturated.
+     * @param timeout    the maximum time to wait for a hash.
+     * @param retryAfter the delay suggested to rejected clients.
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, ExecutorService executor, Duration timeout, Duration retryAfter) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.timeout = timeout;
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Only inspects the hash prefix, cheap enough for the calling thread
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHashingRejectedException(retryAfter);
+        }
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new PasswordHashingRejectedException(retryAfter);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new PasswordHashingRejectedException(retryAfter);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
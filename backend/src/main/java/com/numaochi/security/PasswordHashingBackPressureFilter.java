@@ -0,0 +1,51 @@
+package com.numaochi.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Servlet filter that turns a {@link PasswordHashingRejectedException}, whether raised by form login, token issuing
+ * or registration, into a {@code 429 Too Many Requests} response with a {@code Retry-After} header.
+ * It runs outside the security filter chain so that it also sees failures raised by authentication filters.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class PasswordHashingBackPressureFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } catch (ServletException | RuntimeException e) {
+            PasswordHashingRejectedException rejected = findRejection(e);
+            if (rejected == null || response.isCommitted()) {
+                throw e;
+            }
+            long retryAfterSeconds = Math.max(1, (rejected.getRetryAfter().toMillis() + 999) / 1000);
+            response.resetBuffer();
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.getWriter().write("Error: Too many authentication requests, please retry later.");
+        }
+    }
+
+    private static PasswordHashingRejectedException findRejection(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PasswordHashingRejectedException rejected) {
+                return rejected;
+            }
+        }
+        return null;
+    }
+}
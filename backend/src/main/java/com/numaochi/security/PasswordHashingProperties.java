@@ -0,0 +1,26 @@
+package com.numaochi.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for password hashing.
+ *
+ * @param encodingId     the ID of the algorithm used for new hashes ({@code bcrypt} or {@code pbkdf2}).
+ * @param bcryptStrength the BCrypt cost factor; hashes with a lower cost are rehashed on the next login.
+ * @param threads        the number of hashing threads, or {@code 0} for one per available processor.
+ * @param queueCapacity  the number of hashing requests that may wait for a thread before new ones are rejected.
+ * @param timeout        the maximum time a request waits for its hash to be computed.
+ * @param retryAfter     the delay suggested to clients whose request was rejected.
+ */
+@ConfigurationProperties(prefix = "auth.password")
+public record PasswordHashingProperties(
+        @DefaultValue("bcrypt") String encodingId,
+        @DefaultValue("10") int bcryptStrength,
+        @DefaultValue("0") int threads,
+        @DefaultValue("32") int queueCapacity,
+        @DefaultValue("5s") Duration timeout,
+        @DefaultValue("1s") Duration retryAfter) {
+}
@@ -0,0 +1,28 @@
+package com.numaochi.security;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a password cannot be hashed or verified because the hashing executor is saturated.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    /**
+     * Constructs a new PasswordHashingRejectedException.
+     * @param retryAfter the delay after which the client may retry.
+     */
+    public PasswordHashingRejectedException(Duration retryAfter) {
+        super("Password hashing capacity exhausted");
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Returns the delay after which the client may retry.
+     * @return the retry delay.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
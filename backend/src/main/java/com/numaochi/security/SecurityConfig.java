@@ -1,19 +1,43 @@
 package com.numaochi.security;
 
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Spring Security configuration for the Numa-Ochi application.
+ * Requests carrying a {@code Bearer} token are authenticated statelessly; all other requests use the session.
  */
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties(PasswordHashingProperties.class)
 public class SecurityConfig {
 
     private final UserDetailsService userDetailsService;
@@ -27,17 +51,42 @@ public class SecurityConfig {
     }
 
     /**
-     * Configures the security filter chain.
+     * Configures the stateless security filter chain for token-authenticated API and reader clients.
+     * No session is read or created, so these requests never touch the session store.
+     *
+     * @param http       the HttpSecurity object to configure.
+     * @param jwtDecoder the decoder verifying access tokens against the local key set.
+     * @return the configured SecurityFilterChain.
+     * @throws Exception if an error occurs during configuration.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain tokenSecurityFilterChain(HttpSecurity http, JwtDecoder jwtDecoder) throws Exception {
+        http
+                .securityMatcher(new OrRequestMatcher(new AntPathRequestMatcher("/api/auth/**"), SecurityConfig::hasBearerToken))
+                .authorizeHttpRequests(authorize -> authorize
+                        .requestMatchers("/api/auth/token", "/api/auth/refresh", "/api/auth/revoke").permitAll()
+                        .anyRequest().authenticated()
+                )
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .csrf(csrf -> csrf.disable())
+                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt.decoder(jwtDecoder)));
+        return http.build();
+    }
+
+    /**
+     * Configures the session-based security filter chain.
      *
      * @param http the HttpSecurity object to configure.
      * @return the configured SecurityFilterChain.
      * @throws Exception if an error occurs during configuration.
      */
     @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .authorizeHttpRequests(authorize -> authorize
-                        .requestMatchers("/api/register").permitAll()
+                        .requestMatchers("/api/register", "/actuator/health/**").permitAll()
                         .anyRequest().authenticated()
                 )
                 .userDetailsService(userDetailsService)
@@ -47,12 +96,57 @@ public class SecurityConfig {
     }
 
     /**
-     * Provides a BCryptPasswordEncoder bean for password encoding.
+     * Provides the AuthenticationManager used to check credentials when issuing tokens.
+     *
+     * @param passwordEncoder the password encoder used to verify passwords.
+     * @return an AuthenticationManager backed by the user details service.
+     */
+    @Bean
+    public AuthenticationManager authenticationManager(PasswordEncoder passwordEncoder) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(userDetailsService);
+        provider.setPasswordEncoder(passwordEncoder);
+        if (userDetailsService instanceof UserDetailsPasswordService userDetailsPasswordService) {
+            provider.setUserDetailsPasswordService(userDetailsPasswordService);
+        }
+        return new ProviderManager(provider);
+    }
+
+    /**
+     * Provides the PasswordEncoder bean for password encoding.
+     * New hashes use the configured algorithm and cost, and stored hashes using another algorithm or a lower cost
+     * are transparently rehashed on the next successful login. Legacy hashes without an algorithm prefix are BCrypt.
+     * Hashing runs on a dedicated password-hashing executor rather than on the request thread. The executor is owned
+     * by the encoder and not exposed as a bean, so it does not replace Boot's default task executor.
      *
-     * @return a BCryptPasswordEncoder instance.
+     * @param properties the password hashing properties.
+     * @return a PasswordEncoder instance.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties properties) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(properties.bcryptStrength());
+        DelegatingPasswordEncoder delegate = new DelegatingPasswordEncoder(properties.encodingId(), Map.of(
+                "bcrypt", bcrypt,
+                "pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8()));
+        delegate.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new BoundedPasswordEncoder(delegate, passwordHashingExecutor(properties), properties.timeout(),
+                properties.retryAfter());
+    }
+
+    /**
+     * Creates the bounded password-hashing executor. Tasks beyond the queue capacity are rejected rather than queued.
+     */
+    private static ThreadPoolExecutor passwordHashingExecutor(PasswordHashingProperties properties) {
+        int threads = properties.threads() > 0 ? properties.threads() : Runtime.getRuntime().availableProcessors();
+        BlockingQueue<Runnable> queue = properties.queueCapacity() > 0
+                ? new ArrayBlockingQueue<>(properties.queueCapacity())
+                : new SynchronousQueue<>();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, queue,
+                new CustomizableThreadFactory("password-hashing-"), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private static boolean hasBearerToken(HttpServletRequest request) {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        return authorization != null && authorization.regionMatches(true, 0, "Bearer ", 0, 7);
     }
 }
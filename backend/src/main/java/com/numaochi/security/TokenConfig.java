@@ -0,0 +1,102 @@
+package com.numaochi.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.JwtClaimValidator;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Configuration of the signing keys, encoder and decoder used for stateless token authentication.
+ * Tokens are verified locally against the configured key set, without any session store lookup.
+ */
+@Configuration
+@EnableConfigurationProperties(TokenProperties.class)
+public class TokenConfig {
+
+    /**
+     * The claim distinguishing access tokens from refresh tokens.
+     */
+    public static final String TOKEN_TYPE_CLAIM = "token_type";
+
+    /**
+     * Creates the key set used to sign and verify tokens from the configured keys.
+     *
+     * @param properties the token properties.
+     * @return the key source.
+     */
+    @Bean
+    public JWKSource<SecurityContext> tokenKeySource(TokenProperties properties) {
+        if (properties.keys() == null || properties.keys().isEmpty()) {
+            throw new IllegalStateException("At least one auth.token.keys entry must be configured");
+        }
+        List<JWK> keys = properties.keys().stream()
+                .map(key -> (JWK) new OctetSequenceKey.Builder(key.secret().getBytes(StandardCharsets.UTF_8))
+                        .keyID(key.id())
+                        .keyUse(KeyUse.SIGNATURE)
+                        .algorithm(JWSAlgorithm.HS256)
+                        .build())
+                .toList();
+        return new ImmutableJWKSet<>(new JWKSet(keys));
+    }
+
+    /**
+     * Creates the encoder used to sign new tokens.
+     *
+     * @param tokenKeySource the key set.
+     * @return the JWT encoder.
+     */
+    @Bean
+    public JwtEncoder jwtEncoder(JWKSource<SecurityContext> tokenKeySource) {
+        return new NimbusJwtEncoder(tokenKeySource);
+    }
+
+    /**
+     * Creates the decoder used by the resource server to authenticate API requests. Only access tokens are accepted.
+     *
+     * @param tokenKeySource the key set.
+     * @return the JWT decoder.
+     */
+    @Bean
+    public JwtDecoder jwtDecoder(JWKSource<SecurityContext> tokenKeySource) {
+        return decoder(tokenKeySource, TokenService.ACCESS_TOKEN);
+    }
+
+    /**
+     * Creates a decoder that verifies the signature against the key set and accepts only tokens of the given type.
+     *
+     * @param keySource the key set.
+     * @param tokenType the required value of the {@value #TOKEN_TYPE_CLAIM} claim.
+     * @return the JWT decoder.
+     */
+    static NimbusJwtDecoder decoder(JWKSource<SecurityContext> keySource, String tokenType) {
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.HS256, keySource));
+        // Claims are validated by the Spring validators below
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(processor);
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                JwtValidators.createDefault(),
+                new JwtClaimValidator<String>(TOKEN_TYPE_CLAIM, tokenType::equals)));
+        return decoder;
+    }
+}
@@ -0,0 +1,73 @@
+package com.numaochi.security;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for the stateless token authentication mode used by API and reader clients.
+ */
+@RestController
+@RequestMapping("/api/auth")
+public class TokenController {
+
+    private final AuthenticationManager authenticationManager;
+    private final TokenService tokenService;
+
+    /**
+     * Constructs a new TokenController.
+     * @param authenticationManager the authentication manager used to check credentials.
+     * @param tokenService the service issuing tokens.
+     */
+    public TokenController(AuthenticationManager authenticationManager, TokenService tokenService) {
+        this.authenticationManager = authenticationManager;
+        this.tokenService = tokenService;
+    }
+
+    /**
+     * Authenticates a user with username and password and issues an access and refresh token pair.
+     *
+     * @param request the DTO containing the user's credentials.
+     * @return the issued tokens, or 401 if the credentials are invalid.
+     */
+    @PostMapping("/token")
+    public ResponseEntity<?> issueToken(@RequestBody TokenRequestDTO request) {
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    UsernamePasswordAuthenticationToken.unauthenticated(request.getUsername(), request.getPassword()));
+        } catch (AuthenticationException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Error: Invalid username or password.");
+        }
+        return ResponseEntity.ok(tokenService.issueTokens(authentication.getName()));
+    }
+
+    /**
+     * Exchanges a refresh token for a new token pair.
+     *
+     * @param request the DTO containing the refresh token.
+     * @return the issued tokens, or 401 if the refresh token is invalid, expired or revoked.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(@RequestBody TokenRequestDTO request) {
+        try {
+            return ResponseEntity.ok(tokenService.refresh(request.getRefreshToken()));
+        } catch (AuthenticationException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Error: Invalid refresh token.");
+        }
+    }
+
+    /**
+     * Revokes a refresh token, for example on logout.
+     *
+     * @param request the DTO containing the refresh token.
+     */
+    @PostMapping("/revoke")
+    public void revokeToken(@RequestBody TokenRequestDTO request) {
+        tokenService.revoke(request.getRefreshToken());
+    }
+}
@@ -0,0 +1,26 @@
+package com.numaochi.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuration properties for stateless token authentication.
+ *
+ * @param accessTokenTtl  the lifetime of access tokens.
+ * @param refreshTokenTtl the lifetime of refresh tokens.
+ * @param keys            the HMAC signing keys; the first one signs new tokens, all of them verify tokens.
+ */
+@ConfigurationProperties(prefix = "auth.token")
+public record TokenProperties(Duration accessTokenTtl, Duration refreshTokenTtl, List<Key> keys) {
+
+    /**
+     * A signing key of the rotating key set.
+     *
+     * @param id     the key ID, written to the {@code kid} header of tokens signed with it.
+     * @param secret the HMAC secret, at least 32 bytes long.
+     */
+    public record Key(String id, String secret) {
+    }
+}
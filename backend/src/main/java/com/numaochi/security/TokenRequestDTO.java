@@ -0,0 +1,60 @@
+package com.numaochi.security;
+
+/**
+ * Data Transfer Object for token requests.
+ * Contains either the user's credentials or a refresh token, depending on the endpoint.
+ */
+public class TokenRequestDTO {
+
+    private String username;
+    private String password;
+    private String refreshToken;
+
+    /**
+     * Returns the username.
+     * @return the username.
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Sets the username.
+     * @param username the username to set.
+     */
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    /**
+     * Returns the password.
+     * @return the password.
+     */
+    public String getPassword() {
+        return password;
+    }
+
+    /**
+     * Sets the password.
+     * @param password the password to set.
+     */
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    /**
+     * Returns the refresh token.
+     * @return the refresh token.
+     */
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    /**
+     * Sets the refresh token.
+     * @param refreshToken the refresh token to set.
+     */
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
@@ -0,0 +1,12 @@
+package com.numaochi.security;
+
+/**
+ * Data Transfer Object for an issued pair of access and refresh tokens.
+ *
+ * @param accessToken  the short-lived access token, sent as a {@code Bearer} token on API requests.
+ * @param refreshToken the long-lived refresh token, exchanged for a new token pair.
+ * @param tokenType    the token type, always {@code Bearer}.
+ * @param expiresIn    the lifetime of the access token in seconds.
+ */
+public record TokenResponseDTO(String accessToken, String refreshToken, String tokenType, long expiresIn) {
+}
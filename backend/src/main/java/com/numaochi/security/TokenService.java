@@ -0,0 +1,131 @@
+package com.numaochi.security;
+
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Service for issuing, refreshing and revoking signed tokens.
+ * Access tokens are short-lived and verified locally; Redis is only consulted for the revocation list of refresh tokens.
+ */
+@Service
+public class TokenService {
+
+    /**
+     * The {@value TokenConfig#TOKEN_TYPE_CLAIM} claim value of access tokens.
+     */
+    public static final String ACCESS_TOKEN = "access";
+
+    /**
+     * The {@value TokenConfig#TOKEN_TYPE_CLAIM} claim value of refresh tokens.
+     */
+    public static final String REFRESH_TOKEN = "refresh";
+
+    private static final String REVOKED_KEY_PREFIX = "auth:revoked:";
+
+    private final JwtEncoder jwtEncoder;
+    private final JwtDecoder refreshTokenDecoder;
+    private final StringRedisTemplate redisTemplate;
+    private final TokenProperties properties;
+
+    public TokenService(JwtEncoder jwtEncoder, JWKSource<SecurityContext> tokenKeySource, StringRedisTemplate redisTemplate,
+                        TokenProperties properties) {
+        this.jwtEncoder = jwtEncoder;
+        this.refreshTokenDecoder = TokenConfig.decoder(tokenKeySource, REFRESH_TOKEN);
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * Issues a new access and refresh token pair for an authenticated user.
+     *
+     * @param username the name of the authenticated user.
+     * @return the issued tokens.
+     */
+    public TokenResponseDTO issueTokens(String username) {
+        String accessToken = encode(username, ACCESS_TOKEN, properties.accessTokenTtl());
+        String refreshToken = encode(username, REFRESH_TOKEN, properties.refreshTokenTtl());
+        return new TokenResponseDTO(accessToken, refreshToken, "Bearer", properties.accessTokenTtl().toSeconds());
+    }
+
+    /**
+     * Exchanges a refresh token for a new token pair. The presented refresh token is revoked, so each one can only be used once.
+     * Revocation claims the token ID atomically, so of two concurrent requests with the same token only one succeeds.
+     *
+     * @param refreshToken the refresh token.
+     * @return the issued tokens.
+     * @throws BadCredentialsException if the refresh token is invalid, expired or revoked.
+     */
+    public TokenResponseDTO refresh(String refreshToken) {
+        Jwt jwt = decodeRefreshToken(refreshToken);
+        Duration remaining = Duration.between(Instant.now(), jwt.getExpiresAt());
+        boolean claimed = !remaining.isNegative() && !remaining.isZero()
+                && Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(revokedKey(jwt), jwt.getSubject(), remaining));
+        if (!claimed) {
+            throw new BadCredentialsException("Refresh token has been revoked");
+        }
+        return issueTokens(jwt.getSubject());
+    }
+
+    /**
+     * Revokes a refresh token. Revoking an invalid or already expired token has no effect.
+     *
+     * @param refreshToken the refresh token.
+     */
+    public void revoke(String refreshToken) {
+        Jwt jwt;
+        try {
+            jwt = decodeRefreshToken(refreshToken);
+        } catch (BadCredentialsException e) {
+            // Nothing to revoke
+            return;
+        }
+        Duration remaining = Duration.between(Instant.now(), jwt.getExpiresAt());
+        if (!remaining.isNegative() && !remaining.isZero()) {
+            redisTemplate.opsForValue().set(revokedKey(jwt), jwt.getSubject(), remaining);
+        }
+    }
+
+    private Jwt decodeRefreshToken(String refreshToken) {
+        Jwt jwt;
+        try {
+            jwt = refreshTokenDecoder.decode(refreshToken);
+        } catch (JwtException e) {
+            throw new BadCredentialsException("Invalid refresh token", e);
+        }
+        return jwt;
+    }
+
+    private static String revokedKey(Jwt jwt) {
+        return REVOKED_KEY_PREFIX + jwt.getId();
+    }
+
+    private String encode(String username, String tokenType, Duration ttl) {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .id(UUID.randomUUID().toString())
+                .subject(username)
+                .issuedAt(now)
+                .expiresAt(now.plus(ttl))
+                .claim(TokenConfig.TOKEN_TYPE_CLAIM, tokenType)
+                .build();
+        JwsHeader header = JwsHeader.with(MacAlgorithm.HS256)
+                .keyId(properties.keys().get(0).id())
+                .build();
+        return jwtEncoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+}
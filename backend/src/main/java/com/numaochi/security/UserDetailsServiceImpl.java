@@ -3,6 +3,7 @@ package com.numaochi.security;
 import com.numaochi.user.User;
 import com.numaochi.user.UserRepository;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -11,10 +12,11 @@ import java.util.ArrayList;
 
 /**
  * Custom implementation of {@link UserDetailsService} to load user-specific data.
- * This service retrieves user details from the database for authentication and authorization.
+ * This service retrieves user details from the database for authentication and authorization,
+ * and stores upgraded password hashes when a user's hash is rehashed on login.
  */
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
@@ -42,4 +44,20 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
         return new org.springframework.security.core.userdetails.User(user.getUsername(), user.getPassword(), new ArrayList<>());
     }
+
+    /**
+     * Stores a password hash that was upgraded to the currently configured algorithm or cost during login.
+     *
+     * @param user        the user whose password was rehashed.
+     * @param newPassword the new password hash.
+     * @return the user details with the new password hash.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.findByUsername(user.getUsername()).ifPresent(storedUser -> {
+            storedUser.setPassword(newPassword);
+            userRepository.save(storedUser);
+        });
+        return org.springframework.security.core.userdetails.User.withUserDetails(user).password(newPassword).build();
+    }
 }
@@ -4,6 +4,12 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.time.Instant;
 import java.time.LocalDate;
 
 /**
@@ -11,6 +17,7 @@ import java.time.LocalDate;
  * Each series contains main metadata information such as title, author, publication date, etc.
  */
 @Entity
+@DynamicUpdate
 public class Series {
 
     @Id
@@ -22,9 +29,15 @@ public class Series {
     private LocalDate publicationDate;
     private String description;
     private String coverImage;
+    private String coverHash;
     private String publisher;
     private String isbn;
 
+    @Version
+    private Long version;
+
+    private Instant updatedAt;
+
     /**
      * Returns the unique identifier of the series.
      * @return the ID of the series.
@@ -121,6 +134,22 @@ public class Series {
         this.coverImage = coverImage;
     }
 
+    /**
+     * Returns the SHA-256 hash of the cover image in the blob store.
+     * @return the cover hash of the series, or {@code null} if the cover is not stored.
+     */
+    public String getCoverHash() {
+        return coverHash;
+    }
+
+    /**
+     * Sets the SHA-256 hash of the cover image in the blob store.
+     * @param coverHash the cover hash to set.
+     */
+    public void setCoverHash(String coverHash) {
+        this.coverHash = coverHash;
+    }
+
     /**
      * Returns the publisher of the series.
      * @return the publisher of the series.
@@ -152,4 +181,42 @@ public class Series {
     public void setIsbn(String isbn) {
         this.isbn = isbn;
     }
+
+    /**
+     * Returns the optimistic-lock version of the series.
+     * @return the version of the series.
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the optimistic-lock version of the series.
+     * @param version the version to set.
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    /**
+     * Returns the time the series was last modified.
+     * @return the last modification time of the series.
+     */
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Sets the time the series was last modified.
+     * @param updatedAt the last modification time to set.
+     */
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now();
+    }
 }
@@ -0,0 +1,9 @@
+package com.numaochi.series;
+
+/**
+ * Published after a series was created or updated, within the writing transaction if there is one.
+ *
+ * @param series the saved series.
+ */
+public record SeriesChangedEvent(Series series) {
+}
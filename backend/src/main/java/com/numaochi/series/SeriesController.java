@@ -1,6 +1,15 @@
 package com.numaochi.series;
 
+import com.numaochi.common.BatchDTO;
+import com.numaochi.common.ConditionalRequests;
+import com.numaochi.common.FieldSelection;
+import com.numaochi.common.InvalidFieldSelectionException;
+import com.numaochi.common.MergePatch;
+import com.numaochi.search.SearchResults;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -8,9 +17,14 @@ import java.util.List;
  * REST controller for managing series.
  */
 @RestController
+@RegisterReflectionForBinding({SeriesDTO.class, SeriesSummaryDTO.class})
 @RequestMapping("/api/series")
 public class SeriesController {
 
+    static final String DEGRADED_HEADER = "X-Search-Degraded";
+
+    static final int MAX_SUGGESTIONS = 20;
+
     private final SeriesService seriesService;
 
     public SeriesController(SeriesService seriesService) {
@@ -19,25 +33,85 @@ public class SeriesController {
 
     /**
      * Retrieves all series.
+     * With {@code view=summary} only the ID, title, author and cover of each series are loaded and returned.
+     * With {@code fields} and {@code expand}, only the listed fields and expansions are loaded and returned.
+     * Answers with 304 Not Modified when the client's copy is still current, unless expansions are requested.
      *
+     * @param view    {@code summary} for compact list items, or {@code full} (the default) for complete series.
+     * @param fields  the optional comma-separated fields to return, for example {@code title,coverImage}.
+     * @param expand  the optional comma-separated expansions to add: {@code volumeCount}, {@code chapterCount}.
+     * @param request the current request, used to evaluate conditional headers.
      * @return a list of all series.
+     * @throws InvalidFieldSelectionException if the view is neither {@code summary} nor {@code full}.
      */
     @GetMapping
-    public List<SeriesDTO> getAllSeries() {
+    public List<?> getAllSeries(@RequestParam(defaultValue = "full") String view,
+            @RequestParam(required = false) String fields, @RequestParam(required = false) String expand,
+            WebRequest request) {
+        boolean summary = "summary".equalsIgnoreCase(view);
+        if (!summary && !"full".equalsIgnoreCase(view)) {
+            throw new InvalidFieldSelectionException("Unknown view '" + view + "', expected summary or full");
+        }
+        if (!FieldSelection.isExpanded(expand)
+                && ConditionalRequests.isNotModified(request, seriesService.getSeriesListVersion())) {
+            return null;
+        }
+        if (FieldSelection.isRequested(fields, expand)) {
+            return seriesService.getAllSeriesFields(fields, expand);
+        }
+        if (summary) {
+            return seriesService.getAllSeriesSummaries();
+        }
         return seriesService.getAllSeries();
     }
 
     /**
      * Retrieves a series by its ID.
+     * With {@code fields} and {@code expand}, only the listed fields and expansions are loaded and returned.
+     * Answers with 304 Not Modified, without loading the series, when the client's copy is still current and no
+     * expansions are requested.
      *
-     * @param id the ID of the series to retrieve.
+     * @param id      the ID of the series to retrieve.
+     * @param fields  the optional comma-separated fields to return, for example {@code title,coverImage}.
+     * @param expand  the optional comma-separated expansions to add: {@code volumeCount}, {@code chapterCount}.
+     * @param request the current request, used to evaluate conditional headers.
      * @return the series with the specified ID.
      */
     @GetMapping("/{id}")
-    public SeriesDTO getSeriesById(@PathVariable Long id) {
+    public Object getSeriesById(@PathVariable Long id, @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String expand, WebRequest request) {
+        if (!FieldSelection.isExpanded(expand)
+                && ConditionalRequests.isNotModified(request, seriesService.getSeriesVersion(id))) {
+            return null;
+        }
+        if (FieldSelection.isRequested(fields, expand)) {
+            return seriesService.getSeriesFieldsById(id, fields, expand);
+        }
         return seriesService.getSeriesById(id);
     }
 
+    /**
+     * Retrieves many series by their IDs in one request, for example {@code /batch?ids=3,1,2}.
+     *
+     * @param ids the IDs of the series, at most {@value BatchDTO#MAX_IDS}.
+     * @return the series found in request order, and the IDs that were not found.
+     */
+    @GetMapping("/batch")
+    public BatchDTO<SeriesDTO> getSeriesBatch(@RequestParam List<Long> ids) {
+        return seriesService.getSeriesBatch(ids);
+    }
+
+    /**
+     * Retrieves many series by the IDs in the request body, for ID lists too long for a query string.
+     *
+     * @param ids the IDs of the series, at most {@value BatchDTO#MAX_IDS}.
+     * @return the series found in request order, and the IDs that were not found.
+     */
+    @PostMapping("/batch")
+    public BatchDTO<SeriesDTO> getSeriesBatchByPost(@RequestBody List<Long> ids) {
+        return seriesService.getSeriesBatch(ids);
+    }
+
     /**
      * Creates a new series.
      *
@@ -51,16 +125,38 @@ public class SeriesController {
 
     /**
      * Updates an existing series.
+     * An {@code If-Match} header makes the update conditional on the series not having changed since it was read.
      *
      * @param id        the ID of the series to update.
      * @param seriesDTO the updated series data.
+     * @param ifMatch   the optional entity tag the client expects the series to have.
      * @return the updated series.
      */
     @PutMapping("/{id}")
-    public SeriesDTO updateSeries(@PathVariable Long id, @RequestBody SeriesDTO seriesDTO) {
+    public SeriesDTO updateSeries(@PathVariable Long id, @RequestBody SeriesDTO seriesDTO,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        Long expectedVersion = ConditionalRequests.expectedVersion(ifMatch);
+        if (expectedVersion != null) {
+            seriesDTO.setVersion(expectedVersion);
+        }
         return seriesService.updateSeries(id, seriesDTO);
     }
 
+    /**
+     * Partially updates an existing series with a JSON Merge Patch ({@code application/merge-patch+json}).
+     * Fields absent from the patch are left untouched.
+     *
+     * @param id      the ID of the series to patch.
+     * @param patch   the merge patch to apply.
+     * @param ifMatch the optional entity tag the client expects the series to have.
+     * @return the patched series.
+     */
+    @PatchMapping("/{id}")
+    public SeriesDTO patchSeries(@PathVariable Long id, @RequestBody MergePatch patch,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        return seriesService.patchSeries(id, patch, ConditionalRequests.expectedVersion(ifMatch));
+    }
+
     /**
      * Deletes a series by its ID.
      *
@@ -73,12 +169,31 @@ public class SeriesController {
 
     /**
      * Searches for series based on a query string.
+     * While Meilisearch is unavailable the results come from the database and carry a
+     * {@code X-Search-Degraded: true} header.
      *
      * @param query the search query.
      * @return a list of series matching the query.
      */
     @GetMapping("/search")
-    public List<SeriesDTO> searchSeries(@RequestParam String query) {
-        return seriesService.searchSeries(query);
+    public ResponseEntity<List<SeriesDTO>> searchSeries(@RequestParam String query) {
+        SearchResults<SeriesDTO> results = seriesService.searchSeries(query);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (results.degraded()) {
+            response.header(DEGRADED_HEADER, "true");
+        }
+        return response.body(results.hits());
+    }
+
+    /**
+     * Suggests series for a search box as the user types, from an in-memory index of titles and authors.
+     *
+     * @param prefix the typed prefix.
+     * @param limit  the maximum number of suggestions, at most 20.
+     * @return the suggested series.
+     */
+    @GetMapping("/suggest")
+    public List<SeriesSummaryDTO> suggestSeries(@RequestParam String prefix, @RequestParam(defaultValue = "10") int limit) {
+        return seriesService.suggestSeries(prefix, Math.min(limit, MAX_SUGGESTIONS));
     }
 }
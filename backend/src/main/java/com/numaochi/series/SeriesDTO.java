@@ -13,8 +13,10 @@ public class SeriesDTO {
     private LocalDate publicationDate;
     private String description;
     private String coverImage;
+    private String coverHash;
     private String publisher;
     private String isbn;
+    private Long version;
 
     /**
      * Returns the unique identifier of the series.
@@ -112,6 +114,22 @@ public class SeriesDTO {
         this.coverImage = coverImage;
     }
 
+    /**
+     * Returns the SHA-256 hash of the cover image in the blob store.
+     * @return the cover hash of the series, or {@code null} if the cover is not stored.
+     */
+    public String getCoverHash() {
+        return coverHash;
+    }
+
+    /**
+     * Sets the SHA-256 hash of the cover image in the blob store.
+     * @param coverHash the cover hash to set.
+     */
+    public void setCoverHash(String coverHash) {
+        this.coverHash = coverHash;
+    }
+
     /**
      * Returns the publisher of the series.
      * @return the publisher of the series.
@@ -143,4 +161,20 @@ public class SeriesDTO {
     public void setIsbn(String isbn) {
         this.isbn = isbn;
     }
+
+    /**
+     * Returns the version of the series, used for optimistic concurrency control.
+     * @return the version of the series.
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version of the series, used for optimistic concurrency control.
+     * @param version the version to set.
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,9 @@
+package com.numaochi.series;
+
+/**
+ * Published before a series is deleted, so that rows referencing it can be removed first.
+ *
+ * @param seriesId the ID of the series being deleted.
+ */
+public record SeriesDeletedEvent(Long seriesId) {
+}
@@ -0,0 +1,30 @@
+package com.numaochi.series;
+
+import java.time.LocalDate;
+
+/**
+ * The ID and the comparable text and date fields of a series, such as those a smart collection rule reads.
+ * Loaded directly as a query projection, without hydrating {@link Series} entities.
+ *
+ * @param id              the ID of the series.
+ * @param title           the title of the series.
+ * @param author          the author of the series.
+ * @param description     the description of the series.
+ * @param publisher       the publisher of the series.
+ * @param isbn            the ISBN of the series.
+ * @param publicationDate the publication date of the series.
+ */
+public record SeriesFieldsDTO(Long id, String title, String author, String description, String publisher, String isbn,
+                              LocalDate publicationDate) {
+
+    /**
+     * Copies the fields of a series.
+     *
+     * @param series the series.
+     * @return the fields of the series.
+     */
+    public static SeriesFieldsDTO of(Series series) {
+        return new SeriesFieldsDTO(series.getId(), series.getTitle(), series.getAuthor(), series.getDescription(),
+                series.getPublisher(), series.getIsbn(), series.getPublicationDate());
+    }
+}
@@ -1,9 +1,135 @@
 package com.numaochi.series;
 
+import com.numaochi.common.ResourceVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for managing {@link Series} entities.
  */
 public interface SeriesRepository extends JpaRepository<Series, Long> {
+
+    /**
+     * Finds the version information of a series without loading the entity.
+     *
+     * @param id the ID of the series.
+     * @return an {@link Optional} containing the version if the series exists, or empty otherwise.
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.numaochi.common.ResourceVersion(s.version, s.updatedAt) from Series s where s.id = :id")
+    Optional<ResourceVersion> findResourceVersionById(@Param("id") Long id);
+
+    /**
+     * Computes an aggregate version over all series, which changes whenever one is created, updated or deleted.
+     *
+     * @return the aggregate version of the series list.
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.numaochi.common.ResourceVersion(count(s) + coalesce(sum(s.version), 0), max(s.updatedAt)) from Series s")
+    ResourceVersion findListResourceVersion();
+
+    /**
+     * Finds all series as summary projections, selecting only the columns needed for listing.
+     *
+     * @return the summaries of all series, ordered by ID.
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.numaochi.series.SeriesSummaryDTO(s.id, s.title, s.author, s.coverImage) from Series s order by s.id")
+    List<SeriesSummaryDTO> findAllSummaries();
+
+    /**
+     * Searches series in the database, for use while Meilisearch is unavailable.
+     * Matches the full-text search vector of title, author and description, or a trigram similarity on title or author
+     * to tolerate typos, each backed by a GIN index.
+     *
+     * @param query the search query.
+     * @param limit the maximum number of results.
+     * @return the matching series, best match first.
+     */
+    @Transactional(readOnly = true)
+    @Query(value = """
+            select s.* from series s
+            where s.search_vector @@ websearch_to_tsquery('simple', :query)
+               or s.title % :query
+               or s.author % :query
+            order by ts_rank(s.search_vector, websearch_to_tsquery('simple', :query)) desc,
+                     greatest(similarity(s.title, :query), coalesce(similarity(s.author, :query), 0)) desc,
+                     s.id
+            limit :limit""", nativeQuery = true)
+    List<Series> searchFallback(@Param("query") String query, @Param("limit") int limit);
+
+    /**
+     * Finds the IDs of all series without loading them.
+     *
+     * @return the IDs of all series, in ascending order.
+     */
+    @Transactional(readOnly = true)
+    @Query("select s.id from Series s order by s.id")
+    List<Long> findAllIds();
+
+    /**
+     * Streams the comparable fields of all series without loading them, fetching rows in batches.
+     * The stream must be consumed within a transaction and closed.
+     *
+     * @return the fields of all series, in ascending order of ID.
+     */
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            select new com.numaochi.series.SeriesFieldsDTO(s.id, s.title, s.author, s.description, s.publisher, s.isbn,
+                s.publicationDate)
+            from Series s order by s.id""")
+    Stream<SeriesFieldsDTO> streamAllFields();
+
+    /**
+     * Finds the IDs of the most recently created or updated series.
+     *
+     * @param limit the maximum number of IDs.
+     * @return the IDs, most recently updated first.
+     */
+    @Transactional(readOnly = true)
+    @Query("select s.id from Series s order by s.updatedAt desc nulls last, s.id desc")
+    List<Long> findRecentlyUpdatedIds(Limit limit);
+
+    /**
+     * Counts the volumes of each of the given series.
+     *
+     * @param seriesIds the IDs of the series.
+     * @return rows of a series ID and its volume count, for series with at least one volume.
+     */
+    @Transactional(readOnly = true)
+    @Query(value = "select v.series_id, count(*) from volume v where v.series_id = any(:seriesIds) group by v.series_id",
+            nativeQuery = true)
+    List<Object[]> countVolumesBySeriesIds(@Param("seriesIds") Long[] seriesIds);
+
+    /**
+     * Counts the chapters of each of the given series.
+     *
+     * @param seriesIds the IDs of the series.
+     * @return rows of a series ID and its chapter count, for series with at least one chapter.
+     */
+    @Transactional(readOnly = true)
+    @Query(value = "select c.series_id, count(*) from chapter c where c.series_id = any(:seriesIds) group by c.series_id",
+            nativeQuery = true)
+    List<Object[]> countChaptersBySeriesIds(@Param("seriesIds") Long[] seriesIds);
+
+    /**
+     * Finds the series with the given IDs in one query, binding all IDs as a single array parameter.
+     *
+     * @param ids the IDs of the series.
+     * @return the series that exist, in no particular order.
+     */
+    @Transactional(readOnly = true)
+    @Query(value = "select * from series where id = any(:ids)", nativeQuery = true)
+    List<Series> findAllByIds(@Param("ids") Long[] ids);
 }
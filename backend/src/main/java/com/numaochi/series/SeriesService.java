@@ -1,9 +1,27 @@
 package com.numaochi.series;
 
+import com.numaochi.common.BatchDTO;
+import com.numaochi.common.ConditionalRequests;
+import com.numaochi.common.FieldSelection;
+import com.numaochi.common.FieldSelectionQueries;
+import com.numaochi.common.MergePatch;
+import com.numaochi.common.MissingFields;
+import com.numaochi.common.ResourceVersion;
+import com.numaochi.common.SingleFlight;
+import com.numaochi.common.SingleFlights;
+import com.numaochi.search.SearchResults;
 import com.numaochi.search.SearchService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -12,12 +30,35 @@ import java.util.stream.Collectors;
 @Service
 public class SeriesService {
 
+    /**
+     * The fields of a series that can be selected with {@code fields}, and their entity attributes.
+     */
+    static final Map<String, String> FIELD_COLUMNS = FieldSelectionQueries.columns("id", "title", "author",
+            "publicationDate", "description", "coverImage", "coverHash", "publisher", "isbn", "version");
+
+    /**
+     * The counts that can be added to a series with {@code expand}.
+     */
+    static final Set<String> EXPANSIONS = Set.of("volumeCount", "chapterCount");
+
     private final SeriesRepository seriesRepository;
     private final SearchService searchService;
+    private final SeriesSuggestionIndex suggestionIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FieldSelectionQueries fieldSelectionQueries;
+    private final SingleFlight<Long, SeriesDTO> seriesById;
+    private final SingleFlight<String, SearchResults<SeriesDTO>> seriesSearches;
 
-    public SeriesService(SeriesRepository seriesRepository, SearchService searchService) {
+    public SeriesService(SeriesRepository seriesRepository, SearchService searchService,
+                         SeriesSuggestionIndex suggestionIndex, ApplicationEventPublisher eventPublisher,
+                         FieldSelectionQueries fieldSelectionQueries, SingleFlights singleFlights) {
         this.seriesRepository = seriesRepository;
         this.searchService = searchService;
+        this.suggestionIndex = suggestionIndex;
+        this.eventPublisher = eventPublisher;
+        this.fieldSelectionQueries = fieldSelectionQueries;
+        this.seriesById = singleFlights.create("series.by-id");
+        this.seriesSearches = singleFlights.create("series.search");
     }
 
     /**
@@ -25,18 +66,116 @@ public class SeriesService {
      *
      * @return a list of all series.
      */
+    @Transactional(readOnly = true)
     public List<SeriesDTO> getAllSeries() {
         return seriesRepository.findAll().stream().map(this::convertToDto).collect(Collectors.toList());
     }
 
     /**
-     * Retrieves a series by its ID.
+     * Retrieves a summary of every series, loading only the listed columns.
+     *
+     * @return a list of all series summaries.
+     */
+    @Transactional(readOnly = true)
+    public List<SeriesSummaryDTO> getAllSeriesSummaries() {
+        return seriesRepository.findAllSummaries();
+    }
+
+    /**
+     * Retrieves a series by its ID. Concurrent calls for the same series share one database read; the method is not
+     * transactional itself, so that callers waiting for a shared read do not hold a connection.
      *
      * @param id the ID of the series to retrieve.
      * @return the series with the specified ID, or {@code null} if not found.
      */
     public SeriesDTO getSeriesById(Long id) {
-        return seriesRepository.findById(id).map(this::convertToDto).orElse(null);
+        return seriesById.execute(id, () -> seriesRepository.findById(id).map(this::convertToDto).orElse(null));
+    }
+
+    /**
+     * Retrieves several series by their IDs with one query.
+     *
+     * @param ids the IDs of the series.
+     * @return the series that exist, in no particular order.
+     */
+    @Transactional(readOnly = true)
+    public List<SeriesDTO> getSeriesByIds(List<Long> ids) {
+        return seriesRepository.findAllByIds(ids.toArray(Long[]::new)).stream().map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Retrieves many series by their IDs with one query, for clients that would otherwise fetch them one by one.
+     *
+     * @param ids the IDs of the series; duplicates are returned once.
+     * @return the series found in request order, and the IDs that were not found.
+     * @throws com.numaochi.common.BatchTooLargeException if more than {@link BatchDTO#MAX_IDS} IDs are requested.
+     */
+    @Transactional(readOnly = true)
+    public BatchDTO<SeriesDTO> getSeriesBatch(List<Long> ids) {
+        List<Long> distinct = BatchDTO.distinctIds(ids);
+        return BatchDTO.of(distinct, getSeriesByIds(distinct), SeriesDTO::getId);
+    }
+
+    /**
+     * Retrieves the IDs of the most recently created or updated series, which are the ones most likely to be read.
+     *
+     * @param limit the maximum number of IDs.
+     * @return the IDs, most recently updated first.
+     */
+    @Transactional(readOnly = true)
+    public List<Long> getRecentlyUpdatedSeriesIds(int limit) {
+        return seriesRepository.findRecentlyUpdatedIds(Limit.of(limit));
+    }
+
+    /**
+     * Retrieves the selected fields of every series, selecting only their columns and counting only the requested
+     * expansions.
+     *
+     * @param fields the comma-separated fields to return, or {@code null} for all fields.
+     * @param expand the comma-separated expansions to add, or {@code null} for none.
+     * @return the selected fields of all series, ordered by ID.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllSeriesFields(String fields, String expand) {
+        FieldSelection selection = FieldSelection.parse(fields, expand, FIELD_COLUMNS.keySet(), EXPANSIONS);
+        return expand(fieldSelectionQueries.find(Series.class, FIELD_COLUMNS, selection, null), selection);
+    }
+
+    /**
+     * Retrieves the selected fields of a series.
+     *
+     * @param id     the ID of the series.
+     * @param fields the comma-separated fields to return, or {@code null} for all fields.
+     * @param expand the comma-separated expansions to add, or {@code null} for none.
+     * @return the selected fields of the series, or {@code null} if not found.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getSeriesFieldsById(Long id, String fields, String expand) {
+        FieldSelection selection = FieldSelection.parse(fields, expand, FIELD_COLUMNS.keySet(), EXPANSIONS);
+        List<Map<String, Object>> rows = expand(fieldSelectionQueries.find(Series.class, FIELD_COLUMNS, selection, id), selection);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Retrieves the version information of a series without loading it.
+     *
+     * @param id the ID of the series.
+     * @return the version of the series, or {@code null} if not found.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getSeriesVersion(Long id) {
+        return seriesRepository.findResourceVersionById(id).orElse(null);
+    }
+
+    /**
+     * Retrieves the aggregate version of the series list.
+     *
+     * @return the version of the series list.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getSeriesListVersion() {
+        return seriesRepository.findListResourceVersion();
     }
 
     /**
@@ -49,6 +188,7 @@ public class SeriesService {
         Series series = convertToEntity(seriesDTO);
         Series savedSeries = seriesRepository.save(series);
         searchService.indexSeries(savedSeries);
+        eventPublisher.publishEvent(new SeriesChangedEvent(savedSeries));
         return convertToDto(savedSeries);
     }
 
@@ -57,36 +197,161 @@ public class SeriesService {
      *
      * @param id        the ID of the series to update.
      * @param seriesDTO the updated series data.
-     * @return the updated series.
+     * @return the updated series, or {@code null} if not found.
      */
+    @Transactional
     public SeriesDTO updateSeries(Long id, SeriesDTO seriesDTO) {
         Series series = convertToEntity(seriesDTO);
         series.setId(id);
+        if (series.getVersion() == null) {
+            Long version = seriesRepository.findResourceVersionById(id).map(ResourceVersion::version).orElse(null);
+            if (version == null) {
+                return null;
+            }
+            series.setVersion(version);
+        }
         Series savedSeries = seriesRepository.save(series);
         searchService.indexSeries(savedSeries);
+        eventPublisher.publishEvent(new SeriesChangedEvent(savedSeries));
         return convertToDto(savedSeries);
     }
 
+    /**
+     * Applies a JSON Merge Patch to an existing series.
+     * Only the changed columns are written, and the series is re-indexed only if a field actually changed.
+     *
+     * @param id              the ID of the series to patch.
+     * @param patch           the merge patch to apply.
+     * @param expectedVersion the version the client expects the series to have, or {@code null}.
+     * @return the patched series, or {@code null} if not found.
+     */
+    @Transactional
+    public SeriesDTO patchSeries(Long id, MergePatch patch, Long expectedVersion) {
+        Series series = seriesRepository.findById(id).orElse(null);
+        if (series == null) {
+            return null;
+        }
+        ConditionalRequests.requireVersion(Series.class, id, series.getVersion(), expectedVersion);
+        boolean changed = patch.apply("title", String.class, series::getTitle, series::setTitle)
+                | patch.apply("author", String.class, series::getAuthor, series::setAuthor)
+                | patch.apply("publicationDate", LocalDate.class, series::getPublicationDate, series::setPublicationDate)
+                | patch.apply("description", String.class, series::getDescription, series::setDescription)
+                | patch.apply("coverImage", String.class, series::getCoverImage, series::setCoverImage)
+                | patch.apply("coverHash", String.class, series::getCoverHash, series::setCoverHash)
+                | patch.apply("publisher", String.class, series::getPublisher, series::setPublisher)
+                | patch.apply("isbn", String.class, series::getIsbn, series::setIsbn);
+        if (changed) {
+            seriesRepository.flush();
+            searchService.indexSeries(series);
+            eventPublisher.publishEvent(new SeriesChangedEvent(series));
+        }
+        return convertToDto(series);
+    }
+
+    /**
+     * Fills the empty fields of several series, such as with metadata extracted from their files.
+     * Fields that already have a value are kept, so metadata entered by hand wins. The series are loaded with one
+     * query and written in JDBC batches, and only the series that changed are re-indexed.
+     *
+     * @param metadata the fields to fill in, by series ID; {@code null} fields are ignored.
+     * @return the number of series that changed.
+     */
+    @Transactional
+    public int fillMissingMetadata(Map<Long, SeriesDTO> metadata) {
+        List<Series> changed = new ArrayList<>();
+        for (Series series : seriesRepository.findAllById(metadata.keySet())) {
+            SeriesDTO values = metadata.get(series.getId());
+            if (MissingFields.fill(series::getTitle, series::setTitle, values.getTitle())
+                    | MissingFields.fill(series::getAuthor, series::setAuthor, values.getAuthor())
+                    | MissingFields.fill(series::getPublicationDate, series::setPublicationDate, values.getPublicationDate())
+                    | MissingFields.fill(series::getDescription, series::setDescription, values.getDescription())
+                    | MissingFields.fill(series::getPublisher, series::setPublisher, values.getPublisher())
+                    | MissingFields.fill(series::getIsbn, series::setIsbn, values.getIsbn())) {
+                changed.add(series);
+            }
+        }
+        if (!changed.isEmpty()) {
+            seriesRepository.flush();
+            for (Series series : changed) {
+                searchService.indexSeries(series);
+                eventPublisher.publishEvent(new SeriesChangedEvent(series));
+            }
+        }
+        return changed.size();
+    }
+
     /**
      * Deletes a series by its ID and removes it from Meilisearch.
      *
      * @param id the ID of the series to delete.
      */
+    @Transactional
     public void deleteSeries(Long id) {
+        eventPublisher.publishEvent(new SeriesDeletedEvent(id));
         seriesRepository.deleteById(id);
         searchService.removeSeries(id);
     }
 
     /**
-     * Searches for series using Meilisearch.
+     * Searches for series using Meilisearch, or the database while Meilisearch is unavailable.
+     * Concurrent identical searches share one backend call.
      *
      * @param query the search query string.
-     * @return a list of series matching the query.
+     * @return the series matching the query, flagged as degraded if they come from the database.
      */
-    public List<SeriesDTO> searchSeries(String query) {
-        return searchService.searchSeries(query).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public SearchResults<SeriesDTO> searchSeries(String query) {
+        return seriesSearches.execute(query, () -> searchService.searchSeries(query).map(this::convertToDto));
+    }
+
+    /**
+     * Makes reads of a changed series after the change commits load it again rather than join a read in flight, and
+     * updates its suggestions, so that a rolled-back change is never suggested.
+     *
+     * @param event the change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeriesChanged(SeriesChangedEvent event) {
+        seriesById.forget(event.series().getId());
+        suggestionIndex.put(event.series());
+    }
+
+    /**
+     * Makes reads of a deleted series after the deletion commits load it again rather than join a read in flight, and
+     * removes it from the suggestions.
+     *
+     * @param event the deletion.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeriesDeleted(SeriesDeletedEvent event) {
+        seriesById.forget(event.seriesId());
+        suggestionIndex.remove(event.seriesId());
+    }
+
+    /**
+     * Suggests series whose title or author has a word starting with the given prefix, from the in-memory index.
+     *
+     * @param prefix the typed prefix.
+     * @param limit  the maximum number of suggestions.
+     * @return the suggested series.
+     */
+    public List<SeriesSummaryDTO> suggestSeries(String prefix, int limit) {
+        return suggestionIndex.suggest(prefix, limit);
+    }
+
+    private List<Map<String, Object>> expand(List<Map<String, Object>> rows, FieldSelection selection) {
+        if (rows.isEmpty()) {
+            return rows;
+        }
+        Long[] ids = FieldSelectionQueries.ids(rows);
+        if (selection.expands("volumeCount")) {
+            FieldSelectionQueries.expand(rows, "volumeCount",
+                    FieldSelectionQueries.byId(seriesRepository.countVolumesBySeriesIds(ids)), 0L);
+        }
+        if (selection.expands("chapterCount")) {
+            FieldSelectionQueries.expand(rows, "chapterCount",
+                    FieldSelectionQueries.byId(seriesRepository.countChaptersBySeriesIds(ids)), 0L);
+        }
+        return rows;
     }
 
     /**
@@ -98,11 +363,13 @@ public class SeriesService {
     private SeriesDTO convertToDto(Series series) {
         SeriesDTO seriesDTO = new SeriesDTO();
         seriesDTO.setId(series.getId());
+        seriesDTO.setVersion(series.getVersion());
         seriesDTO.setTitle(series.getTitle());
         seriesDTO.setAuthor(series.getAuthor());
         seriesDTO.setPublicationDate(series.getPublicationDate());
         seriesDTO.setDescription(series.getDescription());
         seriesDTO.setCoverImage(series.getCoverImage());
+        seriesDTO.setCoverHash(series.getCoverHash());
         seriesDTO.setPublisher(series.getPublisher());
         seriesDTO.setIsbn(series.getIsbn());
         return seriesDTO;
@@ -117,11 +384,13 @@ public class SeriesService {
     private Series convertToEntity(SeriesDTO seriesDTO) {
         Series series = new Series();
         series.setId(seriesDTO.getId());
+        series.setVersion(seriesDTO.getVersion());
         series.setTitle(seriesDTO.getTitle());
         series.setAuthor(seriesDTO.getAuthor());
         series.setPublicationDate(seriesDTO.getPublicationDate());
         series.setDescription(seriesDTO.getDescription());
         series.setCoverImage(seriesDTO.getCoverImage());
+        series.setCoverHash(seriesDTO.getCoverHash());
         series.setPublisher(seriesDTO.getPublisher());
         series.setIsbn(seriesDTO.getIsbn());
         return series;
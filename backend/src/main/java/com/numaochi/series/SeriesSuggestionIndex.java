@@ -0,0 +1,267 @@
+package com.numaochi.series;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory prefix index over series titles and authors for typeahead suggestions.
+ * <p>
+ * Every word of a normalised title or author starts a key, so {@code "pie"} finds "One Piece". Keys are held in a
+ * sorted array with a parallel array of primitive series IDs; a lookup is a binary search followed by a short scan.
+ * The index is an immutable snapshot replaced on every change, so lookups never lock. It is built at startup, kept
+ * current by {@link SeriesService} after each create, update and delete commits, and rebuilt every refresh interval
+ * to pick up changes made through other nodes.
+ */
+@Component
+public class SeriesSuggestionIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final SeriesRepository seriesRepository;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public SeriesSuggestionIndex(SeriesRepository seriesRepository) {
+        this.seriesRepository = seriesRepository;
+    }
+
+    /**
+     * Rebuilds the index from the database once the application has started, and then every refresh interval.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${series.suggestions.refresh-interval:PT5M}",
+            fixedDelayString = "${series.suggestions.refresh-interval:PT5M}")
+    public void rebuild() {
+        rebuild(seriesRepository.findAllSummaries());
+    }
+
+    /**
+     * Replaces the contents of the index.
+     *
+     * @param series the summaries of all series.
+     */
+    public synchronized void rebuild(Collection<SeriesSummaryDTO> series) {
+        List<Key> keys = new ArrayList<>();
+        Map<Long, SeriesSummaryDTO> summaries = new HashMap<>();
+        for (SeriesSummaryDTO summary : series) {
+            summaries.put(summary.id(), summary);
+            keys.addAll(keysOf(summary));
+        }
+        keys.sort(null);
+        snapshot = Snapshot.of(keys, summaries);
+    }
+
+    /**
+     * Adds a series to the index, replacing its previous title and author.
+     *
+     * @param series the created or updated series.
+     */
+    public void put(Series series) {
+        putAll(List.of(series));
+    }
+
+    /**
+     * Adds several series to the index, replacing their previous titles and authors, with a single copy of the index.
+     *
+     * @param series the created or updated series.
+     */
+    public synchronized void putAll(Collection<Series> series) {
+        if (series.isEmpty()) {
+            return;
+        }
+        Map<Long, SeriesSummaryDTO> summaries = new HashMap<>();
+        for (Series one : series) {
+            summaries.put(one.getId(), new SeriesSummaryDTO(one.getId(), one.getTitle(), one.getAuthor(),
+                    one.getCoverImage()));
+        }
+        List<Key> keys = new ArrayList<>();
+        for (SeriesSummaryDTO summary : summaries.values()) {
+            keys.addAll(keysOf(summary));
+        }
+        snapshot = snapshot.without(summaries.keySet()).with(summaries, keys);
+    }
+
+    /**
+     * Removes a series from the index.
+     *
+     * @param seriesId the ID of the deleted series.
+     */
+    public synchronized void remove(Long seriesId) {
+        snapshot = snapshot.without(Set.of(seriesId));
+    }
+
+    /**
+     * Finds series whose title or author has a word starting with the given prefix.
+     *
+     * @param prefix the typed prefix; case, accents and punctuation are ignored.
+     * @param limit  the maximum number of suggestions.
+     * @return the matching series, in key order, without duplicates.
+     */
+    public List<SeriesSummaryDTO> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Snapshot current = snapshot;
+        long[] found = new long[limit];
+        int count = 0;
+        for (int i = current.lowerBound(normalized); i < current.keys.length && count < limit; i++) {
+            if (!current.keys[i].startsWith(normalized)) {
+                break;
+            }
+            long id = current.ids[i];
+            if (!contains(found, count, id)) {
+                found[count++] = id;
+            }
+        }
+        List<SeriesSummaryDTO> suggestions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            suggestions.add(current.summaries.get(found[i]));
+        }
+        return suggestions;
+    }
+
+    /**
+     * Normalises text for prefix matching: lower case, without accents, with words separated by single spaces.
+     *
+     * @param text the text.
+     * @return the normalised text.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(decomposed.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static List<Key> keysOf(SeriesSummaryDTO summary) {
+        List<Key> keys = new ArrayList<>();
+        addWordKeys(keys, normalize(summary.title()), summary.id());
+        addWordKeys(keys, normalize(summary.author()), summary.id());
+        return keys;
+    }
+
+    private static void addWordKeys(List<Key> keys, String text, long id) {
+        if (text.isEmpty()) {
+            return;
+        }
+        keys.add(new Key(text, id));
+        for (int i = text.indexOf(' '); i >= 0; i = text.indexOf(' ', i + 1)) {
+            keys.add(new Key(text.substring(i + 1), id));
+        }
+    }
+
+    private static boolean contains(long[] values, int count, long value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Key(String text, long id) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            int result = text.compareTo(other.text);
+            return result != 0 ? result : Long.compare(id, other.id);
+        }
+    }
+
+    /**
+     * An immutable state of the index: sorted keys, the series ID of each key, and the summary of each series.
+     */
+    private static final class Snapshot {
+
+        private static final Snapshot EMPTY = new Snapshot(new String[0], new long[0], Map.of());
+
+        private final String[] keys;
+        private final long[] ids;
+        private final Map<Long, SeriesSummaryDTO> summaries;
+
+        private Snapshot(String[] keys, long[] ids, Map<Long, SeriesSummaryDTO> summaries) {
+            this.keys = keys;
+            this.ids = ids;
+            this.summaries = summaries;
+        }
+
+        private static Snapshot of(List<Key> sortedKeys, Map<Long, SeriesSummaryDTO> summaries) {
+            String[] keys = new String[sortedKeys.size()];
+            long[] ids = new long[sortedKeys.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = sortedKeys.get(i).text();
+                ids[i] = sortedKeys.get(i).id();
+            }
+            return new Snapshot(keys, ids, summaries);
+        }
+
+        private int lowerBound(String prefix) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private Snapshot without(Set<Long> removed) {
+            if (removed.stream().noneMatch(summaries::containsKey)) {
+                return this;
+            }
+            String[] newKeys = new String[keys.length];
+            long[] newIds = new long[ids.length];
+            int size = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (!removed.contains(ids[i])) {
+                    newKeys[size] = keys[i];
+                    newIds[size++] = ids[i];
+                }
+            }
+            Map<Long, SeriesSummaryDTO> newSummaries = new HashMap<>(summaries);
+            newSummaries.keySet().removeAll(removed);
+            return new Snapshot(Arrays.copyOf(newKeys, size), Arrays.copyOf(newIds, size), newSummaries);
+        }
+
+        private Snapshot with(Map<Long, SeriesSummaryDTO> added, List<Key> addedKeys) {
+            List<Key> sorted = new ArrayList<>(addedKeys);
+            sorted.sort(null);
+            String[] newKeys = new String[keys.length + sorted.size()];
+            long[] newIds = new long[newKeys.length];
+            int i = 0;
+            int j = 0;
+            int k = 0;
+            while (i < keys.length || j < sorted.size()) {
+                if (j == sorted.size() || (i < keys.length && keys[i].compareTo(sorted.get(j).text()) <= 0)) {
+                    newKeys[k] = keys[i];
+                    newIds[k++] = ids[i++];
+                } else {
+                    newKeys[k] = sorted.get(j).text();
+                    newIds[k++] = sorted.get(j++).id();
+                }
+            }
+            Map<Long, SeriesSummaryDTO> newSummaries = new HashMap<>(summaries);
+            newSummaries.putAll(added);
+            return new Snapshot(newKeys, newIds, newSummaries);
+        }
+    }
+}
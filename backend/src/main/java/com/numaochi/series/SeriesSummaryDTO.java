@@ -0,0 +1,13 @@
+package com.numaochi.series;
+
+/**
+ * Compact Data Transfer Object for listing series in grids.
+ * Loaded directly as a query projection, without hydrating {@link Series} entities.
+ *
+ * @param id         the ID of the series.
+ * @param title      the title of the series.
+ * @param author     the author of the series.
+ * @param coverImage the main cover image URL or path of the series.
+ */
+public record SeriesSummaryDTO(Long id, String title, String author, String coverImage) {
+}
@@ -0,0 +1,62 @@
+package com.numaochi.storage;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+import java.time.Instant;
+
+/**
+ * A file in the blob store, identified by the SHA-256 hash of its content.
+ * The reference count is maintained by database triggers on the columns that reference blobs.
+ */
+@Entity
+public class Blob {
+
+    @Id
+    private String hash;
+
+    private long size;
+    private int refCount;
+    private Instant createdAt;
+    private Instant unreferencedSince;
+
+    public String getHash() {
+        return hash;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public int getRefCount() {
+        return refCount;
+    }
+
+    public void setRefCount(int refCount) {
+        this.refCount = refCount;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getUnreferencedSince() {
+        return unreferencedSince;
+    }
+
+    public void setUnreferencedSince(Instant unreferencedSince) {
+        this.unreferencedSince = unreferencedSince;
+    }
+}
@@ -0,0 +1,66 @@
+package com.numaochi.storage;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * REST controller for the content-addressed blob store.
+ */
+@RestController
+@RequestMapping("/api/blobs")
+public class BlobController {
+
+    private final BlobStore blobStore;
+
+    public BlobController(BlobStore blobStore) {
+        this.blobStore = blobStore;
+    }
+
+    /**
+     * Imports files from the import directory into the store. Files are hashed in parallel, and files whose content
+     * is already stored are not copied again.
+     *
+     * @param paths the paths of the files, relative to the import directory.
+     * @return the stored blobs, in the order of the paths.
+     */
+    @PostMapping("/import")
+    public List<StoredBlobDTO> importFiles(@RequestBody List<String> paths) {
+        return blobStore.importFiles(paths);
+    }
+
+    /**
+     * Downloads a blob. As a blob never changes, its hash is its entity tag and it may be cached indefinitely.
+     *
+     * @param hash    the SHA-256 hash of the blob.
+     * @param request the current request, used to evaluate conditional headers.
+     * @return the content of the blob, or 404 Not Found if no such blob is stored.
+     */
+    @GetMapping("/{hash}")
+    public ResponseEntity<Resource> getBlob(@PathVariable String hash, WebRequest request) {
+        if (!BlobStore.isHash(hash)) {
+            return ResponseEntity.notFound().build();
+        }
+        Path file = blobStore.path(hash);
+        if (!Files.isRegularFile(file)) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified('"' + hash + '"')) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .eTag(hash)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(new FileSystemResource(file));
+    }
+}
@@ -0,0 +1,39 @@
+package com.numaochi.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically deletes blobs that are no longer referenced by any chapter or series.
+ */
+@Component
+public class BlobGarbageCollector {
+
+    private static final Logger log = LoggerFactory.getLogger(BlobGarbageCollector.class);
+
+    private final BlobStore blobStore;
+    private final StorageProperties properties;
+
+    public BlobGarbageCollector(BlobStore blobStore, StorageProperties properties) {
+        this.blobStore = blobStore;
+        this.properties = properties;
+    }
+
+    /**
+     * Deletes the blobs unreferenced for longer than {@code storage.gc-grace-period}, one batch per transaction.
+     */
+    @Scheduled(fixedDelayString = "${storage.gc-interval:PT1H}")
+    public void collectGarbage() {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = blobStore.collectGarbage(properties.gcBatchSize());
+            total += deleted;
+        } while (deleted == properties.gcBatchSize());
+        if (total > 0) {
+            log.info("Deleted {} unreferenced blobs", total);
+        }
+    }
+}
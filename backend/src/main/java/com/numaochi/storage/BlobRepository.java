@@ -0,0 +1,48 @@
+package com.numaochi.storage;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository for managing {@link Blob} entities.
+ */
+public interface BlobRepository extends JpaRepository<Blob, String> {
+
+    /**
+     * Records a blob, or restarts the grace period of an existing unreferenced one, so that garbage collection
+     * leaves it alone until the row referencing it is saved. The row is committed in its own transaction, so a blob
+     * whose file was moved into the store stays known to garbage collection even if the caller's transaction rolls back.
+     *
+     * @param hash the SHA-256 hash of the blob.
+     * @param size the size of the blob in bytes.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query(value = """
+            insert into blob (hash, size, unreferenced_since) values (:hash, :size, now())
+            on conflict (hash) do update set unreferenced_since = now() where blob.ref_count = 0""", nativeQuery = true)
+    void register(@Param("hash") String hash, @Param("size") long size);
+
+    /**
+     * Finds and locks blobs that have been unreferenced since before a cutoff, skipping blobs locked by a concurrent
+     * reference or collection.
+     *
+     * @param cutoff the end of the grace period.
+     * @param limit  the maximum number of blobs.
+     * @return the hashes of the blobs to delete.
+     */
+    @Query(value = """
+            select hash from blob
+            where ref_count = 0 and unreferenced_since < :cutoff
+            order by unreferenced_since
+            limit :limit
+            for update skip locked""", nativeQuery = true)
+    List<String> findGarbage(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+}
@@ -0,0 +1,277 @@
+package com.numaochi.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed store for chapter files and covers.
+ * <p>
+ * A blob is stored once under the SHA-256 hash of its content, at {@code ab/cd/<hash>} below the store directory, so
+ * a file imported or uploaded twice takes the space of one copy. Rows reference blobs by hash, and database triggers
+ * keep the reference count of each blob current. Blobs that have been unreferenced for longer than the grace period
+ * are deleted by {@link #collectGarbage(int)}.
+ */
+@Service
+@EnableConfigurationProperties(StorageProperties.class)
+public class BlobStore implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(BlobStore.class);
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final BlobRepository blobRepository;
+    private final StorageProperties properties;
+    private final ExecutorService hashingExecutor;
+    private final Clock clock;
+
+    @Autowired
+    public BlobStore(BlobRepository blobRepository, StorageProperties properties) {
+        this(blobRepository, properties, Executors.newFixedThreadPool(
+                properties.hashingThreads() > 0 ? properties.hashingThreads() : Runtime.getRuntime().availableProcessors(),
+                new CustomizableThreadFactory("blob-hashing-")), Clock.systemUTC());
+    }
+
+    BlobStore(BlobRepository blobRepository, StorageProperties properties, ExecutorService hashingExecutor, Clock clock) {
+        this.blobRepository = blobRepository;
+        this.properties = properties;
+        this.hashingExecutor = hashingExecutor;
+        this.clock = clock;
+    }
+
+    /**
+     * Resolves the location of a blob.
+     *
+     * @param hash the lower-case hexadecimal SHA-256 hash of the blob.
+     * @return the path of the blob, whether or not it exists.
+     * @throws IllegalArgumentException if the hash is not a SHA-256 hash.
+     */
+    public Path path(String hash) {
+        if (!isHash(hash)) {
+            throw new IllegalArgumentException("Not a SHA-256 hash: " + hash);
+        }
+        return properties.directory().resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    /**
+     * Checks whether a string is a valid blob hash.
+     *
+     * @param hash the string.
+     * @return {@code true} if it is a lower-case hexadecimal SHA-256 hash.
+     */
+    public static boolean isHash(String hash) {
+        return hash != null && HASH.matcher(hash).matches();
+    }
+
+    /**
+     * Copies a file into the store, unless a blob with the same content is already stored.
+     * The source file is left untouched.
+     *
+     * @param file the file to store.
+     * @return the stored blob.
+     */
+    public StoredBlobDTO ingest(Path file) {
+        try {
+            String hash = hash(file);
+            long size = Files.size(file);
+            blobRepository.register(hash, size);
+            Path target = path(hash);
+            if (Files.exists(target)) {
+                return new StoredBlobDTO(file.toString(), hash, size, true);
+            }
+            Files.createDirectories(target.getParent());
+            Path temporary = Files.createTempFile(target.getParent(), hash, ".tmp");
+            try {
+                // Hash what is actually copied, in case the source changed after it was first hashed.
+                MessageDigest digest = sha256();
+                byte[] buffer = new byte[BUFFER_SIZE];
+                try (InputStream in = Files.newInputStream(file); OutputStream out = Files.newOutputStream(temporary)) {
+                    int read;
+                    while ((read = in.read(buffer)) > 0) {
+                        digest.update(buffer, 0, read);
+                        out.write(buffer, 0, read);
+                    }
+                }
+                if (!hash.equals(HEX.formatHex(digest.digest()))) {
+                    throw new IOException("File changed while it was being stored: " + file);
+                }
+                boolean deduplicated = !moveIntoPlace(temporary, target);
+                return new StoredBlobDTO(file.toString(), hash, size, deduplicated);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store " + file, e);
+        }
+    }
+
+    /**
+     * Stores several files, hashing and copying them in parallel.
+     *
+     * @param files the files to store.
+     * @return the stored blobs, in the order of the files.
+     */
+    public List<StoredBlobDTO> ingestAll(List<Path> files) {
+        List<CompletableFuture<StoredBlobDTO>> futures = new ArrayList<>(files.size());
+        for (Path file : files) {
+            futures.add(CompletableFuture.supplyAsync(() -> ingest(file), hashingExecutor));
+        }
+        try {
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Stores files from the import directory.
+     *
+     * @param paths the paths of the files, relative to the import directory.
+     * @return the stored blobs, in the order of the paths.
+     * @throws InvalidImportPathException if a path leaves the import directory or is not a regular file.
+     */
+    public List<StoredBlobDTO> importFiles(List<String> paths) {
+        Path root = properties.importDirectory().toAbsolutePath().normalize();
+        List<Path> files = new ArrayList<>(paths.size());
+        for (String path : paths) {
+            Path file = root.resolve(path).normalize();
+            if (!file.startsWith(root) || !Files.isRegularFile(file)) {
+                throw new InvalidImportPathException("Not a file in the import directory: " + path);
+            }
+            files.add(file);
+        }
+        return ingestAll(files);
+    }
+
+    /**
+     * Moves a file whose hash is already known into the store, such as a finished upload. If a blob with the same
+     * content is already stored, the file is deleted instead. The blob is registered outside the caller's transaction,
+     * so if that transaction rolls back the blob is left unreferenced and collected after the grace period.
+     *
+     * @param file the file to move.
+     * @param hash the lower-case hexadecimal SHA-256 hash of the file.
+     * @return the stored blob.
+     */
+    public StoredBlobDTO adopt(Path file, String hash) {
+        try {
+            Path target = path(hash);
+            long size = Files.size(file);
+            blobRepository.register(hash, size);
+            Files.createDirectories(target.getParent());
+            boolean deduplicated = !moveIntoPlace(file, target);
+            if (deduplicated) {
+                Files.delete(file);
+            }
+            return new StoredBlobDTO(file.toString(), hash, size, deduplicated);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store " + file, e);
+        }
+    }
+
+    /**
+     * Deletes one batch of blobs that have been unreferenced for longer than the grace period. The blob rows are
+     * locked while their files are deleted, so a row being saved concurrently with a reference to one of them waits
+     * for the collection and then fails its foreign key check instead of pointing at a missing file.
+     *
+     * @param limit the maximum number of blobs to delete.
+     * @return the number of deleted blobs.
+     */
+    @Transactional
+    public int collectGarbage(int limit) {
+        List<String> hashes = blobRepository.findGarbage(clock.instant().minus(properties.gcGracePeriod()), limit);
+        for (String hash : hashes) {
+            try {
+                Files.deleteIfExists(path(hash));
+            } catch (IOException e) {
+                log.warn("Could not delete blob {}: {}", hash, e.getMessage());
+            }
+        }
+        blobRepository.deleteAllByIdInBatch(hashes);
+        return hashes.size();
+    }
+
+    /**
+     * Computes the SHA-256 hash of a file.
+     *
+     * @param file the file.
+     * @return the lower-case hexadecimal hash.
+     * @throws IOException if the file cannot be read.
+     */
+    static String hash(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HEX.formatHex(digest.digest());
+    }
+
+    @Override
+    public void destroy() {
+        hashingExecutor.shutdown();
+    }
+
+    /**
+     * Moves a file to the location of its blob, unless the blob already exists there.
+     *
+     * @return {@code true} if the file was moved, {@code false} if the blob already existed.
+     */
+    private static boolean moveIntoPlace(Path source, Path target) throws IOException {
+        if (Files.exists(target)) {
+            return false;
+        }
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            try {
+                Files.move(source, target);
+            } catch (FileAlreadyExistsException raced) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.numaochi.storage;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a file to import is not a regular file inside the import directory.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidImportPathException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidImportPathException with the given message.
+     * @param message the detail message.
+     */
+    public InvalidImportPathException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,26 @@
+package com.numaochi.storage;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration properties for the content-addressed blob store.
+ *
+ * @param directory       the root directory of the blobs.
+ * @param importDirectory the directory files may be imported from.
+ * @param hashingThreads  the number of threads hashing files during an import; 0 means one per processor.
+ * @param gcGracePeriod   how long a blob must have been unreferenced before it is deleted, which covers the time
+ *                        between storing a blob and saving the row that references it.
+ * @param gcBatchSize     the maximum number of blobs deleted in one transaction.
+ */
+@ConfigurationProperties(prefix = "storage")
+public record StorageProperties(
+        @DefaultValue("data/blobs") Path directory,
+        @DefaultValue("data/import") Path importDirectory,
+        @DefaultValue("0") int hashingThreads,
+        @DefaultValue("1h") Duration gcGracePeriod,
+        @DefaultValue("500") int gcBatchSize) {
+}
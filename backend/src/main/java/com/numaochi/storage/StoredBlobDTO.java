@@ -0,0 +1,12 @@
+package com.numaochi.storage;
+
+/**
+ * The result of storing a file in the blob store.
+ *
+ * @param source       the path of the stored file.
+ * @param hash         the SHA-256 hash identifying the blob.
+ * @param size         the size of the blob in bytes.
+ * @param deduplicated {@code true} if the blob already existed and the file was not copied.
+ */
+public record StoredBlobDTO(String source, String hash, long size, boolean deduplicated) {
+}
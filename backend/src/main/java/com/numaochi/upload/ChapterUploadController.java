@@ -0,0 +1,140 @@
+package com.numaochi.upload;
+
+import com.numaochi.chapter.ChapterDTO;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.security.Principal;
+import java.util.UUID;
+
+/**
+ * REST controller for resumable chapter uploads, following the tus 1.0 protocol with the creation, termination and
+ * checksum extensions. An upload is created with its length, filled with {@code PATCH} requests at increasing offsets,
+ * resumed after an interruption from the offset reported by {@code HEAD}, and finalised into a chapter.
+ */
+@RestController
+@RequestMapping("/api/uploads")
+public class ChapterUploadController {
+
+    static final String TUS_RESUMABLE = "Tus-Resumable";
+    static final String TUS_VERSION = "1.0.0";
+    static final String UPLOAD_OFFSET = "Upload-Offset";
+    static final String UPLOAD_LENGTH = "Upload-Length";
+    static final String UPLOAD_CHECKSUM = "Upload-Checksum";
+    static final String OFFSET_CONTENT_TYPE = "application/offset+octet-stream";
+
+    private final ChapterUploadService uploadService;
+
+    public ChapterUploadController(ChapterUploadService uploadService) {
+        this.uploadService = uploadService;
+    }
+
+    /**
+     * Describes the supported protocol version, extensions and maximum upload length.
+     *
+     * @return an empty response with the tus discovery headers.
+     */
+    @RequestMapping(method = RequestMethod.OPTIONS)
+    public ResponseEntity<Void> describeUploads() {
+        return ResponseEntity.noContent()
+                .header(TUS_RESUMABLE, TUS_VERSION)
+                .header("Tus-Version", TUS_VERSION)
+                .header("Tus-Extension", "creation,termination,checksum")
+                .header("Tus-Checksum-Algorithm", "sha256")
+                .header("Tus-Max-Size", String.valueOf(uploadService.getMaxLength()))
+                .build();
+    }
+
+    /**
+     * Creates an upload.
+     *
+     * @param length    the total length of the file, from the {@code Upload-Length} header.
+     * @param metadata  the {@code Upload-Metadata} header: {@code filename} and optionally {@code title},
+     *                  {@code filetype} and {@code seriesId}, each Base64-encoded.
+     * @param principal the uploading user.
+     * @return 201 Created with the URL of the upload in {@code Location}.
+     */
+    @PostMapping
+    public ResponseEntity<Void> createUpload(@RequestHeader(UPLOAD_LENGTH) long length,
+            @RequestHeader(value = "Upload-Metadata", required = false) String metadata, Principal principal) {
+        UploadStatusDTO upload = uploadService.createUpload(principal.getName(), length, metadata);
+        return ResponseEntity.created(URI.create("/api/uploads/" + upload.id()))
+                .header(TUS_RESUMABLE, TUS_VERSION)
+                .build();
+    }
+
+    /**
+     * Reports how many bytes of an upload have been received, so that the client can resume from there.
+     *
+     * @param id        the ID of the upload.
+     * @param principal the uploading user.
+     * @return an empty response with {@code Upload-Offset} and {@code Upload-Length}.
+     */
+    @RequestMapping(value = "/{id}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> getUploadOffset(@PathVariable UUID id, Principal principal) {
+        UploadStatusDTO upload = uploadService.getUpload(id, principal.getName());
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .header(TUS_RESUMABLE, TUS_VERSION)
+                .header(UPLOAD_OFFSET, String.valueOf(upload.offset()))
+                .header(UPLOAD_LENGTH, String.valueOf(upload.length()))
+                .build();
+    }
+
+    /**
+     * Writes a chunk of an upload, streamed from the request body.
+     *
+     * @param id        the ID of the upload.
+     * @param offset    the offset of the chunk, which must equal the current offset of the upload.
+     * @param request   the request carrying the chunk.
+     * @param principal the uploading user.
+     * @return 204 No Content with the new {@code Upload-Offset}.
+     * @throws IOException if the request body cannot be opened.
+     */
+    @PatchMapping(value = "/{id}", consumes = OFFSET_CONTENT_TYPE)
+    public ResponseEntity<Void> appendChunk(@PathVariable UUID id, @RequestHeader(UPLOAD_OFFSET) long offset,
+            HttpServletRequest request, Principal principal) throws IOException {
+        long newOffset = uploadService.appendChunk(id, principal.getName(), offset, request.getInputStream());
+        return ResponseEntity.noContent()
+                .header(TUS_RESUMABLE, TUS_VERSION)
+                .header(UPLOAD_OFFSET, String.valueOf(newOffset))
+                .build();
+    }
+
+    /**
+     * Turns a complete upload into a chapter.
+     *
+     * @param id        the ID of the upload.
+     * @param checksum  the optional expected checksum, {@code sha256} followed by the Base64 digest of the file.
+     * @param principal the uploading user.
+     * @return 201 Created with the chapter, and the checksum of its file in {@code Upload-Checksum}.
+     */
+    @PostMapping("/{id}/finalize")
+    public ResponseEntity<ChapterDTO> finalizeUpload(@PathVariable UUID id,
+            @RequestHeader(value = UPLOAD_CHECKSUM, required = false) String checksum, Principal principal) {
+        FinalizedUpload upload = uploadService.finalizeUpload(id, principal.getName(), checksum);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .location(URI.create("/api/chapters/" + upload.chapter().getId()))
+                .header(TUS_RESUMABLE, TUS_VERSION)
+                .header(UPLOAD_CHECKSUM, "sha256 " + upload.checksum())
+                .body(upload.chapter());
+    }
+
+    /**
+     * Cancels an upload and discards the bytes received.
+     *
+     * @param id        the ID of the upload.
+     * @param principal the uploading user.
+     * @return 204 No Content.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancelUpload(@PathVariable UUID id, Principal principal) {
+        uploadService.cancelUpload(id, principal.getName());
+        return ResponseEntity.noContent().header(TUS_RESUMABLE, TUS_VERSION).build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.numaochi.upload;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository for managing {@link ChapterUpload} entities.
+ */
+public interface ChapterUploadRepository extends JpaRepository<ChapterUpload, UUID> {
+
+    /**
+     * Finds an upload of a user.
+     *
+     * @param id    the ID of the upload.
+     * @param owner the name of the user who created it.
+     * @return an {@link Optional} containing the upload if it exists and belongs to the user, or empty otherwise.
+     */
+    Optional<ChapterUpload> findByIdAndOwner(UUID id, String owner);
+
+    /**
+     * Records that an upload has durably received more bytes and extends its expiry, provided no other request
+     * advanced it in the meantime.
+     *
+     * @param id             the ID of the upload.
+     * @param expectedOffset the offset the chunk started at.
+     * @param newOffset      the offset after the chunk.
+     * @param expiresAt      the new expiry of the upload.
+     * @return the number of updated rows, 0 if the upload moved on or was removed.
+     */
+    @Transactional
+    @Modifying
+    @Query("update ChapterUpload u set u.bytesReceived = :newOffset, u.expiresAt = :expiresAt"
+            + " where u.id = :id and u.bytesReceived = :expectedOffset")
+    int advanceOffset(@Param("id") UUID id, @Param("expectedOffset") long expectedOffset,
+                      @Param("newOffset") long newOffset, @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * Finds the uploads that have expired.
+     *
+     * @param now the current time.
+     * @return the uploads that expired before {@code now}.
+     */
+    List<ChapterUpload> findByExpiresAtBefore(Instant now);
+}
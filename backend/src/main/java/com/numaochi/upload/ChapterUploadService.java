@@ -0,0 +1,401 @@
+package com.numaochi.upload;
+
+import com.numaochi.chapter.ChapterDTO;
+import com.numaochi.chapter.ChapterService;
+import com.numaochi.storage.BlobStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service for resumable chapter uploads.
+ * <p>
+ * Chunks are streamed from the request straight into the upload's partial file with positional writes through a
+ * fixed-size buffer, and fed into a SHA-256 digest as they are written, so memory per upload stays constant whatever
+ * its length. After each chunk the file is forced to disk before the new offset is recorded, so an interrupted upload
+ * resumes from the last durable byte. The running digest is kept in memory while the upload is active; after a restart,
+ * or when another node received the previous chunk, it is rebuilt by reading the partial file once.
+ */
+@Service
+@EnableConfigurationProperties(UploadProperties.class)
+public class ChapterUploadService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChapterUploadService.class);
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ChapterUploadRepository uploadRepository;
+    private final ChapterService chapterService;
+    private final BlobStore blobStore;
+    private final UploadProperties properties;
+    private final Clock clock;
+    private final Map<UUID, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ChapterUploadService(ChapterUploadRepository uploadRepository, ChapterService chapterService,
+                                BlobStore blobStore, UploadProperties properties) {
+        this(uploadRepository, chapterService, blobStore, properties, Clock.systemUTC());
+    }
+
+    ChapterUploadService(ChapterUploadRepository uploadRepository, ChapterService chapterService,
+                         BlobStore blobStore, UploadProperties properties, Clock clock) {
+        this.uploadRepository = uploadRepository;
+        this.chapterService = chapterService;
+        this.blobStore = blobStore;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the maximum length of an upload.
+     *
+     * @return the maximum length in bytes.
+     */
+    public long getMaxLength() {
+        return properties.maxLength().toBytes();
+    }
+
+    /**
+     * Creates an upload and its empty partial file.
+     *
+     * @param owner    the name of the uploading user.
+     * @param length   the total length of the file.
+     * @param metadata the {@code Upload-Metadata} header describing the chapter.
+     * @return the status of the new upload.
+     * @throws UploadTooLargeException if the length exceeds the maximum upload length.
+     */
+    public UploadStatusDTO createUpload(String owner, long length, String metadata) {
+        if (length < 0) {
+            throw new InvalidUploadException("Upload-Length must not be negative");
+        }
+        if (length > getMaxLength()) {
+            throw new UploadTooLargeException("Upload-Length exceeds the maximum of " + getMaxLength() + " bytes");
+        }
+        UploadMetadata chapter = UploadMetadata.parse(metadata);
+        Instant now = clock.instant();
+        ChapterUpload upload = new ChapterUpload();
+        upload.setOwner(owner);
+        upload.setLength(length);
+        upload.setFileName(chapter.fileName());
+        upload.setTitle(chapter.title());
+        upload.setFileType(chapter.fileType());
+        upload.setSeriesId(chapter.seriesId());
+        upload.setCreatedAt(now);
+        upload.setExpiresAt(now.plus(properties.expiration()));
+        upload = uploadRepository.save(upload);
+        try {
+            Files.createDirectories(properties.directory());
+            Files.deleteIfExists(partialFile(upload.getId()));
+            Files.createFile(partialFile(upload.getId()));
+        } catch (IOException e) {
+            uploadRepository.delete(upload);
+            throw new UncheckedIOException("Could not create upload file", e);
+        }
+        return convertToDto(upload);
+    }
+
+    /**
+     * Retrieves the progress of an upload.
+     *
+     * @param id    the ID of the upload.
+     * @param owner the name of the requesting user.
+     * @return the status of the upload.
+     * @throws UploadNotFoundException if the upload does not exist or belongs to another user.
+     */
+    public UploadStatusDTO getUpload(UUID id, String owner) {
+        return convertToDto(findUpload(id, owner));
+    }
+
+    /**
+     * Appends a chunk to an upload. Whatever part of the chunk arrived before the stream failed is kept.
+     *
+     * @param id     the ID of the upload.
+     * @param owner  the name of the uploading user.
+     * @param offset the offset the chunk starts at, which must be the current offset of the upload.
+     * @param body   the chunk.
+     * @return the offset of the upload after the chunk.
+     * @throws UploadConflictException if the offset is not current or another chunk is being written.
+     * @throws UploadTooLargeException if the chunk extends past the declared length.
+     */
+    public long appendChunk(UUID id, String owner, long offset, InputStream body) {
+        ChapterUpload upload = findUpload(id, owner);
+        if (offset != upload.getBytesReceived()) {
+            throw new UploadConflictException("Upload-Offset " + offset + " does not match the current offset "
+                    + upload.getBytesReceived());
+        }
+        UploadSession session = sessions.computeIfAbsent(id, key -> new UploadSession());
+        if (!session.lock.tryLock()) {
+            throw new UploadConflictException("Another chunk of this upload is being written");
+        }
+        session.lastUsed = clock.instant();
+        try {
+            Path file = partialFile(id);
+            session.catchUp(file, offset);
+            long position = offset;
+            boolean tooLong = false;
+            boolean recorded = false;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                byte[] bytes = new byte[BUFFER_SIZE];
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                try {
+                    long remaining = upload.getLength() - position;
+                    int read;
+                    while (remaining > 0 && (read = body.read(bytes, 0, (int) Math.min(bytes.length, remaining))) > 0) {
+                        buffer.clear().limit(read);
+                        while (buffer.hasRemaining()) {
+                            position += channel.write(buffer, position);
+                        }
+                        session.digest.update(bytes, 0, read);
+                        session.offset = position;
+                        remaining -= read;
+                    }
+                    tooLong = remaining == 0 && body.read() >= 0;
+                } catch (IOException | RuntimeException e) {
+                    // The digest may be missing bytes that reached the file; rebuild it on the next chunk.
+                    session.invalidate();
+                    log.info("Upload {} interrupted at offset {}: {}", id, position, e.getMessage());
+                    throw e;
+                } finally {
+                    channel.force(false);
+                    recorded = position == offset || uploadRepository.advanceOffset(id, offset, position,
+                            clock.instant().plus(properties.expiration())) == 1;
+                }
+            }
+            if (!recorded) {
+                session.invalidate();
+                throw new UploadConflictException("Upload was modified or removed by another request");
+            }
+            if (tooLong) {
+                throw new UploadTooLargeException("Chunk extends past the Upload-Length of " + upload.getLength());
+            }
+            return position;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write upload " + id, e);
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    /**
+     * Completes an upload: moves its file into the blob store and creates the chapter, in one transaction.
+     * If the transaction rolls back the partial file is restored from the blob, so the upload can be finalised again.
+     *
+     * @param id       the ID of the upload.
+     * @param owner    the name of the uploading user.
+     * @param checksum the optional {@code Upload-Checksum} header, {@code sha256} followed by the Base64 digest.
+     * @return the created chapter and the checksum of its file.
+     * @throws UploadConflictException         if the upload has not received all of its bytes.
+     * @throws UploadChecksumMismatchException if the file does not match the expected checksum.
+     */
+    @Transactional
+    public FinalizedUpload finalizeUpload(UUID id, String owner, String checksum) {
+        ChapterUpload upload = findUpload(id, owner);
+        if (upload.getBytesReceived() != upload.getLength()) {
+            throw new UploadConflictException("Upload has received " + upload.getBytesReceived() + " of "
+                    + upload.getLength() + " bytes");
+        }
+        UploadSession session = sessions.computeIfAbsent(id, key -> new UploadSession());
+        if (!session.lock.tryLock()) {
+            throw new UploadConflictException("Another chunk of this upload is being written");
+        }
+        session.lastUsed = clock.instant();
+        try {
+            Path file = partialFile(id);
+            session.catchUp(file, upload.getLength());
+            byte[] digest = session.digest.digest();
+            String actual = Base64.getEncoder().encodeToString(digest);
+            session.invalidate();
+            String expected = expectedChecksum(checksum);
+            if (expected != null && !expected.equals(actual)) {
+                throw new UploadChecksumMismatchException("Upload does not match its sha256 checksum");
+            }
+
+            String hash = HexFormat.of().formatHex(digest);
+            blobStore.adopt(file, hash);
+            Path blob = blobStore.path(hash);
+            afterCompletion(committed -> {
+                if (committed) {
+                    sessions.remove(id);
+                } else {
+                    restore(blob, file);
+                }
+            });
+
+            ChapterDTO chapterDTO = new ChapterDTO();
+            chapterDTO.setTitle(upload.getTitle());
+            chapterDTO.setFileType(upload.getFileType());
+            chapterDTO.setFilePath(blob.toString());
+            chapterDTO.setContentHash(hash);
+            chapterDTO.setSeriesId(upload.getSeriesId());
+            ChapterDTO chapter = chapterService.createChapter(chapterDTO);
+            uploadRepository.delete(upload);
+            return new FinalizedUpload(chapter, actual);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not finalise upload " + id, e);
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    /**
+     * Cancels an upload and deletes its partial file.
+     *
+     * @param id    the ID of the upload.
+     * @param owner the name of the uploading user.
+     */
+    public void cancelUpload(UUID id, String owner) {
+        remove(findUpload(id, owner));
+    }
+
+    /**
+     * Discards the uploads that received no chunk within the expiration period.
+     *
+     * @return the number of discarded uploads.
+     */
+    public int removeExpiredUploads() {
+        Instant now = clock.instant();
+        List<ChapterUpload> expired = uploadRepository.findByExpiresAtBefore(now);
+        expired.forEach(this::remove);
+        // Sessions of uploads that were finished or discarded through another node.
+        Instant idleSince = now.minus(properties.expiration());
+        sessions.values().removeIf(session -> session.lastUsed.isBefore(idleSince) && !session.lock.isLocked());
+        return expired.size();
+    }
+
+    private ChapterUpload findUpload(UUID id, String owner) {
+        return uploadRepository.findByIdAndOwner(id, owner)
+                .orElseThrow(() -> new UploadNotFoundException("Upload not found: " + id));
+    }
+
+    private void remove(ChapterUpload upload) {
+        uploadRepository.delete(upload);
+        sessions.remove(upload.getId());
+        try {
+            Files.deleteIfExists(partialFile(upload.getId()));
+        } catch (IOException e) {
+            log.warn("Could not delete file of upload {}: {}", upload.getId(), e.getMessage());
+        }
+    }
+
+    private Path partialFile(UUID id) {
+        return properties.directory().resolve(id + ".part");
+    }
+
+    private static String expectedChecksum(String header) {
+        if (header == null) {
+            return null;
+        }
+        String[] parts = header.trim().split(" ", 2);
+        if (parts.length != 2 || !parts[0].equalsIgnoreCase("sha256")) {
+            throw new InvalidUploadException("Upload-Checksum must be 'sha256' followed by the Base64 digest");
+        }
+        return parts[1].trim();
+    }
+
+    private static void restore(Path blob, Path file) {
+        // The blob may be shared with other chapters, so the partial file gets a link or copy rather than the blob.
+        try {
+            try {
+                Files.createLink(file, blob);
+            } catch (UnsupportedOperationException | IOException e) {
+                Files.copy(blob, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            log.error("Could not restore {} from {} after a rollback", file, blob, e);
+        }
+    }
+
+    private static void afterCompletion(CompletionCallback callback) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    callback.completed(status == STATUS_COMMITTED);
+                }
+            });
+        }
+    }
+
+    private UploadStatusDTO convertToDto(ChapterUpload upload) {
+        return new UploadStatusDTO(upload.getId(), upload.getBytesReceived(), upload.getLength(), upload.getExpiresAt());
+    }
+
+    @FunctionalInterface
+    private interface CompletionCallback {
+        void completed(boolean committed);
+    }
+
+    /**
+     * The in-memory state of an active upload on this node: the digest of the bytes up to {@code offset}, and a lock
+     * that admits one chunk at a time.
+     */
+    private static final class UploadSession {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile Instant lastUsed = Instant.EPOCH;
+        private MessageDigest digest;
+        private long offset = -1;
+
+        private void catchUp(Path file, long length) throws IOException {
+            if (digest != null && offset == length) {
+                return;
+            }
+            MessageDigest rebuilt = sha256();
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long position = 0;
+                while (position < length) {
+                    buffer.clear().limit((int) Math.min(BUFFER_SIZE, length - position));
+                    int read = channel.read(buffer, position);
+                    if (read < 0) {
+                        throw new IOException("Upload file is shorter than its recorded offset " + length);
+                    }
+                    buffer.flip();
+                    rebuilt.update(buffer);
+                    position += read;
+                }
+            }
+            digest = rebuilt;
+            offset = length;
+        }
+
+        private void invalidate() {
+            digest = null;
+            offset = -1;
+        }
+
+        private static MessageDigest sha256() {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.numaochi.upload;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically discards uploads that were abandoned, together with their partial files.
+ */
+@Component
+public class ExpiredUploadCleaner {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpiredUploadCleaner.class);
+
+    private final ChapterUploadService uploadService;
+
+    public ExpiredUploadCleaner(ChapterUploadService uploadService) {
+        this.uploadService = uploadService;
+    }
+
+    /**
+     * Removes the uploads that received no chunk within {@code uploads.expiration}.
+     */
+    @Scheduled(fixedDelayString = "${uploads.cleanup-interval:PT1H}")
+    public void removeExpiredUploads() {
+        int removed = uploadService.removeExpiredUploads();
+        if (removed > 0) {
+            log.info("Discarded {} expired uploads", removed);
+        }
+    }
+}
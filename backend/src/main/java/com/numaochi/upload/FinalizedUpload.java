@@ -0,0 +1,12 @@
+package com.numaochi.upload;
+
+import com.numaochi.chapter.ChapterDTO;
+
+/**
+ * The outcome of finalising an upload.
+ *
+ * @param chapter  the chapter created from the upload.
+ * @param checksum the Base64-encoded SHA-256 digest of the uploaded file.
+ */
+record FinalizedUpload(ChapterDTO chapter, String checksum) {
+}
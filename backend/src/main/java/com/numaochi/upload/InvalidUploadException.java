@@ -0,0 +1,19 @@
+package com.numaochi.upload;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when the headers of an upload request are missing or malformed.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidUploadException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidUploadException with the given message.
+     * @param message the detail message.
+     */
+    public InvalidUploadException(String message) {
+        super(message);
+    }
+}
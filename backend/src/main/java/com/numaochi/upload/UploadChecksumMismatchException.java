@@ -0,0 +1,19 @@
+package com.numaochi.upload;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a finalised upload does not match the checksum the client expected.
+ */
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class UploadChecksumMismatchException extends RuntimeException {
+
+    /**
+     * Constructs a new UploadChecksumMismatchException with the given message.
+     * @param message the detail message.
+     */
+    public UploadChecksumMismatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,20 @@
+package com.numaochi.upload;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a chunk does not start at the current offset of its upload, another chunk is being written, or an
+ * incomplete upload is finalised.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class UploadConflictException extends RuntimeException {
+
+    /**
+     * Constructs a new UploadConflictException with the given message.
+     * @param message the detail message.
+     */
+    public UploadConflictException(String message) {
+        super(message);
+    }
+}
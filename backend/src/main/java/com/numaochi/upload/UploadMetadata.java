@@ -0,0 +1,63 @@
+package com.numaochi.upload;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The chapter described by the {@code Upload-Metadata} header of a new upload: comma-separated pairs of a key and a
+ * Base64-encoded value, for example {@code filename b25lLmVwdWI=,seriesId MQ==}.
+ * The {@code filename} key is required; {@code title}, {@code filetype} and {@code seriesId} are optional.
+ *
+ * @param fileName the name of the uploaded file.
+ * @param title    the title of the chapter, by default the file name without its extension.
+ * @param fileType the type of the file, by default its extension in upper case.
+ * @param seriesId the ID of the series the chapter belongs to, or {@code null}.
+ */
+record UploadMetadata(String fileName, String title, String fileType, Long seriesId) {
+
+    /**
+     * Parses an {@code Upload-Metadata} header.
+     *
+     * @param header the header value, or {@code null}.
+     * @return the metadata.
+     * @throws InvalidUploadException if the header is malformed or has no file name.
+     */
+    static UploadMetadata parse(String header) {
+        Map<String, String> values = new HashMap<>();
+        if (header != null) {
+            for (String pair : header.split(",")) {
+                String[] parts = pair.trim().split(" ", 2);
+                if (parts[0].isEmpty()) {
+                    continue;
+                }
+                try {
+                    values.put(parts[0], parts.length > 1
+                            ? new String(Base64.getDecoder().decode(parts[1].trim()), StandardCharsets.UTF_8) : "");
+                } catch (IllegalArgumentException e) {
+                    throw new InvalidUploadException("Upload-Metadata value of '" + parts[0] + "' is not Base64");
+                }
+            }
+        }
+        String fileName = values.get("filename");
+        if (fileName == null || fileName.isBlank()) {
+            throw new InvalidUploadException("Upload-Metadata must include a filename");
+        }
+        int dot = fileName.lastIndexOf('.');
+        String baseName = dot > 0 ? fileName.substring(0, dot) : fileName;
+        String extension = dot > 0 ? fileName.substring(dot + 1) : "";
+        String title = values.getOrDefault("title", baseName);
+        String fileType = values.getOrDefault("filetype", extension.toUpperCase(Locale.ROOT));
+        Long seriesId = null;
+        if (values.containsKey("seriesId")) {
+            try {
+                seriesId = Long.valueOf(values.get("seriesId"));
+            } catch (NumberFormatException e) {
+                throw new InvalidUploadException("Upload-Metadata seriesId is not a number");
+            }
+        }
+        return new UploadMetadata(fileName, title, fileType.isEmpty() ? null : fileType, seriesId);
+    }
+}
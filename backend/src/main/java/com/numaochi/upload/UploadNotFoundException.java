@@ -0,0 +1,19 @@
+package com.numaochi.upload;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when an upload does not exist, has expired, or belongs to another user.
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class UploadNotFoundException extends RuntimeException {
+
+    /**
+     * Constructs a new UploadNotFoundException with the given message.
+     * @param message the detail message.
+     */
+    public UploadNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,22 @@
+package com.numaochi.upload;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration properties for resumable chapter uploads.
+ *
+ * @param directory  the directory holding the files of uploads in progress.
+ * @param maxLength  the maximum length of an upload.
+ * @param expiration how long an upload may go without a chunk before it is discarded.
+ */
+@ConfigurationProperties(prefix = "uploads")
+public record UploadProperties(
+        @DefaultValue("data/uploads") Path directory,
+        @DefaultValue("4GB") DataSize maxLength,
+        @DefaultValue("24h") Duration expiration) {
+}
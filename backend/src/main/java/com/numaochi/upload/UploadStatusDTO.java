@@ -0,0 +1,15 @@
+package com.numaochi.upload;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The progress of a resumable upload.
+ *
+ * @param id        the ID of the upload.
+ * @param offset    the number of bytes durably received.
+ * @param length    the total length of the upload.
+ * @param expiresAt when the upload is discarded unless another chunk arrives.
+ */
+public record UploadStatusDTO(UUID id, long offset, long length, Instant expiresAt) {
+}
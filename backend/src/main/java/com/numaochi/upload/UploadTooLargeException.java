@@ -0,0 +1,19 @@
+package com.numaochi.upload;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when an upload exceeds the maximum upload length or the length it declared.
+ */
+@ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+public class UploadTooLargeException extends RuntimeException {
+
+    /**
+     * Constructs a new UploadTooLargeException with the given message.
+     * @param message the detail message.
+     */
+    public UploadTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,49 @@
+package com.numaochi.volume;
+
+import com.numaochi.common.ConditionalRequests;
+import com.numaochi.common.ResourceVersion;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * REST controller for retrieving a series together with its volumes and chapters in a single response.
+ */
+@RestController
+@RequestMapping("/api/series")
+public class SeriesTreeController {
+
+    private final SeriesTreeService seriesTreeService;
+
+    public SeriesTreeController(SeriesTreeService seriesTreeService) {
+        this.seriesTreeService = seriesTreeService;
+    }
+
+    /**
+     * Retrieves a series with its volumes and each volume's chapters.
+     * The response carries an entity tag and may be cached by clients, which must revalidate it before reuse;
+     * revalidation is answered with 304 Not Modified from an aggregate version query, without loading the hierarchy.
+     *
+     * @param seriesId the ID of the series.
+     * @param request  the current request, used to evaluate conditional headers.
+     * @return the series hierarchy, or 404 if the series does not exist.
+     */
+    @GetMapping("/{seriesId}/tree")
+    public ResponseEntity<SeriesTreeDTO> getSeriesTree(@PathVariable Long seriesId, WebRequest request) {
+        ResourceVersion version = seriesTreeService.getSeriesTreeVersion(seriesId);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (ConditionalRequests.isNotModified(request, version)) {
+            return null;
+        }
+        SeriesTreeService.SeriesTree tree = seriesTreeService.getSeriesTree(seriesId);
+        if (tree == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(tree.toDto());
+    }
+}
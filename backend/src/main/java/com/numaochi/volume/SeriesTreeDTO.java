@@ -0,0 +1,201 @@
+package com.numaochi.volume;
+
+import com.numaochi.chapter.ChapterDTO;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object for a series together with its volumes and their chapters.
+ */
+public class SeriesTreeDTO {
+
+    private Long id;
+    private String title;
+    private String author;
+    private LocalDate publicationDate;
+    private String description;
+    private String coverImage;
+    private String publisher;
+    private String isbn;
+    private Long version;
+    private List<VolumeNode> volumes = new ArrayList<>();
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(String author) {
+        this.author = author;
+    }
+
+    public LocalDate getPublicationDate() {
+        return publicationDate;
+    }
+
+    public void setPublicationDate(LocalDate publicationDate) {
+        this.publicationDate = publicationDate;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getCoverImage() {
+        return coverImage;
+    }
+
+    public void setCoverImage(String coverImage) {
+        this.coverImage = coverImage;
+    }
+
+    public String getPublisher() {
+        return publisher;
+    }
+
+    public void setPublisher(String publisher) {
+        this.publisher = publisher;
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public void setIsbn(String isbn) {
+        this.isbn = isbn;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public List<VolumeNode> getVolumes() {
+        return volumes;
+    }
+
+    public void setVolumes(List<VolumeNode> volumes) {
+        this.volumes = volumes;
+    }
+
+    /**
+     * A volume of the series with its chapters embedded.
+     */
+    public static class VolumeNode {
+
+        private Long id;
+        private String title;
+        private String author;
+        private LocalDate publicationDate;
+        private String description;
+        private String coverImage;
+        private String publisher;
+        private String isbn;
+        private Long version;
+        private List<ChapterDTO> chapters = new ArrayList<>();
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public String getAuthor() {
+            return author;
+        }
+
+        public void setAuthor(String author) {
+            this.author = author;
+        }
+
+        public LocalDate getPublicationDate() {
+            return publicationDate;
+        }
+
+        public void setPublicationDate(LocalDate publicationDate) {
+            this.publicationDate = publicationDate;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public void setDescription(String description) {
+            this.description = description;
+        }
+
+        public String getCoverImage() {
+            return coverImage;
+        }
+
+        public void setCoverImage(String coverImage) {
+            this.coverImage = coverImage;
+        }
+
+        public String getPublisher() {
+            return publisher;
+        }
+
+        public void setPublisher(String publisher) {
+            this.publisher = publisher;
+        }
+
+        public String getIsbn() {
+            return isbn;
+        }
+
+        public void setIsbn(String isbn) {
+            this.isbn = isbn;
+        }
+
+        public Long getVersion() {
+            return version;
+        }
+
+        public void setVersion(Long version) {
+            this.version = version;
+        }
+
+        public List<ChapterDTO> getChapters() {
+            return chapters;
+        }
+
+        public void setChapters(List<ChapterDTO> chapters) {
+            this.chapters = chapters;
+        }
+    }
+}
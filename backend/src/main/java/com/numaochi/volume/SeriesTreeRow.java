@@ -0,0 +1,25 @@
+package com.numaochi.volume;
+
+import java.time.LocalDate;
+
+/**
+ * One row of the flattened series hierarchy: a volume of the series joined with one of its chapters.
+ * The chapter columns are {@code null} for volumes without chapters.
+ */
+public record SeriesTreeRow(
+        Long volumeId,
+        String volumeTitle,
+        String volumeAuthor,
+        LocalDate volumePublicationDate,
+        String volumeDescription,
+        String volumeCoverImage,
+        String volumePublisher,
+        String volumeIsbn,
+        Long volumeVersion,
+        Long chapterId,
+        String chapterTitle,
+        String chapterFilePath,
+        String chapterFileType,
+        Long chapterSeriesId,
+        Long chapterVersion) {
+}
@@ -0,0 +1,107 @@
+package com.numaochi.volume;
+
+import com.numaochi.chapter.ChapterDTO;
+import com.numaochi.common.ResourceVersion;
+import com.numaochi.series.Series;
+import com.numaochi.series.SeriesRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Service for loading a series together with its volumes and chapters.
+ * The hierarchy is read with a fixed number of queries, regardless of how many volumes the series has.
+ */
+@Service
+public class SeriesTreeService {
+
+    private final SeriesRepository seriesRepository;
+    private final VolumeRepository volumeRepository;
+
+    public SeriesTreeService(SeriesRepository seriesRepository, VolumeRepository volumeRepository) {
+        this.seriesRepository = seriesRepository;
+        this.volumeRepository = volumeRepository;
+    }
+
+    /**
+     * Computes the version of the hierarchy of a series with one aggregate query, so that a request can be revalidated
+     * without loading the hierarchy.
+     *
+     * @param seriesId the ID of the series.
+     * @return the version of the hierarchy, or {@code null} if the series does not exist.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getSeriesTreeVersion(Long seriesId) {
+        return volumeRepository.findSeriesTreeVersion(seriesId).orElse(null);
+    }
+
+    /**
+     * Loads the hierarchy of a series with two queries: one for the series and one for its volumes joined with their chapters.
+     *
+     * @param seriesId the ID of the series.
+     * @return the loaded hierarchy, or {@code null} if the series does not exist.
+     */
+    @Transactional(readOnly = true)
+    public SeriesTree getSeriesTree(Long seriesId) {
+        Series series = seriesRepository.findById(seriesId).orElse(null);
+        if (series == null) {
+            return null;
+        }
+        return new SeriesTree(series, volumeRepository.findSeriesTreeRows(seriesId));
+    }
+
+    /**
+     * A loaded series hierarchy: the series and its flattened volume/chapter rows, ordered by volume and chapter ID.
+     *
+     * @param series the series.
+     * @param rows   the volume/chapter rows of the series.
+     */
+    public record SeriesTree(Series series, List<SeriesTreeRow> rows) {
+
+        /**
+         * Maps the hierarchy to its DTO.
+         *
+         * @return the series tree DTO.
+         */
+        public SeriesTreeDTO toDto() {
+            SeriesTreeDTO tree = new SeriesTreeDTO();
+            tree.setId(series.getId());
+            tree.setTitle(series.getTitle());
+            tree.setAuthor(series.getAuthor());
+            tree.setPublicationDate(series.getPublicationDate());
+            tree.setDescription(series.getDescription());
+            tree.setCoverImage(series.getCoverImage());
+            tree.setPublisher(series.getPublisher());
+            tree.setIsbn(series.getIsbn());
+            tree.setVersion(series.getVersion());
+            SeriesTreeDTO.VolumeNode volume = null;
+            for (SeriesTreeRow row : rows) {
+                if (volume == null || !volume.getId().equals(row.volumeId())) {
+                    volume = new SeriesTreeDTO.VolumeNode();
+                    volume.setId(row.volumeId());
+                    volume.setTitle(row.volumeTitle());
+                    volume.setAuthor(row.volumeAuthor());
+                    volume.setPublicationDate(row.volumePublicationDate());
+                    volume.setDescription(row.volumeDescription());
+                    volume.setCoverImage(row.volumeCoverImage());
+                    volume.setPublisher(row.volumePublisher());
+                    volume.setIsbn(row.volumeIsbn());
+                    volume.setVersion(row.volumeVersion());
+                    tree.getVolumes().add(volume);
+                }
+                if (row.chapterId() != null) {
+                    ChapterDTO chapter = new ChapterDTO();
+                    chapter.setId(row.chapterId());
+                    chapter.setTitle(row.chapterTitle());
+                    chapter.setFilePath(row.chapterFilePath());
+                    chapter.setFileType(row.chapterFileType());
+                    chapter.setSeriesId(row.chapterSeriesId());
+                    chapter.setVersion(row.chapterVersion());
+                    volume.getChapters().add(chapter);
+                }
+            }
+            return tree;
+        }
+    }
+}
@@ -3,7 +3,9 @@ package com.numaochi.volume;
 import com.numaochi.chapter.Chapter;
 import com.numaochi.series.Series;
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -11,6 +13,7 @@ import java.util.List;
  * Represents a volume, which is a collection of chapters within a series.
  */
 @Entity
+@DynamicUpdate
 public class Volume {
 
     @Id
@@ -24,11 +27,20 @@ public class Volume {
     private String coverImage;
     private String publisher;
     private String isbn;
+    private Integer pageCount;
+
+    @Version
+    private Long version;
+
+    private Instant updatedAt;
 
     @ManyToOne
     private Series series;
 
     @OneToMany
+    @JoinTable(name = "volume_chapter",
+            joinColumns = @JoinColumn(name = "volume_id"),
+            inverseJoinColumns = @JoinColumn(name = "chapter_id"))
     private List<Chapter> chapters;
 
     public Long getId() {
@@ -95,6 +107,14 @@ public class Volume {
         this.isbn = isbn;
     }
 
+    public Integer getPageCount() {
+        return pageCount;
+    }
+
+    public void setPageCount(Integer pageCount) {
+        this.pageCount = pageCount;
+    }
+
     public Series getSeries() {
         return series;
     }
@@ -110,4 +130,26 @@ public class Volume {
     public void setChapters(List<Chapter> chapters) {
         this.chapters = chapters;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now();
+    }
 }
@@ -1,6 +1,14 @@
 package com.numaochi.volume;
 
+import com.numaochi.common.BatchDTO;
+import com.numaochi.common.ConditionalRequests;
+import com.numaochi.common.FieldSelection;
+import com.numaochi.common.InvalidFieldSelectionException;
+import com.numaochi.common.MergePatch;
+import com.numaochi.series.SeriesSummaryDTO;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -8,6 +16,7 @@ import java.util.List;
  * REST controller for managing volumes.
  */
 @RestController
+@RegisterReflectionForBinding({VolumeDTO.class, VolumeSummaryDTO.class, SeriesSummaryDTO.class})
 @RequestMapping("/api/volumes")
 public class VolumeController {
 
@@ -19,25 +28,85 @@ public class VolumeController {
 
     /**
      * Retrieves all volumes.
+     * With {@code view=summary} only the ID, title, author and cover of each volume are loaded and returned.
+     * With {@code fields} and {@code expand}, only the listed fields and expansions are loaded and returned.
+     * Answers with 304 Not Modified when the client's copy is still current, unless expansions are requested.
      *
+     * @param view    {@code summary} for compact list items, or {@code full} (the default) for complete volumes.
+     * @param fields  the optional comma-separated fields to return, for example {@code title,coverImage}.
+     * @param expand  the optional comma-separated expansions to add: {@code series}, {@code chapterCount}.
+     * @param request the current request, used to evaluate conditional headers.
      * @return a list of all volumes.
+     * @throws InvalidFieldSelectionException if the view is neither {@code summary} nor {@code full}.
      */
     @GetMapping
-    public List<VolumeDTO> getAllVolumes() {
+    public List<?> getAllVolumes(@RequestParam(defaultValue = "full") String view,
+            @RequestParam(required = false) String fields, @RequestParam(required = false) String expand,
+            WebRequest request) {
+        boolean summary = "summary".equalsIgnoreCase(view);
+        if (!summary && !"full".equalsIgnoreCase(view)) {
+            throw new InvalidFieldSelectionException("Unknown view '" + view + "', expected summary or full");
+        }
+        if (!FieldSelection.isExpanded(expand)
+                && ConditionalRequests.isNotModified(request, volumeService.getVolumeListVersion())) {
+            return null;
+        }
+        if (FieldSelection.isRequested(fields, expand)) {
+            return volumeService.getAllVolumeFields(fields, expand);
+        }
+        if (summary) {
+            return volumeService.getAllVolumeSummaries();
+        }
         return volumeService.getAllVolumes();
     }
 
     /**
      * Retrieves a volume by its ID.
+     * With {@code fields} and {@code expand}, only the listed fields and expansions are loaded and returned.
+     * Answers with 304 Not Modified, without loading the volume, when the client's copy is still current and no
+     * expansions are requested.
      *
-     * @param id the ID of the volume to retrieve.
+     * @param id      the ID of the volume to retrieve.
+     * @param fields  the optional comma-separated fields to return, for example {@code title,coverImage}.
+     * @param expand  the optional comma-separated expansions to add: {@code series}, {@code chapterCount}.
+     * @param request the current request, used to evaluate conditional headers.
      * @return the volume with the specified ID.
      */
     @GetMapping("/{id}")
-    public VolumeDTO getVolumeById(@PathVariable Long id) {
+    public Object getVolumeById(@PathVariable Long id, @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String expand, WebRequest request) {
+        if (!FieldSelection.isExpanded(expand)
+                && ConditionalRequests.isNotModified(request, volumeService.getVolumeVersion(id))) {
+            return null;
+        }
+        if (FieldSelection.isRequested(fields, expand)) {
+            return volumeService.getVolumeFieldsById(id, fields, expand);
+        }
         return volumeService.getVolumeById(id);
     }
 
+    /**
+     * Retrieves many volumes by their IDs in one request, for example {@code /batch?ids=3,1,2}.
+     *
+     * @param ids the IDs of the volumes, at most {@value BatchDTO#MAX_IDS}.
+     * @return the volumes found in request order, and the IDs that were not found.
+     */
+    @GetMapping("/batch")
+    public BatchDTO<VolumeDTO> getVolumeBatch(@RequestParam List<Long> ids) {
+        return volumeService.getVolumeBatch(ids);
+    }
+
+    /**
+     * Retrieves many volumes by the IDs in the request body, for ID lists too long for a query string.
+     *
+     * @param ids the IDs of the volumes, at most {@value BatchDTO#MAX_IDS}.
+     * @return the volumes found in request order, and the IDs that were not found.
+     */
+    @PostMapping("/batch")
+    public BatchDTO<VolumeDTO> getVolumeBatchByPost(@RequestBody List<Long> ids) {
+        return volumeService.getVolumeBatch(ids);
+    }
+
     /**
      * Creates a new volume.
      *
@@ -51,16 +120,38 @@ public class VolumeController {
 
     /**
      * Updates an existing volume.
+     * An {@code If-Match} header makes the update conditional on the volume not having changed since it was read.
      *
      * @param id        the ID of the volume to update.
      * @param volumeDTO the updated volume data.
+     * @param ifMatch   the optional entity tag the client expects the volume to have.
      * @return the updated volume.
      */
     @PutMapping("/{id}")
-    public VolumeDTO updateVolume(@PathVariable Long id, @RequestBody VolumeDTO volumeDTO) {
+    public VolumeDTO updateVolume(@PathVariable Long id, @RequestBody VolumeDTO volumeDTO,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        Long expectedVersion = ConditionalRequests.expectedVersion(ifMatch);
+        if (expectedVersion != null) {
+            volumeDTO.setVersion(expectedVersion);
+        }
         return volumeService.updateVolume(id, volumeDTO);
     }
 
+    /**
+     * Partially updates an existing volume with a JSON Merge Patch ({@code application/merge-patch+json}).
+     * Fields absent from the patch are left untouched.
+     *
+     * @param id      the ID of the volume to patch.
+     * @param patch   the merge patch to apply.
+     * @param ifMatch the optional entity tag the client expects the volume to have.
+     * @return the patched volume.
+     */
+    @PatchMapping("/{id}")
+    public VolumeDTO patchVolume(@PathVariable Long id, @RequestBody MergePatch patch,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        return volumeService.patchVolume(id, patch, ConditionalRequests.expectedVersion(ifMatch));
+    }
+
     /**
      * Deletes a volume by its ID.
      *
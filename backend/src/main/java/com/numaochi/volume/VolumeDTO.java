@@ -16,8 +16,10 @@ public class VolumeDTO {
     private String coverImage;
     private String publisher;
     private String isbn;
+    private Integer pageCount;
     private Long seriesId;
     private List<Long> chapterIds;
+    private Long version;
 
     public Long getId() {
         return id;
@@ -83,6 +85,14 @@ public class VolumeDTO {
         this.isbn = isbn;
     }
 
+    public Integer getPageCount() {
+        return pageCount;
+    }
+
+    public void setPageCount(Integer pageCount) {
+        this.pageCount = pageCount;
+    }
+
     public Long getSeriesId() {
         return seriesId;
     }
@@ -98,4 +108,12 @@ public class VolumeDTO {
     public void setChapterIds(List<Long> chapterIds) {
         this.chapterIds = chapterIds;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
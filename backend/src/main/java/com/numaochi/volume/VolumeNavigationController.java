@@ -0,0 +1,33 @@
+package com.numaochi.volume;
+
+import com.numaochi.common.PageDTO;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for navigating from a series to its volumes.
+ */
+@RestController
+@RequestMapping("/api")
+public class VolumeNavigationController {
+
+    private final VolumeService volumeService;
+
+    public VolumeNavigationController(VolumeService volumeService) {
+        this.volumeService = volumeService;
+    }
+
+    /**
+     * Retrieves one page of the volumes belonging to a series.
+     *
+     * @param seriesId the ID of the series.
+     * @param page     the zero-based page number.
+     * @param size     the page size.
+     * @return a page of volumes of the series.
+     */
+    @GetMapping("/series/{seriesId}/volumes")
+    public PageDTO<VolumeDTO> getVolumesBySeries(@PathVariable Long seriesId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return volumeService.getVolumesBySeriesId(seriesId, page, size);
+    }
+}
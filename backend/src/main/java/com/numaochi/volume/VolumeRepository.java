@@ -1,9 +1,153 @@
 package com.numaochi.volume;
 
+import com.numaochi.common.ResourceVersion;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository for managing {@link Volume} entities.
  */
 public interface VolumeRepository extends JpaRepository<Volume, Long> {
+
+    /**
+     * Finds the volumes belonging to a series.
+     *
+     * @param seriesId the ID of the series.
+     * @param pageable the page to retrieve.
+     * @return a page of volumes of the series.
+     */
+    @Transactional(readOnly = true)
+    Page<Volume> findBySeriesId(Long seriesId, Pageable pageable);
+
+    /**
+     * Finds the version information of a volume without loading the entity.
+     *
+     * @param id the ID of the volume.
+     * @return an {@link Optional} containing the version if the volume exists, or empty otherwise.
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.numaochi.common.ResourceVersion(v.version, v.updatedAt) from Volume v where v.id = :id")
+    Optional<ResourceVersion> findResourceVersionById(@Param("id") Long id);
+
+    /**
+     * Computes an aggregate version over all volumes, which changes whenever one is created, updated or deleted.
+     *
+     * @return the aggregate version of the volume list.
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.numaochi.common.ResourceVersion(count(v) + coalesce(sum(v.version), 0), max(v.updatedAt)) from Volume v")
+    ResourceVersion findListResourceVersion();
+
+    /**
+     * Computes an aggregate version over a series, its volumes and their chapters, which changes whenever one of them
+     * is created, updated or deleted, without loading the hierarchy.
+     *
+     * @param seriesId the ID of the series.
+     * @return the aggregate version of the series hierarchy, or empty if the series does not exist.
+     */
+    @Transactional(readOnly = true)
+    @Query("""
+            select new com.numaochi.common.ResourceVersion(
+                1 + s.version
+                    + (select count(v) + coalesce(sum(v.version), 0) from Volume v where v.series.id = s.id)
+                    + (select count(c) + coalesce(sum(c.version), 0) from Volume v join v.chapters c where v.series.id = s.id),
+                greatest(s.updatedAt,
+                    coalesce((select max(v.updatedAt) from Volume v where v.series.id = s.id), s.updatedAt),
+                    coalesce((select max(c.updatedAt) from Volume v join v.chapters c where v.series.id = s.id), s.updatedAt)))
+            from Series s where s.id = :seriesId""")
+    Optional<ResourceVersion> findSeriesTreeVersion(@Param("seriesId") Long seriesId);
+
+    /**
+     * Finds the volumes of a series joined with their chapters, as flat rows ordered by volume and chapter ID.
+     * Volumes without chapters yield a single row with {@code null} chapter columns.
+     *
+     * @param seriesId the ID of the series.
+     * @return the volume/chapter rows of the series.
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.numaochi.volume.SeriesTreeRow(v.id, v.title, v.author, v.publicationDate, v.description,"
+            + " v.coverImage, v.publisher, v.isbn, v.version,"
+            + " c.id, c.title, c.filePath, c.fileType, c.series.id, c.version)"
+            + " from Volume v left join v.chapters c"
+            + " where v.series.id = :seriesId"
+            + " order by v.id, c.id")
+    List<SeriesTreeRow> findSeriesTreeRows(@Param("seriesId") Long seriesId);
+
+    /**
+     * Finds all volumes as summary projections, selecting only the columns needed for listing.
+     *
+     * @return the summaries of all volumes, ordered by ID.
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.numaochi.volume.VolumeSummaryDTO(v.id, v.title, v.author, v.coverImage, v.series.id) from Volume v order by v.id")
+    List<VolumeSummaryDTO> findAllSummaries();
+
+    /**
+     * Finds the chapter IDs of the given volumes, binding all IDs as a single array parameter.
+     *
+     * @param volumeIds the IDs of the volumes.
+     * @return rows of a volume ID and a chapter ID, ordered by volume and chapter ID.
+     */
+    @Transactional(readOnly = true)
+    @Query(value = """
+            select vc.volume_id, vc.chapter_id from volume_chapter vc
+            where vc.volume_id = any(:volumeIds)
+            order by vc.volume_id, vc.chapter_id""", nativeQuery = true)
+    List<Object[]> findChapterIdsByVolumeIds(@Param("volumeIds") Long[] volumeIds);
+
+    /**
+     * Counts the chapters of each of the given volumes.
+     *
+     * @param volumeIds the IDs of the volumes.
+     * @return rows of a volume ID and its chapter count, for volumes with at least one chapter.
+     */
+    @Transactional(readOnly = true)
+    @Query(value = "select vc.volume_id, count(*) from volume_chapter vc where vc.volume_id = any(:volumeIds) group by vc.volume_id",
+            nativeQuery = true)
+    List<Object[]> countChaptersByVolumeIds(@Param("volumeIds") Long[] volumeIds);
+
+    /**
+     * Finds the files of the chapters of the given series, together with the volume each chapter is in.
+     *
+     * @param seriesIds the IDs of the series.
+     * @return rows of a series ID, volume ID or {@code null}, file path and file type, ordered by series, volume and
+     *         chapter ID.
+     */
+    @Transactional(readOnly = true)
+    @Query(value = """
+            select c.series_id, vc.volume_id, c.file_path, c.file_type from chapter c
+            left join volume_chapter vc on vc.chapter_id = c.id
+            where c.series_id = any(:seriesIds) and c.file_path is not null
+            order by c.series_id, vc.volume_id nulls last, c.id""", nativeQuery = true)
+    List<Object[]> findChapterFilesBySeriesIds(@Param("seriesIds") Long[] seriesIds);
+
+    /**
+     * Finds the summary columns of the series of the given volumes.
+     *
+     * @param volumeIds the IDs of the volumes.
+     * @return rows of a volume ID and the ID, title, author and cover of its series, for volumes that belong to a series.
+     */
+    @Transactional(readOnly = true)
+    @Query(value = """
+            select v.id, s.id, s.title, s.author, s.cover_image from volume v
+            join series s on s.id = v.series_id
+            where v.id = any(:volumeIds)""", nativeQuery = true)
+    List<Object[]> findSeriesSummariesByVolumeIds(@Param("volumeIds") Long[] volumeIds);
+
+    /**
+     * Finds the volumes with the given IDs in one query, binding all IDs as a single array parameter.
+     *
+     * @param ids the IDs of the volumes.
+     * @return the volumes that exist, in no particular order.
+     */
+    @Transactional(readOnly = true)
+    @Query(value = "select * from volume where id = any(:ids)", nativeQuery = true)
+    List<Volume> findAllByIds(@Param("ids") Long[] ids);
 }
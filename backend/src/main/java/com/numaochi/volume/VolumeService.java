@@ -2,11 +2,27 @@ package com.numaochi.volume;
 
 import com.numaochi.chapter.Chapter;
 import com.numaochi.chapter.ChapterRepository;
+import com.numaochi.common.BatchDTO;
+import com.numaochi.common.ConditionalRequests;
+import com.numaochi.common.FieldSelection;
+import com.numaochi.common.FieldSelectionQueries;
+import com.numaochi.common.MergePatch;
+import com.numaochi.common.MissingFields;
+import com.numaochi.common.PageDTO;
+import com.numaochi.common.ResourceVersion;
 import com.numaochi.series.Series;
 import com.numaochi.series.SeriesRepository;
+import com.numaochi.series.SeriesSummaryDTO;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -15,14 +31,34 @@ import java.util.stream.Collectors;
 @Service
 public class VolumeService {
 
+    /**
+     * The fields of a volume that are columns of its table, and their entity attributes.
+     * The {@code chapterIds} field is loaded separately, and only when selected.
+     */
+    static final Map<String, String> FIELD_COLUMNS = FieldSelectionQueries.columns("id", "title", "author",
+            "publicationDate", "description", "coverImage", "publisher", "isbn", "pageCount", "seriesId=series.id", "version");
+
+    /**
+     * The fields of a volume that can be selected with {@code fields}.
+     */
+    static final List<String> FIELDS = fields();
+
+    /**
+     * The related data that can be added to a volume with {@code expand}.
+     */
+    static final Set<String> EXPANSIONS = Set.of("series", "chapterCount");
+
     private final VolumeRepository volumeRepository;
     private final SeriesRepository seriesRepository;
     private final ChapterRepository chapterRepository;
+    private final FieldSelectionQueries fieldSelectionQueries;
 
-    public VolumeService(VolumeRepository volumeRepository, SeriesRepository seriesRepository, ChapterRepository chapterRepository) {
+    public VolumeService(VolumeRepository volumeRepository, SeriesRepository seriesRepository, ChapterRepository chapterRepository,
+                         FieldSelectionQueries fieldSelectionQueries) {
         this.volumeRepository = volumeRepository;
         this.seriesRepository = seriesRepository;
         this.chapterRepository = chapterRepository;
+        this.fieldSelectionQueries = fieldSelectionQueries;
     }
 
     /**
@@ -30,20 +66,120 @@ public class VolumeService {
      *
      * @return a list of all volumes.
      */
+    @Transactional(readOnly = true)
     public List<VolumeDTO> getAllVolumes() {
         return volumeRepository.findAll().stream().map(this::convertToDto).collect(Collectors.toList());
     }
 
+    /**
+     * Retrieves a summary of every volume, loading only the listed columns.
+     *
+     * @return a list of all volume summaries.
+     */
+    @Transactional(readOnly = true)
+    public List<VolumeSummaryDTO> getAllVolumeSummaries() {
+        return volumeRepository.findAllSummaries();
+    }
+
     /**
      * Retrieves a volume by its ID.
      *
      * @param id the ID of the volume to retrieve.
      * @return the volume with the specified ID, or {@code null} if not found.
      */
+    @Transactional(readOnly = true)
     public VolumeDTO getVolumeById(Long id) {
         return volumeRepository.findById(id).map(this::convertToDto).orElse(null);
     }
 
+    /**
+     * Retrieves several volumes by their IDs with one query.
+     *
+     * @param ids the IDs of the volumes.
+     * @return the volumes that exist, in no particular order.
+     */
+    @Transactional(readOnly = true)
+    public List<VolumeDTO> getVolumesByIds(List<Long> ids) {
+        return volumeRepository.findAllByIds(ids.toArray(Long[]::new)).stream().map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Retrieves many volumes by their IDs with one query, for clients that would otherwise fetch them one by one.
+     *
+     * @param ids the IDs of the volumes; duplicates are returned once.
+     * @return the volumes found in request order, and the IDs that were not found.
+     * @throws com.numaochi.common.BatchTooLargeException if more than {@link BatchDTO#MAX_IDS} IDs are requested.
+     */
+    @Transactional(readOnly = true)
+    public BatchDTO<VolumeDTO> getVolumeBatch(List<Long> ids) {
+        List<Long> distinct = BatchDTO.distinctIds(ids);
+        return BatchDTO.of(distinct, getVolumesByIds(distinct), VolumeDTO::getId);
+    }
+
+    /**
+     * Retrieves the selected fields of every volume, selecting only their columns and loading only the requested
+     * chapters and expansions.
+     *
+     * @param fields the comma-separated fields to return, or {@code null} for all fields.
+     * @param expand the comma-separated expansions to add, or {@code null} for none.
+     * @return the selected fields of all volumes, ordered by ID.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllVolumeFields(String fields, String expand) {
+        FieldSelection selection = FieldSelection.parse(fields, expand, FIELDS, EXPANSIONS);
+        return expand(fieldSelectionQueries.find(Volume.class, FIELD_COLUMNS, selection, null), selection);
+    }
+
+    /**
+     * Retrieves the selected fields of a volume.
+     *
+     * @param id     the ID of the volume.
+     * @param fields the comma-separated fields to return, or {@code null} for all fields.
+     * @param expand the comma-separated expansions to add, or {@code null} for none.
+     * @return the selected fields of the volume, or {@code null} if not found.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getVolumeFieldsById(Long id, String fields, String expand) {
+        FieldSelection selection = FieldSelection.parse(fields, expand, FIELDS, EXPANSIONS);
+        List<Map<String, Object>> rows = expand(fieldSelectionQueries.find(Volume.class, FIELD_COLUMNS, selection, id), selection);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Retrieves one page of the volumes belonging to a series, ordered by ID.
+     *
+     * @param seriesId the ID of the series.
+     * @param page     the zero-based page number.
+     * @param size     the page size.
+     * @return a page of volumes of the series.
+     */
+    @Transactional(readOnly = true)
+    public PageDTO<VolumeDTO> getVolumesBySeriesId(Long seriesId, int page, int size) {
+        return PageDTO.of(volumeRepository.findBySeriesId(seriesId, PageDTO.request(page, size)), this::convertToDto);
+    }
+
+    /**
+     * Retrieves the version information of a volume without loading it.
+     *
+     * @param id the ID of the volume.
+     * @return the version of the volume, or {@code null} if not found.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getVolumeVersion(Long id) {
+        return volumeRepository.findResourceVersionById(id).orElse(null);
+    }
+
+    /**
+     * Retrieves the aggregate version of the volume list.
+     *
+     * @return the version of the volume list.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getVolumeListVersion() {
+        return volumeRepository.findListResourceVersion();
+    }
+
     /**
      * Creates a new volume.
      *
@@ -60,14 +196,104 @@ public class VolumeService {
      *
      * @param id        the ID of the volume to update.
      * @param volumeDTO the updated volume data.
-     * @return the updated volume.
+     * @return the updated volume, or {@code null} if not found.
      */
+    @Transactional
     public VolumeDTO updateVolume(Long id, VolumeDTO volumeDTO) {
         Volume volume = convertToEntity(volumeDTO);
         volume.setId(id);
+        if (volume.getVersion() == null) {
+            Long version = volumeRepository.findResourceVersionById(id).map(ResourceVersion::version).orElse(null);
+            if (version == null) {
+                return null;
+            }
+            volume.setVersion(version);
+        }
         return convertToDto(volumeRepository.save(volume));
     }
 
+    /**
+     * Applies a JSON Merge Patch to an existing volume.
+     * Only the changed columns are written. The series and chapters are only touched when the patch
+     * mentions them, and are referenced by ID without being loaded.
+     *
+     * @param id              the ID of the volume to patch.
+     * @param patch           the merge patch to apply.
+     * @param expectedVersion the version the client expects the volume to have, or {@code null}.
+     * @return the patched volume, or {@code null} if not found.
+     */
+    @Transactional
+    public VolumeDTO patchVolume(Long id, MergePatch patch, Long expectedVersion) {
+        Volume volume = volumeRepository.findById(id).orElse(null);
+        if (volume == null) {
+            return null;
+        }
+        ConditionalRequests.requireVersion(Volume.class, id, volume.getVersion(), expectedVersion);
+        boolean changed = patch.apply("title", String.class, volume::getTitle, volume::setTitle)
+                | patch.apply("author", String.class, volume::getAuthor, volume::setAuthor)
+                | patch.apply("publicationDate", LocalDate.class, volume::getPublicationDate, volume::setPublicationDate)
+                | patch.apply("description", String.class, volume::getDescription, volume::setDescription)
+                | patch.apply("coverImage", String.class, volume::getCoverImage, volume::setCoverImage)
+                | patch.apply("publisher", String.class, volume::getPublisher, volume::setPublisher)
+                | patch.apply("isbn", String.class, volume::getIsbn, volume::setIsbn)
+                | patch.apply("pageCount", Integer.class, volume::getPageCount, volume::setPageCount);
+        if (patch.has("seriesId")) {
+            Long seriesId = patch.get("seriesId", Long.class);
+            Long currentSeriesId = volume.getSeries() != null ? volume.getSeries().getId() : null;
+            if (!Objects.equals(seriesId, currentSeriesId)) {
+                volume.setSeries(seriesId != null ? seriesRepository.getReferenceById(seriesId) : null);
+                changed = true;
+            }
+        }
+        if (patch.has("chapterIds")) {
+            List<Long> chapterIds = patch.getIds("chapterIds");
+            List<Long> currentChapterIds = volume.getChapters() != null
+                    ? volume.getChapters().stream().map(Chapter::getId).collect(Collectors.toList())
+                    : null;
+            if (!Objects.equals(chapterIds, currentChapterIds)) {
+                volume.setChapters(chapterIds != null
+                        ? chapterIds.stream().map(chapterRepository::getReferenceById).collect(Collectors.toCollection(ArrayList::new))
+                        : null);
+                changed = true;
+            }
+        }
+        if (changed) {
+            volumeRepository.flush();
+        }
+        return convertToDto(volume);
+    }
+
+    /**
+     * Fills the empty fields of several volumes, such as with metadata extracted from their chapter files.
+     * Fields that already have a value are kept, so metadata entered by hand wins; the page count, which is derived
+     * from the files, is always replaced. The volumes are loaded with one query and written in JDBC batches.
+     *
+     * @param metadata the fields to fill in, by volume ID; {@code null} fields are ignored.
+     * @return the number of volumes that changed.
+     */
+    @Transactional
+    public int fillMissingMetadata(Map<Long, VolumeDTO> metadata) {
+        int changed = 0;
+        for (Volume volume : volumeRepository.findAllById(metadata.keySet())) {
+            VolumeDTO values = metadata.get(volume.getId());
+            boolean volumeChanged = MissingFields.fill(volume::getTitle, volume::setTitle, values.getTitle())
+                    | MissingFields.fill(volume::getAuthor, volume::setAuthor, values.getAuthor())
+                    | MissingFields.fill(volume::getPublicationDate, volume::setPublicationDate, values.getPublicationDate())
+                    | MissingFields.fill(volume::getDescription, volume::setDescription, values.getDescription())
+                    | MissingFields.fill(volume::getPublisher, volume::setPublisher, values.getPublisher())
+                    | MissingFields.fill(volume::getIsbn, volume::setIsbn, values.getIsbn());
+            if (values.getPageCount() != null && !values.getPageCount().equals(volume.getPageCount())) {
+                volume.setPageCount(values.getPageCount());
+                volumeChanged = true;
+            }
+            if (volumeChanged) {
+                changed++;
+            }
+        }
+        volumeRepository.flush();
+        return changed;
+    }
+
     /**
      * Deletes a volume by its ID.
      *
@@ -77,6 +303,38 @@ public class VolumeService {
         volumeRepository.deleteById(id);
     }
 
+    private List<Map<String, Object>> expand(List<Map<String, Object>> rows, FieldSelection selection) {
+        if (rows.isEmpty()) {
+            return rows;
+        }
+        Long[] ids = FieldSelectionQueries.ids(rows);
+        if (selection.includes("chapterIds")) {
+            Map<Long, List<Long>> chapterIds = new HashMap<>();
+            for (Object[] row : volumeRepository.findChapterIdsByVolumeIds(ids)) {
+                chapterIds.computeIfAbsent((Long) row[0], volumeId -> new ArrayList<>()).add((Long) row[1]);
+            }
+            FieldSelectionQueries.expand(rows, "chapterIds", chapterIds, List.of());
+        }
+        if (selection.expands("series")) {
+            Map<Long, SeriesSummaryDTO> series = new HashMap<>();
+            for (Object[] row : volumeRepository.findSeriesSummariesByVolumeIds(ids)) {
+                series.put((Long) row[0], new SeriesSummaryDTO((Long) row[1], (String) row[2], (String) row[3], (String) row[4]));
+            }
+            FieldSelectionQueries.expand(rows, "series", series, null);
+        }
+        if (selection.expands("chapterCount")) {
+            FieldSelectionQueries.expand(rows, "chapterCount",
+                    FieldSelectionQueries.byId(volumeRepository.countChaptersByVolumeIds(ids)), 0L);
+        }
+        return rows;
+    }
+
+    private static List<String> fields() {
+        List<String> fields = new ArrayList<>(FIELD_COLUMNS.keySet());
+        fields.add("chapterIds");
+        return List.copyOf(fields);
+    }
+
     /**
      * Converts a {@link Volume} entity to a {@link VolumeDTO}.
      *
@@ -86,6 +344,7 @@ public class VolumeService {
     private VolumeDTO convertToDto(Volume volume) {
         VolumeDTO volumeDTO = new VolumeDTO();
         volumeDTO.setId(volume.getId());
+        volumeDTO.setVersion(volume.getVersion());
         volumeDTO.setTitle(volume.getTitle());
         volumeDTO.setAuthor(volume.getAuthor());
         volumeDTO.setPublicationDate(volume.getPublicationDate());
@@ -93,6 +352,7 @@ public class VolumeService {
         volumeDTO.setCoverImage(volume.getCoverImage());
         volumeDTO.setPublisher(volume.getPublisher());
         volumeDTO.setIsbn(volume.getIsbn());
+        volumeDTO.setPageCount(volume.getPageCount());
         if (volume.getSeries() != null) {
             volumeDTO.setSeriesId(volume.getSeries().getId());
         }
@@ -111,6 +371,7 @@ public class VolumeService {
     private Volume convertToEntity(VolumeDTO volumeDTO) {
         Volume volume = new Volume();
         volume.setId(volumeDTO.getId());
+        volume.setVersion(volumeDTO.getVersion());
         volume.setTitle(volumeDTO.getTitle());
         volume.setAuthor(volumeDTO.getAuthor());
         volume.setPublicationDate(volumeDTO.getPublicationDate());
@@ -118,6 +379,7 @@ public class VolumeService {
         volume.setCoverImage(volumeDTO.getCoverImage());
         volume.setPublisher(volumeDTO.getPublisher());
         volume.setIsbn(volumeDTO.getIsbn());
+        volume.setPageCount(volumeDTO.getPageCount());
         if (volumeDTO.getSeriesId() != null) {
             Series series = seriesRepository.findById(volumeDTO.getSeriesId()).orElse(null);
             volume.setSeries(series);
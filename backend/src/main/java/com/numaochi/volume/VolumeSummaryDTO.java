@@ -0,0 +1,14 @@
+package com.numaochi.volume;
+
+/**
+ * Compact Data Transfer Object for listing volumes in grids.
+ * Loaded directly as a query projection, without hydrating {@link Volume} entities.
+ *
+ * @param id         the ID of the volume.
+ * @param title      the title of the volume.
+ * @param author     the author of the volume.
+ * @param coverImage the cover image URL or path of the volume.
+ * @param seriesId   the ID of the series the volume belongs to.
+ */
+public record VolumeSummaryDTO(Long id, String title, String author, String coverImage, Long seriesId) {
+}
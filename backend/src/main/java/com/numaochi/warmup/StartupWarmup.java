@@ -0,0 +1,187 @@
+package com.numaochi.warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.numaochi.chapter.ChapterService;
+import com.numaochi.datasource.ReplicaLagMonitor;
+import com.numaochi.series.SeriesDTO;
+import com.numaochi.series.SeriesService;
+import com.numaochi.volume.VolumeService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Warms the application up after startup, before it reports ready to receive traffic.
+ * <p>
+ * Application runners run before Spring Boot marks the application as accepting traffic, so the readiness probe stays
+ * down until the warm-up is done. The warm-up fills the database connection pools, including the replica pools owned
+ * by the {@link ReplicaLagMonitor}, connects to Redis, and then exercises the main read paths for a few rounds: series
+ * lists, the most recently updated series with their first volume and chapter pages, and searches. It also serialises the results to JSON. Recently updated series are the ones
+ * most likely to be read, so their rows are loaded into the database cache. Every step is best-effort: a failing
+ * dependency is logged, and startup never fails because of the warm-up.
+ */
+@Component
+@EnableConfigurationProperties(WarmupProperties.class)
+public class StartupWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+    static final int PAGE_SIZE = 20;
+
+    private final SeriesService seriesService;
+    private final VolumeService volumeService;
+    private final ChapterService chapterService;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<HikariDataSource> dataSources;
+    private final ObjectProvider<ReplicaLagMonitor> replicaLagMonitor;
+    private final StringRedisTemplate redisTemplate;
+    private final WarmupProperties properties;
+    private final Clock clock;
+
+    @Autowired
+    public StartupWarmup(SeriesService seriesService, VolumeService volumeService, ChapterService chapterService,
+            ObjectMapper objectMapper, ObjectProvider<HikariDataSource> dataSources,
+            ObjectProvider<ReplicaLagMonitor> replicaLagMonitor, StringRedisTemplate redisTemplate,
+            WarmupProperties properties) {
+        this(seriesService, volumeService, chapterService, objectMapper, dataSources, replicaLagMonitor, redisTemplate,
+                properties, Clock.systemUTC());
+    }
+
+    StartupWarmup(SeriesService seriesService, VolumeService volumeService, ChapterService chapterService,
+            ObjectMapper objectMapper, ObjectProvider<HikariDataSource> dataSources,
+            ObjectProvider<ReplicaLagMonitor> replicaLagMonitor, StringRedisTemplate redisTemplate,
+            WarmupProperties properties, Clock clock) {
+        this.seriesService = seriesService;
+        this.volumeService = volumeService;
+        this.chapterService = chapterService;
+        this.objectMapper = objectMapper;
+        this.dataSources = dataSources;
+        this.replicaLagMonitor = replicaLagMonitor;
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.enabled()) {
+            return;
+        }
+        Instant start = clock.instant();
+        Instant deadline = start.plus(properties.maxDuration());
+        dataSources.orderedStream().forEach(StartupWarmup::fillPool);
+        replicaLagMonitor.ifAvailable(monitor -> monitor.dataSources().values().stream()
+                .filter(HikariDataSource.class::isInstance)
+                .map(HikariDataSource.class::cast)
+                .forEach(StartupWarmup::fillPool));
+        step("Redis", () -> redisTemplate.execute((RedisCallback<String>) RedisConnection::ping));
+
+        List<Long> recentIds = new ArrayList<>();
+        step("recent series",
+                () -> recentIds.addAll(seriesService.getRecentlyUpdatedSeriesIds(properties.recentSeries())));
+        List<String> queries = properties.searchQueries().isEmpty()
+                ? recentTitles(recentIds)
+                : properties.searchQueries();
+        int rounds = 0;
+        while (rounds < properties.rounds() && clock.instant().isBefore(deadline)) {
+            runRound(recentIds, queries);
+            rounds++;
+        }
+        log.info("Warm-up finished {} of {} rounds in {} ms", rounds, properties.rounds(),
+                Duration.between(start, clock.instant()).toMillis());
+    }
+
+    /**
+     * Exercises the main read paths once.
+     *
+     * @param recentIds the IDs of the recently updated series.
+     * @param queries   the searches to run.
+     */
+    private void runRound(List<Long> recentIds, List<String> queries) {
+        step("series list", () -> serialize(seriesService.getAllSeries()));
+        step("series summaries", () -> serialize(seriesService.getAllSeriesSummaries()));
+        step("series batch", () -> serialize(seriesService.getSeriesBatch(recentIds)));
+        for (Long id : recentIds) {
+            step("series " + id, () -> {
+                serialize(seriesService.getSeriesById(id));
+                serialize(volumeService.getVolumesBySeriesId(id, 0, PAGE_SIZE));
+                serialize(chapterService.getChaptersBySeriesId(id, 0, PAGE_SIZE));
+            });
+        }
+        for (String query : queries) {
+            step("search '" + query + "'", () -> serialize(seriesService.searchSeries(query).hits()));
+        }
+    }
+
+    /**
+     * Uses the titles of the recently updated series as searches, as they are what users look for.
+     */
+    private List<String> recentTitles(List<Long> recentIds) {
+        List<String> titles = new ArrayList<>();
+        step("search queries", () -> {
+            for (SeriesDTO series : seriesService.getSeriesByIds(recentIds)) {
+                if (series.getTitle() != null && !series.getTitle().isBlank()) {
+                    titles.add(series.getTitle());
+                }
+            }
+        });
+        return titles;
+    }
+
+    private void serialize(Object value) {
+        try {
+            objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Opens as many connections as the pool keeps idle at once, so that they are established before traffic arrives.
+     */
+    private static void fillPool(HikariDataSource dataSource) {
+        List<Connection> connections = new ArrayList<>();
+        try {
+            int size = Math.min(dataSource.getMinimumIdle(), dataSource.getMaximumPoolSize());
+            for (int i = 0; i < size; i++) {
+                connections.add(dataSource.getConnection());
+            }
+        } catch (SQLException | RuntimeException e) {
+            log.warn("Warm-up could not fill connection pool {}: {}", dataSource.getPoolName(), e.getMessage());
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    log.debug("Could not return warm-up connection", e);
+                }
+            }
+        }
+    }
+
+    private static void step(String name, Runnable step) {
+        try {
+            step.run();
+        } catch (RuntimeException e) {
+            log.warn("Warm-up step '{}' failed: {}", name, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.numaochi.warmup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuration properties for the startup warm-up.
+ *
+ * @param enabled       whether the application warms up before reporting ready.
+ * @param rounds        how many times the main read paths are exercised.
+ * @param maxDuration   the longest the warm-up may delay readiness; remaining rounds are skipped afterwards.
+ * @param recentSeries  how many of the most recently updated series are read each round.
+ * @param searchQueries the searches to run each round; if empty, the titles of the recent series are searched.
+ */
+@ConfigurationProperties(prefix = "warmup")
+public record WarmupProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("5") int rounds,
+        @DefaultValue("60s") Duration maxDuration,
+        @DefaultValue("50") int recentSeries,
+        @DefaultValue List<String> searchQueries) {
+}
@@ -0,0 +1,7 @@
+CREATE INDEX idx_volume_series_id ON volume (series_id, id);
+
+CREATE INDEX idx_chapter_series_id ON chapter (series_id, id);
+
+CREATE INDEX idx_volume_chapter_chapter_id ON volume_chapter (chapter_id);
+
+CREATE INDEX idx_collection_series_series_id ON collection_series (series_id);
@@ -0,0 +1,14 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE series
+    ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(author, '')), 'B') ||
+        setweight(to_tsvector('simple', coalesce(description, '')), 'C')
+    ) STORED;
+
+CREATE INDEX idx_series_search_vector ON series USING GIN (search_vector);
+
+CREATE INDEX idx_series_title_trgm ON series USING GIN (title gin_trgm_ops);
+
+CREATE INDEX idx_series_author_trgm ON series USING GIN (author gin_trgm_ops);
@@ -0,0 +1,27 @@
+CREATE SEQUENCE collection_series_rank_seq;
+
+-- Rank keys appended to the end of a collection: increasing, fixed-length, and never ending in the lowest digit '0'
+-- so that a key can always be generated between two neighbours.
+CREATE FUNCTION next_collection_rank_key() RETURNS VARCHAR
+    LANGUAGE SQL VOLATILE
+    AS 'SELECT ''a'' || lpad(to_hex(nextval(''collection_series_rank_seq'')), 12, ''0'') || ''V''';
+
+ALTER TABLE collection_series ADD COLUMN rank_key VARCHAR(255) COLLATE "C";
+
+UPDATE collection_series cs
+SET rank_key = ordered.rank_key
+FROM (
+    SELECT collection_id, series_id, next_collection_rank_key() AS rank_key
+    FROM collection_series
+    ORDER BY collection_id, series_id
+) ordered
+WHERE cs.collection_id = ordered.collection_id AND cs.series_id = ordered.series_id;
+
+ALTER TABLE collection_series
+    ALTER COLUMN rank_key SET DEFAULT next_collection_rank_key(),
+    ALTER COLUMN rank_key SET NOT NULL;
+
+CREATE INDEX idx_collection_series_rank_key ON collection_series (collection_id, rank_key);
+
+-- Finds the collections whose keys grew long through repeated moves, for background rebalancing.
+CREATE INDEX idx_collection_series_long_rank_key ON collection_series (collection_id) WHERE length(rank_key) > 32;
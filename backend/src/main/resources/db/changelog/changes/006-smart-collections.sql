@@ -0,0 +1,3 @@
+ALTER TABLE collection ADD COLUMN rule TEXT;
+
+CREATE INDEX idx_collection_smart ON collection (id) WHERE rule IS NOT NULL;
@@ -0,0 +1,15 @@
+CREATE TABLE chapter_upload (
+    id UUID PRIMARY KEY,
+    owner VARCHAR(255) NOT NULL,
+    length BIGINT NOT NULL,
+    bytes_received BIGINT NOT NULL DEFAULT 0,
+    file_name VARCHAR(255) NOT NULL,
+    title VARCHAR(255),
+    file_type VARCHAR(50),
+    series_id BIGINT REFERENCES series(id) ON DELETE SET NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_chapter_upload_expires_at ON chapter_upload (expires_at);
+CREATE INDEX idx_chapter_upload_series_id ON chapter_upload (series_id);
@@ -0,0 +1,54 @@
+CREATE TABLE blob (
+    hash CHAR(64) PRIMARY KEY,
+    size BIGINT NOT NULL,
+    ref_count INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    unreferenced_since TIMESTAMP WITH TIME ZONE
+);
+
+-- Only unreferenced blobs are candidates for garbage collection.
+CREATE INDEX idx_blob_unreferenced ON blob (unreferenced_since) WHERE ref_count = 0;
+
+ALTER TABLE chapter ADD COLUMN content_hash CHAR(64) REFERENCES blob(hash);
+ALTER TABLE series ADD COLUMN cover_hash CHAR(64) REFERENCES blob(hash);
+
+CREATE INDEX idx_chapter_content_hash ON chapter (content_hash);
+CREATE INDEX idx_series_cover_hash ON series (cover_hash);
+
+-- Keeps blob.ref_count equal to the number of rows referencing each blob through the column named by the trigger
+-- argument. A blob whose count drops to zero records when, so that garbage collection can leave a grace period.
+CREATE FUNCTION adjust_blob_ref_count() RETURNS TRIGGER
+    LANGUAGE plpgsql
+    AS '
+DECLARE
+    old_hash CHAR(64);
+    new_hash CHAR(64);
+BEGIN
+    IF TG_OP <> ''INSERT'' THEN
+        old_hash := to_jsonb(OLD) ->> TG_ARGV[0];
+    END IF;
+    IF TG_OP <> ''DELETE'' THEN
+        new_hash := to_jsonb(NEW) ->> TG_ARGV[0];
+    END IF;
+    IF old_hash IS NOT DISTINCT FROM new_hash THEN
+        RETURN NULL;
+    END IF;
+    IF new_hash IS NOT NULL THEN
+        UPDATE blob SET ref_count = ref_count + 1, unreferenced_since = NULL WHERE hash = new_hash;
+    END IF;
+    IF old_hash IS NOT NULL THEN
+        UPDATE blob
+        SET ref_count = ref_count - 1,
+            unreferenced_since = CASE WHEN ref_count = 1 THEN now() ELSE unreferenced_since END
+        WHERE hash = old_hash;
+    END IF;
+    RETURN NULL;
+END';
+
+CREATE TRIGGER chapter_blob_ref_count
+    AFTER INSERT OR UPDATE OF content_hash OR DELETE ON chapter
+    FOR EACH ROW EXECUTE FUNCTION adjust_blob_ref_count('content_hash');
+
+CREATE TRIGGER series_blob_ref_count
+    AFTER INSERT OR UPDATE OF cover_hash OR DELETE ON series
+    FOR EACH ROW EXECUTE FUNCTION adjust_blob_ref_count('cover_hash');
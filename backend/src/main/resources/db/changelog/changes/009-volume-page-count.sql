@@ -0,0 +1 @@
+ALTER TABLE volume ADD COLUMN page_count INTEGER;
@@ -0,0 +1,77 @@
+-- One row per write to a synced entity, filled by triggers so that every write path is recorded. Rows get their
+-- position in the feed from the sequencer once their transaction is older than every running transaction, so
+-- positions follow commit order closely enough that a client never skips a change that commits late.
+CREATE TABLE change_log (
+    id BIGSERIAL PRIMARY KEY,
+    position BIGINT UNIQUE,
+    entity_type VARCHAR(16) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    deleted BOOLEAN NOT NULL,
+    transaction_id XID8 NOT NULL DEFAULT pg_current_xact_id(),
+    changed_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+CREATE SEQUENCE change_log_position_seq;
+
+CREATE INDEX idx_change_log_unsequenced ON change_log (transaction_id, id) WHERE position IS NULL;
+CREATE INDEX idx_change_log_entity ON change_log (entity_type, entity_id, position);
+CREATE INDEX idx_change_log_changed_at ON change_log (changed_at);
+
+-- The highest position of a tombstone removed by compaction. Clients that synced before it must sync from scratch.
+CREATE TABLE change_log_horizon (
+    id INTEGER PRIMARY KEY CHECK (id = 1),
+    position BIGINT NOT NULL
+);
+
+INSERT INTO change_log_horizon (id, position) VALUES (1, 0);
+
+-- Records a change of the entity of the type in the first trigger argument, whose ID is in the column named by the
+-- second argument: the row itself for entity tables, or the owning entity for join tables.
+CREATE FUNCTION record_change() RETURNS TRIGGER
+    LANGUAGE plpgsql
+    AS '
+BEGIN
+    IF TG_OP = ''DELETE'' THEN
+        INSERT INTO change_log (entity_type, entity_id, deleted)
+        VALUES (TG_ARGV[0], (to_jsonb(OLD) ->> TG_ARGV[1])::BIGINT, TG_ARGV[1] = ''id'');
+    ELSE
+        INSERT INTO change_log (entity_type, entity_id, deleted)
+        VALUES (TG_ARGV[0], (to_jsonb(NEW) ->> TG_ARGV[1])::BIGINT, false);
+    END IF;
+    RETURN NULL;
+END';
+
+CREATE TRIGGER series_change_log
+    AFTER INSERT OR UPDATE OR DELETE ON series
+    FOR EACH ROW EXECUTE FUNCTION record_change('series', 'id');
+
+CREATE TRIGGER volume_change_log
+    AFTER INSERT OR UPDATE OR DELETE ON volume
+    FOR EACH ROW EXECUTE FUNCTION record_change('volume', 'id');
+
+CREATE TRIGGER chapter_change_log
+    AFTER INSERT OR UPDATE OR DELETE ON chapter
+    FOR EACH ROW EXECUTE FUNCTION record_change('chapter', 'id');
+
+CREATE TRIGGER collection_change_log
+    AFTER INSERT OR UPDATE OR DELETE ON collection
+    FOR EACH ROW EXECUTE FUNCTION record_change('collection', 'id');
+
+CREATE TRIGGER volume_chapter_change_log
+    AFTER INSERT OR UPDATE OR DELETE ON volume_chapter
+    FOR EACH ROW EXECUTE FUNCTION record_change('volume', 'volume_id');
+
+CREATE TRIGGER collection_series_change_log
+    AFTER INSERT OR UPDATE OR DELETE ON collection_series
+    FOR EACH ROW EXECUTE FUNCTION record_change('collection', 'collection_id');
+
+-- Existing entities start the log, so that a client syncing from position 0 receives the whole library.
+INSERT INTO change_log (entity_type, entity_id, deleted, position)
+SELECT entity_type, entity_id, false, nextval('change_log_position_seq')
+FROM (
+    SELECT 'series' AS entity_type, id AS entity_id FROM series
+    UNION ALL SELECT 'volume', id FROM volume
+    UNION ALL SELECT 'chapter', id FROM chapter
+    UNION ALL SELECT 'collection', id FROM collection
+    ORDER BY 1, 2
+) existing;
@@ -0,0 +1,40 @@
+-- Atomically refills a token bucket and grants up to the requested number of tokens.
+-- KEYS[1]: bucket key
+-- ARGV[1]: capacity, ARGV[2]: refill rate in tokens per second, ARGV[3]: requested tokens
+-- Returns {granted, remaining, seconds until full, seconds until the next token}
+local key = KEYS[1]
+local capacity = tonumber(ARGV[1])
+local rate = tonumber(ARGV[2])
+local requested = tonumber(ARGV[3])
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local bucket = redis.call('HMGET', key, 'tokens', 'ts')
+local tokens = tonumber(bucket[1])
+local ts = tonumber(bucket[2])
+if tokens == nil or ts == nil then
+    tokens = capacity
+    ts = now
+end
+
+tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate / 1000)
+
+local granted = math.min(requested, math.floor(tokens))
+if granted > 0 then
+    tokens = tokens - granted
+    redis.call('HINCRBY', key, 'granted', granted)
+else
+    granted = 0
+    redis.call('HINCRBY', key, 'rejected', 1)
+end
+
+redis.call('HSET', key, 'tokens', tostring(tokens), 'ts', now)
+redis.call('EXPIRE', key, math.ceil(capacity / rate) + 60)
+
+local reset = math.ceil((capacity - tokens) / rate)
+local retry_after = 0
+if tokens < 1 then
+    retry_after = math.ceil((1 - tokens) / rate)
+end
+return {granted, math.floor(tokens), reset, retry_after}
@@ -0,0 +1,40 @@
+package com.numaochi.changes;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeFeedNotifierTest {
+
+    @Mock
+    private ChangeFeedService changeFeedService;
+
+    @InjectMocks
+    private ChangeFeedNotifier changeFeedNotifier;
+
+    @Test
+    void notifyWaiters_shouldReadFeedOnce_whenWaitersShareSincePosition() {
+        ChangePageDTO page = new ChangePageDTO(List.of(), 12L, false);
+        when(changeFeedService.getChanges(10L, 100)).thenReturn(page);
+
+        DeferredResult<ChangePageDTO> first = changeFeedNotifier.await(10L, 100, Duration.ofSeconds(30));
+        DeferredResult<ChangePageDTO> second = changeFeedNotifier.await(10L, 100, Duration.ofSeconds(30));
+        DeferredResult<ChangePageDTO> upToDate = changeFeedNotifier.await(12L, 100, Duration.ofSeconds(30));
+        changeFeedNotifier.notifyWaiters(12L);
+
+        assertSame(page, first.getResult());
+        assertSame(page, second.getResult());
+        assertFalse(upToDate.hasResult());
+        verify(changeFeedService, times(1)).getChanges(anyLong(), anyInt());
+    }
+}
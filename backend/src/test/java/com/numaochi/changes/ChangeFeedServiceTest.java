@@ -0,0 +1,176 @@
+package com.numaochi.changes;
+
+import com.numaochi.chapter.ChapterService;
+import com.numaochi.collection.CollectionService;
+import com.numaochi.series.SeriesDTO;
+import com.numaochi.series.SeriesService;
+import com.numaochi.volume.VolumeDTO;
+import com.numaochi.volume.VolumeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeFeedServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-31T00:00:00Z");
+
+    @Mock
+    private ChangeLogRepository changeLogRepository;
+
+    @Mock
+    private SeriesService seriesService;
+
+    @Mock
+    private VolumeService volumeService;
+
+    @Mock
+    private ChapterService chapterService;
+
+    @Mock
+    private CollectionService collectionService;
+
+    private ChangeFeedService changeFeedService;
+
+    @BeforeEach
+    void setUp() {
+        ChangeFeedProperties properties = new ChangeFeedProperties(1000, Duration.ofSeconds(60), Duration.ofDays(1),
+                Duration.ofDays(30));
+        changeFeedService = new ChangeFeedService(changeLogRepository, seriesService, volumeService, chapterService,
+                collectionService, properties, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void getChanges_shouldReturnLatestChangeOfEachEntityWithCurrentState() {
+        when(changeLogRepository.findByPositionGreaterThanOrderByPosition(10L, Limit.of(101))).thenReturn(List.of(
+                entry(11, "series", 1L, false), entry(12, "volume", 5L, false), entry(13, "series", 1L, false)));
+        when(seriesService.getSeriesByIds(List.of(1L))).thenReturn(List.of(series(1L)));
+        when(volumeService.getVolumesByIds(List.of(5L))).thenReturn(List.of(volume(5L)));
+
+        ChangePageDTO page = changeFeedService.getChanges(10, 100);
+
+        assertEquals(13, page.next());
+        assertFalse(page.hasMore());
+        assertEquals(List.of(12L, 13L), page.changes().stream().map(ChangeDTO::position).toList());
+        assertEquals("volume", page.changes().get(0).type());
+        assertEquals(1L, ((SeriesDTO) page.changes().get(1).data()).getId());
+        verify(seriesService, times(1)).getSeriesByIds(any());
+    }
+
+    @Test
+    void getChanges_shouldReturnTombstone_whenEntityWasDeleted() {
+        when(changeLogRepository.findByPositionGreaterThanOrderByPosition(0L, Limit.of(101))).thenReturn(List.of(
+                entry(1, "series", 1L, false), entry(2, "series", 1L, true)));
+
+        ChangePageDTO page = changeFeedService.getChanges(0, 100);
+
+        assertEquals(1, page.changes().size());
+        ChangeDTO change = page.changes().get(0);
+        assertTrue(change.deleted());
+        assertNull(change.data());
+        verifyNoInteractions(seriesService);
+    }
+
+    @Test
+    void getChanges_shouldSkipUpsert_whenEntityNoLongerExists() {
+        when(changeLogRepository.findByPositionGreaterThanOrderByPosition(0L, Limit.of(101)))
+                .thenReturn(List.of(entry(1, "chapter", 3L, false)));
+        when(chapterService.getChaptersByIds(List.of(3L))).thenReturn(List.of());
+
+        ChangePageDTO page = changeFeedService.getChanges(0, 100);
+
+        assertTrue(page.changes().isEmpty());
+        assertEquals(1, page.next());
+    }
+
+    @Test
+    void getChanges_shouldReportMore_whenPageIsFull() {
+        when(changeLogRepository.findByPositionGreaterThanOrderByPosition(0L, Limit.of(2))).thenReturn(List.of(
+                entry(1, "series", 1L, true), entry(2, "series", 2L, true)));
+
+        ChangePageDTO page = changeFeedService.getChanges(0, 1);
+
+        assertTrue(page.hasMore());
+        assertEquals(1, page.next());
+        assertEquals(1, page.changes().size());
+    }
+
+    @Test
+    void getChanges_shouldReturnEmptyPageAtSamePosition_whenNothingChanged() {
+        when(changeLogRepository.findByPositionGreaterThanOrderByPosition(7L, Limit.of(101))).thenReturn(List.of());
+
+        ChangePageDTO page = changeFeedService.getChanges(7, 100);
+
+        assertTrue(page.changes().isEmpty());
+        assertEquals(7, page.next());
+    }
+
+    @Test
+    void getChanges_shouldThrowGone_whenPositionIsBeforeHorizon() {
+        when(changeLogRepository.findHorizon()).thenReturn(50L);
+
+        assertThrows(ChangeFeedExpiredException.class, () -> changeFeedService.getChanges(20, 100));
+        verify(changeLogRepository, never()).findByPositionGreaterThanOrderByPosition(any(), any());
+    }
+
+    @Test
+    void getChanges_shouldAllowFullSync_whenPositionIsZero() {
+        when(changeLogRepository.findHorizon()).thenReturn(50L);
+        when(changeLogRepository.findByPositionGreaterThanOrderByPosition(0L, Limit.of(101))).thenReturn(List.of());
+
+        assertDoesNotThrow(() -> changeFeedService.getChanges(0, 100));
+    }
+
+    @Test
+    void sequence_shouldNotAssignPositions_whenAnotherInstanceHoldsTheLock() {
+        when(changeLogRepository.tryLockSequencer()).thenReturn(false);
+
+        assertEquals(0, changeFeedService.sequence());
+        verify(changeLogRepository, never()).assignPositions();
+    }
+
+    @Test
+    void compact_shouldUseConfiguredCutoffs() {
+        when(changeLogRepository.deleteSupersededBefore(NOW.minus(Duration.ofDays(1)))).thenReturn(3);
+        when(changeLogRepository.deleteTombstonesBefore(NOW.minus(Duration.ofDays(30)))).thenReturn(2);
+
+        assertEquals(5, changeFeedService.compact());
+        verify(changeLogRepository).advanceHorizon(NOW.minus(Duration.ofDays(30)));
+    }
+
+    private static ChangeLogEntry entry(long position, String type, Long id, boolean deleted) {
+        ChangeLogEntry entry = new ChangeLogEntry();
+        entry.setId(position);
+        entry.setPosition(position);
+        entry.setEntityType(type);
+        entry.setEntityId(id);
+        entry.setDeleted(deleted);
+        entry.setChangedAt(NOW);
+        return entry;
+    }
+
+    private static SeriesDTO series(Long id) {
+        SeriesDTO series = new SeriesDTO();
+        series.setId(id);
+        return series;
+    }
+
+    private static VolumeDTO volume(Long id) {
+        VolumeDTO volume = new VolumeDTO();
+        volume.setId(id);
+        return volume;
+    }
+}
@@ -0,0 +1,65 @@
+package com.numaochi.chapter;
+
+import com.numaochi.common.PageDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChapterNavigationControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private ChapterService chapterService;
+
+    @InjectMocks
+    private ChapterNavigationController chapterNavigationController;
+
+    private ChapterDTO chapterDTO;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(chapterNavigationController).build();
+
+        chapterDTO = new ChapterDTO();
+        chapterDTO.setId(1L);
+        chapterDTO.setTitle("Chapter 1");
+        chapterDTO.setSeriesId(7L);
+    }
+
+    @Test
+    void getChaptersBySeries_shouldUseDefaultPaging() throws Exception {
+        when(chapterService.getChaptersBySeriesId(7L, 0, 20)).thenReturn(new PageDTO<>(List.of(chapterDTO), 0, 20, 1, 1));
+
+        mockMvc.perform(get("/api/series/{seriesId}/chapters", 7L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Chapter 1"))
+                .andExpect(jsonPath("$.page").value(0));
+
+        verify(chapterService, times(1)).getChaptersBySeriesId(7L, 0, 20);
+    }
+
+    @Test
+    void getChaptersByVolume_shouldReturnPageOfChapterDTOs() throws Exception {
+        when(chapterService.getChaptersByVolumeId(3L, 2, 5)).thenReturn(new PageDTO<>(List.of(chapterDTO), 2, 5, 11, 3));
+
+        mockMvc.perform(get("/api/volumes/{volumeId}/chapters", 3L).param("page", "2").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1L))
+                .andExpect(jsonPath("$.totalPages").value(3));
+
+        verify(chapterService, times(1)).getChaptersByVolumeId(3L, 2, 5);
+    }
+}
@@ -1,5 +1,7 @@
 package com.numaochi.chapter;
 
+import com.numaochi.common.PageDTO;
+import com.numaochi.common.ResourceVersion;
 import com.numaochi.series.Series;
 import com.numaochi.series.SeriesRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,13 +10,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -101,6 +107,29 @@ class ChapterServiceTest {
         assertNull(result);
     }
 
+    @Test
+    void getChaptersBySeriesId_shouldReturnPageOfChapterDTOs() {
+        when(chapterRepository.findBySeriesId(eq(1L), any(Pageable.class)))
+                .thenAnswer(invocation -> new PageImpl<>(Arrays.asList(chapter1, chapter2), invocation.getArgument(1), 2));
+
+        PageDTO<ChapterDTO> result = chapterService.getChaptersBySeriesId(1L, 0, 20);
+
+        assertEquals(2, result.content().size());
+        assertEquals(chapterDTO1.getTitle(), result.content().get(0).getTitle());
+        assertEquals(1, result.totalPages());
+    }
+
+    @Test
+    void getChaptersByVolumeId_shouldReturnPageOfChapterDTOs() {
+        when(chapterRepository.findByVolumeId(eq(5L), any(Pageable.class)))
+                .thenAnswer(invocation -> new PageImpl<>(List.of(chapter2), invocation.getArgument(1), 1));
+
+        PageDTO<ChapterDTO> result = chapterService.getChaptersByVolumeId(5L, 0, 20);
+
+        assertEquals(1, result.content().size());
+        assertEquals(chapterDTO2.getTitle(), result.content().get(0).getTitle());
+    }
+
     @Test
     void createChapter_shouldReturnCreatedChapterDTO() {
         when(seriesRepository.findById(1L)).thenReturn(Optional.of(series));
@@ -116,6 +145,7 @@ class ChapterServiceTest {
     @Test
     void updateChapter_shouldReturnUpdatedChapterDTO_whenFound() {
         when(seriesRepository.findById(1L)).thenReturn(Optional.of(series));
+        when(chapterRepository.findResourceVersionById(1L)).thenReturn(Optional.of(new ResourceVersion(1L, Instant.now())));
         when(chapterRepository.save(any(Chapter.class))).thenReturn(chapter1);
 
         ChapterDTO result = chapterService.updateChapter(1L, chapterDTO1);
@@ -125,6 +155,17 @@ class ChapterServiceTest {
         verify(chapterRepository, times(1)).save(any(Chapter.class));
     }
 
+    @Test
+    void updateChapter_shouldReturnNull_whenNotFound() {
+        when(seriesRepository.findById(1L)).thenReturn(Optional.of(series));
+        when(chapterRepository.findResourceVersionById(99L)).thenReturn(Optional.empty());
+
+        ChapterDTO result = chapterService.updateChapter(99L, chapterDTO1);
+
+        assertNull(result);
+        verify(chapterRepository, never()).save(any(Chapter.class));
+    }
+
     @Test
     void deleteChapter_shouldCallRepositoryDeleteById() {
         chapterService.deleteChapter(1L);
@@ -0,0 +1,100 @@
+package com.numaochi.collection;
+
+import com.numaochi.common.PageDTO;
+import com.numaochi.series.SeriesSummaryDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class CollectionMembershipControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private CollectionService collectionService;
+
+    @InjectMocks
+    private CollectionMembershipController collectionMembershipController;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(collectionMembershipController).build();
+    }
+
+    @Test
+    void getCollectionSeries_shouldReturnPage() throws Exception {
+        when(collectionService.getCollectionSeries(1L, 0, 20)).thenReturn(
+                new PageDTO<>(List.of(new SeriesSummaryDTO(5L, "Series Five", "Author", null)), 0, 20, 1, 1));
+
+        mockMvc.perform(get("/api/collections/{id}/series", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(5L))
+                .andExpect(jsonPath("$.totalElements").value(1));
+    }
+
+    @Test
+    void getCollectionSeries_shouldReturnNotFound_whenCollectionMissing() throws Exception {
+        when(collectionService.getCollectionSeries(1L, 0, 20)).thenReturn(null);
+
+        mockMvc.perform(get("/api/collections/{id}/series", 1L))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void addSeries_shouldReturnChangeCount() throws Exception {
+        when(collectionService.addSeriesToCollection(1L, List.of(2L, 3L))).thenReturn(new MembershipChangeDTO(2, 1));
+
+        mockMvc.perform(post("/api/collections/{id}/series", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[2, 3]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(2))
+                .andExpect(jsonPath("$.changed").value(1));
+    }
+
+    @Test
+    void removeSeries_shouldReturnChangeCount() throws Exception {
+        when(collectionService.removeSeriesFromCollection(1L, List.of(2L))).thenReturn(new MembershipChangeDTO(1, 1));
+
+        mockMvc.perform(delete("/api/collections/{id}/series", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed").value(1));
+
+        verify(collectionService, times(1)).removeSeriesFromCollection(1L, List.of(2L));
+    }
+
+    @Test
+    void moveSeries_shouldReturnNoContent_whenMoved() throws Exception {
+        when(collectionService.moveSeriesInCollection(1L, 3L, 2L)).thenReturn(true);
+
+        mockMvc.perform(put("/api/collections/{id}/series/{seriesId}/position", 1L, 3L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"afterSeriesId\": 2}"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void moveSeries_shouldReturnNotFound_whenNotMember() throws Exception {
+        when(collectionService.moveSeriesInCollection(1L, 3L, null)).thenReturn(false);
+
+        mockMvc.perform(put("/api/collections/{id}/series/{seriesId}/position", 1L, 3L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -1,5 +1,6 @@
 package com.numaochi.collection;
 
+import com.numaochi.common.ResourceVersion;
 import com.numaochi.series.Series;
 import com.numaochi.series.SeriesRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,12 +10,17 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,6 +32,12 @@ class CollectionServiceTest {
     @Mock
     private SeriesRepository seriesRepository;
 
+    @Mock
+    private CollectionMemberRepository collectionMemberRepository;
+
+    @Mock
+    private SmartCollectionService smartCollectionService;
+
     @InjectMocks
     private CollectionService collectionService;
 
@@ -70,6 +82,8 @@ class CollectionServiceTest {
     @Test
     void getAllCollections_shouldReturnListOfCollectionDTOs() {
         when(collectionRepository.findAll()).thenReturn(Arrays.asList(collection1, collection2));
+        when(collectionMemberRepository.findSeriesIdsByCollectionIds(new Long[]{1L, 2L}))
+                .thenReturn(List.of(new Object[]{1L, 1L}, new Object[]{2L, 2L}));
 
         List<CollectionDTO> result = collectionService.getAllCollections();
 
@@ -77,16 +91,31 @@ class CollectionServiceTest {
         assertEquals(2, result.size());
         assertEquals(collectionDTO1.getName(), result.get(0).getName());
         assertEquals(collectionDTO2.getName(), result.get(1).getName());
+        assertEquals(List.of(1L), result.get(0).getSeriesIds());
+        assertEquals(List.of(2L), result.get(1).getSeriesIds());
     }
 
     @Test
     void getCollectionById_shouldReturnCollectionDTO_whenFound() {
         when(collectionRepository.findById(1L)).thenReturn(Optional.of(collection1));
+        when(collectionMemberRepository.findSeriesIds(1L)).thenReturn(List.of(1L));
 
         CollectionDTO result = collectionService.getCollectionById(1L);
 
         assertNotNull(result);
         assertEquals(collectionDTO1.getName(), result.getName());
+        assertEquals(List.of(1L), result.getSeriesIds());
+    }
+
+    @Test
+    void getCollectionById_shouldReturnSeriesIdsInRankOrder() {
+        collection1.setSeries(Arrays.asList(series1, series2));
+        when(collectionRepository.findById(1L)).thenReturn(Optional.of(collection1));
+        when(collectionMemberRepository.findSeriesIds(1L)).thenReturn(List.of(2L, 1L));
+
+        CollectionDTO result = collectionService.getCollectionById(1L);
+
+        assertEquals(List.of(2L, 1L), result.getSeriesIds());
     }
 
     @Test
@@ -101,7 +130,7 @@ class CollectionServiceTest {
     @Test
     void createCollection_shouldReturnCreatedCollectionDTO() {
         when(seriesRepository.findAllById(anyList())).thenReturn(Arrays.asList(series1));
-        when(collectionRepository.save(any(Collection.class))).thenReturn(collection1);
+        when(collectionRepository.saveAndFlush(any(Collection.class))).thenReturn(collection1);
 
         CollectionDTO result = collectionService.createCollection(collectionDTO1);
 
@@ -113,7 +142,8 @@ class CollectionServiceTest {
     @Test
     void updateCollection_shouldReturnUpdatedCollectionDTO_whenFound() {
         when(seriesRepository.findAllById(anyList())).thenReturn(Arrays.asList(series1));
-        when(collectionRepository.save(any(Collection.class))).thenReturn(collection1);
+        when(collectionRepository.findResourceVersionById(1L)).thenReturn(Optional.of(new ResourceVersion(1L, Instant.now())));
+        when(collectionRepository.saveAndFlush(any(Collection.class))).thenReturn(collection1);
 
         CollectionDTO result = collectionService.updateCollection(1L, collectionDTO1);
 
@@ -122,10 +152,150 @@ class CollectionServiceTest {
         verify(collectionRepository, times(1)).save(any(Collection.class));
     }
 
+    @Test
+    void updateCollection_shouldKeepRequestedOrder_whenReplacingSeries() {
+        collectionDTO1.setSeriesIds(Arrays.asList(2L, 1L));
+        when(seriesRepository.findAllById(anyList())).thenReturn(Arrays.asList(series1, series2));
+        when(collectionRepository.findResourceVersionById(1L)).thenReturn(Optional.of(new ResourceVersion(1L, Instant.now())));
+        when(collectionRepository.saveAndFlush(any(Collection.class))).thenReturn(collection1);
+
+        collectionService.updateCollection(1L, collectionDTO1);
+
+        verify(collectionRepository).saveAndFlush(argThat(collection -> collection.getSeries().equals(List.of(series2, series1))));
+    }
+
+    @Test
+    void updateCollection_shouldReturnNull_whenNotFound() {
+        when(seriesRepository.findAllById(anyList())).thenReturn(Arrays.asList(series1));
+        when(collectionRepository.findResourceVersionById(99L)).thenReturn(Optional.empty());
+
+        CollectionDTO result = collectionService.updateCollection(99L, collectionDTO1);
+
+        assertNull(result);
+        verify(collectionRepository, never()).save(any(Collection.class));
+    }
+
     @Test
     void deleteCollection_shouldCallRepositoryDeleteById() {
         collectionService.deleteCollection(1L);
 
         verify(collectionRepository, times(1)).deleteById(1L);
     }
+
+    @Test
+    void addSeriesToCollection_shouldInsertDistinctIds_andBumpVersion() {
+        when(collectionRepository.existsById(1L)).thenReturn(true);
+        when(collectionRepository.addSeries(1L, new Long[]{1L, 2L})).thenReturn(1);
+
+        MembershipChangeDTO result = collectionService.addSeriesToCollection(1L, Arrays.asList(1L, 2L, 1L, null));
+
+        assertEquals(new MembershipChangeDTO(2, 1), result);
+        verify(collectionRepository, times(1)).incrementVersion(eq(1L), any());
+        verify(collectionRepository, never()).findById(anyLong());
+        verifyNoInteractions(seriesRepository);
+    }
+
+    @Test
+    void removeSeriesFromCollection_shouldNotBumpVersion_whenNothingRemoved() {
+        when(collectionRepository.existsById(1L)).thenReturn(true);
+        when(collectionRepository.removeSeries(1L, new Long[]{3L})).thenReturn(0);
+
+        MembershipChangeDTO result = collectionService.removeSeriesFromCollection(1L, List.of(3L));
+
+        assertEquals(new MembershipChangeDTO(1, 0), result);
+        verify(collectionRepository, never()).incrementVersion(anyLong(), any());
+    }
+
+    @Test
+    void addSeriesToCollection_shouldReturnNull_whenCollectionNotFound() {
+        when(collectionRepository.existsById(1L)).thenReturn(false);
+
+        assertNull(collectionService.addSeriesToCollection(1L, List.of(1L)));
+        verify(collectionRepository, never()).addSeries(anyLong(), any());
+    }
+
+    @Test
+    void moveSeriesInCollection_shouldRewriteOnlyMovedKey_whenPlacedBetweenNeighbours() {
+        when(collectionMemberRepository.findRankKey(1L, 3L)).thenReturn("a000000000003V");
+        when(collectionMemberRepository.findRankKey(1L, 1L)).thenReturn("a000000000001V");
+        when(collectionMemberRepository.findNextRankKey(1L, "a000000000001V", 3L)).thenReturn("a000000000002V");
+
+        assertTrue(collectionService.moveSeriesInCollection(1L, 3L, 1L));
+
+        verify(collectionMemberRepository, times(1)).updateRankKey(1L, 3L, "a000000000002");
+        verify(collectionRepository, times(1)).incrementVersion(eq(1L), any());
+    }
+
+    @Test
+    void moveSeriesInCollection_shouldTakeAppendKey_whenMovedToEnd() {
+        when(collectionMemberRepository.findRankKey(1L, 1L)).thenReturn("a000000000001V");
+        when(collectionMemberRepository.findRankKey(1L, 3L)).thenReturn("a000000000003V");
+        when(collectionMemberRepository.findNextRankKey(1L, "a000000000003V", 1L)).thenReturn(null);
+
+        assertTrue(collectionService.moveSeriesInCollection(1L, 1L, 3L));
+
+        verify(collectionMemberRepository, times(1)).moveToEnd(1L, 1L);
+        verify(collectionMemberRepository, never()).updateRankKey(anyLong(), anyLong(), anyString());
+    }
+
+    @Test
+    void moveSeriesInCollection_shouldReturnFalse_whenSeriesNotInCollection() {
+        when(collectionMemberRepository.findRankKey(1L, 9L)).thenReturn(null);
+
+        assertFalse(collectionService.moveSeriesInCollection(1L, 9L, null));
+        verify(collectionRepository, never()).incrementVersion(anyLong(), any());
+    }
+
+    @Test
+    void createCollection_shouldMaterializeRule_whenSmartCollection() {
+        collection1.setRule("author = \"Author One\"");
+        collectionDTO1.setRule("author = \"Author One\"");
+        when(collectionRepository.saveAndFlush(any(Collection.class))).thenReturn(collection1);
+        when(smartCollectionService.materialize(1L, "author = \"Author One\"")).thenReturn(List.of(1L));
+
+        CollectionDTO result = collectionService.createCollection(collectionDTO1);
+
+        assertEquals(List.of(1L), result.getSeriesIds());
+        assertEquals("author = \"Author One\"", result.getRule());
+        verifyNoInteractions(seriesRepository);
+    }
+
+    @Test
+    void updateCollection_shouldKeepMembers_whenRuleUnchanged() {
+        collection1.setRule("author = \"Author One\"");
+        collectionDTO1.setRule("author = \"Author One\"");
+        collectionDTO1.setName("Renamed");
+        when(collectionRepository.findById(1L)).thenReturn(Optional.of(collection1));
+        when(collectionMemberRepository.findSeriesIds(1L)).thenReturn(List.of(1L));
+
+        CollectionDTO result = collectionService.updateCollection(1L, collectionDTO1);
+
+        assertEquals("Renamed", result.getName());
+        assertEquals(List.of(1L), result.getSeriesIds());
+        verify(collectionRepository, never()).save(any(Collection.class));
+        verifyNoInteractions(smartCollectionService, seriesRepository);
+    }
+
+    @Test
+    void updateCollection_shouldMaterializeInPlace_whenRuleChanged() {
+        collection1.setRule("author = \"Author One\"");
+        collectionDTO1.setRule("author = \"Author Two\"");
+        when(collectionRepository.findById(1L)).thenReturn(Optional.of(collection1));
+        when(smartCollectionService.materialize(1L, "author = \"Author Two\"")).thenReturn(List.of(2L));
+
+        CollectionDTO result = collectionService.updateCollection(1L, collectionDTO1);
+
+        assertEquals(List.of(2L), result.getSeriesIds());
+        verify(collectionRepository, never()).save(any(Collection.class));
+    }
+
+    @Test
+    void addSeriesToCollection_shouldReject_whenSmartCollection() {
+        when(collectionRepository.existsById(1L)).thenReturn(true);
+        when(collectionRepository.existsByIdAndRuleIsNotNull(1L)).thenReturn(true);
+
+        assertThrows(SmartCollectionMembershipException.class,
+                () -> collectionService.addSeriesToCollection(1L, List.of(1L)));
+        verify(collectionRepository, never()).addSeries(anyLong(), any());
+    }
 }
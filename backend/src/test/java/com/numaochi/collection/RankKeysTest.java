@@ -0,0 +1,43 @@
+package com.numaochi.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankKeysTest {
+
+    @Test
+    void between_shouldSortBetweenNeighbours() {
+        assertEquals("I", RankKeys.between(null, "a000000000001V"));
+        assertEquals("n", RankKeys.between("a000000000001V", null));
+        assertEquals("a000000000002", RankKeys.between("a000000000001V", "a000000000002V"));
+        assertEquals("0VV", RankKeys.between("0V", "0W"));
+    }
+
+    @Test
+    void between_shouldAlwaysFindRoom_andNeverEndInLowestDigit() {
+        Random random = new Random(42);
+        List<String> keys = new ArrayList<>(List.of("a000000000001V", "a000000000002V"));
+        for (int i = 0; i < 5_000; i++) {
+            int position = random.nextInt(keys.size() + 1);
+            String before = position == 0 ? null : keys.get(position - 1);
+            String after = position == keys.size() ? null : keys.get(position);
+
+            String key = RankKeys.between(before, after);
+
+            assertTrue(before == null || before.compareTo(key) < 0);
+            assertTrue(after == null || key.compareTo(after) < 0);
+            assertFalse(key.endsWith("0"));
+            keys.add(position, key);
+        }
+    }
+
+    @Test
+    void between_shouldRejectUnorderedKeys() {
+        assertThrows(IllegalArgumentException.class, () -> RankKeys.between("b", "a"));
+    }
+}
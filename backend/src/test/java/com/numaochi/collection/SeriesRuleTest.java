@@ -0,0 +1,48 @@
+package com.numaochi.collection;
+
+import com.numaochi.series.Series;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeriesRuleTest {
+
+    private Series series;
+
+    @BeforeEach
+    void setUp() {
+        series = new Series();
+        series.setId(1L);
+        series.setTitle("One Piece");
+        series.setAuthor("Eiichiro Oda");
+        series.setPublisher("Viz");
+        series.setPublicationDate(LocalDate.of(2021, 3, 1));
+    }
+
+    @Test
+    void matches_shouldCombineComparisons() {
+        assertTrue(SeriesRule.parse("publisher = \"viz\" and publicationDate > 2020-12-31").matches(series));
+        assertFalse(SeriesRule.parse("publisher = 'Viz' and publicationDate < 2021-01-01").matches(series));
+        assertTrue(SeriesRule.parse("author ^= 'eiichiro' or (title ~ 'naruto' and not isbn = null)").matches(series));
+    }
+
+    @Test
+    void matches_shouldHandleMissingValues() {
+        assertTrue(SeriesRule.parse("isbn = null").matches(series));
+        assertFalse(SeriesRule.parse("isbn ~ '978'").matches(series));
+        assertFalse(SeriesRule.parse("description >= 'a'").matches(series));
+    }
+
+    @Test
+    void parse_shouldRejectInvalidRules() {
+        assertThrows(InvalidRuleException.class, () -> SeriesRule.parse(""));
+        assertThrows(InvalidRuleException.class, () -> SeriesRule.parse("genre = 'action'"));
+        assertThrows(InvalidRuleException.class, () -> SeriesRule.parse("publicationDate > 'soon'"));
+        assertThrows(InvalidRuleException.class, () -> SeriesRule.parse("title = unquoted"));
+        assertThrows(InvalidRuleException.class, () -> SeriesRule.parse("(title = 'x'"));
+        assertThrows(InvalidRuleException.class, () -> SeriesRule.parse("title = 'x' title"));
+    }
+}
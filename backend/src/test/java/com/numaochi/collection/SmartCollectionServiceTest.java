@@ -0,0 +1,86 @@
+package com.numaochi.collection;
+
+import com.numaochi.series.Series;
+import com.numaochi.series.SeriesChangedEvent;
+import com.numaochi.series.SeriesDeletedEvent;
+import com.numaochi.series.SeriesFieldsDTO;
+import com.numaochi.series.SeriesRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SmartCollectionServiceTest {
+
+    @Mock
+    private CollectionRepository collectionRepository;
+
+    @Mock
+    private SeriesRepository seriesRepository;
+
+    @InjectMocks
+    private SmartCollectionService smartCollectionService;
+
+    private Series series1;
+    private Series series2;
+
+    @BeforeEach
+    void setUp() {
+        series1 = new Series();
+        series1.setId(1L);
+        series1.setPublisher("Viz");
+
+        series2 = new Series();
+        series2.setId(2L);
+        series2.setPublisher("Kodansha");
+    }
+
+    @Test
+    void materialize_shouldStoreMatchingSeries() {
+        when(seriesRepository.streamAllFields())
+                .thenReturn(Stream.of(SeriesFieldsDTO.of(series1), SeriesFieldsDTO.of(series2)));
+        when(collectionRepository.removeSeriesExcept(5L, new Long[]{1L})).thenReturn(1);
+        when(collectionRepository.addSeries(5L, new Long[]{1L})).thenReturn(0);
+
+        List<Long> result = smartCollectionService.materialize(5L, "publisher = 'Viz'");
+
+        assertEquals(List.of(1L), result);
+        verify(collectionRepository, times(1)).incrementVersion(eq(5L), any());
+    }
+
+    @Test
+    void onSeriesChanged_shouldAddOrRemoveOnlyChangedSeries() {
+        when(collectionRepository.findSmartCollectionRules()).thenReturn(List.of(
+                new SmartCollectionRule(5L, "publisher = 'Viz'"),
+                new SmartCollectionRule(6L, "publisher = 'Kodansha'")));
+        when(collectionRepository.addSeries(5L, new Long[]{1L})).thenReturn(1);
+        when(collectionRepository.removeSeries(6L, new Long[]{1L})).thenReturn(0);
+
+        smartCollectionService.onSeriesChanged(new SeriesChangedEvent(series1));
+
+        verify(collectionRepository, times(1)).incrementVersion(eq(5L), any());
+        verify(collectionRepository, never()).incrementVersion(eq(6L), any());
+        verifyNoInteractions(seriesRepository);
+    }
+
+    @Test
+    void onSeriesDeleted_shouldRemoveSeriesFromSmartCollections() {
+        smartCollectionService.onSeriesDeleted(new SeriesDeletedEvent(1L));
+
+        verify(collectionRepository, times(1)).incrementSmartCollectionVersions(eq(1L), any());
+        verify(collectionRepository, times(1)).removeSeriesFromSmartCollections(1L);
+        verify(collectionRepository, never()).removeSeries(anyLong(), any());
+    }
+}
@@ -0,0 +1,83 @@
+package com.numaochi.common;
+
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.numaochi.series.SeriesController;
+import com.numaochi.series.SeriesDTO;
+import com.numaochi.series.SeriesService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class BinaryFormatsConfigTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private SeriesService seriesService;
+
+    @BeforeEach
+    void setUp() {
+        BinaryFormatsConfig config = new BinaryFormatsConfig();
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder();
+        mockMvc = MockMvcBuilders.standaloneSetup(new SeriesController(seriesService))
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(builder.build()),
+                        config.smileHttpMessageConverter(builder),
+                        config.cborHttpMessageConverter(builder))
+                .build();
+
+        SeriesDTO seriesDTO = new SeriesDTO();
+        seriesDTO.setId(1L);
+        seriesDTO.setTitle("Series One");
+        seriesDTO.setPublicationDate(LocalDate.of(2020, 1, 1));
+        when(seriesService.getSeriesById(1L)).thenReturn(seriesDTO);
+    }
+
+    @Test
+    void getSeriesById_shouldReturnJson_whenNoFormatRequested() throws Exception {
+        mockMvc.perform(get("/api/series/1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.title").value("Series One"));
+    }
+
+    @Test
+    void getSeriesById_shouldReturnCbor_whenCborAccepted() throws Exception {
+        byte[] body = mockMvc.perform(get("/api/series/1").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        SeriesDTO decoded = new CBORMapper().findAndRegisterModules().readValue(body, SeriesDTO.class);
+        assertEquals("Series One", decoded.getTitle());
+        assertEquals(LocalDate.of(2020, 1, 1), decoded.getPublicationDate());
+    }
+
+    @Test
+    void getSeriesById_shouldReturnSmile_whenSmileAccepted() throws Exception {
+        byte[] body = mockMvc.perform(get("/api/series/1").accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        SeriesDTO decoded = new SmileMapper().findAndRegisterModules().readValue(body, SeriesDTO.class);
+        assertEquals("Series One", decoded.getTitle());
+    }
+}
@@ -0,0 +1,28 @@
+package com.numaochi.common;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConditionalRequestsTest {
+
+    @Test
+    void expectedVersion_shouldReadVersion_whenStrongTag() {
+        assertEquals(3L, ConditionalRequests.expectedVersion("\"3-1000\""));
+        assertEquals(7L, ConditionalRequests.expectedVersion(" \"7\" "));
+    }
+
+    @Test
+    void expectedVersion_shouldReturnNull_whenAbsentOrWildcard() {
+        assertNull(ConditionalRequests.expectedVersion(null));
+        assertNull(ConditionalRequests.expectedVersion("*"));
+    }
+
+    @Test
+    void expectedVersion_shouldFailPrecondition_whenWeakOrUnknownTag() {
+        assertThrows(PreconditionFailedException.class, () -> ConditionalRequests.expectedVersion("W/\"3-1000\""));
+        assertThrows(PreconditionFailedException.class, () -> ConditionalRequests.expectedVersion("\"abc\""));
+        assertThrows(PreconditionFailedException.class, () -> ConditionalRequests.expectedVersion("3"));
+        assertThrows(PreconditionFailedException.class, () -> ConditionalRequests.expectedVersion("\"1\", \"2\""));
+    }
+}
@@ -0,0 +1,50 @@
+package com.numaochi.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldSelectionTest {
+
+    private static final List<String> FIELDS = List.of("id", "title", "author", "coverImage");
+    private static final Set<String> EXPANSIONS = Set.of("chapterCount");
+
+    @Test
+    void parse_shouldSelectAllFields_whenFieldsAbsent() {
+        FieldSelection selection = FieldSelection.parse(null, null, FIELDS, EXPANSIONS);
+
+        assertTrue(selection.includes("title"));
+        assertTrue(selection.includes("author"));
+        assertFalse(selection.expands("chapterCount"));
+    }
+
+    @Test
+    void parse_shouldSelectListedFieldsAndId_whenFieldsPresent() {
+        FieldSelection selection = FieldSelection.parse(" title , coverImage,", "chapterCount", FIELDS, EXPANSIONS);
+
+        assertTrue(selection.includes("id"));
+        assertTrue(selection.includes("title"));
+        assertTrue(selection.includes("coverImage"));
+        assertFalse(selection.includes("author"));
+        assertTrue(selection.expands("chapterCount"));
+    }
+
+    @Test
+    void parse_shouldThrow_whenFieldIsUnknown() {
+        assertThrows(InvalidFieldSelectionException.class, () -> FieldSelection.parse("title,secret", null, FIELDS, EXPANSIONS));
+    }
+
+    @Test
+    void parse_shouldThrow_whenExpansionIsUnknown() {
+        assertThrows(InvalidFieldSelectionException.class, () -> FieldSelection.parse(null, "volumes", FIELDS, EXPANSIONS));
+    }
+
+    @Test
+    void isRequested_shouldBeFalse_whenNeitherParameterPresent() {
+        assertFalse(FieldSelection.isRequested(null, null));
+        assertTrue(FieldSelection.isRequested(null, "chapterCount"));
+    }
+}
@@ -0,0 +1,176 @@
+package com.numaochi.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_shouldShareOneCall_whenCallersOverlap() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>("test", Duration.ofSeconds(5), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        Future<String> leader = executor.submit(() -> flight.execute(1L, () -> {
+            calls.incrementAndGet();
+            await(release);
+            return "value";
+        }));
+        awaitInFlight(1);
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(executor.submit(() -> flight.execute(1L, () -> {
+                calls.incrementAndGet();
+                return "other";
+            })));
+        }
+        while (coalesced() < 5) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertEquals("value", leader.get(5, TimeUnit.SECONDS));
+        for (Future<String> follower : followers) {
+            assertEquals("value", follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+        assertEquals(0.0, inFlight());
+    }
+
+    @Test
+    void execute_shouldShareException_whenCallFails() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>("test", Duration.ofSeconds(5), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> flight.execute(1L, () -> {
+            await(release);
+            throw new IllegalArgumentException("boom");
+        }));
+        awaitInFlight(1);
+        Future<String> follower = executor.submit(() -> flight.execute(1L, () -> "other"));
+        while (coalesced() < 1) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, leaderError.getCause());
+        assertInstanceOf(IllegalArgumentException.class, followerError.getCause());
+    }
+
+    @Test
+    void execute_shouldLoadOnItsOwn_whenWaitExceedsMaxWait() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>("test", Duration.ofMillis(50), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> flight.execute(1L, () -> {
+            await(release);
+            return "slow";
+        }));
+        awaitInFlight(1);
+
+        assertEquals("fast", flight.execute(1L, () -> "fast"));
+        assertEquals(1.0, meterRegistry.get("numaochi.single_flight.calls").tag("outcome", "timed_out").counter().count());
+        release.countDown();
+        assertEquals("slow", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void execute_shouldNotShareAcrossKeys() {
+        SingleFlight<Long, String> flight = new SingleFlight<>("test", Duration.ofSeconds(5), meterRegistry);
+
+        assertEquals("one", flight.execute(1L, () -> "one"));
+        assertEquals("two", flight.execute(2L, () -> "two"));
+        assertEquals(2.0, meterRegistry.get("numaochi.single_flight.calls").tag("outcome", "loaded").counter().count());
+        assertEquals(0.0, coalesced());
+    }
+
+    @Test
+    void execute_shouldLoadOnItsOwn_whenCallerBypasses() throws Exception {
+        AtomicBoolean pinned = new AtomicBoolean();
+        SingleFlight<Long, String> flight = new SingleFlight<>("test", Duration.ofSeconds(5), pinned::get, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> flight.execute(1L, () -> {
+            await(release);
+            return "replica";
+        }));
+        awaitInFlight(1);
+        pinned.set(true);
+
+        assertEquals("primary", flight.execute(1L, () -> "primary"));
+        assertEquals(1.0, meterRegistry.get("numaochi.single_flight.calls").tag("outcome", "bypassed").counter().count());
+        assertEquals(0.0, coalesced());
+        release.countDown();
+        assertEquals("replica", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void forget_shouldStartNewCall_forLaterCallers() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>("test", Duration.ofSeconds(5), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> flight.execute(1L, () -> {
+            await(release);
+            return "stale";
+        }));
+        awaitInFlight(1);
+        flight.forget(1L);
+
+        assertEquals("fresh", flight.execute(1L, () -> "fresh"));
+        release.countDown();
+        assertEquals("stale", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    private void awaitInFlight(int expected) {
+        while (inFlight() < expected) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("numaochi.single_flight.in_flight").gauge().value();
+    }
+
+    private double coalesced() {
+        return meterRegistry.get("numaochi.single_flight.calls").tag("outcome", "coalesced").counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
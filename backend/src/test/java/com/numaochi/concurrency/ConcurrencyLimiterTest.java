@@ -0,0 +1,107 @@
+package com.numaochi.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimiterTest {
+
+    private static final long MILLIS = 1_000_000;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicLong nanoTime;
+    private ConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        nanoTime = new AtomicLong();
+        limiter = new ConcurrencyLimiter(EndpointGroup.CATALOG, new ConcurrencyLimitProperties.Group(20, 5, 100),
+                1.5, 0.2, meterRegistry, nanoTime::get);
+    }
+
+    @Test
+    void tryAcquire_shouldReject_whenLimitReached() {
+        for (int i = 0; i < 20; i++) {
+            assertNotNull(limiter.tryAcquire());
+        }
+
+        assertNull(limiter.tryAcquire());
+        assertEquals(1.0, meterRegistry.get("numaochi.concurrency.requests").tag("outcome", "rejected").counter().count());
+        assertEquals(20.0, meterRegistry.get("numaochi.concurrency.in_flight").gauge().value());
+    }
+
+    @Test
+    void release_shouldFreePermit() {
+        ConcurrencyLimiter.Permit first = limiter.tryAcquire();
+        for (int i = 1; i < 20; i++) {
+            limiter.tryAcquire();
+        }
+
+        nanoTime.addAndGet(10 * MILLIS);
+        first.release();
+
+        assertNotNull(limiter.tryAcquire());
+    }
+
+    @Test
+    void onSample_shouldRaiseLimit_whenLatencyStaysLowUnderLoad() {
+        for (int i = 0; i < 200; i++) {
+            limiter.onSample(10 * MILLIS, limiter.getLimit());
+        }
+
+        assertEquals(100, limiter.getLimit());
+        assertEquals(100.0, meterRegistry.get("numaochi.concurrency.limit").tag("group", "catalog").gauge().value());
+    }
+
+    @Test
+    void onSample_shouldLowerLimit_whenLatencyRises() {
+        for (int i = 0; i < 200; i++) {
+            limiter.onSample(10 * MILLIS, limiter.getLimit());
+        }
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(50 * MILLIS, limiter.getLimit());
+        }
+
+        assertTrue(limiter.getLimit() < 50, "limit " + limiter.getLimit());
+        assertTrue(limiter.getLimit() >= 5);
+    }
+
+    @Test
+    void onSample_shouldKeepLimit_whenGroupIsMostlyIdle() {
+        for (int i = 0; i < 200; i++) {
+            limiter.onSample(10 * MILLIS, 1);
+        }
+
+        assertEquals(20, limiter.getLimit());
+    }
+
+    @Test
+    void ignore_shouldFreePermitWithoutSample() {
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire().ignore();
+        }
+
+        assertEquals(20, limiter.getLimit());
+        assertEquals(0.0, meterRegistry.get("numaochi.concurrency.in_flight").gauge().value());
+    }
+
+    @Test
+    void of_shouldGroupEndpoints() {
+        assertEquals(EndpointGroup.SEARCH, EndpointGroup.of(request("GET", "/api/series/search")));
+        assertEquals(EndpointGroup.STREAMING, EndpointGroup.of(request("GET", "/api/blobs/abc")));
+        assertEquals(EndpointGroup.STREAMING, EndpointGroup.of(request("PATCH", "/api/uploads/1")));
+        assertEquals(EndpointGroup.CATALOG, EndpointGroup.of(request("GET", "/api/series/1")));
+        assertEquals(EndpointGroup.WRITE, EndpointGroup.of(request("PUT", "/api/series/1")));
+        assertEquals(EndpointGroup.CATALOG, EndpointGroup.of(request("POST", "/api/volumes/batch")));
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        return new MockHttpServletRequest(method, path);
+    }
+}
@@ -0,0 +1,91 @@
+package com.numaochi.metadata;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComicInfoMetadataExtractorTest {
+
+    @TempDir
+    private Path directory;
+
+    private ComicInfoMetadataExtractor extractor;
+
+    @BeforeEach
+    void setUp() {
+        extractor = new ComicInfoMetadataExtractor(new MetadataExtractionProperties(1, Duration.ofSeconds(5), 10, DataSize.ofKilobytes(64)));
+    }
+
+    @Test
+    void extract_shouldReadComicInfo() throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("ComicInfo.xml", """
+                <?xml version="1.0"?>
+                <ComicInfo xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance">
+                  <Title>Romance Dawn</Title>
+                  <Series>One Piece</Series>
+                  <Writer>Eiichiro Oda</Writer>
+                  <Publisher>Viz</Publisher>
+                  <Year>2003</Year>
+                  <Month>6</Month>
+                  <Summary>A boy sets out to sea.</Summary>
+                  <GTIN>978-1-56931-901-2</GTIN>
+                  <PageCount>3</PageCount>
+                </ComicInfo>""");
+        entries.put("001.jpg", "");
+        Path cbz = cbz(entries);
+
+        BookMetadata metadata = extractor.extract(cbz);
+
+        assertEquals("Romance Dawn", metadata.title());
+        assertEquals("One Piece", metadata.seriesTitle());
+        assertEquals("Eiichiro Oda", metadata.author());
+        assertEquals("Viz", metadata.publisher());
+        assertEquals(LocalDate.of(2003, 6, 1), metadata.publicationDate());
+        assertEquals("A boy sets out to sea.", metadata.description());
+        assertEquals("9781569319012", metadata.isbn());
+        assertEquals(3, metadata.pageCount());
+    }
+
+    @Test
+    void extract_shouldCountImages_whenComicInfoIsMissing() throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("chapter/001.jpg", "");
+        entries.put("chapter/002.PNG", "");
+        entries.put("chapter/notes.txt", "");
+        entries.put("chapter/.hidden.jpg", "");
+        Path cbz = cbz(entries);
+
+        BookMetadata metadata = extractor.extract(cbz);
+
+        assertNull(metadata.title());
+        assertEquals(2, metadata.pageCount());
+    }
+
+    private Path cbz(Map<String, String> entries) throws IOException {
+        Path file = directory.resolve("issue.cbz");
+        try (OutputStream out = Files.newOutputStream(file); ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                zip.putNextEntry(new ZipEntry(entry.getKey()));
+                zip.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return file;
+    }
+}
@@ -0,0 +1,118 @@
+package com.numaochi.metadata;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EpubMetadataExtractorTest {
+
+    private static final String CONTAINER = """
+            <?xml version="1.0"?>
+            <container version="1.0" xmlns="urn:oasis:names:tc:opendocument:xmlns:container">
+              <rootfiles><rootfile full-path="OEBPS/content.opf" media-type="application/oebps-package+xml"/></rootfiles>
+            </container>""";
+
+    @TempDir
+    private Path directory;
+
+    private EpubMetadataExtractor extractor;
+
+    @BeforeEach
+    void setUp() {
+        extractor = new EpubMetadataExtractor(new MetadataExtractionProperties(1, Duration.ofSeconds(5), 10, DataSize.ofKilobytes(64)));
+    }
+
+    @Test
+    void extract_shouldReadEpub3PackageMetadata() throws IOException {
+        Path epub = epub(Map.of("META-INF/container.xml", CONTAINER, "OEBPS/content.opf", """
+                <package xmlns="http://www.idpf.org/2007/opf" version="3.0">
+                  <metadata xmlns:dc="http://purl.org/dc/elements/1.1/">
+                    <dc:title>Romance Dawn</dc:title>
+                    <dc:creator id="author">Eiichiro Oda</dc:creator>
+                    <meta refines="#author" property="role">aut</meta>
+                    <dc:creator id="translator">Someone Else</dc:creator>
+                    <meta refines="#translator" property="role">trl</meta>
+                    <dc:publisher>Shueisha</dc:publisher>
+                    <dc:identifier>urn:isbn:978-4-08-872509-3</dc:identifier>
+                    <dc:date>1997-12-24</dc:date>
+                    <dc:description>&lt;p&gt;A boy sets out to sea.&lt;/p&gt;</dc:description>
+                    <meta property="belongs-to-collection">One Piece</meta>
+                  </metadata>
+                </package>"""));
+
+        BookMetadata metadata = extractor.extract(epub);
+
+        assertEquals("Romance Dawn", metadata.title());
+        assertEquals("One Piece", metadata.seriesTitle());
+        assertEquals("Eiichiro Oda", metadata.author());
+        assertEquals("Shueisha", metadata.publisher());
+        assertEquals("9784088725093", metadata.isbn());
+        assertEquals(LocalDate.of(1997, 12, 24), metadata.publicationDate());
+        assertEquals("A boy sets out to sea.", metadata.description());
+        assertNull(metadata.pageCount());
+    }
+
+    @Test
+    void extract_shouldReadEpub2PackageMetadata() throws IOException {
+        Path epub = epub(Map.of("META-INF/container.xml", CONTAINER, "OEBPS/content.opf", """
+                <package xmlns="http://www.idpf.org/2007/opf" xmlns:opf="http://www.idpf.org/2007/opf" version="2.0">
+                  <metadata xmlns:dc="http://purl.org/dc/elements/1.1/">
+                    <dc:title>Vol. 2</dc:title>
+                    <dc:creator opf:role="aut">Author A</dc:creator>
+                    <dc:creator opf:role="aut">Author B</dc:creator>
+                    <dc:identifier opf:scheme="ISBN">4088725727</dc:identifier>
+                    <dc:date opf:event="modification">2020-01-01</dc:date>
+                    <dc:date opf:event="publication">1998-04</dc:date>
+                    <meta name="calibre:series" content="One Piece"/>
+                  </metadata>
+                </package>"""));
+
+        BookMetadata metadata = extractor.extract(epub);
+
+        assertEquals("Author A, Author B", metadata.author());
+        assertEquals("4088725727", metadata.isbn());
+        assertEquals(LocalDate.of(1998, 4, 1), metadata.publicationDate());
+        assertEquals("One Piece", metadata.seriesTitle());
+    }
+
+    @Test
+    void extract_shouldThrow_whenContainerIsMissing() throws IOException {
+        Path epub = epub(Map.of("OEBPS/content.opf", "<package/>"));
+
+        assertThrows(IOException.class, () -> extractor.extract(epub));
+    }
+
+    @Test
+    void extract_shouldThrow_whenPackageDocumentIsTooLarge() throws IOException {
+        Path epub = epub(Map.of("META-INF/container.xml", CONTAINER,
+                "OEBPS/content.opf", "<package>" + "x".repeat(70 * 1024) + "</package>"));
+
+        assertThrows(IOException.class, () -> extractor.extract(epub));
+    }
+
+    private Path epub(Map<String, String> entries) throws IOException {
+        Path file = directory.resolve("book.epub");
+        try (OutputStream out = Files.newOutputStream(file); ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                zip.putNextEntry(new ZipEntry(entry.getKey()));
+                zip.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return file;
+    }
+}
@@ -0,0 +1,112 @@
+package com.numaochi.metadata;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetadataExtractionServiceTest {
+
+    private MetadataExtractionService extractionService;
+
+    @BeforeEach
+    void setUp() {
+        MetadataExtractor extractor = new MetadataExtractor() {
+            @Override
+            public boolean supports(String fileType) {
+                return "EPUB".equalsIgnoreCase(fileType);
+            }
+
+            @Override
+            public BookMetadata extract(Path file, ExtractionScope scope) throws IOException {
+                switch (file.getFileName().toString()) {
+                    case "slow.epub" -> {
+                        try {
+                            Thread.sleep(10_000);
+                        } catch (InterruptedException e) {
+                            throw new IOException("Interrupted", e);
+                        }
+                    }
+                    case "stuck.epub" -> {
+                        // Ignores interrupts, like a zip or PDF read, until its file is closed.
+                        CountDownLatch closed = new CountDownLatch(1);
+                        scope.register(closed::countDown);
+                        while (closed.getCount() > 0) {
+                            try {
+                                closed.await();
+                            } catch (InterruptedException ignored) {
+                            }
+                        }
+                        throw new IOException("Closed");
+                    }
+                    case "broken.epub" -> throw new IOException("Not a zip file");
+                    default -> {
+                    }
+                }
+                return new BookMetadata(file.getFileName().toString(), null, null, null, null, null, null, null);
+            }
+        };
+        MetadataExtractionProperties properties = new MetadataExtractionProperties(2, Duration.ofMillis(200), 10,
+                DataSize.ofMegabytes(1));
+        extractionService = new MetadataExtractionService(List.of(extractor), properties, Executors.newFixedThreadPool(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        extractionService.destroy();
+    }
+
+    @Test
+    void extractAll_shouldReturnResultsInOrder_andNullForFailures() {
+        List<BookMetadata> results = extractionService.extractAll(List.of(
+                new ChapterFile(Path.of("a.epub"), "EPUB"),
+                new ChapterFile(Path.of("broken.epub"), "EPUB"),
+                new ChapterFile(Path.of("c.pdf"), "PDF"),
+                new ChapterFile(Path.of("d.epub"), "epub")));
+
+        assertEquals("a.epub", results.get(0).title());
+        assertNull(results.get(1));
+        assertNull(results.get(2));
+        assertEquals("d.epub", results.get(3).title());
+    }
+
+    @Test
+    void extractAll_shouldSkipFile_whenItExceedsTimeout() {
+        long start = System.nanoTime();
+
+        List<BookMetadata> results = extractionService.extractAll(List.of(
+                new ChapterFile(Path.of("slow.epub"), "EPUB"),
+                new ChapterFile(Path.of("fast.epub"), "EPUB")));
+
+        assertNull(results.get(0));
+        assertEquals("fast.epub", results.get(1).title());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(5)) < 0);
+    }
+
+    @Test
+    void extractAll_shouldReleaseWorker_whenTimedOutExtractionIgnoresInterrupts() {
+        List<BookMetadata> results = extractionService.extractAll(List.of(
+                new ChapterFile(Path.of("stuck.epub"), "EPUB"),
+                new ChapterFile(Path.of("stuck.epub"), "EPUB"),
+                new ChapterFile(Path.of("fast.epub"), "EPUB")));
+
+        assertNull(results.get(0));
+        assertNull(results.get(1));
+        assertEquals("fast.epub", results.get(2).title());
+    }
+
+    @Test
+    void supports_shouldReflectRegisteredExtractors() {
+        assertTrue(extractionService.supports("epub"));
+        assertFalse(extractionService.supports("MOBI"));
+    }
+}
@@ -0,0 +1,117 @@
+package com.numaochi.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimiterTest {
+
+    @Mock
+    private RedisTokenBucket tokenBucket;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        RateLimitProperties properties = new RateLimitProperties(true, 5, Duration.ofSeconds(1),
+                Map.of(EndpointClass.READ, new RateLimitProperties.Limit(100, 10)));
+        Clock clock = Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC);
+        rateLimiter = new RateLimiter(tokenBucket, properties, meterRegistry, clock);
+    }
+
+    @Test
+    void tryAcquire_shouldSpendLeaseLocally_whenTokensReserved() {
+        when(tokenBucket.acquire(eq("rate-limit:user:alice:read"), any(), eq(5)))
+                .thenReturn(new RedisTokenBucket.Acquisition(5, 95, 1, 0));
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(rateLimiter.tryAcquire("user:alice", EndpointClass.READ).allowed());
+        }
+
+        verify(tokenBucket, times(1)).acquire(anyString(), any(), anyInt());
+        assertEquals(4.0, meterRegistry.get("numaochi.rate_limit.requests").tag("source", "local").counter().count());
+    }
+
+    @Test
+    void tryAcquire_shouldRejectWithoutRedis_whenRecentlyRejected() {
+        when(tokenBucket.acquire(anyString(), any(), anyInt()))
+                .thenReturn(new RedisTokenBucket.Acquisition(0, 0, 10, 3));
+
+        RateLimitDecision first = rateLimiter.tryAcquire("user:alice", EndpointClass.READ);
+        RateLimitDecision second = rateLimiter.tryAcquire("user:alice", EndpointClass.READ);
+
+        assertFalse(first.allowed());
+        assertEquals(3, first.retryAfterSeconds());
+        assertEquals(100, first.limit());
+        assertFalse(second.allowed());
+        verify(tokenBucket, times(1)).acquire(anyString(), any(), anyInt());
+    }
+
+    @Test
+    void tryAcquire_shouldRequestSingleToken_whenSharedBucketLow() {
+        when(tokenBucket.acquire(anyString(), any(), eq(5)))
+                .thenReturn(new RedisTokenBucket.Acquisition(1, 3, 10, 0));
+        when(tokenBucket.acquire(anyString(), any(), eq(1)))
+                .thenReturn(new RedisTokenBucket.Acquisition(1, 2, 10, 0));
+
+        rateLimiter.tryAcquire("user:alice", EndpointClass.READ);
+        RateLimitDecision decision = rateLimiter.tryAcquire("user:alice", EndpointClass.READ);
+
+        assertTrue(decision.allowed());
+        assertEquals(2, decision.remaining());
+        verify(tokenBucket).acquire(anyString(), any(), eq(1));
+    }
+
+    @Test
+    void tryAcquire_shouldAllow_whenRedisUnavailable() {
+        when(tokenBucket.acquire(anyString(), any(), anyInt()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        assertNull(rateLimiter.tryAcquire("ip:127.0.0.1", EndpointClass.READ));
+    }
+
+    @Test
+    void tryAcquire_shouldReturnNull_whenClassNotLimited() {
+        assertNull(rateLimiter.tryAcquire("user:alice", EndpointClass.WRITE));
+        verifyNoInteractions(tokenBucket);
+    }
+
+    @Test
+    void tryAcquire_shouldEvictExpiredLeases_whenLeaseDurationPassed() {
+        RateLimitProperties properties = new RateLimitProperties(true, 5, Duration.ofSeconds(1),
+                Map.of(EndpointClass.READ, new RateLimitProperties.Limit(100, 10)));
+        Clock clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(0L, 0L, 2000L);
+        RateLimiter limiter = new RateLimiter(tokenBucket, properties, meterRegistry, clock);
+        when(tokenBucket.acquire(anyString(), any(), anyInt()))
+                .thenReturn(new RedisTokenBucket.Acquisition(5, 95, 1, 0));
+
+        limiter.tryAcquire("user:alice", EndpointClass.READ);
+        limiter.tryAcquire("user:bob", EndpointClass.READ);
+        assertEquals(2, limiter.leaseCount());
+
+        limiter.tryAcquire("user:carol", EndpointClass.READ);
+
+        assertEquals(1, limiter.leaseCount());
+    }
+}
@@ -0,0 +1,64 @@
+package com.numaochi.search;
+
+import com.meilisearch.sdk.Client;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchCircuitBreakerTest {
+
+    @Mock
+    private Client meilisearchClient;
+
+    private SearchCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new SearchCircuitBreaker(meilisearchClient, new SearchCircuitBreakerProperties(2, Duration.ofHours(1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        circuitBreaker.destroy();
+    }
+
+    @Test
+    void recordFailure_shouldOpenCircuit_whenThresholdReached() {
+        circuitBreaker.recordFailure(new RuntimeException("down"));
+        assertFalse(circuitBreaker.isOpen());
+
+        circuitBreaker.recordFailure(new RuntimeException("down"));
+        assertTrue(circuitBreaker.isOpen());
+    }
+
+    @Test
+    void recordSuccess_shouldResetFailureCount() {
+        circuitBreaker.recordFailure(new RuntimeException("down"));
+        circuitBreaker.recordSuccess();
+        circuitBreaker.recordFailure(new RuntimeException("down"));
+
+        assertFalse(circuitBreaker.isOpen());
+    }
+
+    @Test
+    void checkHealth_shouldCloseCircuit_onlyWhenHealthy() {
+        circuitBreaker.recordFailure(new RuntimeException("down"));
+        circuitBreaker.recordFailure(new RuntimeException("down"));
+        when(meilisearchClient.isHealthy()).thenReturn(false, true);
+
+        circuitBreaker.checkHealth();
+        assertTrue(circuitBreaker.isOpen());
+
+        circuitBreaker.checkHealth();
+        assertFalse(circuitBreaker.isOpen());
+    }
+}
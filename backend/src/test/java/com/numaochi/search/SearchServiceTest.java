@@ -6,6 +6,7 @@ import com.meilisearch.sdk.Index;
 import com.meilisearch.sdk.json.JacksonJsonProcessor;
 import com.meilisearch.sdk.model.SearchResult;
 import com.numaochi.series.Series;
+import com.numaochi.series.SeriesRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -36,6 +37,12 @@ class SearchServiceTest {
     @Mock
     private Index mockIndex;
 
+    @Mock
+    private SeriesRepository seriesRepository;
+
+    @Mock
+    private SearchCircuitBreaker circuitBreaker;
+
     @InjectMocks
     private SearchService searchService;
 
@@ -53,7 +60,7 @@ class SearchServiceTest {
         series1.setPublisher("Test Publisher");
         series1.setIsbn("1234567890");
 
-        when(meilisearchClient.index(anyString())).thenReturn(mockIndex);
+        lenient().when(meilisearchClient.index(anyString())).thenReturn(mockIndex);
     }
 
     @Test
@@ -95,12 +102,15 @@ class SearchServiceTest {
 
         when(mockIndex.search(anyString())).thenReturn(mockSearchResult);
 
-        List<Series> result = searchService.searchSeries("query");
+        SearchResults<Series> result = searchService.searchSeries("query");
 
         assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(series1.getTitle(), result.get(0).getTitle());
+        assertFalse(result.degraded());
+        assertEquals(1, result.hits().size());
+        assertEquals(series1.getTitle(), result.hits().get(0).getTitle());
         verify(mockIndex, times(1)).search("query");
+        verify(circuitBreaker, times(1)).recordSuccess();
+        verifyNoInteractions(seriesRepository);
     }
 
     @Test
@@ -110,20 +120,36 @@ class SearchServiceTest {
 
         when(mockIndex.search(anyString())).thenReturn(mockSearchResult);
 
-        List<Series> result = searchService.searchSeries("no results");
+        SearchResults<Series> result = searchService.searchSeries("no results");
 
         assertNotNull(result);
-        assertTrue(result.isEmpty());
+        assertTrue(result.hits().isEmpty());
         verify(mockIndex, times(1)).search("no results");
     }
 
     @Test
-    void searchSeries_shouldHandleException() throws Exception {
-        when(mockIndex.search(anyString())).thenThrow(new RuntimeException("Meilisearch error"));
+    void searchSeries_shouldFallBackToDatabase_whenMeilisearchFails() throws Exception {
+        RuntimeException failure = new RuntimeException("Meilisearch error");
+        when(mockIndex.search(anyString())).thenThrow(failure);
+        when(seriesRepository.searchFallback("query", SearchService.FALLBACK_LIMIT)).thenReturn(List.of(series1));
 
-        List<Series> result = searchService.searchSeries("query");
+        SearchResults<Series> result = searchService.searchSeries("query");
 
         assertNotNull(result);
-        assertTrue(result.isEmpty());
+        assertTrue(result.degraded());
+        assertEquals(List.of(series1), result.hits());
+        verify(circuitBreaker, times(1)).recordFailure(failure);
+    }
+
+    @Test
+    void searchSeries_shouldSkipMeilisearch_whenCircuitOpen() throws Exception {
+        when(circuitBreaker.isOpen()).thenReturn(true);
+        when(seriesRepository.searchFallback("query", SearchService.FALLBACK_LIMIT)).thenReturn(List.of(series1));
+
+        SearchResults<Series> result = searchService.searchSeries("query");
+
+        assertTrue(result.degraded());
+        assertEquals(1, result.hits().size());
+        verifyNoInteractions(mockIndex);
     }
 }
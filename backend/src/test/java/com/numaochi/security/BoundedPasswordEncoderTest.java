@@ -0,0 +1,64 @@
+package com.numaochi.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private ThreadPoolExecutor executor;
+    private BoundedPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new SynchronousQueue<>());
+        encoder = new BoundedPasswordEncoder(NoOpPasswordEncoder.getInstance(), executor, Duration.ofSeconds(1), Duration.ofSeconds(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void encodeAndMatches_shouldDelegateOnExecutor() {
+        assertEquals("secret", encoder.encode("secret"));
+        assertTrue(encoder.matches("secret", "secret"));
+        assertFalse(encoder.matches("secret", "other"));
+    }
+
+    @Test
+    void matches_shouldRejectWithRetryAfter_whenExecutorSaturated() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        started.await();
+
+        PasswordHashingRejectedException exception = assertThrows(PasswordHashingRejectedException.class,
+                () -> encoder.matches("secret", "secret"));
+
+        assertEquals(Duration.ofSeconds(2), exception.getRetryAfter());
+        release.countDown();
+    }
+
+    @Test
+    void encode_shouldPropagateDelegateFailure() {
+        assertThrows(NullPointerException.class, () -> encoder.encode(null));
+    }
+}
@@ -0,0 +1,112 @@
+package com.numaochi.security;
+
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenServiceTest {
+
+    private static final TokenProperties.Key KEY_1 = new TokenProperties.Key("k1", "first-signing-secret-of-at-least-32-bytes");
+    private static final TokenProperties.Key KEY_2 = new TokenProperties.Key("k2", "second-signing-secret-of-at-least-32-bytes");
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private final TokenConfig tokenConfig = new TokenConfig();
+
+    private TokenService tokenService;
+    private JwtDecoder accessTokenDecoder;
+
+    @BeforeEach
+    void setUp() {
+        TokenProperties properties = properties(KEY_1);
+        JWKSource<SecurityContext> keySource = tokenConfig.tokenKeySource(properties);
+        tokenService = new TokenService(tokenConfig.jwtEncoder(keySource), keySource, redisTemplate, properties);
+        accessTokenDecoder = tokenConfig.jwtDecoder(keySource);
+    }
+
+    @Test
+    void issueTokens_shouldIssueAccessTokenVerifiableLocally() {
+        TokenResponseDTO tokens = tokenService.issueTokens("alice");
+
+        Jwt jwt = accessTokenDecoder.decode(tokens.accessToken());
+
+        assertEquals("alice", jwt.getSubject());
+        assertEquals(TokenService.ACCESS_TOKEN, jwt.getClaimAsString(TokenConfig.TOKEN_TYPE_CLAIM));
+        assertEquals("k1", jwt.getHeaders().get("kid"));
+        assertEquals(900, tokens.expiresIn());
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void issueTokens_refreshTokenShouldNotBeAcceptedAsAccessToken() {
+        TokenResponseDTO tokens = tokenService.issueTokens("alice");
+
+        assertThrows(JwtException.class, () -> accessTokenDecoder.decode(tokens.refreshToken()));
+    }
+
+    @Test
+    void refresh_shouldRevokePresentedTokenAndIssueNewPair() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(startsWith("auth:revoked:"), eq("alice"), any(Duration.class))).thenReturn(true);
+        TokenResponseDTO tokens = tokenService.issueTokens("alice");
+
+        TokenResponseDTO refreshed = tokenService.refresh(tokens.refreshToken());
+
+        assertEquals("alice", accessTokenDecoder.decode(refreshed.accessToken()).getSubject());
+        assertNotEquals(tokens.refreshToken(), refreshed.refreshToken());
+        verify(valueOperations).setIfAbsent(startsWith("auth:revoked:"), eq("alice"), any(Duration.class));
+    }
+
+    @Test
+    void refresh_shouldRejectRevokedToken() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+        TokenResponseDTO tokens = tokenService.issueTokens("alice");
+
+        assertThrows(BadCredentialsException.class, () -> tokenService.refresh(tokens.refreshToken()));
+    }
+
+    @Test
+    void refresh_shouldRejectAccessToken() {
+        TokenResponseDTO tokens = tokenService.issueTokens("alice");
+
+        assertThrows(BadCredentialsException.class, () -> tokenService.refresh(tokens.accessToken()));
+    }
+
+    @Test
+    void jwtDecoder_shouldAcceptTokensSignedWithRotatedOutKey() {
+        TokenResponseDTO tokens = tokenService.issueTokens("alice");
+        JwtDecoder rotatedDecoder = tokenConfig.jwtDecoder(tokenConfig.tokenKeySource(properties(KEY_2, KEY_1)));
+
+        assertEquals("alice", rotatedDecoder.decode(tokens.accessToken()).getSubject());
+    }
+
+    private TokenProperties properties(TokenProperties.Key... keys) {
+        return new TokenProperties(Duration.ofMinutes(15), Duration.ofDays(30), List.of(keys));
+    }
+}
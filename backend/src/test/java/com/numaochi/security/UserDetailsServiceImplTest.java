@@ -58,4 +58,17 @@ class UserDetailsServiceImplTest {
         assertEquals("User not found with username: nonexistent", thrown.getMessage());
         verify(userRepository, times(1)).findByUsername("nonexistent");
     }
+
+    @Test
+    void updatePassword_shouldStoreUpgradedHash() {
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        UserDetails userDetails = org.springframework.security.core.userdetails.User
+                .withUsername("testuser").password("encodedpassword").authorities(new String[0]).build();
+
+        UserDetails updated = userDetailsService.updatePassword(userDetails, "{bcrypt}rehashed");
+
+        assertEquals("{bcrypt}rehashed", updated.getPassword());
+        assertEquals("{bcrypt}rehashed", user.getPassword());
+        verify(userRepository, times(1)).save(user);
+    }
 }
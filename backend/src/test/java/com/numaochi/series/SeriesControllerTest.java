@@ -1,5 +1,9 @@
 package com.numaochi.series;
 
+import com.numaochi.common.BatchDTO;
+import com.numaochi.common.InvalidFieldSelectionException;
+import com.numaochi.common.ResourceVersion;
+import com.numaochi.search.SearchResults;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,12 +14,17 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -75,6 +84,27 @@ class SeriesControllerTest {
         verify(seriesService, times(1)).getAllSeries();
     }
 
+    @Test
+    void getAllSeries_shouldReturnSummaries_whenSummaryViewRequested() throws Exception {
+        when(seriesService.getAllSeriesSummaries()).thenReturn(List.of(new SeriesSummaryDTO(1L, "Series One", "Author One", "cover1.jpg")));
+
+        mockMvc.perform(get("/api/series").param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1L))
+                .andExpect(jsonPath("$[0].coverImage").value("cover1.jpg"))
+                .andExpect(jsonPath("$[0].description").doesNotExist());
+
+        verify(seriesService, never()).getAllSeries();
+    }
+
+    @Test
+    void getAllSeries_shouldReturnBadRequest_whenViewIsUnknown() throws Exception {
+        mockMvc.perform(get("/api/series").param("view", "compact"))
+                .andExpect(status().isBadRequest());
+
+        verify(seriesService, never()).getAllSeries();
+    }
+
     @Test
     void getSeriesById_shouldReturnSeriesDTO_whenFound() throws Exception {
         when(seriesService.getSeriesById(1L)).thenReturn(seriesDTO1);
@@ -98,6 +128,99 @@ class SeriesControllerTest {
         verify(seriesService, times(1)).getSeriesById(99L);
     }
 
+    @Test
+    void getSeriesBatch_shouldReturnSeriesInRequestOrderWithMissingIds() throws Exception {
+        when(seriesService.getSeriesBatch(List.of(2L, 99L, 1L)))
+                .thenReturn(new BatchDTO<>(List.of(seriesDTO2, seriesDTO1), List.of(99L)));
+
+        mockMvc.perform(get("/api/series/batch").param("ids", "2,99,1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(2L))
+                .andExpect(jsonPath("$.items[1].id").value(1L))
+                .andExpect(jsonPath("$.missing[0]").value(99L));
+    }
+
+    @Test
+    void getSeriesBatchByPost_shouldReadIdsFromBody() throws Exception {
+        when(seriesService.getSeriesBatch(List.of(1L, 2L)))
+                .thenReturn(new BatchDTO<>(List.of(seriesDTO1, seriesDTO2), List.of()));
+
+        mockMvc.perform(post("/api/series/batch").contentType(MediaType.APPLICATION_JSON).content("[1, 2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.missing").isEmpty());
+    }
+
+    @Test
+    void getSeriesById_shouldReturnSelectedFields_whenFieldsRequested() throws Exception {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("id", 1L);
+        fields.put("title", "Series One");
+        fields.put("chapterCount", 12L);
+        when(seriesService.getSeriesFieldsById(1L, "title", "chapterCount")).thenReturn(fields);
+
+        mockMvc.perform(get("/api/series/{id}", 1L).param("fields", "title").param("expand", "chapterCount"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Series One"))
+                .andExpect(jsonPath("$.chapterCount").value(12))
+                .andExpect(jsonPath("$.author").doesNotExist());
+
+        verify(seriesService, never()).getSeriesById(anyLong());
+    }
+
+    @Test
+    void getSeriesById_shouldSkipConditionalCheck_whenExpanded() throws Exception {
+        when(seriesService.getSeriesFieldsById(1L, null, "volumeCount")).thenReturn(Map.of("id", 1L, "volumeCount", 4L));
+
+        mockMvc.perform(get("/api/series/{id}", 1L).param("expand", "volumeCount").header("If-None-Match", "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(jsonPath("$.volumeCount").value(4));
+
+        verify(seriesService, never()).getSeriesVersion(anyLong());
+    }
+
+    @Test
+    void getAllSeries_shouldReturnBadRequest_whenFieldIsUnknown() throws Exception {
+        when(seriesService.getAllSeriesFields("password", null))
+                .thenThrow(new InvalidFieldSelectionException("Unknown field 'password'"));
+
+        mockMvc.perform(get("/api/series").param("fields", "password"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getSeriesById_shouldReturnETagHeader_whenFound() throws Exception {
+        when(seriesService.getSeriesVersion(1L)).thenReturn(new ResourceVersion(3L, Instant.ofEpochMilli(1000)));
+        when(seriesService.getSeriesById(1L)).thenReturn(seriesDTO1);
+
+        mockMvc.perform(get("/api/series/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3-1000\""))
+                .andExpect(jsonPath("$.id").value(1L));
+    }
+
+    @Test
+    void getSeriesById_shouldReturnNotModified_whenETagMatches() throws Exception {
+        when(seriesService.getSeriesVersion(1L)).thenReturn(new ResourceVersion(3L, Instant.ofEpochMilli(1000)));
+
+        mockMvc.perform(get("/api/series/{id}", 1L).header("If-None-Match", "\"3-1000\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(seriesService, never()).getSeriesById(anyLong());
+    }
+
+    @Test
+    void getAllSeries_shouldReturnNotModified_whenETagMatches() throws Exception {
+        when(seriesService.getSeriesListVersion()).thenReturn(new ResourceVersion(7L, Instant.ofEpochMilli(2000)));
+
+        mockMvc.perform(get("/api/series").header("If-None-Match", "\"7-2000\""))
+                .andExpect(status().isNotModified());
+
+        verify(seriesService, never()).getAllSeries();
+    }
+
     @Test
     void createSeries_shouldReturnCreatedSeriesDTO() throws Exception {
         when(seriesService.createSeries(any(SeriesDTO.class))).thenReturn(seriesDTO1);
@@ -126,6 +249,32 @@ class SeriesControllerTest {
         verify(seriesService, times(1)).updateSeries(eq(1L), any(SeriesDTO.class));
     }
 
+    @Test
+    void updateSeries_shouldPassIfMatchVersionToService() throws Exception {
+        when(seriesService.updateSeries(eq(1L), argThat(dto -> Long.valueOf(3L).equals(dto.getVersion())))).thenReturn(seriesDTO1);
+
+        mockMvc.perform(put("/api/series/{id}", 1L)
+                        .header("If-Match", "\"3-1000\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Updated Series One\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1L));
+    }
+
+    @Test
+    void patchSeries_shouldReturnPatchedSeriesDTO() throws Exception {
+        when(seriesService.patchSeries(eq(1L), any(), eq(3L))).thenReturn(seriesDTO1);
+
+        mockMvc.perform(patch("/api/series/{id}", 1L)
+                        .header("If-Match", "\"3-1000\"")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"title\": \"Series One\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Series One"));
+
+        verify(seriesService, times(1)).patchSeries(eq(1L), any(), eq(3L));
+    }
+
     @Test
     void deleteSeries_shouldReturnNoContent() throws Exception {
         doNothing().when(seriesService).deleteSeries(1L);
@@ -138,20 +287,21 @@ class SeriesControllerTest {
 
     @Test
     void searchSeries_shouldReturnListOfSeriesDTOs() throws Exception {
-        when(seriesService.searchSeries("test query")).thenReturn(Arrays.asList(seriesDTO1));
+        when(seriesService.searchSeries("test query")).thenReturn(new SearchResults<>(Arrays.asList(seriesDTO1), false));
 
         mockMvc.perform(get("/api/series/search").param("query", "test query"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$[0].id").value(1L))
-                .andExpect(jsonPath("$[0].title").value("Series One"));
+                .andExpect(jsonPath("$[0].title").value("Series One"))
+                .andExpect(header().doesNotExist("X-Search-Degraded"));
 
         verify(seriesService, times(1)).searchSeries("test query");
     }
 
     @Test
     void searchSeries_shouldReturnEmptyList_whenNoResults() throws Exception {
-        when(seriesService.searchSeries("no results")).thenReturn(Collections.emptyList());
+        when(seriesService.searchSeries("no results")).thenReturn(new SearchResults<>(Collections.emptyList(), false));
 
         mockMvc.perform(get("/api/series/search").param("query", "no results"))
                 .andExpect(status().isOk())
@@ -160,4 +310,27 @@ class SeriesControllerTest {
 
         verify(seriesService, times(1)).searchSeries("no results");
     }
+
+    @Test
+    void searchSeries_shouldFlagDegradedMode_whenResultsFromDatabase() throws Exception {
+        when(seriesService.searchSeries("test query")).thenReturn(new SearchResults<>(List.of(seriesDTO1), true));
+
+        mockMvc.perform(get("/api/series/search").param("query", "test query"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Search-Degraded", "true"))
+                .andExpect(jsonPath("$[0].id").value(1L));
+    }
+
+    @Test
+    void suggestSeries_shouldReturnSuggestions_withClampedLimit() throws Exception {
+        when(seriesService.suggestSeries("one", 20))
+                .thenReturn(List.of(new SeriesSummaryDTO(1L, "Series One", "Author One", "cover1.jpg")));
+
+        mockMvc.perform(get("/api/series/suggest").param("prefix", "one").param("limit", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1L))
+                .andExpect(jsonPath("$[0].title").value("Series One"));
+
+        verify(seriesService, times(1)).suggestSeries("one", 20);
+    }
 }
@@ -0,0 +1,92 @@
+package com.numaochi.series;
+
+import com.numaochi.datasource.ReadYourWritesTracker;
+import com.numaochi.datasource.ReplicaLagMonitor;
+import com.numaochi.datasource.ReplicaRoutingDataSource;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeriesRepositoryRoutingTest {
+
+    @Mock
+    private ReplicaLagMonitor lagMonitor;
+
+    @Mock
+    private ReadYourWritesTracker writesTracker;
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replicaConnection;
+
+    private SeriesRepository seriesRepository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        lenient().when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(lagMonitor.pickReplica()).thenReturn(ReplicaRoutingDataSource.replicaKey(0));
+
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(lagMonitor, writesTracker);
+        routingDataSource.setTargetDataSources(Map.of(ReplicaRoutingDataSource.PRIMARY, primary,
+                ReplicaRoutingDataSource.replicaKey(0), replica));
+        routingDataSource.afterPropertiesSet();
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+        dataSource.setTargetDataSource(routingDataSource);
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        dataSource.afterPropertiesSet();
+
+        MethodInterceptor runQuery = invocation -> {
+            DataSourceUtils.getConnection(dataSource).prepareStatement("select 1");
+            return List.of();
+        };
+        ProxyFactory proxyFactory = new ProxyFactory();
+        proxyFactory.addInterface(SeriesRepository.class);
+        proxyFactory.addAdvice(new TransactionInterceptor(new DataSourceTransactionManager(dataSource),
+                new AnnotationTransactionAttributeSource()));
+        proxyFactory.addAdvice(runQuery);
+        seriesRepository = (SeriesRepository) proxyFactory.getProxy();
+    }
+
+    @Test
+    void searchFallback_shouldUseReplica() throws Exception {
+        seriesRepository.searchFallback("piece", 10);
+
+        verify(replica, times(1)).getConnection();
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    void findAllIds_shouldUseReplica() throws Exception {
+        seriesRepository.findAllIds();
+
+        verify(replica, times(1)).getConnection();
+        verify(primary, never()).getConnection();
+    }
+}
@@ -1,21 +1,48 @@
 package com.numaochi.series;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.numaochi.common.BatchDTO;
+import com.numaochi.common.BatchTooLargeException;
+import com.numaochi.common.CoalescingProperties;
+import com.numaochi.common.FieldSelection;
+import com.numaochi.common.FieldSelectionQueries;
+import com.numaochi.common.InvalidFieldSelectionException;
+import com.numaochi.common.MergePatch;
+import com.numaochi.common.ResourceVersion;
+import com.numaochi.common.SingleFlights;
+import com.numaochi.datasource.ReadYourWritesTracker;
+import com.numaochi.search.SearchResults;
 import com.numaochi.search.SearchService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +54,20 @@ class SeriesServiceTest {
     @Mock
     private SearchService searchService;
 
+    @Mock
+    private SeriesSuggestionIndex suggestionIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private FieldSelectionQueries fieldSelectionQueries;
+
+    @Spy
+    private SingleFlights singleFlights = new SingleFlights(new SimpleMeterRegistry(),
+            new CoalescingProperties(Duration.ofSeconds(5)),
+            new StaticListableBeanFactory().getBeanProvider(ReadYourWritesTracker.class));
+
     @InjectMocks
     private SeriesService seriesService;
 
@@ -90,6 +131,17 @@ class SeriesServiceTest {
         assertEquals(seriesDTO2.getTitle(), result.get(1).getTitle());
     }
 
+    @Test
+    void getAllSeriesSummaries_shouldUseProjectionQuery() {
+        when(seriesRepository.findAllSummaries()).thenReturn(List.of(new SeriesSummaryDTO(1L, "Series One", "Author One", "cover1.jpg")));
+
+        List<SeriesSummaryDTO> result = seriesService.getAllSeriesSummaries();
+
+        assertEquals(1, result.size());
+        assertEquals("Series One", result.get(0).title());
+        verify(seriesRepository, never()).findAll();
+    }
+
     @Test
     void getSeriesById_shouldReturnSeriesDTO_whenFound() {
         when(seriesRepository.findById(1L)).thenReturn(Optional.of(series1));
@@ -109,6 +161,24 @@ class SeriesServiceTest {
         assertNull(result);
     }
 
+    @Test
+    void getSeriesBatch_shouldPreserveRequestOrderAndReportMissing() {
+        when(seriesRepository.findAllByIds(new Long[]{2L, 3L, 1L})).thenReturn(List.of(series1, series2));
+
+        BatchDTO<SeriesDTO> result = seriesService.getSeriesBatch(List.of(2L, 3L, 1L, 2L));
+
+        assertEquals(List.of(2L, 1L), result.items().stream().map(SeriesDTO::getId).toList());
+        assertEquals(List.of(3L), result.missing());
+    }
+
+    @Test
+    void getSeriesBatch_shouldThrow_whenTooManyIdsAreRequested() {
+        List<Long> ids = LongStream.rangeClosed(1, BatchDTO.MAX_IDS + 1).boxed().toList();
+
+        assertThrows(BatchTooLargeException.class, () -> seriesService.getSeriesBatch(ids));
+        verify(seriesRepository, never()).findAllByIds(any());
+    }
+
     @Test
     void createSeries_shouldReturnCreatedSeriesDTO_andIndexSeries() {
         when(seriesRepository.save(any(Series.class))).thenReturn(series1);
@@ -120,10 +190,27 @@ class SeriesServiceTest {
         assertEquals(seriesDTO1.getTitle(), result.getTitle());
         verify(seriesRepository, times(1)).save(any(Series.class));
         verify(searchService, times(1)).indexSeries(any(Series.class));
+        verify(eventPublisher, times(1)).publishEvent(new SeriesChangedEvent(series1));
+        verifyNoInteractions(suggestionIndex);
+    }
+
+    @Test
+    void onSeriesChanged_shouldPutSeriesInSuggestionIndex() {
+        seriesService.onSeriesChanged(new SeriesChangedEvent(series1));
+
+        verify(suggestionIndex, times(1)).put(series1);
+    }
+
+    @Test
+    void onSeriesDeleted_shouldRemoveSeriesFromSuggestionIndex() {
+        seriesService.onSeriesDeleted(new SeriesDeletedEvent(1L));
+
+        verify(suggestionIndex, times(1)).remove(1L);
     }
 
     @Test
     void updateSeries_shouldReturnUpdatedSeriesDTO_andIndexSeries() {
+        when(seriesRepository.findResourceVersionById(1L)).thenReturn(Optional.of(new ResourceVersion(1L, Instant.now())));
         when(seriesRepository.save(any(Series.class))).thenReturn(series1);
         doNothing().when(searchService).indexSeries(any(Series.class));
 
@@ -135,6 +222,71 @@ class SeriesServiceTest {
         verify(searchService, times(1)).indexSeries(any(Series.class));
     }
 
+    @Test
+    void updateSeries_shouldUseCurrentVersion_whenNoVersionProvided() {
+        when(seriesRepository.findResourceVersionById(1L)).thenReturn(Optional.of(new ResourceVersion(4L, Instant.now())));
+        when(seriesRepository.save(any(Series.class))).thenReturn(series1);
+
+        seriesService.updateSeries(1L, seriesDTO1);
+
+        verify(seriesRepository).save(argThat(series -> Long.valueOf(4L).equals(series.getVersion())));
+    }
+
+    @Test
+    void updateSeries_shouldReturnNull_whenNotFound() {
+        when(seriesRepository.findResourceVersionById(99L)).thenReturn(Optional.empty());
+
+        SeriesDTO result = seriesService.updateSeries(99L, seriesDTO1);
+
+        assertNull(result);
+        verify(seriesRepository, never()).save(any(Series.class));
+        verify(searchService, never()).indexSeries(any(Series.class));
+    }
+
+    @Test
+    void updateSeries_shouldKeepProvidedVersion() {
+        seriesDTO1.setVersion(2L);
+        when(seriesRepository.save(any(Series.class))).thenReturn(series1);
+
+        seriesService.updateSeries(1L, seriesDTO1);
+
+        verify(seriesRepository, never()).findResourceVersionById(any());
+        verify(seriesRepository).save(argThat(series -> Long.valueOf(2L).equals(series.getVersion())));
+    }
+
+    @Test
+    void patchSeries_shouldOnlyChangePatchedFields_andIndexSeries() throws Exception {
+        when(seriesRepository.findById(1L)).thenReturn(Optional.of(series1));
+
+        SeriesDTO result = seriesService.patchSeries(1L, patch("{\"title\": \"New Title\", \"isbn\": null}"), null);
+
+        assertEquals("New Title", result.getTitle());
+        assertNull(result.getIsbn());
+        assertEquals("Author One", result.getAuthor());
+        verify(seriesRepository, never()).save(any(Series.class));
+        verify(searchService, times(1)).indexSeries(series1);
+    }
+
+    @Test
+    void patchSeries_shouldNotIndexSeries_whenNothingChanged() throws Exception {
+        when(seriesRepository.findById(1L)).thenReturn(Optional.of(series1));
+
+        seriesService.patchSeries(1L, patch("{\"title\": \"Series One\"}"), null);
+
+        verify(seriesRepository, never()).flush();
+        verify(searchService, never()).indexSeries(any(Series.class));
+    }
+
+    @Test
+    void patchSeries_shouldRejectStaleVersion() throws Exception {
+        series1.setVersion(5L);
+        when(seriesRepository.findById(1L)).thenReturn(Optional.of(series1));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> seriesService.patchSeries(1L, patch("{\"title\": \"New Title\"}"), 4L));
+        verify(searchService, never()).indexSeries(any(Series.class));
+    }
+
     @Test
     void deleteSeries_shouldCallRepositoryDeleteById_andRemoveSeriesFromIndex() {
         doNothing().when(seriesRepository).deleteById(1L);
@@ -144,28 +296,107 @@ class SeriesServiceTest {
 
         verify(seriesRepository, times(1)).deleteById(1L);
         verify(searchService, times(1)).removeSeries(1L);
+        verify(eventPublisher, times(1)).publishEvent(new SeriesDeletedEvent(1L));
+        verifyNoInteractions(suggestionIndex);
     }
 
     @Test
     void searchSeries_shouldReturnListOfSeriesDTOs() {
-        when(searchService.searchSeries("query")).thenReturn(Arrays.asList(series1));
+        when(searchService.searchSeries("query")).thenReturn(new SearchResults<>(Arrays.asList(series1), false));
 
-        List<SeriesDTO> result = seriesService.searchSeries("query");
+        SearchResults<SeriesDTO> result = seriesService.searchSeries("query");
 
         assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(seriesDTO1.getTitle(), result.get(0).getTitle());
+        assertEquals(1, result.hits().size());
+        assertEquals(seriesDTO1.getTitle(), result.hits().get(0).getTitle());
+        assertFalse(result.degraded());
         verify(searchService, times(1)).searchSeries("query");
     }
 
     @Test
     void searchSeries_shouldReturnEmptyList_whenNoResults() {
-        when(searchService.searchSeries("no_results")).thenReturn(Collections.emptyList());
+        when(searchService.searchSeries("no_results")).thenReturn(new SearchResults<>(Collections.emptyList(), false));
 
-        List<SeriesDTO> result = seriesService.searchSeries("no_results");
+        SearchResults<SeriesDTO> result = seriesService.searchSeries("no_results");
 
         assertNotNull(result);
-        assertTrue(result.isEmpty());
+        assertTrue(result.hits().isEmpty());
         verify(searchService, times(1)).searchSeries("no_results");
     }
+
+    private MergePatch patch(String json) throws Exception {
+        return new MergePatch((ObjectNode) new ObjectMapper().readTree(json));
+    }
+
+    @Test
+    void getAllSeriesFields_shouldSelectRequestedFieldsAndCounts_whenExpanded() {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 1L);
+        row.put("title", "Series One");
+        when(fieldSelectionQueries.find(eq(Series.class), eq(SeriesService.FIELD_COLUMNS),
+                argThat(selection -> selection.includes("title") && !selection.includes("description")), isNull()))
+                .thenReturn(new ArrayList<>(List.of(row)));
+        when(seriesRepository.countChaptersBySeriesIds(new Long[]{1L})).thenReturn(List.<Object[]>of(new Object[]{1L, 12L}));
+
+        List<Map<String, Object>> result = seriesService.getAllSeriesFields("title", "chapterCount");
+
+        assertEquals(1, result.size());
+        assertEquals("Series One", result.get(0).get("title"));
+        assertEquals(12L, result.get(0).get("chapterCount"));
+        verify(seriesRepository, never()).countVolumesBySeriesIds(any());
+        verify(seriesRepository, never()).findAll();
+    }
+
+    @Test
+    void getSeriesFieldsById_shouldReturnZeroCount_whenSeriesHasNoVolumes() {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 1L);
+        when(fieldSelectionQueries.find(eq(Series.class), eq(SeriesService.FIELD_COLUMNS), any(FieldSelection.class), eq(1L)))
+                .thenReturn(new ArrayList<>(List.of(row)));
+        when(seriesRepository.countVolumesBySeriesIds(new Long[]{1L})).thenReturn(List.of());
+
+        Map<String, Object> result = seriesService.getSeriesFieldsById(1L, null, "volumeCount");
+
+        assertEquals(0L, result.get("volumeCount"));
+    }
+
+    @Test
+    void getSeriesFieldsById_shouldReturnNull_whenNotFound() {
+        when(fieldSelectionQueries.find(eq(Series.class), eq(SeriesService.FIELD_COLUMNS), any(FieldSelection.class), eq(99L)))
+                .thenReturn(new ArrayList<>());
+
+        assertNull(seriesService.getSeriesFieldsById(99L, "title", "volumeCount"));
+        verify(seriesRepository, never()).countVolumesBySeriesIds(any());
+    }
+
+    @Test
+    void getSeriesFieldsById_shouldThrow_whenFieldIsUnknown() {
+        assertThrows(InvalidFieldSelectionException.class, () -> seriesService.getSeriesFieldsById(1L, "title,password", null));
+        verifyNoInteractions(fieldSelectionQueries);
+    }
+
+    @Test
+    void fillMissingMetadata_shouldFillOnlyEmptyFields() {
+        series2.setPublisher(null);
+        series2.setDescription(" ");
+        SeriesDTO extracted = new SeriesDTO();
+        extracted.setTitle("Extracted Title");
+        extracted.setPublisher("Extracted Publisher");
+        extracted.setDescription("Extracted Description");
+        SeriesDTO unchanged = new SeriesDTO();
+        unchanged.setAuthor("Extracted Author");
+        Map<Long, SeriesDTO> metadata = Map.of(1L, unchanged, 2L, extracted);
+        when(seriesRepository.findAllById(metadata.keySet())).thenReturn(Arrays.asList(series1, series2));
+
+        int changed = seriesService.fillMissingMetadata(metadata);
+
+        assertEquals(1, changed);
+        assertEquals("Series Two", series2.getTitle());
+        assertEquals("Extracted Publisher", series2.getPublisher());
+        assertEquals("Extracted Description", series2.getDescription());
+        assertEquals("Author One", series1.getAuthor());
+        verify(searchService).indexSeries(series2);
+        verify(searchService, never()).indexSeries(series1);
+        verify(eventPublisher).publishEvent(new SeriesChangedEvent(series2));
+    }
 }
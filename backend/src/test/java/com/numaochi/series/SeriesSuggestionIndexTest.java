@@ -0,0 +1,89 @@
+package com.numaochi.series;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeriesSuggestionIndexTest {
+
+    @Mock
+    private SeriesRepository seriesRepository;
+
+    @InjectMocks
+    private SeriesSuggestionIndex suggestionIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(seriesRepository.findAllSummaries()).thenReturn(List.of(
+                new SeriesSummaryDTO(1L, "One Piece", "Eiichiro Oda", "op.jpg"),
+                new SeriesSummaryDTO(2L, "Pokémon Adventures", "Hidenori Kusaka", "pk.jpg"),
+                new SeriesSummaryDTO(3L, "Onward", "Piers Oda", null)));
+        suggestionIndex.rebuild();
+    }
+
+    @Test
+    void suggest_shouldMatchAnyWordOfTitleOrAuthor() {
+        List<SeriesSummaryDTO> result = suggestionIndex.suggest("pie", 10);
+
+        assertEquals(List.of(1L, 3L), result.stream().map(SeriesSummaryDTO::id).toList());
+    }
+
+    @Test
+    void suggest_shouldIgnoreCaseAndAccents() {
+        List<SeriesSummaryDTO> result = suggestionIndex.suggest("POKEMON", 10);
+
+        assertEquals(1, result.size());
+        assertEquals("Pokémon Adventures", result.get(0).title());
+    }
+
+    @Test
+    void suggest_shouldReturnEachSeriesOnce_andRespectLimit() {
+        assertEquals(2, suggestionIndex.suggest("oda", 10).size());
+        assertEquals(1, suggestionIndex.suggest("on", 1).size());
+        assertTrue(suggestionIndex.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    void put_shouldReplacePreviousKeys() {
+        Series series = new Series();
+        series.setId(1L);
+        series.setTitle("Two Piece");
+        series.setAuthor("Eiichiro Oda");
+
+        suggestionIndex.put(series);
+
+        assertTrue(suggestionIndex.suggest("one p", 10).isEmpty());
+        assertEquals("Two Piece", suggestionIndex.suggest("two", 10).get(0).title());
+    }
+
+    @Test
+    void putAll_shouldReplaceAndAddSeries() {
+        Series renamed = new Series();
+        renamed.setId(1L);
+        renamed.setTitle("Two Piece");
+        Series added = new Series();
+        added.setId(4L);
+        added.setTitle("Piece Maker");
+
+        suggestionIndex.putAll(List.of(renamed, added));
+
+        assertTrue(suggestionIndex.suggest("one p", 10).isEmpty());
+        assertEquals(List.of(1L, 4L, 3L), suggestionIndex.suggest("pie", 10).stream().map(SeriesSummaryDTO::id).toList());
+    }
+
+    @Test
+    void remove_shouldDropSeries() {
+        suggestionIndex.remove(1L);
+
+        assertEquals(List.of(3L), suggestionIndex.suggest("pie", 10).stream().map(SeriesSummaryDTO::id).toList());
+    }
+}
@@ -0,0 +1,141 @@
+package com.numaochi.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BlobStoreTest {
+
+    private static final String HELLO_HASH = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @TempDir
+    private Path directory;
+
+    @Mock
+    private BlobRepository blobRepository;
+
+    private ExecutorService executor;
+
+    private BlobStore blobStore;
+
+    @BeforeEach
+    void setUp() {
+        StorageProperties properties = new StorageProperties(directory.resolve("blobs"), directory.resolve("import"),
+                2, Duration.ofHours(1), 500);
+        Clock clock = Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC);
+        executor = Executors.newFixedThreadPool(2);
+        blobStore = new BlobStore(blobRepository, properties, executor, clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void path_shouldShardByHashPrefix() {
+        assertEquals(directory.resolve("blobs").resolve("2c").resolve("f2").resolve(HELLO_HASH), blobStore.path(HELLO_HASH));
+    }
+
+    @Test
+    void path_shouldThrow_whenHashIsInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> blobStore.path("../../etc/passwd"));
+    }
+
+    @Test
+    void ingest_shouldCopyFileAndKeepSource_whenContentIsNew() throws IOException {
+        Path file = write("a.epub", "hello");
+
+        StoredBlobDTO stored = blobStore.ingest(file);
+
+        assertEquals(HELLO_HASH, stored.hash());
+        assertEquals(5, stored.size());
+        assertFalse(stored.deduplicated());
+        assertEquals("hello", Files.readString(blobStore.path(HELLO_HASH)));
+        assertTrue(Files.exists(file));
+        verify(blobRepository).register(HELLO_HASH, 5);
+    }
+
+    @Test
+    void ingest_shouldNotCopyAgain_whenContentIsAlreadyStored() throws IOException {
+        blobStore.ingest(write("a.epub", "hello"));
+
+        StoredBlobDTO stored = blobStore.ingest(write("b.epub", "hello"));
+
+        assertTrue(stored.deduplicated());
+        verify(blobRepository, times(2)).register(HELLO_HASH, 5);
+        try (var files = Files.walk(directory.resolve("blobs"))) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void importFiles_shouldStoreFilesInOrder() throws IOException {
+        write("import/a.epub", "hello");
+        write("import/b.epub", "world");
+
+        List<StoredBlobDTO> stored = blobStore.importFiles(List.of("a.epub", "b.epub"));
+
+        assertEquals(2, stored.size());
+        assertEquals(HELLO_HASH, stored.get(0).hash());
+        assertTrue(stored.get(1).source().endsWith("b.epub"));
+    }
+
+    @Test
+    void importFiles_shouldThrow_whenPathLeavesImportDirectory() throws IOException {
+        write("secret.txt", "secret");
+
+        assertThrows(InvalidImportPathException.class, () -> blobStore.importFiles(List.of("../secret.txt")));
+        verifyNoInteractions(blobRepository);
+    }
+
+    @Test
+    void adopt_shouldDeleteFile_whenContentIsAlreadyStored() throws IOException {
+        blobStore.ingest(write("a.epub", "hello"));
+        Path upload = write("upload.part", "hello");
+
+        StoredBlobDTO stored = blobStore.adopt(upload, HELLO_HASH);
+
+        assertTrue(stored.deduplicated());
+        assertFalse(Files.exists(upload));
+        assertEquals("hello", Files.readString(blobStore.path(HELLO_HASH)));
+    }
+
+    @Test
+    void collectGarbage_shouldDeleteUnreferencedBlobs() throws IOException {
+        blobStore.ingest(write("a.epub", "hello"));
+        when(blobRepository.findGarbage(eq(Instant.parse("2025-12-31T23:00:00Z")), anyInt())).thenReturn(List.of(HELLO_HASH));
+
+        assertEquals(1, blobStore.collectGarbage(500));
+
+        assertFalse(Files.exists(blobStore.path(HELLO_HASH)));
+        verify(blobRepository).deleteAllByIdInBatch(List.of(HELLO_HASH));
+    }
+
+    private Path write(String name, String content) throws IOException {
+        Path file = directory.resolve(name);
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, content);
+    }
+}
@@ -0,0 +1,228 @@
+package com.numaochi.upload;
+
+import com.numaochi.chapter.ChapterDTO;
+import com.numaochi.chapter.ChapterService;
+import com.numaochi.storage.BlobStore;
+import com.numaochi.storage.StoredBlobDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChapterUploadServiceTest {
+
+    private static final String OWNER = "reader";
+    private static final String METADATA = "filename " + base64("One Piece 001.epub") + ",seriesId " + base64("7");
+
+    @TempDir
+    private Path directory;
+
+    @Mock
+    private ChapterUploadRepository uploadRepository;
+
+    @Mock
+    private ChapterService chapterService;
+
+    @Mock
+    private BlobStore blobStore;
+
+    private ChapterUploadService uploadService;
+
+    private ChapterUpload upload;
+
+    @BeforeEach
+    void setUp() {
+        UploadProperties properties = new UploadProperties(directory.resolve("uploads"), DataSize.ofMegabytes(1),
+                Duration.ofHours(24));
+        Clock clock = Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC);
+        uploadService = new ChapterUploadService(uploadRepository, chapterService, blobStore, properties, clock);
+
+        lenient().when(uploadRepository.save(any(ChapterUpload.class))).thenAnswer(invocation -> {
+            upload = invocation.getArgument(0);
+            upload.setId(UUID.randomUUID());
+            return upload;
+        });
+        lenient().when(uploadRepository.findByIdAndOwner(any(), eq(OWNER))).thenAnswer(invocation -> Optional.ofNullable(upload));
+        lenient().when(uploadRepository.advanceOffset(any(), anyLong(), anyLong(), any())).thenAnswer(invocation -> {
+            upload.setBytesReceived(invocation.getArgument(2));
+            return 1;
+        });
+        lenient().when(blobStore.path(any())).thenAnswer(invocation -> directory.resolve("blobs").resolve((String) invocation.getArgument(0)));
+        lenient().when(blobStore.adopt(any(), any())).thenAnswer(invocation -> {
+            Path file = invocation.getArgument(0);
+            String hash = invocation.getArgument(1);
+            Files.createDirectories(directory.resolve("blobs"));
+            Files.move(file, directory.resolve("blobs").resolve(hash));
+            return new StoredBlobDTO(file.toString(), hash, 10, false);
+        });
+    }
+
+    @Test
+    void createUpload_shouldCreateEmptyPartialFile_whenMetadataIsValid() {
+        UploadStatusDTO status = uploadService.createUpload(OWNER, 10, METADATA);
+
+        assertEquals(0, status.offset());
+        assertEquals(10, status.length());
+        assertEquals("One Piece 001", upload.getTitle());
+        assertEquals("EPUB", upload.getFileType());
+        assertEquals(7L, upload.getSeriesId());
+        assertTrue(Files.exists(directory.resolve("uploads").resolve(status.id() + ".part")));
+    }
+
+    @Test
+    void createUpload_shouldThrow_whenLengthExceedsMaximum() {
+        assertThrows(UploadTooLargeException.class, () -> uploadService.createUpload(OWNER, DataSize.ofMegabytes(2).toBytes(), METADATA));
+        verify(uploadRepository, never()).save(any());
+    }
+
+    @Test
+    void createUpload_shouldThrow_whenFileNameIsMissing() {
+        assertThrows(InvalidUploadException.class, () -> uploadService.createUpload(OWNER, 10, "title " + base64("One Piece")));
+    }
+
+    @Test
+    void appendChunk_shouldWriteChunksAtTheirOffsets() {
+        UUID id = uploadService.createUpload(OWNER, 10, METADATA).id();
+
+        assertEquals(5, uploadService.appendChunk(id, OWNER, 0, stream("hello")));
+        assertEquals(10, uploadService.appendChunk(id, OWNER, 5, stream("world")));
+
+        assertEquals(10, upload.getBytesReceived());
+        verify(uploadRepository).advanceOffset(eq(id), eq(0L), eq(5L), any());
+        verify(uploadRepository).advanceOffset(eq(id), eq(5L), eq(10L), any());
+    }
+
+    @Test
+    void appendChunk_shouldThrowConflict_whenOffsetIsNotCurrent() {
+        UUID id = uploadService.createUpload(OWNER, 10, METADATA).id();
+
+        assertThrows(UploadConflictException.class, () -> uploadService.appendChunk(id, OWNER, 5, stream("world")));
+        verify(uploadRepository, never()).advanceOffset(any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void appendChunk_shouldThrow_whenChunkExtendsPastLength() {
+        UUID id = uploadService.createUpload(OWNER, 4, METADATA).id();
+
+        assertThrows(UploadTooLargeException.class, () -> uploadService.appendChunk(id, OWNER, 0, stream("hello")));
+        assertEquals(4, upload.getBytesReceived());
+    }
+
+    @Test
+    void appendChunk_shouldKeepReceivedBytes_whenStreamFails() throws Exception {
+        UUID id = uploadService.createUpload(OWNER, 10, METADATA).id();
+
+        assertThrows(UncheckedIOException.class, () -> uploadService.appendChunk(id, OWNER, 0, failingAfter("hel")));
+        assertEquals(3, upload.getBytesReceived());
+
+        assertEquals(10, uploadService.appendChunk(id, OWNER, 3, stream("loworld")));
+        when(chapterService.createChapter(any(ChapterDTO.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        FinalizedUpload finalized = uploadService.finalizeUpload(id, OWNER, null);
+
+        assertEquals(sha256("helloworld"), finalized.checksum());
+    }
+
+    @Test
+    void finalizeUpload_shouldStoreBlobAndCreateChapter_whenChecksumMatches() throws Exception {
+        UUID id = uploadService.createUpload(OWNER, 10, METADATA).id();
+        uploadService.appendChunk(id, OWNER, 0, stream("helloworld"));
+        String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest("helloworld".getBytes(StandardCharsets.UTF_8)));
+        ChapterDTO created = new ChapterDTO();
+        created.setId(42L);
+        when(chapterService.createChapter(argThat(chapter -> "One Piece 001".equals(chapter.getTitle())
+                && "EPUB".equals(chapter.getFileType()) && Long.valueOf(7L).equals(chapter.getSeriesId())
+                && hash.equals(chapter.getContentHash()))))
+                .thenReturn(created);
+
+        FinalizedUpload finalized = uploadService.finalizeUpload(id, OWNER, "sha256 " + sha256("helloworld"));
+
+        assertEquals(42L, finalized.chapter().getId());
+        assertEquals("helloworld", Files.readString(directory.resolve("blobs").resolve(hash)));
+        assertFalse(Files.exists(directory.resolve("uploads").resolve(id + ".part")));
+        verify(uploadRepository).delete(upload);
+    }
+
+    @Test
+    void finalizeUpload_shouldThrow_whenChecksumDoesNotMatch() {
+        UUID id = uploadService.createUpload(OWNER, 10, METADATA).id();
+        uploadService.appendChunk(id, OWNER, 0, stream("helloworld"));
+
+        assertThrows(UploadChecksumMismatchException.class,
+                () -> uploadService.finalizeUpload(id, OWNER, "sha256 " + sha256("hello-world")));
+        verify(chapterService, never()).createChapter(any());
+        assertTrue(Files.exists(directory.resolve("uploads").resolve(id + ".part")));
+    }
+
+    @Test
+    void finalizeUpload_shouldThrowConflict_whenUploadIsIncomplete() {
+        UUID id = uploadService.createUpload(OWNER, 10, METADATA).id();
+        uploadService.appendChunk(id, OWNER, 0, stream("hello"));
+
+        assertThrows(UploadConflictException.class, () -> uploadService.finalizeUpload(id, OWNER, null));
+        verify(chapterService, never()).createChapter(any());
+    }
+
+    @Test
+    void getUpload_shouldThrowNotFound_whenUploadBelongsToAnotherUser() {
+        UUID id = uploadService.createUpload(OWNER, 10, METADATA).id();
+
+        assertThrows(UploadNotFoundException.class, () -> uploadService.getUpload(id, "someone-else"));
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static InputStream failingAfter(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        return new InputStream() {
+            private int position;
+
+            @Override
+            public int read() throws IOException {
+                if (position < bytes.length) {
+                    return bytes[position++];
+                }
+                throw new IOException("Connection reset");
+            }
+        };
+    }
+
+    private static String base64(String text) {
+        return Base64.getEncoder().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(String text) throws Exception {
+        return Base64.getEncoder().encodeToString(
+                MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,81 @@
+package com.numaochi.volume;
+
+import com.numaochi.common.ResourceVersion;
+import com.numaochi.series.Series;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeriesTreeControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private SeriesTreeService seriesTreeService;
+
+    @InjectMocks
+    private SeriesTreeController seriesTreeController;
+
+    private SeriesTreeService.SeriesTree tree;
+
+    private final ResourceVersion version = new ResourceVersion(3L, Instant.ofEpochMilli(1000));
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(seriesTreeController).build();
+
+        Series series = new Series();
+        series.setId(1L);
+        series.setTitle("Test Series");
+        series.setVersion(0L);
+        tree = new SeriesTreeService.SeriesTree(series, List.of(new SeriesTreeRow(10L, "Volume 1", null, null, null,
+                null, null, null, 0L, 100L, "Chapter 1", "/path/to/chapter1.pdf", "PDF", 1L, 0L)));
+    }
+
+    @Test
+    void getSeriesTree_shouldReturnHierarchyWithETag() throws Exception {
+        when(seriesTreeService.getSeriesTreeVersion(1L)).thenReturn(version);
+        when(seriesTreeService.getSeriesTree(1L)).thenReturn(tree);
+
+        mockMvc.perform(get("/api/series/{seriesId}/tree", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + version.eTag() + "\""))
+                .andExpect(header().exists("Cache-Control"))
+                .andExpect(jsonPath("$.title").value("Test Series"))
+                .andExpect(jsonPath("$.volumes[0].id").value(10L))
+                .andExpect(jsonPath("$.volumes[0].chapters[0].title").value("Chapter 1"));
+    }
+
+    @Test
+    void getSeriesTree_shouldReturnNotModified_withoutLoadingHierarchy_whenETagMatches() throws Exception {
+        when(seriesTreeService.getSeriesTreeVersion(1L)).thenReturn(version);
+
+        mockMvc.perform(get("/api/series/{seriesId}/tree", 1L).header("If-None-Match", "\"" + version.eTag() + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(seriesTreeService, never()).getSeriesTree(anyLong());
+    }
+
+    @Test
+    void getSeriesTree_shouldReturnNotFound_whenSeriesNotFound() throws Exception {
+        when(seriesTreeService.getSeriesTreeVersion(99L)).thenReturn(null);
+
+        mockMvc.perform(get("/api/series/{seriesId}/tree", 99L))
+                .andExpect(status().isNotFound());
+        verify(seriesTreeService, never()).getSeriesTree(anyLong());
+    }
+}
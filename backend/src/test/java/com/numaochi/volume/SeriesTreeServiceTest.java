@@ -0,0 +1,92 @@
+package com.numaochi.volume;
+
+import com.numaochi.common.ResourceVersion;
+import com.numaochi.series.Series;
+import com.numaochi.series.SeriesRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeriesTreeServiceTest {
+
+    @Mock
+    private SeriesRepository seriesRepository;
+
+    @Mock
+    private VolumeRepository volumeRepository;
+
+    @InjectMocks
+    private SeriesTreeService seriesTreeService;
+
+    private Series series;
+
+    @BeforeEach
+    void setUp() {
+        series = new Series();
+        series.setId(1L);
+        series.setTitle("Test Series");
+        series.setVersion(2L);
+        series.setUpdatedAt(Instant.ofEpochMilli(1000));
+    }
+
+    @Test
+    void getSeriesTree_shouldGroupRowsIntoVolumesAndChapters() {
+        when(seriesRepository.findById(1L)).thenReturn(Optional.of(series));
+        when(volumeRepository.findSeriesTreeRows(1L)).thenReturn(List.of(
+                row(10L, 0L, 100L, 0L),
+                row(10L, 0L, 101L, 0L),
+                row(11L, 1L, null, null)));
+
+        SeriesTreeService.SeriesTree tree = seriesTreeService.getSeriesTree(1L);
+        SeriesTreeDTO result = tree.toDto();
+
+        assertEquals("Test Series", result.getTitle());
+        assertEquals(2, result.getVolumes().size());
+        assertEquals(List.of(100L, 101L), result.getVolumes().get(0).getChapters().stream().map(c -> c.getId()).toList());
+        assertTrue(result.getVolumes().get(1).getChapters().isEmpty());
+        verify(volumeRepository, times(1)).findSeriesTreeRows(1L);
+    }
+
+    @Test
+    void getSeriesTreeVersion_shouldNotLoadHierarchy() {
+        ResourceVersion version = new ResourceVersion(7L, Instant.ofEpochMilli(3000));
+        when(volumeRepository.findSeriesTreeVersion(1L)).thenReturn(Optional.of(version));
+
+        assertEquals(version, seriesTreeService.getSeriesTreeVersion(1L));
+        verify(volumeRepository, never()).findSeriesTreeRows(anyLong());
+        verifyNoInteractions(seriesRepository);
+    }
+
+    @Test
+    void getSeriesTreeVersion_shouldReturnNull_whenSeriesNotFound() {
+        when(volumeRepository.findSeriesTreeVersion(3L)).thenReturn(Optional.empty());
+
+        assertNull(seriesTreeService.getSeriesTreeVersion(3L));
+    }
+
+    @Test
+    void getSeriesTree_shouldReturnNull_whenSeriesNotFound() {
+        when(seriesRepository.findById(3L)).thenReturn(Optional.empty());
+
+        assertNull(seriesTreeService.getSeriesTree(3L));
+        verifyNoInteractions(volumeRepository);
+    }
+
+    private SeriesTreeRow row(Long volumeId, Long volumeVersion, Long chapterId, Long chapterVersion) {
+        return new SeriesTreeRow(volumeId, "Volume " + volumeId, null, null, null, null, null, null, volumeVersion,
+                chapterId, chapterId != null ? "Chapter " + chapterId : null, null, null, chapterId != null ? 1L : null,
+                chapterVersion);
+    }
+}
@@ -67,6 +67,19 @@ class VolumeControllerTest {
         verify(volumeService, times(1)).getAllVolumes();
     }
 
+    @Test
+    void getAllVolumes_shouldReturnSummaries_whenSummaryViewRequested() throws Exception {
+        when(volumeService.getAllVolumeSummaries()).thenReturn(List.of(new VolumeSummaryDTO(1L, "Volume 1", null, "cover.jpg", 1L)));
+
+        mockMvc.perform(get("/api/volumes").param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Volume 1"))
+                .andExpect(jsonPath("$[0].seriesId").value(1L))
+                .andExpect(jsonPath("$[0].chapterIds").doesNotExist());
+
+        verify(volumeService, never()).getAllVolumes();
+    }
+
     @Test
     void getVolumeById_shouldReturnVolumeDTO_whenFound() throws Exception {
         when(volumeService.getVolumeById(1L)).thenReturn(volumeDTO1);
@@ -0,0 +1,54 @@
+package com.numaochi.volume;
+
+import com.numaochi.common.PageDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class VolumeNavigationControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private VolumeService volumeService;
+
+    @InjectMocks
+    private VolumeNavigationController volumeNavigationController;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(volumeNavigationController).build();
+    }
+
+    @Test
+    void getVolumesBySeries_shouldReturnPageOfVolumeDTOs() throws Exception {
+        VolumeDTO volumeDTO = new VolumeDTO();
+        volumeDTO.setId(1L);
+        volumeDTO.setTitle("Volume 1");
+        volumeDTO.setSeriesId(7L);
+        when(volumeService.getVolumesBySeriesId(7L, 1, 10)).thenReturn(new PageDTO<>(List.of(volumeDTO), 1, 10, 11, 2));
+
+        mockMvc.perform(get("/api/series/{seriesId}/volumes", 7L).param("page", "1").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.content[0].id").value(1L))
+                .andExpect(jsonPath("$.content[0].seriesId").value(7L))
+                .andExpect(jsonPath("$.totalElements").value(11))
+                .andExpect(jsonPath("$.totalPages").value(2));
+
+        verify(volumeService, times(1)).getVolumesBySeriesId(7L, 1, 10);
+    }
+}
@@ -1,23 +1,41 @@
 package com.numaochi.volume;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.numaochi.chapter.Chapter;
 import com.numaochi.chapter.ChapterRepository;
+import com.numaochi.common.FieldSelection;
+import com.numaochi.common.FieldSelectionQueries;
+import com.numaochi.common.MergePatch;
+import com.numaochi.common.PageDTO;
+import com.numaochi.common.ResourceVersion;
 import com.numaochi.series.Series;
 import com.numaochi.series.SeriesRepository;
+import com.numaochi.series.SeriesSummaryDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +50,9 @@ class VolumeServiceTest {
     @Mock
     private ChapterRepository chapterRepository;
 
+    @Mock
+    private FieldSelectionQueries fieldSelectionQueries;
+
     @InjectMocks
     private VolumeService volumeService;
 
@@ -113,6 +134,19 @@ class VolumeServiceTest {
         assertNull(result);
     }
 
+    @Test
+    void getVolumesBySeriesId_shouldReturnPageOfVolumeDTOs_andClampPageSize() {
+        when(volumeRepository.findBySeriesId(eq(1L), any(Pageable.class)))
+                .thenAnswer(invocation -> new PageImpl<>(Arrays.asList(volume1, volume2), invocation.getArgument(1), 2));
+
+        PageDTO<VolumeDTO> result = volumeService.getVolumesBySeriesId(1L, 0, 1000);
+
+        assertEquals(2, result.content().size());
+        assertEquals(PageDTO.MAX_PAGE_SIZE, result.size());
+        assertEquals(2, result.totalElements());
+        verify(volumeRepository).findBySeriesId(eq(1L), argThat((PageRequest request) -> request.getPageSize() == PageDTO.MAX_PAGE_SIZE));
+    }
+
     @Test
     void createVolume_shouldReturnCreatedVolumeDTO() {
         when(seriesRepository.findById(1L)).thenReturn(Optional.of(series));
@@ -130,6 +164,7 @@ class VolumeServiceTest {
     void updateVolume_shouldReturnUpdatedVolumeDTO_whenFound() {
         when(seriesRepository.findById(1L)).thenReturn(Optional.of(series));
         when(chapterRepository.findAllById(anyList())).thenReturn(Arrays.asList(chapter1));
+        when(volumeRepository.findResourceVersionById(1L)).thenReturn(Optional.of(new ResourceVersion(1L, Instant.now())));
         when(volumeRepository.save(any(Volume.class))).thenReturn(volume1);
 
         VolumeDTO result = volumeService.updateVolume(1L, volumeDTO1);
@@ -139,10 +174,75 @@ class VolumeServiceTest {
         verify(volumeRepository, times(1)).save(any(Volume.class));
     }
 
+    @Test
+    void updateVolume_shouldReturnNull_whenNotFound() {
+        when(seriesRepository.findById(1L)).thenReturn(Optional.of(series));
+        when(chapterRepository.findAllById(anyList())).thenReturn(Arrays.asList(chapter1));
+        when(volumeRepository.findResourceVersionById(99L)).thenReturn(Optional.empty());
+
+        VolumeDTO result = volumeService.updateVolume(99L, volumeDTO1);
+
+        assertNull(result);
+        verify(volumeRepository, never()).save(any(Volume.class));
+    }
+
+    @Test
+    void patchVolume_shouldNotReloadRelationships_whenAbsentFromPatch() throws Exception {
+        when(volumeRepository.findById(1L)).thenReturn(Optional.of(volume1));
+
+        VolumeDTO result = volumeService.patchVolume(1L,
+                new MergePatch((ObjectNode) new ObjectMapper().readTree("{\"title\": \"Volume One\"}")), null);
+
+        assertEquals("Volume One", result.getTitle());
+        assertEquals(1L, result.getSeriesId());
+        verifyNoInteractions(seriesRepository, chapterRepository);
+        verify(volumeRepository, never()).save(any(Volume.class));
+    }
+
     @Test
     void deleteVolume_shouldCallRepositoryDeleteById() {
         volumeService.deleteVolume(1L);
 
         verify(volumeRepository, times(1)).deleteById(1L);
     }
+
+    @Test
+    void getAllVolumeFields_shouldLoadChapterIdsAndSeries_whenRequested() {
+        Map<String, Object> row1 = new LinkedHashMap<>();
+        row1.put("id", 1L);
+        row1.put("title", "Volume 1");
+        Map<String, Object> row2 = new LinkedHashMap<>();
+        row2.put("id", 2L);
+        row2.put("title", "Volume 2");
+        when(fieldSelectionQueries.find(eq(Volume.class), eq(VolumeService.FIELD_COLUMNS),
+                argThat(selection -> selection.includes("chapterIds") && !selection.includes("description")), isNull()))
+                .thenReturn(new ArrayList<>(List.of(row1, row2)));
+        when(volumeRepository.findChapterIdsByVolumeIds(new Long[]{1L, 2L}))
+                .thenReturn(List.of(new Object[]{1L, 1L}, new Object[]{1L, 2L}));
+        when(volumeRepository.findSeriesSummariesByVolumeIds(new Long[]{1L, 2L}))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, 1L, "Test Series", null, null}));
+
+        List<Map<String, Object>> result = volumeService.getAllVolumeFields("title,chapterIds", "series");
+
+        assertEquals(List.of(1L, 2L), result.get(0).get("chapterIds"));
+        assertEquals(List.of(), result.get(1).get("chapterIds"));
+        assertEquals(new SeriesSummaryDTO(1L, "Test Series", null, null), result.get(0).get("series"));
+        assertNull(result.get(1).get("series"));
+        verify(volumeRepository, never()).countChaptersByVolumeIds(any());
+        verify(volumeRepository, never()).findAll();
+    }
+
+    @Test
+    void getVolumeFieldsById_shouldNotLoadChapters_whenChapterIdsNotSelected() {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 1L);
+        row.put("coverImage", "cover.jpg");
+        when(fieldSelectionQueries.find(eq(Volume.class), eq(VolumeService.FIELD_COLUMNS), any(FieldSelection.class), eq(1L)))
+                .thenReturn(new ArrayList<>(List.of(row)));
+
+        Map<String, Object> result = volumeService.getVolumeFieldsById(1L, "coverImage", null);
+
+        assertEquals(Map.of("id", 1L, "coverImage", "cover.jpg"), result);
+        verify(volumeRepository, never()).findChapterIdsByVolumeIds(any());
+    }
 }
@@ -0,0 +1,145 @@
+package com.numaochi.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.numaochi.chapter.ChapterService;
+import com.numaochi.datasource.ReplicaLagMonitor;
+import com.numaochi.search.SearchResults;
+import com.numaochi.series.SeriesDTO;
+import com.numaochi.series.SeriesService;
+import com.numaochi.volume.VolumeService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.sql.Connection;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StartupWarmupTest {
+
+    @Mock
+    private SeriesService seriesService;
+
+    @Mock
+    private VolumeService volumeService;
+
+    @Mock
+    private ChapterService chapterService;
+
+    @Mock
+    private ObjectProvider<HikariDataSource> dataSources;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private ObjectProvider<ReplicaLagMonitor> replicaLagMonitor =
+            new StaticListableBeanFactory().getBeanProvider(ReplicaLagMonitor.class);
+
+    private final Clock clock = Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(dataSources.orderedStream()).thenReturn(Stream.empty());
+        SeriesDTO series = new SeriesDTO();
+        series.setId(1L);
+        series.setTitle("Frieren");
+        lenient().when(seriesService.getRecentlyUpdatedSeriesIds(50)).thenReturn(List.of(1L));
+        lenient().when(seriesService.getSeriesByIds(List.of(1L))).thenReturn(List.of(series));
+        lenient().when(seriesService.getSeriesById(1L)).thenReturn(series);
+        lenient().when(seriesService.searchSeries(any())).thenReturn(new SearchResults<>(List.of(series), false));
+    }
+
+    @Test
+    void run_shouldExerciseReadPathsEachRound() {
+        warmup(new WarmupProperties(true, 3, Duration.ofMinutes(1), 50, List.of())).run(arguments());
+
+        verify(seriesService, times(3)).getAllSeries();
+        verify(seriesService, times(3)).getSeriesById(1L);
+        verify(volumeService, times(3)).getVolumesBySeriesId(1L, 0, StartupWarmup.PAGE_SIZE);
+        verify(chapterService, times(3)).getChaptersBySeriesId(1L, 0, StartupWarmup.PAGE_SIZE);
+        verify(seriesService, times(3)).searchSeries("Frieren");
+        verify(redisTemplate).execute(any(RedisCallback.class));
+    }
+
+    @Test
+    void run_shouldUseConfiguredQueries_whenPresent() {
+        warmup(new WarmupProperties(true, 1, Duration.ofMinutes(1), 50, List.of("one piece"))).run(arguments());
+
+        verify(seriesService).searchSeries("one piece");
+        verify(seriesService, never()).searchSeries("Frieren");
+        verify(seriesService, never()).getSeriesByIds(any());
+    }
+
+    @Test
+    void run_shouldContinue_whenStepFails() {
+        when(seriesService.searchSeries(any())).thenThrow(new IllegalStateException("Meilisearch is down"));
+        when(volumeService.getVolumesBySeriesId(anyLong(), anyInt(), anyInt()))
+                .thenThrow(new IllegalStateException("boom"));
+
+        assertDoesNotThrow(() -> warmup(new WarmupProperties(true, 2, Duration.ofMinutes(1), 50, List.of()))
+                .run(arguments()));
+
+        verify(seriesService, times(2)).getAllSeriesSummaries();
+        verify(seriesService, times(2)).searchSeries("Frieren");
+    }
+
+    @Test
+    void run_shouldSkipRounds_whenMaxDurationElapsed() {
+        warmup(new WarmupProperties(true, 5, Duration.ZERO, 50, List.of())).run(arguments());
+
+        verify(seriesService, never()).getAllSeries();
+    }
+
+    @Test
+    void run_shouldFillReplicaPools() throws Exception {
+        HikariDataSource replica = mock(HikariDataSource.class);
+        when(replica.getMinimumIdle()).thenReturn(2);
+        when(replica.getMaximumPoolSize()).thenReturn(10);
+        when(replica.getConnection()).thenReturn(mock(Connection.class));
+        ReplicaLagMonitor monitor = mock(ReplicaLagMonitor.class);
+        when(monitor.dataSources()).thenReturn(Map.of("replica-0", replica));
+        replicaLagMonitor = new StaticListableBeanFactory(Map.of("replicaLagMonitor", monitor))
+                .getBeanProvider(ReplicaLagMonitor.class);
+
+        warmup(new WarmupProperties(true, 1, Duration.ofMinutes(1), 50, List.of())).run(arguments());
+
+        verify(replica, times(2)).getConnection();
+    }
+
+    @Test
+    void run_shouldDoNothing_whenDisabled() {
+        warmup(new WarmupProperties(false, 5, Duration.ofMinutes(1), 50, List.of())).run(arguments());
+
+        verifyNoInteractions(seriesService, volumeService, chapterService, redisTemplate);
+    }
+
+    private StartupWarmup warmup(WarmupProperties properties) {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        return new StartupWarmup(seriesService, volumeService, chapterService, objectMapper, dataSources,
+                replicaLagMonitor, redisTemplate, properties, clock);
+    }
+
+    private static DefaultApplicationArguments arguments() {
+        return new DefaultApplicationArguments();
+    }
+}